@@ -0,0 +1,60 @@
+package se.sundsvall.installedbase.apptest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.http.HttpStatus.OK;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withDelegatedTo;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withMunicipalityId;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withOwner;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+
+import se.sundsvall.dept44.test.AbstractAppTest;
+import se.sundsvall.dept44.test.annotation.wiremock.WireMockAppTestSuite;
+import se.sundsvall.installedbase.Application;
+import se.sundsvall.installedbase.integration.db.DelegationRepository;
+
+@WireMockAppTestSuite(files = "classpath:/delegation/batch/", classes = Application.class)
+@Sql(scripts = {
+	"/db/script/truncate.sql",
+	"/db/script/init-db.sql"
+})
+class DelegationBatchIT extends AbstractAppTest {
+
+	private static final String REQUEST_FILE = "request.json";
+	private static final String RESPONSE_FILE = "response.json";
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String BASE_URL = "/" + MUNICIPALITY_ID + "/delegations/batch";
+	private static final String X_SENT_BY = "X-Sent-By";
+	private static final String X_SENT_BY_VALUE = "joe001doe; type=adAccount";
+	private static final int EVENT_DISPATCH_DELAY_IN_SECONDS = 5;
+
+	@Autowired
+	private DelegationRepository repository;
+
+	@Test
+	void test01_processDelegations() {
+		final var deletedDelegationId = "24504e65-08cf-4bc3-8f4f-a07204748c13";
+
+		// Verify we actually have something to delete
+		assertThat(repository.existsById(deletedDelegationId)).isTrue();
+
+		setupCall()
+			.withServicePath(BASE_URL)
+			.withHttpMethod(POST)
+			.withRequest(REQUEST_FILE)
+			.withHeader(X_SENT_BY, X_SENT_BY_VALUE)
+			.withExpectedResponseStatus(OK)
+			.withExpectedResponse(RESPONSE_FILE)
+			.withMaxVerificationDelayInSeconds(EVENT_DISPATCH_DELAY_IN_SECONDS) // Events are sent to Eventlog asynchronously
+			.sendRequestAndVerifyResponse();
+
+		// Verify that the delete was applied along with the create
+		assertThat(repository.existsById(deletedDelegationId)).isFalse();
+		assertThat(repository.exists(withMunicipalityId(MUNICIPALITY_ID)
+			.and(withOwner("b957e977-83f9-4592-b172-e5e8cc028e36"))
+			.and(withDelegatedTo("e3cf6c05-fbd3-43de-b615-f8226d11f438")))).isTrue();
+	}
+}
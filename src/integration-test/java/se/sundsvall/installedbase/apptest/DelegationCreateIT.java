@@ -29,6 +29,7 @@ class DelegationCreateIT extends AbstractAppTest {
 	private static final String BASE_URL = "/" + MUNICIPALITY_ID + "/delegations";
 	private static final String X_SENT_BY = "X-Sent-By";
 	private static final String X_SENT_BY_VALUE = "joe001doe; type=adAccount";
+	private static final int EVENT_DISPATCH_DELAY_IN_SECONDS = 5;
 
 	@Test
 	void test01_postDelegation() {
@@ -50,6 +51,7 @@ class DelegationCreateIT extends AbstractAppTest {
 			.withHttpMethod(GET)
 			.withExpectedResponseStatus(OK)
 			.withExpectedResponse(RESPONSE_FILE)
+			.withMaxVerificationDelayInSeconds(EVENT_DISPATCH_DELAY_IN_SECONDS) // Events are sent to Eventlog asynchronously
 			.sendRequestAndVerifyResponse();
 	}
 
@@ -33,6 +33,7 @@ class DelegationDeleteIT extends AbstractAppTest {
 	private static final String BASE_URL = "/" + MUNICIPALITY_ID + "/delegations";
 	private static final String X_SENT_BY = "X-Sent-By";
 	private static final String X_SENT_BY_VALUE = "joe001doe; type=adAccount";
+	private static final int EVENT_DISPATCH_DELAY_IN_SECONDS = 5;
 
 	@Autowired
 	private PlatformTransactionManager transactionManager;
@@ -60,6 +61,7 @@ class DelegationDeleteIT extends AbstractAppTest {
 			.withHttpMethod(DELETE)
 			.withHeader(X_SENT_BY, X_SENT_BY_VALUE)
 			.withExpectedResponseStatus(ACCEPTED)
+			.withMaxVerificationDelayInSeconds(EVENT_DISPATCH_DELAY_IN_SECONDS) // Events are sent to Eventlog asynchronously
 			.sendRequestAndVerifyResponse();
 
 		// Verify that it was deleted
@@ -88,6 +90,7 @@ class DelegationDeleteIT extends AbstractAppTest {
 			.withHttpMethod(DELETE)
 			.withHeader(X_SENT_BY, X_SENT_BY_VALUE)
 			.withExpectedResponseStatus(ACCEPTED)
+			.withMaxVerificationDelayInSeconds(EVENT_DISPATCH_DELAY_IN_SECONDS) // Events are sent to Eventlog asynchronously
 			.sendRequestAndVerifyResponse();
 
 		// Verify that it was deleted
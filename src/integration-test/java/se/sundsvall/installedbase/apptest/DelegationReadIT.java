@@ -1,6 +1,8 @@
 package se.sundsvall.installedbase.apptest;
 
 import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.OK;
 
 import org.junit.jupiter.api.Test;
@@ -104,4 +106,64 @@ class DelegationReadIT extends AbstractAppTest {
 			.withExpectedResponse(RESPONSE_FILE)
 			.sendRequestAndVerifyResponse();
 	}
+
+	// Facility-3 exists for two organizations, only one of them delegated
+	// Should return the delegations covering the facility of the specified organization.
+	@Test
+	void test07_getDelegationsByFacility() {
+		final var facilityId = "Facility-3";
+		final var businessEngagementOrgId = "5591628137";
+		setupCall()
+			.withServicePath(BASE_URL + "?facilityId=" + facilityId + "&businessEngagementOrgId=" + businessEngagementOrgId)
+			.withHttpMethod(GET)
+			.withHeader(X_SENT_BY, X_SENT_BY_VALUE)
+			.withExpectedResponseStatus(OK)
+			.withExpectedResponse(RESPONSE_FILE)
+			.sendRequestAndVerifyResponse();
+	}
+
+	// The delegate has Facility-3 of organization 5591628137 delegated
+	// Should answer that the delegate has access to the facility.
+	@Test
+	void test08_checkAccess() {
+		final var partyId = "81471222-5798-11e9-ae24-57fa13b361e2";
+		setupCall()
+			.withServicePath(BASE_URL + "/access?partyId=" + partyId + "&facilityId=Facility-3&businessEngagementOrgId=5591628137")
+			.withHttpMethod(GET)
+			.withHeader(X_SENT_BY, X_SENT_BY_VALUE)
+			.withExpectedResponseStatus(NO_CONTENT)
+			.sendRequest();
+	}
+
+	// The delegate only has facilities of other delegations in municipality 1984
+	// Should answer that the delegate has no access to the facility within the specified municipality (2281).
+	@Test
+	void test09_checkAccessWithoutAccess() {
+		final var partyId = "81471222-5798-11e9-ae24-57fa13b361e2";
+		setupCall()
+			.withServicePath(BASE_URL + "/access?partyId=" + partyId + "&facilityId=facility-69")
+			.withHttpMethod(GET)
+			.withHeader(X_SENT_BY, X_SENT_BY_VALUE)
+			.withExpectedResponseStatus(NOT_FOUND)
+			.sendRequest();
+	}
+
+	// One delegation of the municipality keeps change id 1 from when it was created, one delegation has been deleted with
+	// change id 4 and two delegations have been updated with change ids 5 and 6.
+	// Should return the first two changes in order of change id, the creation and the deletion, and that there are more changes.
+	@Test
+	@Sql(scripts = {
+		"/db/script/truncate.sql",
+		"/db/script/init-db.sql",
+		"/db/script/delegation-changes.sql"
+	})
+	void test10_getDelegationChanges() {
+		setupCall()
+			.withServicePath(BASE_URL + "/changes?limit=2")
+			.withHttpMethod(GET)
+			.withHeader(X_SENT_BY, X_SENT_BY_VALUE)
+			.withExpectedResponseStatus(OK)
+			.withExpectedResponse(RESPONSE_FILE)
+			.sendRequestAndVerifyResponse();
+	}
 }
@@ -1,11 +1,13 @@
 package se.sundsvall.installedbase.apptest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
 import static org.springframework.http.HttpMethod.GET;
 import static org.springframework.http.HttpMethod.PATCH;
 import static org.springframework.http.HttpStatus.ACCEPTED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +35,7 @@ class DelegationUpdateIT extends AbstractAppTest {
 	private static final String BASE_URL = "/" + MUNICIPALITY_ID + "/delegations";
 	private static final String X_SENT_BY = "X-Sent-By";
 	private static final String X_SENT_BY_VALUE = "joe001doe; type=adAccount";
+	private static final int EVENT_DISPATCH_DELAY_IN_SECONDS = 5;
 
 	@Autowired
 	private PlatformTransactionManager transactionManager;
@@ -66,6 +69,7 @@ class DelegationUpdateIT extends AbstractAppTest {
 			.withHttpMethod(GET)
 			.withExpectedResponseStatus(OK)
 			.withExpectedResponse(RESPONSE_FILE)
+			.withMaxVerificationDelayInSeconds(EVENT_DISPATCH_DELAY_IN_SECONDS) // Events are sent to Eventlog asynchronously
 			.sendRequestAndVerifyResponse();
 	}
 
@@ -88,6 +92,7 @@ class DelegationUpdateIT extends AbstractAppTest {
 			.withHttpMethod(GET)
 			.withExpectedResponseStatus(OK)
 			.withExpectedResponse(RESPONSE_FILE)
+			.withMaxVerificationDelayInSeconds(EVENT_DISPATCH_DELAY_IN_SECONDS) // Events are sent to Eventlog asynchronously
 			.sendRequestAndVerifyResponse();
 
 		// Verify that facility instances are no longer there
@@ -117,6 +122,7 @@ class DelegationUpdateIT extends AbstractAppTest {
 			.withHttpMethod(GET)
 			.withExpectedResponseStatus(OK)
 			.withExpectedResponse(RESPONSE_FILE)
+			.withMaxVerificationDelayInSeconds(EVENT_DISPATCH_DELAY_IN_SECONDS) // Events are sent to Eventlog asynchronously
 			.sendRequestAndVerifyResponse();
 
 		// Verify that facility instances are no longer there
@@ -140,4 +146,19 @@ class DelegationUpdateIT extends AbstractAppTest {
 			.withExpectedResponse(RESPONSE_FILE)
 			.sendRequestAndVerifyResponse();
 	}
+
+	@Test
+	void test05_patchDelegationWithStaleIfMatch() {
+		final var id = "24504e65-08cf-4bc3-8f4f-a07204748c13";
+
+		setupCall()
+			.withServicePath(BASE_URL + "/" + id)
+			.withHttpMethod(PATCH)
+			.withRequest(REQUEST_FILE)
+			.withHeader(X_SENT_BY, X_SENT_BY_VALUE)
+			.withHeader(IF_MATCH, "\"5\"")
+			.withExpectedResponseStatus(PRECONDITION_FAILED)
+			.withExpectedResponse(RESPONSE_FILE)
+			.sendRequestAndVerifyResponse();
+	}
 }
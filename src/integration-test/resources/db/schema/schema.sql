@@ -1,42 +1,134 @@
 
     create table delegation (
         municipality_id varchar(4),
+        change_id bigint not null,
         created datetime(6) not null,
         updated datetime(6),
+        version bigint not null,
         delegated_to varchar(36) not null,
         id varchar(36) not null,
         owner varchar(36) not null,
         primary key (id)
     ) engine=InnoDB;
 
+    create table delegation_change_sequence (
+        municipality_id varchar(4) not null,
+        change_id bigint not null,
+        primary key (municipality_id)
+    ) engine=InnoDB;
+
+    create table delegation_event (
+        attempts integer not null,
+        municipality_id varchar(4) not null,
+        created datetime(6) not null,
+        id bigint not null auto_increment,
+        next_attempt datetime(6) not null,
+        status varchar(16) not null,
+        delegation_id varchar(36) not null,
+        event longtext not null,
+        primary key (id)
+    ) engine=InnoDB;
+
     create table delegation_facility (
         delegation_ref_id varchar(36) not null,
         facility_ref_id varchar(36) not null,
         constraint uk_delegation_facility primary key (delegation_ref_id, facility_ref_id)
     ) engine=InnoDB;
 
+    create table delegation_tombstone (
+        municipality_id varchar(4) not null,
+        change_id bigint not null,
+        deleted datetime(6) not null,
+        delegated_to varchar(36) not null,
+        delegation_id varchar(36) not null,
+        owner varchar(36) not null,
+        primary key (delegation_id)
+    ) engine=InnoDB;
+
     create table facility (
         business_engagement_org_id varchar(20),
         id varchar(36) not null,
         facility_id varchar(256) not null,
+        facility_key varchar(280) not null,
+        primary key (id)
+    ) engine=InnoDB;
+
+    create table installed_base_customer (
+        municipality_id varchar(4) not null,
+        last_full_sync date not null,
+        watermark date not null,
+        id varchar(36) not null,
+        customer_number varchar(64) not null,
+        company varchar(255) not null,
+        primary key (id)
+    ) engine=InnoDB;
+
+    create table installed_base_item (
+        placement_id integer,
+        date_from date,
+        date_last_modified date,
+        date_to date,
+        customer_ref_id varchar(36) not null,
+        id varchar(36) not null,
+        care_of varchar(255),
+        city varchar(255),
+        post_code varchar(255),
+        property_designation varchar(255),
+        street varchar(255),
+        type varchar(255),
+        facility_id varchar(256) not null,
         primary key (id)
     ) engine=InnoDB;
 
-    create index idx_municipality_id_delegated_to 
-       on delegation (municipality_id, delegated_to);
+    create table installed_base_item_meta_data (
+        item_ref_id varchar(36) not null,
+        display_name varchar(255),
+        meta_key varchar(255),
+        meta_value varchar(255),
+        type varchar(255)
+    ) engine=InnoDB;
+
+    create table scheduler_lock (
+        lock_until datetime(6) not null,
+        locked_at datetime(6) not null,
+        name varchar(64) not null,
+        locked_by varchar(255) not null,
+        primary key (name)
+    ) engine=InnoDB;
+
+    create index idx_municipality_id_delegated_to_created 
+       on delegation (municipality_id, delegated_to, created, id);
+
+    create index idx_municipality_id_owner_created 
+       on delegation (municipality_id, owner, created, id);
 
-    create index idx_municipality_id_owner 
-       on delegation (municipality_id, owner);
+    create index idx_municipality_id_change_id 
+       on delegation (municipality_id, change_id);
 
     alter table if exists delegation 
        add constraint uk_delegated_to_owner unique (delegated_to, owner, municipality_id);
 
+    create index idx_delegation_event_status_delegation_id 
+       on delegation_event (status, delegation_id);
+
+    create index idx_facility_ref_id_delegation_ref_id 
+       on delegation_facility (facility_ref_id, delegation_ref_id);
+
+    create index idx_delegation_tombstone_municipality_id_change_id 
+       on delegation_tombstone (municipality_id, change_id);
+
     create index idx_facility_id 
        on facility (facility_id);
 
     alter table if exists facility 
        add constraint uk_facility_id_business_engagement_org_id unique (facility_id, business_engagement_org_id);
 
+    alter table if exists facility 
+       add constraint uk_facility_key unique (facility_key);
+
+    alter table if exists installed_base_customer 
+       add constraint uk_municipality_id_customer_number_company unique (municipality_id, customer_number, company);
+
     alter table if exists delegation_facility 
        add constraint fk_delegation_facility_facility 
        foreign key (facility_ref_id) 
@@ -46,3 +138,13 @@
        add constraint fk_delegation_facility_delegation 
        foreign key (delegation_ref_id) 
        references delegation (id);
+
+    alter table if exists installed_base_item 
+       add constraint fk_installed_base_item_customer 
+       foreign key (customer_ref_id) 
+       references installed_base_customer (id);
+
+    alter table if exists installed_base_item_meta_data 
+       add constraint fk_installed_base_item_meta_data_item 
+       foreign key (item_ref_id) 
+       references installed_base_item (id);
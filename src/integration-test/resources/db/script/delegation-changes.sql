@@ -0,0 +1,22 @@
+update delegation
+set updated = created
+where id = 'abdf934d-5696-41c9-84f5-28c79202d6c5';
+
+update delegation
+set updated   = '2025-07-12 08:00:00.518264',
+    change_id = 5
+where id = '24504e65-08cf-4bc3-8f4f-a07204748c13';
+
+update delegation
+set updated   = '2025-07-12 09:00:00.217455',
+    change_id = 6
+where id = 'cbba5149-82db-4e41-a2bb-f1ca396dc961';
+
+insert into delegation_tombstone (municipality_id, change_id, deleted, delegated_to, delegation_id, owner)
+values ('2281', 4, '2025-07-11 12:00:00.104839', 'f2949c12-bb83-406a-be96-bb8628f14612',
+        '5c1e2a4b-4b7e-4a8e-9d2c-3f6b1e7a9c01', '81471222-5798-11e9-ae24-57fa13b361e1'),
+       ('1984', 2, '2025-07-11 12:00:00.104839', '81471222-5798-11e9-ae24-57fa13b361e2',
+        'e0d7f5a2-6c3b-4f1e-8a9d-2b4c6e8f0a13', '81471222-5798-11e9-ae24-57fa13b361e1');
+
+update delegation_change_sequence
+set change_id = case municipality_id when '2281' then 6 else 2 end;
@@ -3,5 +3,8 @@ set foreign_key_checks = 0;
 truncate table delegation_facility;
 truncate table facility;
 truncate table delegation;
+truncate table delegation_change_sequence;
+truncate table delegation_event;
+truncate table delegation_tombstone;
 
 set foreign_key_checks = 1;
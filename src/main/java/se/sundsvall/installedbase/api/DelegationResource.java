@@ -8,7 +8,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import java.util.List;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.http.ETag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,6 +24,7 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -26,20 +34,31 @@ import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.dept44.problem.violations.ConstraintViolationProblem;
 import se.sundsvall.installedbase.api.model.delegation.CreateDelegation;
 import se.sundsvall.installedbase.api.model.delegation.Delegation;
+import se.sundsvall.installedbase.api.model.delegation.DelegationBatchEntry;
+import se.sundsvall.installedbase.api.model.delegation.DelegationBatchResult;
+import se.sundsvall.installedbase.api.model.delegation.DelegationChanges;
+import se.sundsvall.installedbase.api.model.delegation.DelegationParameters;
+import se.sundsvall.installedbase.api.model.delegation.Delegations;
 import se.sundsvall.installedbase.api.model.delegation.UpdateDelegation;
 import se.sundsvall.installedbase.service.DelegationService;
 
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
 import static org.springframework.http.HttpHeaders.LOCATION;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 import static org.springframework.http.MediaType.ALL_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
 import static org.springframework.http.ResponseEntity.accepted;
 import static org.springframework.http.ResponseEntity.created;
+import static org.springframework.http.ResponseEntity.noContent;
+import static org.springframework.http.ResponseEntity.notFound;
 import static org.springframework.http.ResponseEntity.ok;
 import static org.springframework.web.util.UriComponentsBuilder.fromPath;
 import static se.sundsvall.installedbase.Constants.DELEGATES_BY_ID_PATH;
 import static se.sundsvall.installedbase.api.model.validation.ValidatorUtil.validateDelegationParameters;
+import static se.sundsvall.installedbase.service.DelegationService.ANY_VERSION;
 
 @RestController
 @Validated
@@ -51,6 +70,9 @@ import static se.sundsvall.installedbase.api.model.validation.ValidatorUtil.vali
 @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
 class DelegationResource {
 
+	private static final int MAX_BATCH_SIZE = 500;
+	private static final int MAX_CHANGES_LIMIT = 1000;
+
 	private final DelegationService service;
 
 	DelegationResource(final DelegationService service) {
@@ -59,31 +81,74 @@ class DelegationResource {
 
 	@GetMapping(path = "/{id}", produces = APPLICATION_JSON_VALUE)
 	@Operation(summary = "Get a specific facility delegation",
+		description = "The version of the delegation is returned as ETag. When the ETag is sent in If-None-Match and the delegation is unchanged, 304 is returned without response body",
 		responses = {
-			@ApiResponse(responseCode = "200", description = "Successful Operation", useReturnTypeSchema = true),
+			@ApiResponse(responseCode = "200", description = "Successful Operation", headers = @Header(name = ETAG, schema = @Schema(type = "string")), useReturnTypeSchema = true),
+			@ApiResponse(responseCode = "304", description = "Not Modified"),
 			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
 		})
 	ResponseEntity<Delegation> getDelegationById(
 		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
 		@Parameter(name = "id", description = "Id of the delegation", required = true, example = "81471222-5798-11e9-ae24-57fa13b361e1") @PathVariable(value = "id") final @ValidUuid String id) {
 
-		return ok(service.getDelegation(municipalityId, id));
+		final var delegation = service.getDelegation(municipalityId, id);
+
+		// If-None-Match is evaluated against the ETag by Spring, which then answers 304 without writing the body
+		return ok()
+			.eTag(toETag(delegation.getVersion()))
+			.body(delegation);
 	}
 
 	@GetMapping(path = "", produces = APPLICATION_JSON_VALUE)
-	@Operation(summary = "Get delegation by owner and/or delegate",
+	@Operation(summary = "Get delegation by owner, delegate and/or facility",
+		description = "Delegations are ordered by creation time. Use page and limit for paging, or the cursor of a previous response to continue after that response",
 		responses = {
 			@ApiResponse(responseCode = "200", description = "Successful Operation", useReturnTypeSchema = true),
 			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
 		})
-	ResponseEntity<List<Delegation>> getDelegations(
+	ResponseEntity<Delegations> getDelegations(
 		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
-		@Parameter(name = "owner", description = "Owner of the delegation", example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid(nullable = true) @RequestParam(required = false) String owner,
-		@Parameter(name = "delegatedTo", description = "The delegate", example = "81471222-5798-11e9-ae24-57fa13b361e2") @ValidUuid(nullable = true) @RequestParam(required = false) String delegatedTo) {
+		@Valid final DelegationParameters searchParams) {
 
-		validateDelegationParameters(owner, delegatedTo);
+		validateDelegationParameters(searchParams.getOwner(), searchParams.getDelegatedTo(), searchParams.getFacilityId());
+
+		return ok(service.getDelegations(municipalityId, searchParams));
+	}
+
+	@GetMapping(path = "/changes", produces = APPLICATION_JSON_VALUE)
+	@Operation(summary = "Get changes of delegations",
+		description = "Created, updated and deleted delegations in the order that the changes were committed, each delegation with its latest change. Send the cursor of the response as since in the next request to get the changes following the response",
+		responses = {
+			@ApiResponse(responseCode = "200", description = "Successful Operation", useReturnTypeSchema = true)
+		})
+	ResponseEntity<DelegationChanges> getDelegationChanges(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "since", description = "Cursor from a previous response. When absent, the changes are read from the beginning",
+			example = "NDI") @RequestParam(value = "since", required = false) final String since,
+		@Parameter(name = "limit", description = "Maximum number of changes to return", example = "100") @RequestParam(value = "limit", defaultValue = "100") final @Min(1) @Max(MAX_CHANGES_LIMIT) int limit) {
 
-		return ok(service.getDelegations(municipalityId, owner, delegatedTo));
+		return ok(service.getDelegationChanges(municipalityId, since, limit));
+	}
+
+	@GetMapping(path = "/access", produces = ALL_VALUE)
+	@Operation(summary = "Check if a party has access to a facility",
+		description = "A party has access to a facility when owning or being delegated a delegation having the facility. Answered without response body, also for HEAD requests. Changes made through other instances of the service are reflected within the max staleness configured for the access index (delegation.access-index.maxStaleness)",
+		responses = {
+			@ApiResponse(responseCode = "204", description = "No Content, the party has access to the facility", useReturnTypeSchema = true),
+			@ApiResponse(responseCode = "404", description = "Not Found, the party has no access to the facility", useReturnTypeSchema = true)
+		})
+	ResponseEntity<Void> checkAccess(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "partyId", description = "Party-ID", required = true, example = "81471222-5798-11e9-ae24-57fa13b361e1") @RequestParam(value = "partyId") final @ValidUuid String partyId,
+		@Parameter(name = "facilityId", description = "Facility id", required = true, example = "735999109151401011") @RequestParam(value = "facilityId") final @NotBlank String facilityId,
+		@Parameter(name = "businessEngagementOrgId", description = "Optional business engagement org id of the facility", example = "5591962591") @RequestParam(value = "businessEngagementOrgId",
+			required = false) final String businessEngagementOrgId) {
+
+		final var response = service.hasAccess(municipalityId, partyId, facilityId, businessEngagementOrgId) ? noContent() : notFound();
+
+		return response
+			.header(CONTENT_TYPE, ALL_VALUE)
+			.build();
 	}
 
 	@PostMapping(produces = ALL_VALUE)
@@ -107,37 +172,90 @@ class DelegationResource {
 			.build();
 	}
 
+	@PostMapping(path = "/batch", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+	@Operation(summary = "Create, update and delete a batch of facility delegations",
+		description = "The entries are processed in one transaction, in the order of the entries. Each batch entry is answered with a result holding the status for the entry, in the same order as the entries",
+		responses = {
+			@ApiResponse(responseCode = "200", description = "Successful Operation", useReturnTypeSchema = true)
+		})
+	ResponseEntity<List<DelegationBatchResult>> processDelegations(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) final List<@Valid DelegationBatchEntry> entries) {
+
+		return ok(service.processDelegations(municipalityId, entries));
+	}
+
 	@PatchMapping(path = "/{id}", produces = ALL_VALUE)
 	@Operation(summary = "Update an existing facility delegation",
+		description = "When an ETag is sent in If-Match, the delegation is only updated if it still has the version of the ETag, and when * is sent, only if it exists. The version after the update is returned as ETag",
 		responses = {
-			@ApiResponse(responseCode = "202", description = "Accepted", useReturnTypeSchema = true),
-			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+			@ApiResponse(responseCode = "202", description = "Accepted", headers = @Header(name = ETAG, schema = @Schema(type = "string")), useReturnTypeSchema = true),
+			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+			@ApiResponse(responseCode = "412", description = "Precondition Failed", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
 		})
 	ResponseEntity<Void> updateDelegation(
 		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
 		@Parameter(name = "id", description = "Id of the delegation", required = true, example = "81471222-5798-11e9-ae24-57fa13b361e1") @PathVariable(value = "id") final @ValidUuid String id,
+		@Parameter(name = IF_MATCH, description = "Optional ETag of the delegation version to update", example = "\"3\"") @RequestHeader(name = IF_MATCH, required = false) final String ifMatch,
 		@RequestBody @Valid UpdateDelegation delegation) {
 
-		service.updateDelegation(municipalityId, id, delegation);
+		final var version = service.updateDelegation(municipalityId, id, delegation, toExpectedVersion(ifMatch));
 
 		return accepted()
+			.eTag(toETag(version))
 			.header(CONTENT_TYPE, ALL_VALUE)
 			.build();
 	}
 
 	@DeleteMapping(path = "/{id}", produces = ALL_VALUE)
 	@Operation(summary = "Delete a facility delegation",
+		description = "When an ETag is sent in If-Match, the delegation is only deleted if it still has the version of the ETag, and when * is sent, only if it exists",
 		responses = {
-			@ApiResponse(responseCode = "202", description = "Accepted", useReturnTypeSchema = true)
+			@ApiResponse(responseCode = "202", description = "Accepted", useReturnTypeSchema = true),
+			@ApiResponse(responseCode = "412", description = "Precondition Failed", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
 		})
 	ResponseEntity<Void> deleteDelegation(
 		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
-		@Parameter(name = "id", description = "Id of the delegation", required = true, example = "81471222-5798-11e9-ae24-57fa13b361e1") @PathVariable(value = "id") final @ValidUuid String id) {
+		@Parameter(name = "id", description = "Id of the delegation", required = true, example = "81471222-5798-11e9-ae24-57fa13b361e1") @PathVariable(value = "id") final @ValidUuid String id,
+		@Parameter(name = IF_MATCH, description = "Optional ETag of the delegation version to delete", example = "\"3\"") @RequestHeader(name = IF_MATCH, required = false) final String ifMatch) {
 
-		service.deleteDelegation(municipalityId, id);
+		service.deleteDelegation(municipalityId, id, toExpectedVersion(ifMatch));
 
 		return accepted()
 			.header(CONTENT_TYPE, ALL_VALUE)
 			.build();
 	}
+
+	private static String toETag(final Long version) {
+		return String.valueOf(version);
+	}
+
+	/**
+	 * Returns the version of the ETag in If-Match, {@link DelegationService#ANY_VERSION} for the wildcard, which only
+	 * matches an existing delegation, or null if no version is required. A delegation only has one current version,
+	 * hence only a single strong ETag can match. An ETag too large for a version does not match any version.
+	 */
+	private static Long toExpectedVersion(final String ifMatch) {
+		if (ifMatch == null) {
+			return null;
+		}
+
+		final var eTags = ETag.parse(ifMatch);
+		if (eTags.stream().anyMatch(ETag::isWildcard)) {
+			return ANY_VERSION;
+		}
+		return eTags.stream()
+			.filter(eTag -> !eTag.weak())
+			.map(ETag::tag)
+			.filter(NumberUtils::isDigits)
+			.map(tag -> NumberUtils.toLong(tag, ANY_VERSION))
+			.filter(version -> version != ANY_VERSION)
+			.findFirst()
+			.filter(version -> eTags.size() == 1)
+			.orElseThrow(() -> Problem.builder()
+				.withTitle("Delegation has been modified")
+				.withDetail("If-Match '" + ifMatch + "' does not match the version of the delegation")
+				.withStatus(PRECONDITION_FAILED)
+				.build());
+	}
 }
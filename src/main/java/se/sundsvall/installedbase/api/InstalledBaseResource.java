@@ -7,26 +7,41 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import se.sundsvall.dept44.common.validators.annotation.ValidMunicipalityId;
 import se.sundsvall.dept44.common.validators.annotation.ValidOrganizationNumber;
 import se.sundsvall.dept44.common.validators.annotation.ValidUuid;
 import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.dept44.problem.violations.ConstraintViolationProblem;
+import se.sundsvall.dept44.requestid.RequestId;
+import se.sundsvall.installedbase.api.model.InstalledBaseBatchEntry;
+import se.sundsvall.installedbase.api.model.InstalledBaseBatchResult;
+import se.sundsvall.installedbase.api.model.InstalledBaseCustomer;
 import se.sundsvall.installedbase.api.model.InstalledBaseParameters;
 import se.sundsvall.installedbase.api.model.InstalledBaseResponse;
 import se.sundsvall.installedbase.api.model.InstalledBases;
 import se.sundsvall.installedbase.service.InstalledBaseService;
+import tools.jackson.databind.ObjectMapper;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
 import static org.springframework.http.ResponseEntity.ok;
 
@@ -36,10 +51,14 @@ import static org.springframework.http.ResponseEntity.ok;
 @Tag(name = "Installed base", description = "Installed base operations")
 class InstalledBaseResource {
 
+	private static final int MAX_BATCH_SIZE = 100;
+
 	private final InstalledBaseService service;
+	private final ObjectMapper objectMapper;
 
-	InstalledBaseResource(final InstalledBaseService service) {
+	InstalledBaseResource(final InstalledBaseService service, final ObjectMapper objectMapper) {
 		this.service = service;
+		this.objectMapper = objectMapper;
 	}
 
 	@GetMapping(produces = APPLICATION_JSON_VALUE)
@@ -59,6 +78,23 @@ class InstalledBaseResource {
 		return ok(service.getInstalledBaseByPartyId(municipalityId, searchParams));
 	}
 
+	@PostMapping(path = "/batch", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+	@Operation(summary = "Get installed base for a batch of organization numbers and party-IDs",
+		description = "Each batch entry is answered with a result holding the installed base or the error status for the entry, in the same order as the entries",
+		responses = {
+			@ApiResponse(responseCode = "200", description = "Successful Operation", useReturnTypeSchema = true),
+			@ApiResponse(responseCode = "400", description = "Bad Request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+				Problem.class, ConstraintViolationProblem.class
+			}))),
+			@ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+		})
+	ResponseEntity<List<InstalledBaseBatchResult>> getInstalledBases(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) final List<@Valid InstalledBaseBatchEntry> entries) {
+
+		return ok(service.getInstalledBases(municipalityId, entries));
+	}
+
 	@GetMapping(path = "/{organizationNumber}", produces = APPLICATION_JSON_VALUE)
 	@Operation(summary = "Get installed base at company matching organization number for customer matching provided party-ID",
 		responses = {
@@ -79,4 +115,48 @@ class InstalledBaseResource {
 
 		return ok(service.getInstalledBase(municipalityId, organizationNumber, partyIds, modifiedFrom));
 	}
+
+	@GetMapping(path = "/{organizationNumber}", produces = APPLICATION_NDJSON_VALUE)
+	@Operation(summary = "Get installed base at company matching organization number for customer matching provided party-ID, streamed as newline delimited JSON with one installed base customer per line",
+		responses = {
+			@ApiResponse(responseCode = "200", description = "Successful Operation", content = @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = InstalledBaseCustomer.class))),
+			@ApiResponse(responseCode = "400", description = "Bad Request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+				Problem.class, ConstraintViolationProblem.class
+			}))),
+			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+			@ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+			@ApiResponse(responseCode = "502", description = "Bad Gateway", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+		})
+	ResponseEntity<StreamingResponseBody> streamInstalledBase(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281") @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "organizationNumber", description = "Organization number", required = true, example = "5565112233") @ValidOrganizationNumber @PathVariable(name = "organizationNumber") final String organizationNumber,
+		@Parameter(name = "partyId", description = "Party-ID", required = true, example = "81471222-5798-11e9-ae24-57fa13b361e1") @RequestParam(value = "partyId") final List<@ValidUuid String> partyIds,
+		@Parameter(name = "modifiedFrom", description = "Optional date for filtering on installed bases modified at provided date or later", example = "2023-06-01") @RequestParam(name = "modifiedFrom", required = false) final LocalDate modifiedFrom) {
+
+		// Resolved before the response is started, to answer e.g. missing customer engagements with a problem
+		final var installedBase = service.streamInstalledBase(municipalityId, organizationNumber, partyIds, modifiedFrom);
+		final var requestId = RequestId.get();
+
+		return ok()
+			.contentType(APPLICATION_NDJSON)
+			.body(outputStream -> {
+				// The body is written by another thread, which passes the request id on to DataWarehouseReader
+				RequestId.init(requestId);
+				try {
+					installedBase.forEachCustomer(customer -> writeLine(outputStream, customer));
+				} finally {
+					RequestId.reset();
+				}
+			});
+	}
+
+	private void writeLine(final OutputStream outputStream, final InstalledBaseCustomer customer) {
+		try {
+			outputStream.write(objectMapper.writeValueAsBytes(customer));
+			outputStream.write('\n');
+			outputStream.flush();
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
 }
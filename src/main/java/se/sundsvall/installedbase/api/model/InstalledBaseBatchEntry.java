@@ -0,0 +1,97 @@
+package se.sundsvall.installedbase.api.model;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import se.sundsvall.dept44.common.validators.annotation.ValidOrganizationNumber;
+import se.sundsvall.dept44.common.validators.annotation.ValidUuid;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+@Schema(description = "Installed base batch entry model")
+public class InstalledBaseBatchEntry {
+
+	@ValidOrganizationNumber
+	@Schema(description = "Organization number", examples = "5565112233", requiredMode = REQUIRED)
+	private String organizationNumber;
+
+	@NotEmpty
+	@ArraySchema(schema = @Schema(description = "Party-ID", examples = "81471222-5798-11e9-ae24-57fa13b361e1", requiredMode = REQUIRED))
+	private List<@ValidUuid String> partyIds;
+
+	@Schema(description = "Optional date for filtering on installed bases modified at provided date or later", examples = "2023-06-01")
+	private LocalDate modifiedFrom;
+
+	public static InstalledBaseBatchEntry create() {
+		return new InstalledBaseBatchEntry();
+	}
+
+	public String getOrganizationNumber() {
+		return organizationNumber;
+	}
+
+	public void setOrganizationNumber(String organizationNumber) {
+		this.organizationNumber = organizationNumber;
+	}
+
+	public InstalledBaseBatchEntry withOrganizationNumber(String organizationNumber) {
+		this.organizationNumber = organizationNumber;
+		return this;
+	}
+
+	public List<String> getPartyIds() {
+		return partyIds;
+	}
+
+	public void setPartyIds(List<String> partyIds) {
+		this.partyIds = partyIds;
+	}
+
+	public InstalledBaseBatchEntry withPartyIds(List<String> partyIds) {
+		this.partyIds = partyIds;
+		return this;
+	}
+
+	public LocalDate getModifiedFrom() {
+		return modifiedFrom;
+	}
+
+	public void setModifiedFrom(LocalDate modifiedFrom) {
+		this.modifiedFrom = modifiedFrom;
+	}
+
+	public InstalledBaseBatchEntry withModifiedFrom(LocalDate modifiedFrom) {
+		this.modifiedFrom = modifiedFrom;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(modifiedFrom, organizationNumber, partyIds);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		InstalledBaseBatchEntry other = (InstalledBaseBatchEntry) obj;
+		return Objects.equals(modifiedFrom, other.modifiedFrom) && Objects.equals(organizationNumber, other.organizationNumber) && Objects.equals(partyIds, other.partyIds);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("InstalledBaseBatchEntry [organizationNumber=").append(organizationNumber).append(", partyIds=").append(partyIds).append(", modifiedFrom=").append(modifiedFrom).append("]");
+		return builder.toString();
+	}
+}
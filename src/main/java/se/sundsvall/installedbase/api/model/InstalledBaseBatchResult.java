@@ -0,0 +1,140 @@
+package se.sundsvall.installedbase.api.model;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+@Schema(description = "Installed base batch result model, holding the outcome of one batch entry")
+public class InstalledBaseBatchResult {
+
+	@Schema(description = "Organization number of the batch entry", examples = "5565112233", accessMode = READ_ONLY)
+	private String organizationNumber;
+
+	@ArraySchema(schema = @Schema(description = "Party-IDs of the batch entry", examples = "81471222-5798-11e9-ae24-57fa13b361e1", accessMode = READ_ONLY))
+	private List<String> partyIds;
+
+	@Schema(description = "Modified from date of the batch entry", examples = "2023-06-01", accessMode = READ_ONLY)
+	private LocalDate modifiedFrom;
+
+	@Schema(description = "HTTP status of the batch entry, i.e. the status that a separate request for the entry would have been answered with", examples = "200", accessMode = READ_ONLY)
+	private Integer status;
+
+	@Schema(description = "Error detail when the batch entry could not be processed", examples = "No customer engagements matched the search criteria!", accessMode = READ_ONLY)
+	private String detail;
+
+	@ArraySchema(schema = @Schema(implementation = InstalledBaseCustomer.class, accessMode = READ_ONLY))
+	private List<InstalledBaseCustomer> installedBaseCustomers;
+
+	public static InstalledBaseBatchResult create() {
+		return new InstalledBaseBatchResult();
+	}
+
+	public String getOrganizationNumber() {
+		return organizationNumber;
+	}
+
+	public void setOrganizationNumber(String organizationNumber) {
+		this.organizationNumber = organizationNumber;
+	}
+
+	public InstalledBaseBatchResult withOrganizationNumber(String organizationNumber) {
+		this.organizationNumber = organizationNumber;
+		return this;
+	}
+
+	public List<String> getPartyIds() {
+		return partyIds;
+	}
+
+	public void setPartyIds(List<String> partyIds) {
+		this.partyIds = partyIds;
+	}
+
+	public InstalledBaseBatchResult withPartyIds(List<String> partyIds) {
+		this.partyIds = partyIds;
+		return this;
+	}
+
+	public LocalDate getModifiedFrom() {
+		return modifiedFrom;
+	}
+
+	public void setModifiedFrom(LocalDate modifiedFrom) {
+		this.modifiedFrom = modifiedFrom;
+	}
+
+	public InstalledBaseBatchResult withModifiedFrom(LocalDate modifiedFrom) {
+		this.modifiedFrom = modifiedFrom;
+		return this;
+	}
+
+	public Integer getStatus() {
+		return status;
+	}
+
+	public void setStatus(Integer status) {
+		this.status = status;
+	}
+
+	public InstalledBaseBatchResult withStatus(Integer status) {
+		this.status = status;
+		return this;
+	}
+
+	public String getDetail() {
+		return detail;
+	}
+
+	public void setDetail(String detail) {
+		this.detail = detail;
+	}
+
+	public InstalledBaseBatchResult withDetail(String detail) {
+		this.detail = detail;
+		return this;
+	}
+
+	public List<InstalledBaseCustomer> getInstalledBaseCustomers() {
+		return installedBaseCustomers;
+	}
+
+	public void setInstalledBaseCustomers(List<InstalledBaseCustomer> installedBaseCustomers) {
+		this.installedBaseCustomers = installedBaseCustomers;
+	}
+
+	public InstalledBaseBatchResult withInstalledBaseCustomers(List<InstalledBaseCustomer> installedBaseCustomers) {
+		this.installedBaseCustomers = installedBaseCustomers;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(detail, installedBaseCustomers, modifiedFrom, organizationNumber, partyIds, status);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		InstalledBaseBatchResult other = (InstalledBaseBatchResult) obj;
+		return Objects.equals(detail, other.detail) && Objects.equals(installedBaseCustomers, other.installedBaseCustomers) && Objects.equals(modifiedFrom, other.modifiedFrom) && Objects.equals(organizationNumber, other.organizationNumber) && Objects.equals(partyIds, other.partyIds) && Objects.equals(status, other.status);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("InstalledBaseBatchResult [organizationNumber=").append(organizationNumber).append(", partyIds=").append(partyIds).append(", modifiedFrom=").append(modifiedFrom).append(", status=").append(status).append(", detail=").append(detail).append(", installedBaseCustomers=").append(installedBaseCustomers).append("]");
+		return builder.toString();
+	}
+}
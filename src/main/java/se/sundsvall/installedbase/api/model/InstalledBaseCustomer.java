@@ -19,6 +19,9 @@ public class InstalledBaseCustomer {
 	@ArraySchema(schema = @Schema(implementation = InstalledBaseItem.class, accessMode = READ_ONLY))
 	private List<InstalledBaseItem> items;
 
+	@Schema(description = "True if the installed base is the last successfully fetched one, served as the source system is currently unavailable", examples = "false", accessMode = READ_ONLY)
+	private boolean stale;
+
 	public static InstalledBaseCustomer create() {
 		return new InstalledBaseCustomer();
 	}
@@ -62,9 +65,22 @@ public class InstalledBaseCustomer {
 		return this;
 	}
 
+	public boolean isStale() {
+		return stale;
+	}
+
+	public void setStale(boolean stale) {
+		this.stale = stale;
+	}
+
+	public InstalledBaseCustomer withStale(boolean stale) {
+		this.stale = stale;
+		return this;
+	}
+
 	@Override
 	public int hashCode() {
-		return Objects.hash(customerNumber, items, partyId);
+		return Objects.hash(customerNumber, items, partyId, stale);
 	}
 
 	@Override
@@ -79,13 +95,13 @@ public class InstalledBaseCustomer {
 			return false;
 		}
 		InstalledBaseCustomer other = (InstalledBaseCustomer) obj;
-		return Objects.equals(customerNumber, other.customerNumber) && Objects.equals(items, other.items) && Objects.equals(partyId, other.partyId);
+		return Objects.equals(customerNumber, other.customerNumber) && Objects.equals(items, other.items) && Objects.equals(partyId, other.partyId) && (stale == other.stale);
 	}
 
 	@Override
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
-		builder.append("InstalledBaseCustomer [customerNumber=").append(customerNumber).append(", partyId=").append(partyId).append(", items=").append(items).append("]");
+		builder.append("InstalledBaseCustomer [customerNumber=").append(customerNumber).append(", partyId=").append(partyId).append(", items=").append(items).append(", stale=").append(stale).append("]");
 		return builder.toString();
 	}
 }
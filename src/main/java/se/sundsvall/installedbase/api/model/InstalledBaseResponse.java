@@ -13,6 +13,9 @@ public class InstalledBaseResponse {
 	@ArraySchema(schema = @Schema(implementation = InstalledBaseCustomer.class, accessMode = READ_ONLY))
 	private List<InstalledBaseCustomer> installedBaseCustomers;
 
+	@Schema(description = "True if any part of the response is the last successfully fetched one, served as the source system is currently unavailable", examples = "false", accessMode = READ_ONLY)
+	private boolean stale;
+
 	public static InstalledBaseResponse create() {
 		return new InstalledBaseResponse();
 	}
@@ -30,9 +33,22 @@ public class InstalledBaseResponse {
 		return this;
 	}
 
+	public boolean isStale() {
+		return stale;
+	}
+
+	public void setStale(boolean stale) {
+		this.stale = stale;
+	}
+
+	public InstalledBaseResponse withStale(boolean stale) {
+		this.stale = stale;
+		return this;
+	}
+
 	@Override
 	public int hashCode() {
-		return Objects.hash(installedBaseCustomers);
+		return Objects.hash(installedBaseCustomers, stale);
 	}
 
 	@Override
@@ -47,13 +63,13 @@ public class InstalledBaseResponse {
 			return false;
 		}
 		InstalledBaseResponse other = (InstalledBaseResponse) obj;
-		return Objects.equals(installedBaseCustomers, other.installedBaseCustomers);
+		return Objects.equals(installedBaseCustomers, other.installedBaseCustomers) && (stale == other.stale);
 	}
 
 	@Override
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
-		builder.append("InstalledBaseResponse [installedBaseCustomers=").append(installedBaseCustomers).append("]");
+		builder.append("InstalledBaseResponse [installedBaseCustomers=").append(installedBaseCustomers).append(", stale=").append(stale).append("]");
 		return builder.toString();
 	}
 }
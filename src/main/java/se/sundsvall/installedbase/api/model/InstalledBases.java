@@ -19,6 +19,9 @@ public class InstalledBases {
 	@ArraySchema(schema = @Schema(implementation = InstalledBase.class, accessMode = READ_ONLY))
 	private List<InstalledBase> installedBaseList;
 
+	@Schema(description = "True if the response is the last successfully fetched one, served as the source system is currently unavailable", examples = "false", accessMode = READ_ONLY)
+	private boolean stale;
+
 	public static InstalledBases create() {
 		return new InstalledBases();
 	}
@@ -49,11 +52,25 @@ public class InstalledBases {
 		this.installedBaseList = installedBaseList;
 	}
 
+	public InstalledBases withStale(boolean stale) {
+		this.stale = stale;
+		return this;
+	}
+
+	public boolean isStale() {
+		return stale;
+	}
+
+	public void setStale(boolean stale) {
+		this.stale = stale;
+	}
+
 	@Override
 	public String toString() {
 		return "InstalledBases{" +
 			"metaData=" + metaData +
 			", installedBaseList=" + installedBaseList +
+			", stale=" + stale +
 			'}';
 	}
 
@@ -62,11 +79,11 @@ public class InstalledBases {
 		if (o == null || getClass() != o.getClass())
 			return false;
 		InstalledBases that = (InstalledBases) o;
-		return Objects.equals(metaData, that.metaData) && Objects.equals(installedBaseList, that.installedBaseList);
+		return Objects.equals(metaData, that.metaData) && Objects.equals(installedBaseList, that.installedBaseList) && stale == that.stale;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(metaData, installedBaseList);
+		return Objects.hash(metaData, installedBaseList, stale);
 	}
 }
@@ -35,6 +35,9 @@ public class Delegation {
 	@Schema(description = "When the delegation was last updated", examples = "2025-04-01T12:00:00")
 	private OffsetDateTime updated;
 
+	@Schema(description = "Version of the delegation, also returned as ETag when reading the delegation", examples = "3")
+	private Long version;
+
 	public static Delegation create() {
 		return new Delegation();
 	}
@@ -95,6 +98,14 @@ public class Delegation {
 		this.updated = updated;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public Delegation withId(String id) {
 		this.id = id;
 		return this;
@@ -130,18 +141,24 @@ public class Delegation {
 		return this;
 	}
 
+	public Delegation withVersion(Long version) {
+		this.version = version;
+		return this;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (!(o instanceof final Delegation that)) {
 			return false;
 		}
 		return Objects.equals(id, that.id) && Objects.equals(facilities, that.facilities) && Objects.equals(delegatedTo, that.delegatedTo)
-			&& Objects.equals(owner, that.owner) && Objects.equals(municipalityId, that.municipalityId) && Objects.equals(created, that.created) && Objects.equals(updated, that.updated);
+			&& Objects.equals(owner, that.owner) && Objects.equals(municipalityId, that.municipalityId) && Objects.equals(created, that.created) && Objects.equals(updated, that.updated)
+			&& Objects.equals(version, that.version);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(id, facilities, delegatedTo, owner, municipalityId, created, updated);
+		return Objects.hash(id, facilities, delegatedTo, owner, municipalityId, created, updated, version);
 	}
 
 	@Override
@@ -154,6 +171,7 @@ public class Delegation {
 			", municipalityId='" + municipalityId + '\'' +
 			", created=" + created +
 			", updated=" + updated +
+			", version=" + version +
 			'}';
 	}
 }
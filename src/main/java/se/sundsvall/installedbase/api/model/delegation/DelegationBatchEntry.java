@@ -0,0 +1,112 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.util.Objects;
+import se.sundsvall.dept44.common.validators.annotation.ValidUuid;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+@Schema(description = "Delegation batch entry model")
+public class DelegationBatchEntry {
+
+	@NotNull
+	@Schema(implementation = DelegationOperation.class, requiredMode = REQUIRED)
+	private DelegationOperation operation;
+
+	@ValidUuid(nullable = true)
+	@Schema(description = "Id of the delegation to update or delete. Required for operations UPDATE and DELETE", examples = "24504e65-08cf-4bc3-8f4f-a07204748c13")
+	private String id;
+
+	@Valid
+	@Schema(implementation = CreateDelegation.class, description = "Delegation to create. Required for operation CREATE")
+	private CreateDelegation createDelegation;
+
+	@Valid
+	@Schema(implementation = UpdateDelegation.class, description = "Changes to the delegation. Required for operation UPDATE")
+	private UpdateDelegation updateDelegation;
+
+	public static DelegationBatchEntry create() {
+		return new DelegationBatchEntry();
+	}
+
+	public DelegationOperation getOperation() {
+		return operation;
+	}
+
+	public void setOperation(DelegationOperation operation) {
+		this.operation = operation;
+	}
+
+	public DelegationBatchEntry withOperation(DelegationOperation operation) {
+		this.operation = operation;
+		return this;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public DelegationBatchEntry withId(String id) {
+		this.id = id;
+		return this;
+	}
+
+	public CreateDelegation getCreateDelegation() {
+		return createDelegation;
+	}
+
+	public void setCreateDelegation(CreateDelegation createDelegation) {
+		this.createDelegation = createDelegation;
+	}
+
+	public DelegationBatchEntry withCreateDelegation(CreateDelegation createDelegation) {
+		this.createDelegation = createDelegation;
+		return this;
+	}
+
+	public UpdateDelegation getUpdateDelegation() {
+		return updateDelegation;
+	}
+
+	public void setUpdateDelegation(UpdateDelegation updateDelegation) {
+		this.updateDelegation = updateDelegation;
+	}
+
+	public DelegationBatchEntry withUpdateDelegation(UpdateDelegation updateDelegation) {
+		this.updateDelegation = updateDelegation;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(createDelegation, id, operation, updateDelegation);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		DelegationBatchEntry other = (DelegationBatchEntry) obj;
+		return Objects.equals(createDelegation, other.createDelegation) && Objects.equals(id, other.id) && operation == other.operation && Objects.equals(updateDelegation, other.updateDelegation);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("DelegationBatchEntry [operation=").append(operation).append(", id=").append(id).append(", createDelegation=").append(createDelegation).append(", updateDelegation=").append(updateDelegation).append("]");
+		return builder.toString();
+	}
+}
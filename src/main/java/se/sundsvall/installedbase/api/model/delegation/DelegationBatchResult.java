@@ -0,0 +1,105 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Objects;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+@Schema(description = "Delegation batch result model, holding the outcome of one batch entry")
+public class DelegationBatchResult {
+
+	@Schema(implementation = DelegationOperation.class, accessMode = READ_ONLY)
+	private DelegationOperation operation;
+
+	@Schema(description = "Id of the delegation, i.e. the id of the created delegation for operation CREATE", examples = "24504e65-08cf-4bc3-8f4f-a07204748c13", accessMode = READ_ONLY)
+	private String id;
+
+	@Schema(description = "HTTP status of the batch entry, i.e. the status that a separate request for the entry would have been answered with", examples = "201", accessMode = READ_ONLY)
+	private Integer status;
+
+	@Schema(description = "Error detail when the batch entry could not be processed", examples = "Delegation with id: '24504e65-08cf-4bc3-8f4f-a07204748c13' was not found within municipality '2281'.", accessMode = READ_ONLY)
+	private String detail;
+
+	public static DelegationBatchResult create() {
+		return new DelegationBatchResult();
+	}
+
+	public DelegationOperation getOperation() {
+		return operation;
+	}
+
+	public void setOperation(DelegationOperation operation) {
+		this.operation = operation;
+	}
+
+	public DelegationBatchResult withOperation(DelegationOperation operation) {
+		this.operation = operation;
+		return this;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public DelegationBatchResult withId(String id) {
+		this.id = id;
+		return this;
+	}
+
+	public Integer getStatus() {
+		return status;
+	}
+
+	public void setStatus(Integer status) {
+		this.status = status;
+	}
+
+	public DelegationBatchResult withStatus(Integer status) {
+		this.status = status;
+		return this;
+	}
+
+	public String getDetail() {
+		return detail;
+	}
+
+	public void setDetail(String detail) {
+		this.detail = detail;
+	}
+
+	public DelegationBatchResult withDetail(String detail) {
+		this.detail = detail;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(detail, id, operation, status);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		DelegationBatchResult other = (DelegationBatchResult) obj;
+		return Objects.equals(detail, other.detail) && Objects.equals(id, other.id) && operation == other.operation && Objects.equals(status, other.status);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("DelegationBatchResult [operation=").append(operation).append(", id=").append(id).append(", status=").append(status).append(", detail=").append(detail).append("]");
+		return builder.toString();
+	}
+}
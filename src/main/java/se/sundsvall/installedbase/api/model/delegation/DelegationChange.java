@@ -0,0 +1,139 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+
+@Schema(description = "Change of a delegation")
+public class DelegationChange {
+
+	@Schema(description = "Id of the changed delegation", examples = "12345678-1234-1234-1234-123456789012")
+	private String id;
+
+	@Schema(description = "Type of change", examples = "UPDATED")
+	private DelegationChangeType type;
+
+	@DateTimeFormat(iso = DATE_TIME)
+	@Schema(description = "When the delegation was changed", examples = "2025-04-01T12:00:00")
+	private OffsetDateTime changed;
+
+	@Schema(description = "Party ID of the delegation owner, also for deleted delegations", examples = "81471222-5798-11e9-ae24-57fa13b361e1")
+	private String owner;
+
+	@Schema(description = "Party ID of the delegate, also for deleted delegations", examples = "81471222-5798-11e9-ae24-57fa13b361e2")
+	private String delegatedTo;
+
+	@Schema(description = "The delegation after the change, absent for deleted delegations")
+	private Delegation delegation;
+
+	public static DelegationChange create() {
+		return new DelegationChange();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public DelegationChange withId(String id) {
+		this.id = id;
+		return this;
+	}
+
+	public DelegationChangeType getType() {
+		return type;
+	}
+
+	public void setType(DelegationChangeType type) {
+		this.type = type;
+	}
+
+	public DelegationChange withType(DelegationChangeType type) {
+		this.type = type;
+		return this;
+	}
+
+	public OffsetDateTime getChanged() {
+		return changed;
+	}
+
+	public void setChanged(OffsetDateTime changed) {
+		this.changed = changed;
+	}
+
+	public DelegationChange withChanged(OffsetDateTime changed) {
+		this.changed = changed;
+		return this;
+	}
+
+	public String getOwner() {
+		return owner;
+	}
+
+	public void setOwner(String owner) {
+		this.owner = owner;
+	}
+
+	public DelegationChange withOwner(String owner) {
+		this.owner = owner;
+		return this;
+	}
+
+	public String getDelegatedTo() {
+		return delegatedTo;
+	}
+
+	public void setDelegatedTo(String delegatedTo) {
+		this.delegatedTo = delegatedTo;
+	}
+
+	public DelegationChange withDelegatedTo(String delegatedTo) {
+		this.delegatedTo = delegatedTo;
+		return this;
+	}
+
+	public Delegation getDelegation() {
+		return delegation;
+	}
+
+	public void setDelegation(Delegation delegation) {
+		this.delegation = delegation;
+	}
+
+	public DelegationChange withDelegation(Delegation delegation) {
+		this.delegation = delegation;
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof final DelegationChange that)) {
+			return false;
+		}
+		return Objects.equals(id, that.id) && type == that.type && Objects.equals(changed, that.changed) && Objects.equals(owner, that.owner)
+			&& Objects.equals(delegatedTo, that.delegatedTo) && Objects.equals(delegation, that.delegation);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, type, changed, owner, delegatedTo, delegation);
+	}
+
+	@Override
+	public String toString() {
+		return "DelegationChange{" +
+			"id='" + id + '\'' +
+			", type=" + type +
+			", changed=" + changed +
+			", owner='" + owner + '\'' +
+			", delegatedTo='" + delegatedTo + '\'' +
+			", delegation=" + delegation +
+			'}';
+	}
+}
@@ -0,0 +1,10 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Type of change of a delegation")
+public enum DelegationChangeType {
+	CREATED,
+	UPDATED,
+	DELETED
+}
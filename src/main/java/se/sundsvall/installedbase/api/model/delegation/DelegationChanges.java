@@ -0,0 +1,87 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.Objects;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+@Schema(description = "Delegation changes response model")
+public class DelegationChanges {
+
+	@ArraySchema(schema = @Schema(implementation = DelegationChange.class, accessMode = READ_ONLY))
+	private List<DelegationChange> changes;
+
+	@Schema(description = "Cursor to send as since in the next request, to get the changes following this response. Absent when there are no changes at all",
+		examples = "MjAyNS0wNy0xMVQwODowMzoyNi4zNDI2NjhafDI0NTA0ZTY1LTA4Y2YtNGJjMy04ZjRmLWEwNzIwNDc0OGMxMw", accessMode = READ_ONLY)
+	private String cursor;
+
+	@Schema(description = "True if there are more changes to read right away, false if the client is up to date", examples = "false", accessMode = READ_ONLY)
+	private Boolean hasMore;
+
+	public static DelegationChanges create() {
+		return new DelegationChanges();
+	}
+
+	public List<DelegationChange> getChanges() {
+		return changes;
+	}
+
+	public void setChanges(List<DelegationChange> changes) {
+		this.changes = changes;
+	}
+
+	public DelegationChanges withChanges(List<DelegationChange> changes) {
+		this.changes = changes;
+		return this;
+	}
+
+	public String getCursor() {
+		return cursor;
+	}
+
+	public void setCursor(String cursor) {
+		this.cursor = cursor;
+	}
+
+	public DelegationChanges withCursor(String cursor) {
+		this.cursor = cursor;
+		return this;
+	}
+
+	public Boolean getHasMore() {
+		return hasMore;
+	}
+
+	public void setHasMore(Boolean hasMore) {
+		this.hasMore = hasMore;
+	}
+
+	public DelegationChanges withHasMore(Boolean hasMore) {
+		this.hasMore = hasMore;
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof final DelegationChanges that)) {
+			return false;
+		}
+		return Objects.equals(changes, that.changes) && Objects.equals(cursor, that.cursor) && Objects.equals(hasMore, that.hasMore);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(changes, cursor, hasMore);
+	}
+
+	@Override
+	public String toString() {
+		return "DelegationChanges{" +
+			"changes=" + changes +
+			", cursor='" + cursor + '\'' +
+			", hasMore=" + hasMore +
+			'}';
+	}
+}
@@ -0,0 +1,10 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Operation to perform for a delegation batch entry")
+public enum DelegationOperation {
+	CREATE,
+	UPDATE,
+	DELETE
+}
@@ -0,0 +1,123 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Objects;
+import se.sundsvall.dept44.common.validators.annotation.ValidUuid;
+import se.sundsvall.dept44.models.api.paging.AbstractParameterPagingBase;
+
+public class DelegationParameters extends AbstractParameterPagingBase {
+
+	@Schema(description = "Owner of the delegation", examples = "81471222-5798-11e9-ae24-57fa13b361e1")
+	@ValidUuid(nullable = true)
+	private String owner;
+
+	@Schema(description = "The delegate", examples = "81471222-5798-11e9-ae24-57fa13b361e2")
+	@ValidUuid(nullable = true)
+	private String delegatedTo;
+
+	@Schema(description = "Id of a facility that the delegation covers", examples = "735999109151401011")
+	private String facilityId;
+
+	@Schema(description = "Business engagement organization id of the facility. Only used together with facilityId", examples = "5591628136")
+	private String businessEngagementOrgId;
+
+	@Schema(description = "Cursor from a previous response, to continue with the delegations following that response. When provided, page is ignored",
+		examples = "MjAyNS0wNy0xMVQwODowMzoyNi4zNDI2NjhafDI0NTA0ZTY1LTA4Y2YtNGJjMy04ZjRmLWEwNzIwNDc0OGMxMw")
+	private String cursor;
+
+	public static DelegationParameters create() {
+		return new DelegationParameters();
+	}
+
+	public DelegationParameters withOwner(String owner) {
+		this.owner = owner;
+		return this;
+	}
+
+	public String getOwner() {
+		return owner;
+	}
+
+	public void setOwner(String owner) {
+		this.owner = owner;
+	}
+
+	public DelegationParameters withDelegatedTo(String delegatedTo) {
+		this.delegatedTo = delegatedTo;
+		return this;
+	}
+
+	public String getDelegatedTo() {
+		return delegatedTo;
+	}
+
+	public void setDelegatedTo(String delegatedTo) {
+		this.delegatedTo = delegatedTo;
+	}
+
+	public DelegationParameters withFacilityId(String facilityId) {
+		this.facilityId = facilityId;
+		return this;
+	}
+
+	public String getFacilityId() {
+		return facilityId;
+	}
+
+	public void setFacilityId(String facilityId) {
+		this.facilityId = facilityId;
+	}
+
+	public DelegationParameters withBusinessEngagementOrgId(String businessEngagementOrgId) {
+		this.businessEngagementOrgId = businessEngagementOrgId;
+		return this;
+	}
+
+	public String getBusinessEngagementOrgId() {
+		return businessEngagementOrgId;
+	}
+
+	public void setBusinessEngagementOrgId(String businessEngagementOrgId) {
+		this.businessEngagementOrgId = businessEngagementOrgId;
+	}
+
+	public DelegationParameters withCursor(String cursor) {
+		this.cursor = cursor;
+		return this;
+	}
+
+	public String getCursor() {
+		return cursor;
+	}
+
+	public void setCursor(String cursor) {
+		this.cursor = cursor;
+	}
+
+	@Override
+	public String toString() {
+		return "DelegationParameters{" +
+			"owner='" + owner + '\'' +
+			", delegatedTo='" + delegatedTo + '\'' +
+			", facilityId='" + facilityId + '\'' +
+			", businessEngagementOrgId='" + businessEngagementOrgId + '\'' +
+			", cursor='" + cursor + '\'' +
+			'}';
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == null || getClass() != o.getClass())
+			return false;
+		if (!super.equals(o))
+			return false;
+		DelegationParameters that = (DelegationParameters) o;
+		return Objects.equals(owner, that.owner) && Objects.equals(delegatedTo, that.delegatedTo) && Objects.equals(facilityId, that.facilityId)
+			&& Objects.equals(businessEngagementOrgId, that.businessEngagementOrgId) && Objects.equals(cursor, that.cursor);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(super.hashCode(), owner, delegatedTo, facilityId, businessEngagementOrgId, cursor);
+	}
+}
@@ -0,0 +1,90 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.Objects;
+import se.sundsvall.dept44.models.api.paging.PagingAndSortingMetaData;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+@Schema(description = "Delegations response model")
+public class Delegations {
+
+	@JsonProperty("_meta")
+	@Schema(implementation = PagingAndSortingMetaData.class, accessMode = READ_ONLY)
+	private PagingAndSortingMetaData metaData;
+
+	@ArraySchema(schema = @Schema(implementation = Delegation.class, accessMode = READ_ONLY))
+	private List<Delegation> delegations;
+
+	@Schema(description = "Cursor to use for fetching the delegations following this response, absent when there are no more delegations",
+		examples = "MjAyNS0wNy0xMVQwODowMzoyNi4zNDI2NjhafDI0NTA0ZTY1LTA4Y2YtNGJjMy04ZjRmLWEwNzIwNDc0OGMxMw", accessMode = READ_ONLY)
+	private String nextCursor;
+
+	public static Delegations create() {
+		return new Delegations();
+	}
+
+	public Delegations withMetaData(PagingAndSortingMetaData metaData) {
+		this.metaData = metaData;
+		return this;
+	}
+
+	public PagingAndSortingMetaData getMetaData() {
+		return metaData;
+	}
+
+	public void setMetaData(PagingAndSortingMetaData metaData) {
+		this.metaData = metaData;
+	}
+
+	public Delegations withDelegations(List<Delegation> delegations) {
+		this.delegations = delegations;
+		return this;
+	}
+
+	public List<Delegation> getDelegations() {
+		return delegations;
+	}
+
+	public void setDelegations(List<Delegation> delegations) {
+		this.delegations = delegations;
+	}
+
+	public Delegations withNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+		return this;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	@Override
+	public String toString() {
+		return "Delegations{" +
+			"metaData=" + metaData +
+			", delegations=" + delegations +
+			", nextCursor='" + nextCursor + '\'' +
+			'}';
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == null || getClass() != o.getClass())
+			return false;
+		Delegations that = (Delegations) o;
+		return Objects.equals(metaData, that.metaData) && Objects.equals(delegations, that.delegations) && Objects.equals(nextCursor, that.nextCursor);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(metaData, delegations, nextCursor);
+	}
+}
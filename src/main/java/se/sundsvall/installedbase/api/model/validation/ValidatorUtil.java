@@ -10,16 +10,17 @@ public final class ValidatorUtil {
 	private ValidatorUtil() {}
 
 	/**
-	 * Check that at least one of the parameters owner or delegatedTo is provided
+	 * Check that at least one of the parameters owner, delegatedTo or facilityId is provided
 	 * 
 	 * @param owner       owner of the facility delegation
 	 * @param delegatedTo the party to which the facility is delegated
+	 * @param facilityId  id of a facility of the delegation
 	 */
-	public static void validateDelegationParameters(String owner, String delegatedTo) {
-		if (StringUtils.isBlank(owner) && StringUtils.isBlank(delegatedTo)) {
+	public static void validateDelegationParameters(String owner, String delegatedTo, String facilityId) {
+		if (StringUtils.isAllBlank(owner, delegatedTo, facilityId)) {
 			throw Problem.builder()
 				.withTitle("Invalid search parameters")
-				.withDetail("Either owner or delegatedTo must be provided")
+				.withDetail("Either owner, delegatedTo or facilityId must be provided")
 				.withStatus(BAD_REQUEST)
 				.build();
 		}
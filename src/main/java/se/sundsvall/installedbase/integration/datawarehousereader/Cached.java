@@ -0,0 +1,19 @@
+package se.sundsvall.installedbase.integration.datawarehousereader;
+
+/**
+ * Response from DataWarehouseReader, which is stale if it was served from the last successfully fetched response as
+ * the call was rejected by an open circuit breaker.
+ *
+ * @param value the response, which might be null
+ * @param stale true if the response was served instead of calling DataWarehouseReader, false otherwise
+ */
+public record Cached<T>(T value, boolean stale) {
+
+	public static <T> Cached<T> of(final T value) {
+		return new Cached<>(value, false);
+	}
+
+	public static <T> Cached<T> ofStale(final T value) {
+		return new Cached<>(value, true);
+	}
+}
@@ -0,0 +1,424 @@
+package se.sundsvall.installedbase.integration.datawarehousereader;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import generated.se.sundsvall.datawarehousereader.CustomerEngagement;
+import generated.se.sundsvall.datawarehousereader.CustomerEngagementResponse;
+import generated.se.sundsvall.datawarehousereader.InstalledBaseResponse;
+import generated.se.sundsvall.datawarehousereader.PagingAndSortingMetaData;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import se.sundsvall.dept44.requestid.RequestId;
+import se.sundsvall.installedbase.integration.datawarehousereader.configuration.DataWarehouseReaderCacheProperties;
+import se.sundsvall.installedbase.service.concurrency.FanOutExecutor;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Optional.ofNullable;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+import static se.sundsvall.installedbase.integration.datawarehousereader.configuration.DataWarehouseReaderConfiguration.CLIENT_ID;
+
+/**
+ * Integration towards DataWarehouseReader which, when enabled, keeps successful responses in bounded in-memory caches
+ * (one per operation) to avoid calling DataWarehouseReader for data that rarely changes. Customer engagements are
+ * cached per party, including parties without engagements, so that only parties missing in the cache are requested.
+ * Customer engagements are returned in the requested party order, whether served from the cache or not.
+ * Identical calls that are made concurrently are coalesced into one call towards DataWarehouseReader, sharing its
+ * result or error.
+ * <p>
+ * When caching is enabled, the last successful response of each call is also kept (for a longer time) and served,
+ * marked as stale (see {@link Cached}), if the call is rejected by an open circuit breaker. Calls that have been served
+ * stale are revalidated in the background as soon as the circuit breaker allows calls again, on behalf of (and within
+ * the municipality limit of) the request that was served stale.
+ */
+@Component
+public class DataWarehouseReaderIntegration {
+
+	static final String CUSTOMER_ENGAGEMENT_CACHE = "datawarehousereader.customerengagement";
+	static final String INSTALLED_BASE_CACHE = "datawarehousereader.installedbase";
+	static final String INSTALLED_BASE_BY_PARTY_ID_CACHE = "datawarehousereader.installedbasebypartyid";
+	static final String LAST_RESPONSE_CACHE = "datawarehousereader.lastresponse";
+	static final String COALESCED_REQUESTS_METRIC = "datawarehousereader.requests.coalesced";
+	static final String STALE_RESPONSES_METRIC = "datawarehousereader.responses.stale";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DataWarehouseReaderIntegration.class);
+
+	private final DataWarehouseReaderClient client;
+	private final FanOutExecutor fanOutExecutor;
+	private final Map<Object, CompletableFuture<Object>> inFlightRequests = new ConcurrentHashMap<>();
+	private final Map<String, Counter> coalescedRequestCounters;
+	private final Map<String, Counter> staleResponseCounters;
+	private final Map<Object, Runnable> pendingRevalidations = new ConcurrentHashMap<>();
+	private final AtomicBoolean revalidating = new AtomicBoolean();
+	private final Cache<PartyEngagementKey, List<CustomerEngagement>> customerEngagementCache;
+	private final Cache<InstalledBaseKey, InstalledBaseResponse> installedBaseCache;
+	private final Cache<InstalledBaseByPartyIdKey, InstalledBaseResponse> installedBaseByPartyIdCache;
+	private final Cache<Object, Object> lastResponseCache;
+
+	public DataWarehouseReaderIntegration(final DataWarehouseReaderClient client, final FanOutExecutor fanOutExecutor, final DataWarehouseReaderCacheProperties properties,
+		final MeterRegistry meterRegistry, final CircuitBreakerRegistry circuitBreakerRegistry) {
+		this.client = client;
+		this.fanOutExecutor = fanOutExecutor;
+		this.coalescedRequestCounters = Stream.of(CUSTOMER_ENGAGEMENT_CACHE, INSTALLED_BASE_CACHE, INSTALLED_BASE_BY_PARTY_ID_CACHE)
+			.collect(toMap(identity(), operation -> Counter.builder(COALESCED_REQUESTS_METRIC)
+				.description("Number of DataWarehouseReader calls that were served by an identical call already in flight")
+				.tag("operation", operation)
+				.register(meterRegistry)));
+		this.staleResponseCounters = Stream.of(CUSTOMER_ENGAGEMENT_CACHE, INSTALLED_BASE_CACHE, INSTALLED_BASE_BY_PARTY_ID_CACHE)
+			.collect(toMap(identity(), operation -> Counter.builder(STALE_RESPONSES_METRIC)
+				.description("Number of DataWarehouseReader calls that were served stale as the circuit breaker was open")
+				.tag("operation", operation)
+				.register(meterRegistry)));
+
+		if (properties.enabled()) {
+			// Parties without engagements are cached as well, but with a time to live of their own
+			this.customerEngagementCache = createCache(CUSTOMER_ENGAGEMENT_CACHE,
+				engagements -> engagements.isEmpty() ? properties.customerEngagementNegativeTimeToLive() : properties.customerEngagementTimeToLive(),
+				properties.maximumWeight(), List::size, meterRegistry);
+			this.installedBaseCache = createCache(INSTALLED_BASE_CACHE, response -> properties.installedBaseTimeToLive(), properties.maximumWeight(),
+				response -> ofNullable(response.getInstalledBase()).orElse(emptyList()).size(), meterRegistry);
+			this.installedBaseByPartyIdCache = createCache(INSTALLED_BASE_BY_PARTY_ID_CACHE, response -> properties.installedBaseByPartyIdTimeToLive(), properties.maximumWeight(),
+				response -> ofNullable(response.getInstalledBase()).orElse(emptyList()).size(), meterRegistry);
+			this.lastResponseCache = createCache(LAST_RESPONSE_CACHE, response -> properties.staleTimeToLive(), properties.maximumWeight(),
+				DataWarehouseReaderIntegration::weigh, meterRegistry);
+
+			// Revalidate calls served stale as soon as the circuit breaker lets (trial) calls through again
+			circuitBreakerRegistry.circuitBreaker(CLIENT_ID).getEventPublisher().onStateTransition(event -> {
+				final var toState = event.getStateTransition().getToState();
+				if (toState == CircuitBreaker.State.HALF_OPEN || toState == CircuitBreaker.State.CLOSED) {
+					revalidate();
+				}
+			});
+		} else {
+			this.customerEngagementCache = null;
+			this.installedBaseCache = null;
+			this.installedBaseByPartyIdCache = null;
+			this.lastResponseCache = null;
+		}
+	}
+
+	public Cached<CustomerEngagementResponse> getCustomerEngagement(final String municipalityId, final String organizationNumber, final List<String> partyIds) {
+		if (customerEngagementCache == null) {
+			return inRequestedOrder(partyIds, emptyMap(), partyIds, fetchCustomerEngagement(municipalityId, organizationNumber, partyIds));
+		}
+
+		final var engagementsByPartyId = new HashMap<String, List<CustomerEngagement>>();
+		final var missingPartyIds = new ArrayList<String>();
+		partyIds.stream().distinct().forEach(partyId -> ofNullable(customerEngagementCache.getIfPresent(new PartyEngagementKey(municipalityId, organizationNumber, normalize(partyId))))
+			.ifPresentOrElse(engagements -> engagementsByPartyId.put(normalize(partyId), engagements), () -> missingPartyIds.add(partyId)));
+
+		if (missingPartyIds.isEmpty()) {
+			return Cached.of(toCustomerEngagementResponse(partyIds, engagementsByPartyId, emptyList()));
+		}
+
+		return inRequestedOrder(partyIds, engagementsByPartyId, missingPartyIds, fetchCustomerEngagement(municipalityId, organizationNumber, missingPartyIds));
+	}
+
+	/**
+	 * Combines the fetched engagements with the cached engagements in the requested party order, followed by the fetched
+	 * engagements that can not be attributed to a requested party. The engagements are thereby returned in the same order
+	 * whether they are served from the cache or fetched from DataWarehouseReader.
+	 */
+	private static Cached<CustomerEngagementResponse> inRequestedOrder(final List<String> partyIds, final Map<String, List<CustomerEngagement>> cachedByPartyId,
+		final List<String> fetchedPartyIds, final Cached<CustomerEngagementResponse> response) {
+
+		if (response.value() == null) {
+			return response;
+		}
+
+		final var fetchedKeys = fetchedPartyIds.stream().map(DataWarehouseReaderIntegration::normalize).collect(toSet());
+		final var fetched = ofNullable(response.value().getCustomerEngagements()).orElse(emptyList());
+		final var unattributable = fetched.stream().filter(engagement -> !isAttributable(engagement, fetchedKeys)).toList();
+		final var fetchedByPartyId = fetched.stream()
+			.filter(engagement -> isAttributable(engagement, fetchedKeys))
+			.collect(groupingBy(engagement -> normalize(engagement.getPartyId())));
+
+		final var engagementsByPartyId = new HashMap<>(cachedByPartyId);
+		fetchedKeys.forEach(partyId -> engagementsByPartyId.put(partyId, fetchedByPartyId.getOrDefault(partyId, emptyList())));
+
+		return new Cached<>(toCustomerEngagementResponse(partyIds, engagementsByPartyId, unattributable), response.stale());
+	}
+
+	private static CustomerEngagementResponse toCustomerEngagementResponse(final List<String> partyIds, final Map<String, List<CustomerEngagement>> engagementsByPartyId,
+		final List<CustomerEngagement> unattributable) {
+
+		final var engagements = Stream.concat(partyIds.stream()
+			.map(DataWarehouseReaderIntegration::normalize)
+			.distinct()
+			.flatMap(partyId -> engagementsByPartyId.getOrDefault(partyId, emptyList()).stream()), unattributable.stream())
+			.toList();
+
+		return new CustomerEngagementResponse()
+			.customerEngagements(engagements)
+			.meta(new PagingAndSortingMetaData().page(1).totalPages(1).count(engagements.size()).totalRecords((long) engagements.size()));
+	}
+
+	private Cached<CustomerEngagementResponse> fetchCustomerEngagement(final String municipalityId, final String organizationNumber, final List<String> partyIds) {
+		final var key = new CustomerEngagementKey(municipalityId, organizationNumber, List.copyOf(partyIds));
+		final var response = fetch(CUSTOMER_ENGAGEMENT_CACHE, municipalityId, key, () -> client.getCustomerEngagement(municipalityId, organizationNumber, partyIds),
+			revalidated -> cachePerParty(municipalityId, organizationNumber, partyIds, revalidated));
+
+		if (!response.stale() && response.value() != null) {
+			cachePerParty(municipalityId, organizationNumber, partyIds, response.value());
+		}
+		return response;
+	}
+
+	/**
+	 * Caches the engagements of the response per requested party, including parties without engagements. Nothing is
+	 * cached if the response has engagements that can not be attributed to a requested party, as it is then unknown
+	 * which party they belong to.
+	 */
+	private void cachePerParty(final String municipalityId, final String organizationNumber, final List<String> partyIds, final CustomerEngagementResponse response) {
+		if (customerEngagementCache == null) {
+			return;
+		}
+
+		final var partyKeys = partyIds.stream().map(DataWarehouseReaderIntegration::normalize).collect(toSet());
+		final var engagements = ofNullable(response.getCustomerEngagements()).orElse(emptyList());
+		if (!engagements.stream().allMatch(engagement -> isAttributable(engagement, partyKeys))) {
+			return;
+		}
+
+		final var engagementsByPartyId = engagements.stream().collect(groupingBy(engagement -> normalize(engagement.getPartyId())));
+		partyKeys.forEach(partyId -> customerEngagementCache.put(new PartyEngagementKey(municipalityId, organizationNumber, partyId),
+			List.copyOf(engagementsByPartyId.getOrDefault(partyId, emptyList()))));
+	}
+
+	private static boolean isAttributable(final CustomerEngagement engagement, final Set<String> partyKeys) {
+		return engagement.getPartyId() != null && partyKeys.contains(normalize(engagement.getPartyId()));
+	}
+
+	public Cached<InstalledBaseResponse> getInstalledBase(final String municipalityId, final String customerNumber, final String company, final LocalDate modifiedFrom, final int page, final int limit,
+		final String sortBy) {
+
+		final var key = new InstalledBaseKey(municipalityId, customerNumber, company, modifiedFrom, page, limit, sortBy);
+		return fromCache(installedBaseCache, key,
+			() -> fetch(INSTALLED_BASE_CACHE, municipalityId, key, () -> client.getInstalledBase(municipalityId, customerNumber, company, modifiedFrom, page, limit, sortBy),
+				response -> installedBaseCache.put(key, response)));
+	}
+
+	public Cached<InstalledBaseResponse> getInstalledBaseByPartyId(final String municipalityId, final String partyId, final String organizationIds, final LocalDate date, final String sortBy,
+		final Integer page, final Integer limit) {
+
+		final var key = new InstalledBaseByPartyIdKey(municipalityId, partyId, organizationIds, date, sortBy, page, limit);
+		return fromCache(installedBaseByPartyIdCache, key,
+			() -> fetch(INSTALLED_BASE_BY_PARTY_ID_CACHE, municipalityId, key, () -> client.getInstalledBaseByPartyId(municipalityId, partyId, organizationIds, date, sortBy, page, limit),
+				response -> installedBaseByPartyIdCache.put(key, response)));
+	}
+
+	private static <K, V> Cached<V> fromCache(final Cache<K, V> cache, final K key, final Supplier<Cached<V>> call) {
+		if (cache == null) {
+			return call.get();
+		}
+
+		// The upstream call is deliberately made outside of the cache to avoid holding cache locks during slow calls
+		final var cached = cache.getIfPresent(key);
+		if (cached != null) {
+			return Cached.of(cached);
+		}
+
+		final var response = call.get();
+		if (response.value() != null && !response.stale()) {
+			cache.put(key, response.value());
+		}
+		return response;
+	}
+
+	/**
+	 * Executes the call and keeps its response as the last response for the key. If the call is rejected by an open
+	 * circuit breaker, the last response is served (marked as stale) instead and the call is scheduled for revalidation,
+	 * which passes the fresh response to the provided consumer.
+	 */
+	private <V> Cached<V> fetch(final String operation, final String municipalityId, final Object key, final Supplier<V> call, final Consumer<V> revalidated) {
+		try {
+			return Cached.of(fetchAndKeep(operation, key, call));
+		} catch (final CallNotPermittedException e) {
+			@SuppressWarnings("unchecked")
+			final var lastResponse = lastResponseCache == null ? null : (V) lastResponseCache.getIfPresent(key);
+			if (lastResponse == null) {
+				throw e;
+			}
+
+			staleResponseCounters.get(operation).increment();
+			pendingRevalidations.putIfAbsent(key, toRevalidation(operation, municipalityId, key, call, revalidated));
+			return Cached.ofStale(lastResponse);
+		}
+	}
+
+	private <V> Runnable toRevalidation(final String operation, final String municipalityId, final Object key, final Supplier<V> call, final Consumer<V> revalidated) {
+		// The revalidation is made on behalf of the request that was served stale, i.e. with its request id and within the
+		// limit of its municipality, although it runs in the background
+		final var requestId = RequestId.get();
+
+		return () -> {
+			try {
+				RequestId.init(requestId);
+				ofNullable(fanOutExecutor.withMunicipalityPermit(municipalityId, () -> fetchAndKeep(operation, key, call))).ifPresent(revalidated);
+			} finally {
+				RequestId.reset();
+			}
+		};
+	}
+
+	private <V> V fetchAndKeep(final String operation, final Object key, final Supplier<V> call) {
+		final var response = coalesce(operation, key, call);
+		if (response != null && lastResponseCache != null) {
+			lastResponseCache.put(key, response);
+		}
+		return response;
+	}
+
+	/**
+	 * Revalidates, one at a time in the background, the calls that have been served stale. Revalidation stops if the
+	 * circuit breaker rejects a call, and is resumed on the next state transition of the circuit breaker.
+	 */
+	private void revalidate() {
+		if (pendingRevalidations.isEmpty() || !revalidating.compareAndSet(false, true)) {
+			return;
+		}
+
+		Thread.ofVirtual().name("datawarehousereader-revalidation").start(() -> {
+			try {
+				for (final var key : List.copyOf(pendingRevalidations.keySet())) {
+					final var revalidation = pendingRevalidations.remove(key);
+					if (revalidation == null) {
+						continue;
+					}
+					try {
+						revalidation.run();
+					} catch (final CallNotPermittedException e) {
+						pendingRevalidations.putIfAbsent(key, revalidation);
+						return;
+					} catch (final RuntimeException e) {
+						LOGGER.warn("Revalidation of stale DataWarehouseReader response failed", e);
+					}
+				}
+			} finally {
+				revalidating.set(false);
+			}
+		});
+	}
+
+	/**
+	 * Executes the call unless an identical call (i.e. a call with the same key) is already in flight, in which case the
+	 * result or error of that call is shared instead.
+	 */
+	@SuppressWarnings("unchecked")
+	private <V> V coalesce(final String operation, final Object key, final Supplier<V> call) {
+		final var future = new CompletableFuture<>();
+		final var inFlight = inFlightRequests.putIfAbsent(key, future);
+
+		if (inFlight != null) {
+			coalescedRequestCounters.get(operation).increment();
+			return (V) awaitInFlight(inFlight);
+		}
+
+		try {
+			final var response = call.get();
+			future.complete(response);
+			return response;
+		} catch (final RuntimeException | Error e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlightRequests.remove(key, future);
+		}
+	}
+
+	private static Object awaitInFlight(final CompletableFuture<Object> inFlight) {
+		try {
+			return inFlight.join();
+		} catch (final CompletionException e) {
+			if (e.getCause() instanceof final RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (e.getCause() instanceof final Error error) {
+				throw error;
+			}
+			throw e;
+		}
+	}
+
+	private static int weigh(final Object response) {
+		return switch (response) {
+			case final InstalledBaseResponse installedBaseResponse -> ofNullable(installedBaseResponse.getInstalledBase()).orElse(emptyList()).size();
+			case final CustomerEngagementResponse customerEngagementResponse -> ofNullable(customerEngagementResponse.getCustomerEngagements()).orElse(emptyList()).size();
+			default -> 0;
+		};
+	}
+
+	private static String normalize(final String partyId) {
+		return partyId.toLowerCase(Locale.ROOT);
+	}
+
+	private static <K, V> Cache<K, V> createCache(final String name, final Function<V, Duration> timeToLive, final long maximumWeight, final ToIntFunction<V> weigher, final MeterRegistry meterRegistry) {
+		final Cache<K, V> cache = Caffeine.newBuilder()
+			.expireAfter(expireAfterWrite(timeToLive))
+			.maximumWeight(maximumWeight)
+			.weigher((K key, V value) -> weigher.applyAsInt(value) + 1)
+			.recordStats()
+			.build();
+
+		return CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+	}
+
+	private static <K, V> Expiry<K, V> expireAfterWrite(final Function<V, Duration> timeToLive) {
+		return new Expiry<>() {
+			@Override
+			public long expireAfterCreate(final K key, final V value, final long currentTime) {
+				return timeToLive.apply(value).toNanos();
+			}
+
+			@Override
+			public long expireAfterUpdate(final K key, final V value, final long currentTime, final long currentDuration) {
+				return timeToLive.apply(value).toNanos();
+			}
+
+			@Override
+			public long expireAfterRead(final K key, final V value, final long currentTime, final long currentDuration) {
+				return currentDuration;
+			}
+		};
+	}
+
+	record CustomerEngagementKey(String municipalityId, String organizationNumber, List<String> partyIds) {
+	}
+
+	record PartyEngagementKey(String municipalityId, String organizationNumber, String partyId) {
+	}
+
+	record InstalledBaseKey(String municipalityId, String customerNumber, String company, LocalDate modifiedFrom, int page, int limit, String sortBy) {
+	}
+
+	record InstalledBaseByPartyIdKey(String municipalityId, String partyId, String organizationIds, LocalDate date, String sortBy, Integer page, Integer limit) {
+	}
+}
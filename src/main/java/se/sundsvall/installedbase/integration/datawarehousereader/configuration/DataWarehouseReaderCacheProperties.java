@@ -0,0 +1,8 @@
+package se.sundsvall.installedbase.integration.datawarehousereader.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("integration.datawarehousereader.cache")
+public record DataWarehouseReaderCacheProperties(boolean enabled, long maximumWeight, Duration installedBaseTimeToLive, Duration installedBaseByPartyIdTimeToLive, Duration customerEngagementTimeToLive, Duration customerEngagementNegativeTimeToLive, Duration staleTimeToLive) {
+}
@@ -0,0 +1,21 @@
+package se.sundsvall.installedbase.integration.db;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import se.sundsvall.installedbase.integration.db.model.DelegationChangeSequenceEntity;
+
+public interface DelegationChangeSequenceRepository extends JpaRepository<DelegationChangeSequenceEntity, String> {
+
+	// Increments the latest change id of the municipality, creating it if missing. The row stays locked until the
+	// transaction is committed, making other transactions taking change ids of the municipality wait for the commit
+	@Modifying
+	@Query(nativeQuery = true, value = """
+		insert into delegation_change_sequence (municipality_id, change_id) values (:municipalityId, :count)
+		on duplicate key update change_id = change_id + :count""")
+	int increment(@Param("municipalityId") String municipalityId, @Param("count") long count);
+
+	@Query("select s.changeId from DelegationChangeSequenceEntity s where s.municipalityId = :municipalityId")
+	long findChangeId(@Param("municipalityId") String municipalityId);
+}
@@ -0,0 +1,24 @@
+package se.sundsvall.installedbase.integration.db;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import se.sundsvall.installedbase.integration.db.model.DelegationEventEntity;
+
+public interface DelegationEventRepository extends JpaRepository<DelegationEventEntity, Long> {
+
+	// The earliest pending event of each delegation if it is due, as later events of a delegation must wait for it
+	@Query("""
+		select e from DelegationEventEntity e
+		where e.status = se.sundsvall.installedbase.integration.db.model.DelegationEventStatus.PENDING
+		and e.nextAttempt <= :now
+		and e.id in (
+			select min(p.id) from DelegationEventEntity p
+			where p.status = se.sundsvall.installedbase.integration.db.model.DelegationEventStatus.PENDING
+			group by p.delegationId)
+		order by e.id""")
+	List<DelegationEventEntity> findDueForDispatch(@Param("now") OffsetDateTime now, Limit limit);
+}
@@ -1,8 +1,53 @@
 package se.sundsvall.installedbase.integration.db;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import se.sundsvall.installedbase.integration.db.model.DelegatedFacility;
 import se.sundsvall.installedbase.integration.db.model.DelegationEntity;
+import se.sundsvall.installedbase.integration.db.model.DelegationKey;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static se.sundsvall.installedbase.integration.db.model.DelegationEntity_.FACILITIES;
 
 public interface DelegationRepository extends JpaRepository<DelegationEntity, String>, JpaSpecificationExecutor<DelegationEntity> {
+
+	// Facilities are fetched together with the delegations, as they are always read, to avoid one query per delegation
+	@Override
+	@EntityGraph(attributePaths = FACILITIES)
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	List<DelegationEntity> findAll(Specification<DelegationEntity> spec);
+
+	@Override
+	@EntityGraph(attributePaths = FACILITIES)
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	Optional<DelegationEntity> findOne(Specification<DelegationEntity> spec);
+
+	// Searches by owner or delegate are repeated for the same parties, why both the page and its count are cached
+	@Override
+	@QueryHints(value = @QueryHint(name = HINT_CACHEABLE, value = "true"), forCounting = true)
+	Page<DelegationEntity> findAll(Specification<DelegationEntity> spec, Pageable pageable);
+
+	// Owner and delegate of the owners' delegations, to detect duplicates for many delegations in one query
+	List<DelegationKey> findByMunicipalityIdAndOwnerIn(String municipalityId, Collection<String> owners);
+
+	// Only the columns needed for the access index are read, instead of all delegations and facilities as entities
+	@Query("""
+		select new se.sundsvall.installedbase.integration.db.model.DelegatedFacility(d.municipalityId, d.id, d.changeId, d.owner, d.delegatedTo, f.facilityId, f.businessEngagementOrgId)
+		from DelegationEntity d join d.facilities f""")
+	List<DelegatedFacility> findAllDelegatedFacilities();
+
+	// The version alone, for checking preconditions without reading the delegation and its facilities
+	@Query("select d.version from DelegationEntity d where d.municipalityId = :municipalityId and d.id = :id")
+	Optional<Long> findVersion(@Param("municipalityId") String municipalityId, @Param("id") String id);
 }
@@ -0,0 +1,19 @@
+package se.sundsvall.installedbase.integration.db;
+
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import se.sundsvall.installedbase.integration.db.model.DelegationTombstoneEntity;
+
+public interface DelegationTombstoneRepository extends JpaRepository<DelegationTombstoneEntity, String> {
+
+	// Reads the deletions following a position of the change feed, in change id order
+	@Query("""
+		select t from DelegationTombstoneEntity t
+		where t.municipalityId = :municipalityId
+		and t.changeId > :changeId
+		order by t.changeId""")
+	List<DelegationTombstoneEntity> findDeletedAfter(@Param("municipalityId") String municipalityId, @Param("changeId") long changeId, Limit limit);
+}
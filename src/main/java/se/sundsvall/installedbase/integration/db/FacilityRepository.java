@@ -1,12 +1,25 @@
 package se.sundsvall.installedbase.integration.db;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.installedbase.integration.db.model.FacilityEntity;
 
 public interface FacilityRepository extends JpaRepository<FacilityEntity, String> {
-	Optional<FacilityEntity> findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase(String facilityId, String businessEngagementOrgId);
+	// Facilities are looked up by their normalized key, which is indexed, rather than comparing columns ignoring case
+	List<FacilityEntity> findAllByFacilityKeyIn(Collection<String> facilityKeys);
 
-	List<FacilityEntity> findAllByDelegationsIsEmpty();
+	@Query("select f.id from FacilityEntity f where f.delegations is empty")
+	List<String> findIdsByDelegationsIsEmpty(Pageable pageable);
+
+	// Only the given facilities are examined, which avoids scanning the whole facility table for orphans
+	@Transactional
+	@Modifying
+	@Query("delete from FacilityEntity f where f.id in :ids and f.delegations is empty")
+	int deleteByIdInAndDelegationsIsEmpty(@Param("ids") Collection<String> ids);
 }
@@ -0,0 +1,9 @@
+package se.sundsvall.installedbase.integration.db;
+
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import se.sundsvall.installedbase.integration.db.model.InstalledBaseCustomerEntity;
+
+public interface InstalledBaseCustomerRepository extends JpaRepository<InstalledBaseCustomerEntity, String> {
+	Optional<InstalledBaseCustomerEntity> findByMunicipalityIdAndCustomerNumberAndCompany(String municipalityId, String customerNumber, String company);
+}
@@ -0,0 +1,26 @@
+package se.sundsvall.installedbase.integration.db;
+
+import java.time.OffsetDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import se.sundsvall.installedbase.integration.db.model.SchedulerLockEntity;
+
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLockEntity, String> {
+
+	// Creates a lock which has not been used before, failing with a constraint violation if it already exists
+	@Modifying
+	@Query("insert into SchedulerLockEntity (name, lockUntil, lockedAt, lockedBy) values (:name, :lockUntil, :lockedAt, :lockedBy)")
+	int insertLock(@Param("name") String name, @Param("lockUntil") OffsetDateTime lockUntil, @Param("lockedAt") OffsetDateTime lockedAt, @Param("lockedBy") String lockedBy);
+
+	// Takes the lock only if it is free, i.e. one row is updated when the lock is taken and none when it is held
+	@Modifying
+	@Query("update SchedulerLockEntity l set l.lockUntil = :lockUntil, l.lockedAt = :lockedAt, l.lockedBy = :lockedBy where l.name = :name and l.lockUntil <= :lockedAt")
+	int updateLock(@Param("name") String name, @Param("lockUntil") OffsetDateTime lockUntil, @Param("lockedAt") OffsetDateTime lockedAt, @Param("lockedBy") String lockedBy);
+
+	// Releases the lock, unless it has expired and been taken by someone else in the meantime
+	@Modifying
+	@Query("update SchedulerLockEntity l set l.lockUntil = :now where l.name = :name and l.lockedAt = :lockedAt and l.lockedBy = :lockedBy")
+	int releaseLock(@Param("name") String name, @Param("lockedAt") OffsetDateTime lockedAt, @Param("lockedBy") String lockedBy, @Param("now") OffsetDateTime now);
+}
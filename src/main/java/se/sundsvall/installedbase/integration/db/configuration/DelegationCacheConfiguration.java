@@ -0,0 +1,84 @@
+package se.sundsvall.installedbase.integration.db.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.util.List;
+import java.util.OptionalLong;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.hibernate.cache.jcache.ConfigSettings.CACHE_MANAGER;
+import static org.hibernate.cache.spi.RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+import static org.hibernate.cache.spi.RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+import static org.hibernate.cfg.CacheSettings.CACHE_REGION_FACTORY;
+import static org.hibernate.cfg.CacheSettings.USE_QUERY_CACHE;
+import static org.hibernate.cfg.CacheSettings.USE_SECOND_LEVEL_CACHE;
+import static org.hibernate.cfg.StatisticsSettings.GENERATE_STATISTICS;
+
+/**
+ * Opt-in Hibernate second-level cache for delegations, their facilities and the delegation lookups, including the
+ * paged searches by owner or delegate and their counts. Entries are
+ * invalidated by Hibernate when delegations and facilities are written through the persistence context or by bulk
+ * statements. Statistics are enabled together with the cache, which exposes hit and miss counts as metrics.
+ * <p>
+ * The cache is held in memory by each instance and only invalidated by writes made by the same instance, why it must
+ * only be enabled when the service runs as a single instance. It is disabled by default.
+ */
+@Configuration
+@EnableConfigurationProperties(DelegationCacheProperties.class)
+public class DelegationCacheConfiguration {
+
+	public static final String DELEGATION_REGION = "delegation";
+	public static final String DELEGATION_FACILITIES_REGION = "delegation.facilities";
+	public static final String FACILITY_REGION = "facility";
+
+	private static final List<String> BOUNDED_REGIONS = List.of(DELEGATION_REGION, DELEGATION_FACILITIES_REGION, FACILITY_REGION, DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+	@Bean
+	HibernatePropertiesCustomizer delegationCacheCustomizer(final DelegationCacheProperties properties) {
+		return hibernateProperties -> {
+			hibernateProperties.put(USE_SECOND_LEVEL_CACHE, properties.enabled());
+			hibernateProperties.put(USE_QUERY_CACHE, properties.enabled());
+
+			if (properties.enabled()) {
+				hibernateProperties.put(CACHE_REGION_FACTORY, "jcache");
+				hibernateProperties.put(CACHE_MANAGER, createCacheManager(properties));
+				hibernateProperties.put(GENERATE_STATISTICS, true);
+			}
+		};
+	}
+
+	static CacheManager createCacheManager(final DelegationCacheProperties properties) {
+		final var cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+
+		BOUNDED_REGIONS.forEach(region -> {
+			final var configuration = createConfiguration();
+			configuration.setMaximumSize(OptionalLong.of(properties.maximumSize()));
+			configuration.setExpireAfterWrite(OptionalLong.of(properties.timeToLive().toNanos()));
+			recreateCache(cacheManager, region, configuration);
+		});
+
+		// The update timestamps must outlive every cached query result, hence they are neither bounded nor expired
+		recreateCache(cacheManager, DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, createConfiguration());
+
+		return cacheManager;
+	}
+
+	private static CaffeineConfiguration<Object, Object> createConfiguration() {
+		final var configuration = new CaffeineConfiguration<>();
+		// Hibernate never mutates cached entries, so copying them on every read and write is not needed
+		configuration.setStoreByValue(false);
+		configuration.setStatisticsEnabled(true);
+		return configuration;
+	}
+
+	private static void recreateCache(final CacheManager cacheManager, final String region, final CaffeineConfiguration<Object, Object> configuration) {
+		// The caching provider shares its cache manager, so caches from an earlier application context are replaced
+		cacheManager.destroyCache(region);
+		cacheManager.createCache(region, configuration);
+	}
+}
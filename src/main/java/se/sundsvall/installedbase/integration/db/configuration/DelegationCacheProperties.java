@@ -0,0 +1,8 @@
+package se.sundsvall.installedbase.integration.db.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("delegation.cache")
+public record DelegationCacheProperties(boolean enabled, long maximumSize, Duration timeToLive) {
+}
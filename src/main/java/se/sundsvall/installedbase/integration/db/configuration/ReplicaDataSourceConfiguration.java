@@ -0,0 +1,48 @@
+package se.sundsvall.installedbase.integration.db.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in routing of read-only transactions to a database replica. The auto-configured data source is kept as primary
+ * and wrapped, rather than replaced, so that it is still set up from the spring.datasource properties.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReplicaDataSourceConfiguration {
+
+	private static final String DATA_SOURCE_BEAN_NAME = "dataSource";
+	private static final String REPLICA_POOL_NAME = "replica";
+
+	@Bean
+	@ConditionalOnProperty(name = "integration.db.replica.enabled", havingValue = "true")
+	static BeanPostProcessor replicaRoutingDataSourcePostProcessor(final ObjectProvider<ReplicaDataSourceProperties> properties) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+				if (DATA_SOURCE_BEAN_NAME.equals(beanName) && bean instanceof final DataSource dataSource) {
+					return new ReplicaRoutingDataSource(dataSource, createReplicaDataSource(properties.getObject()));
+				}
+				return bean;
+			}
+		};
+	}
+
+	static HikariDataSource createReplicaDataSource(final ReplicaDataSourceProperties properties) {
+		// The pool is started on first use, which keeps an unavailable replica from failing the startup
+		final var dataSource = new HikariDataSource();
+		dataSource.setPoolName(REPLICA_POOL_NAME);
+		dataSource.setJdbcUrl(properties.url());
+		dataSource.setUsername(properties.username());
+		dataSource.setPassword(properties.password());
+		dataSource.setReadOnly(true);
+		dataSource.setConnectionTimeout(properties.connectionTimeout().toMillis());
+		return dataSource;
+	}
+}
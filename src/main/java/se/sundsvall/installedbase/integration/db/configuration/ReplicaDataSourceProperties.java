@@ -0,0 +1,8 @@
+package se.sundsvall.installedbase.integration.db.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("integration.db.replica")
+public record ReplicaDataSourceProperties(boolean enabled, String url, String username, String password, Duration connectionTimeout) {
+}
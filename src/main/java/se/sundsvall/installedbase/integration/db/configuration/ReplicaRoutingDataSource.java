@@ -0,0 +1,57 @@
+package se.sundsvall.installedbase.integration.db.configuration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Data source sending read-only transactions to a replica and everything else to the primary. The physical connection
+ * is fetched when the first statement is executed, as the transaction manager marks the connection as read-only after
+ * having requested it. Read-only transactions use the primary when no connection can be obtained from the replica.
+ */
+class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+	private final DataSource primary;
+	private final DataSource replica;
+
+	ReplicaRoutingDataSource(final DataSource primary, final DataSource replica) {
+		super(primary);
+		this.primary = primary;
+		this.replica = replica;
+		setReadOnlyDataSource(new ReplicaWithFallbackDataSource());
+	}
+
+	@Override
+	public void close() throws Exception {
+		// Replaces the primary as bean, hence both pools are closed with the application context
+		if (replica instanceof final AutoCloseable closeable) {
+			closeable.close();
+		}
+		if (primary instanceof final AutoCloseable closeable) {
+			closeable.close();
+		}
+	}
+
+	private final class ReplicaWithFallbackDataSource extends DelegatingDataSource {
+
+		private ReplicaWithFallbackDataSource() {
+			super(replica);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			try {
+				return super.getConnection();
+			} catch (final SQLException e) {
+				LOGGER.warn("Unable to get connection from replica, using primary for read-only transaction", e);
+				return primary.getConnection();
+			}
+		}
+	}
+}
@@ -0,0 +1,8 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+/**
+ * A facility of a delegation, together with the owner and delegate of the delegation. Read for all delegations when
+ * the access index is built, hence only holding the columns needed by the index.
+ */
+public record DelegatedFacility(String municipalityId, String delegationId, Long changeId, String owner, String delegatedTo, String facilityId, String businessEngagementOrgId) {
+}
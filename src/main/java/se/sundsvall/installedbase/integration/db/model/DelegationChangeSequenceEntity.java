@@ -0,0 +1,75 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.Objects;
+
+/**
+ * The latest change id given to a change of a delegation within a municipality. The row is locked by the transaction
+ * taking the next change ids until it is committed, hence change ids are given in the order that the changes are
+ * committed.
+ */
+@Entity
+@Table(name = "delegation_change_sequence")
+public class DelegationChangeSequenceEntity {
+
+	@Id
+	@Column(name = "municipality_id", length = 4)
+	private String municipalityId;
+
+	@Column(name = "change_id", nullable = false)
+	private Long changeId;
+
+	public static DelegationChangeSequenceEntity create() {
+		return new DelegationChangeSequenceEntity();
+	}
+
+	public String getMunicipalityId() {
+		return municipalityId;
+	}
+
+	public void setMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+	}
+
+	public DelegationChangeSequenceEntity withMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+		return this;
+	}
+
+	public Long getChangeId() {
+		return changeId;
+	}
+
+	public void setChangeId(Long changeId) {
+		this.changeId = changeId;
+	}
+
+	public DelegationChangeSequenceEntity withChangeId(Long changeId) {
+		this.changeId = changeId;
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof final DelegationChangeSequenceEntity that)) {
+			return false;
+		}
+		return Objects.equals(municipalityId, that.municipalityId) && Objects.equals(changeId, that.changeId);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(municipalityId, changeId);
+	}
+
+	@Override
+	public String toString() {
+		return "DelegationChangeSequenceEntity{" +
+			"municipalityId='" + municipalityId + '\'' +
+			", changeId=" + changeId +
+			'}';
+	}
+}
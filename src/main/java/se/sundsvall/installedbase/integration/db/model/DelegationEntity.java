@@ -1,5 +1,6 @@
 package se.sundsvall.installedbase.integration.db.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,20 +14,31 @@ import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.TimeZoneStorage;
 import org.hibernate.annotations.UuidGenerator;
 
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
+import static se.sundsvall.installedbase.integration.db.configuration.DelegationCacheConfiguration.DELEGATION_FACILITIES_REGION;
+import static se.sundsvall.installedbase.integration.db.configuration.DelegationCacheConfiguration.DELEGATION_REGION;
 
 @Entity
+@Cacheable
+@Cache(usage = READ_WRITE, region = DELEGATION_REGION)
 @Table(name = "delegation",
 	indexes = {
-		@Index(name = "idx_municipality_id_delegated_to", columnList = "municipality_id, delegated_to"),
-		@Index(name = "idx_municipality_id_owner", columnList = "municipality_id, owner")
+		// Created and id are included to support scanning delegations in (created, id) order when paging
+		@Index(name = "idx_municipality_id_delegated_to_created", columnList = "municipality_id, delegated_to, created, id"),
+		@Index(name = "idx_municipality_id_owner_created", columnList = "municipality_id, owner, created, id"),
+		// Supports reading the changed delegations in change id order for the change feed
+		@Index(name = "idx_municipality_id_change_id", columnList = "municipality_id, change_id")
 	},
 	// Unique constraint to ensure that an owner can only have unique delegations to other persons, i.e. no duplicate
 	// delegations
@@ -59,7 +71,12 @@ public class DelegationEntity {
 			name = "uk_delegation_facility",
 			columnNames = {
 				"delegation_ref_id", "facility_ref_id"
-			}))
+			}),
+		// Supports finding the delegations of a facility without reading the join table rows
+		indexes = @Index(name = "idx_facility_ref_id_delegation_ref_id", columnList = "facility_ref_id, delegation_ref_id"))
+	// Facilities of a page of delegations are loaded in batches, as fetch joins cannot be combined with paging
+	@BatchSize(size = 100)
+	@Cache(usage = READ_WRITE, region = DELEGATION_FACILITIES_REGION)
 	private Set<FacilityEntity> facilities = new HashSet<>();
 
 	@Column(length = 36, name = "delegated_to", nullable = false)
@@ -75,10 +92,20 @@ public class DelegationEntity {
 	@TimeZoneStorage(NORMALIZE)
 	private OffsetDateTime created;
 
+	// Time of the latest change of the delegation, i.e. the creation time until the delegation is updated
 	@Column(name = "updated")
 	@TimeZoneStorage(NORMALIZE)
 	private OffsetDateTime updated;
 
+	// Id of the latest change of the delegation, taken from the change sequence of the municipality on every change
+	@Column(name = "change_id", nullable = false)
+	private Long changeId;
+
+	// Incremented on every change of the delegation, including changes of its facilities
+	@Version
+	@Column(name = "version", nullable = false)
+	private Long version;
+
 	public static DelegationEntity create() {
 		return new DelegationEntity();
 	}
@@ -93,6 +120,9 @@ public class DelegationEntity {
 		if (Objects.isNull(created)) {
 			created = OffsetDateTime.now();
 		}
+		if (Objects.isNull(updated)) {
+			updated = created;
+		}
 	}
 
 	public String getId() {
@@ -151,6 +181,22 @@ public class DelegationEntity {
 		this.updated = changed;
 	}
 
+	public Long getChangeId() {
+		return changeId;
+	}
+
+	public void setChangeId(Long changeId) {
+		this.changeId = changeId;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public DelegationEntity withId(String id) {
 		this.id = id;
 		return this;
@@ -186,18 +232,29 @@ public class DelegationEntity {
 		return this;
 	}
 
+	public DelegationEntity withChangeId(Long changeId) {
+		this.changeId = changeId;
+		return this;
+	}
+
+	public DelegationEntity withVersion(Long version) {
+		this.version = version;
+		return this;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (!(o instanceof final DelegationEntity that)) {
 			return false;
 		}
 		return Objects.equals(id, that.id) && Objects.equals(delegatedTo, that.delegatedTo) && Objects.equals(municipalityId, that.municipalityId)
-			&& Objects.equals(owner, that.owner) && Objects.equals(created, that.created) && Objects.equals(updated, that.updated);
+			&& Objects.equals(owner, that.owner) && Objects.equals(created, that.created) && Objects.equals(updated, that.updated)
+			&& Objects.equals(changeId, that.changeId) && Objects.equals(version, that.version);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(id, delegatedTo, municipalityId, owner, created, updated);
+		return Objects.hash(id, delegatedTo, municipalityId, owner, created, updated, changeId, version);
 	}
 
 	@Override
@@ -210,6 +267,8 @@ public class DelegationEntity {
 			", owner='" + owner + '\'' +
 			", created=" + created +
 			", updated=" + updated +
+			", changeId=" + changeId +
+			", version=" + version +
 			'}';
 	}
 }
@@ -0,0 +1,212 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.TimeZoneStorage;
+import org.hibernate.type.SqlTypes;
+
+import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
+import static se.sundsvall.installedbase.integration.db.model.DelegationEventStatus.PENDING;
+
+/**
+ * Outbox entry for an event that is to be sent to Eventlog. Entries are written in the same transaction as the
+ * delegation change they describe, and delivered asynchronously in id order per delegation. Entries that could not be
+ * delivered are kept with status {@link DelegationEventStatus#FAILED}.
+ */
+@Entity
+@Table(name = "delegation_event",
+	indexes = {
+		@Index(name = "idx_delegation_event_status_delegation_id", columnList = "status, delegation_id")
+	})
+public class DelegationEventEntity {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "municipality_id", length = 4, nullable = false)
+	private String municipalityId;
+
+	@Column(name = "delegation_id", length = 36, nullable = false)
+	private String delegationId;
+
+	@Column(name = "event", columnDefinition = "longtext", nullable = false)
+	private String event; // The Eventlog event as JSON
+
+	@Enumerated(EnumType.STRING)
+	@JdbcTypeCode(SqlTypes.VARCHAR)
+	@Column(name = "status", length = 16, nullable = false)
+	private DelegationEventStatus status;
+
+	@Column(name = "attempts", nullable = false)
+	private int attempts; // Number of failed delivery attempts
+
+	@Column(name = "next_attempt", nullable = false)
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime nextAttempt;
+
+	@Column(name = "created", nullable = false)
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime created;
+
+	public static DelegationEventEntity create() {
+		return new DelegationEventEntity();
+	}
+
+	@PrePersist
+	void onCreate() {
+		if (Objects.isNull(created)) {
+			created = OffsetDateTime.now();
+		}
+		if (Objects.isNull(nextAttempt)) {
+			nextAttempt = created;
+		}
+		if (Objects.isNull(status)) {
+			status = PENDING;
+		}
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public DelegationEventEntity withId(Long id) {
+		this.id = id;
+		return this;
+	}
+
+	public String getMunicipalityId() {
+		return municipalityId;
+	}
+
+	public void setMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+	}
+
+	public DelegationEventEntity withMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+		return this;
+	}
+
+	public String getDelegationId() {
+		return delegationId;
+	}
+
+	public void setDelegationId(String delegationId) {
+		this.delegationId = delegationId;
+	}
+
+	public DelegationEventEntity withDelegationId(String delegationId) {
+		this.delegationId = delegationId;
+		return this;
+	}
+
+	public String getEvent() {
+		return event;
+	}
+
+	public void setEvent(String event) {
+		this.event = event;
+	}
+
+	public DelegationEventEntity withEvent(String event) {
+		this.event = event;
+		return this;
+	}
+
+	public DelegationEventStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(DelegationEventStatus status) {
+		this.status = status;
+	}
+
+	public DelegationEventEntity withStatus(DelegationEventStatus status) {
+		this.status = status;
+		return this;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	public DelegationEventEntity withAttempts(int attempts) {
+		this.attempts = attempts;
+		return this;
+	}
+
+	public OffsetDateTime getNextAttempt() {
+		return nextAttempt;
+	}
+
+	public void setNextAttempt(OffsetDateTime nextAttempt) {
+		this.nextAttempt = nextAttempt;
+	}
+
+	public DelegationEventEntity withNextAttempt(OffsetDateTime nextAttempt) {
+		this.nextAttempt = nextAttempt;
+		return this;
+	}
+
+	public OffsetDateTime getCreated() {
+		return created;
+	}
+
+	public void setCreated(OffsetDateTime created) {
+		this.created = created;
+	}
+
+	public DelegationEventEntity withCreated(OffsetDateTime created) {
+		this.created = created;
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof final DelegationEventEntity that)) {
+			return false;
+		}
+		return attempts == that.attempts && Objects.equals(id, that.id) && Objects.equals(municipalityId, that.municipalityId) && Objects.equals(delegationId, that.delegationId)
+			&& Objects.equals(event, that.event) && status == that.status && Objects.equals(nextAttempt, that.nextAttempt) && Objects.equals(created, that.created);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, municipalityId, delegationId, event, status, attempts, nextAttempt, created);
+	}
+
+	@Override
+	public String toString() {
+		return "DelegationEventEntity{" +
+			"id=" + id +
+			", municipalityId='" + municipalityId + '\'' +
+			", delegationId='" + delegationId + '\'' +
+			", event='" + event + '\'' +
+			", status=" + status +
+			", attempts=" + attempts +
+			", nextAttempt=" + nextAttempt +
+			", created=" + created +
+			'}';
+	}
+}
@@ -0,0 +1,9 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+/**
+ * Status of an event in the delegation event outbox.
+ */
+public enum DelegationEventStatus {
+	PENDING, // Waiting to be delivered to Eventlog
+	FAILED // Delivery failed the maximum number of attempts, kept for manual handling
+}
@@ -0,0 +1,17 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import java.util.Locale;
+
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+/**
+ * The owner and delegate of a delegation, i.e. the columns that, together with the municipality, identify a delegation
+ * by the unique constraint uk_delegated_to_owner. Both are compared ignoring case, as the database does.
+ */
+public record DelegationKey(String owner, String delegatedTo) {
+
+	public DelegationKey {
+		owner = lowerCase(owner, Locale.ROOT);
+		delegatedTo = lowerCase(delegatedTo, Locale.ROOT);
+	}
+}
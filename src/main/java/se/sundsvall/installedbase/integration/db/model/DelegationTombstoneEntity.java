@@ -0,0 +1,162 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import org.hibernate.annotations.TimeZoneStorage;
+
+import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
+
+/**
+ * Record of a deleted delegation, written in the same transaction as the deletion, for the change feed to report the
+ * deletion to clients synchronizing delegations.
+ */
+@Entity
+@Table(name = "delegation_tombstone",
+	indexes = {
+		// Supports reading the deleted delegations in change id order for the change feed
+		@Index(name = "idx_delegation_tombstone_municipality_id_change_id", columnList = "municipality_id, change_id")
+	})
+public class DelegationTombstoneEntity {
+
+	@Id
+	@Column(name = "delegation_id", length = 36)
+	private String delegationId;
+
+	@Column(name = "municipality_id", length = 4, nullable = false)
+	private String municipalityId;
+
+	@Column(name = "owner", length = 36, nullable = false)
+	private String owner;
+
+	@Column(name = "delegated_to", length = 36, nullable = false)
+	private String delegatedTo;
+
+	@Column(name = "deleted", nullable = false)
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime deleted;
+
+	// Id of the deletion, taken from the change sequence of the municipality
+	@Column(name = "change_id", nullable = false)
+	private Long changeId;
+
+	public static DelegationTombstoneEntity create() {
+		return new DelegationTombstoneEntity();
+	}
+
+	@PrePersist
+	void onCreate() {
+		if (Objects.isNull(deleted)) {
+			deleted = OffsetDateTime.now();
+		}
+	}
+
+	public String getDelegationId() {
+		return delegationId;
+	}
+
+	public void setDelegationId(String delegationId) {
+		this.delegationId = delegationId;
+	}
+
+	public DelegationTombstoneEntity withDelegationId(String delegationId) {
+		this.delegationId = delegationId;
+		return this;
+	}
+
+	public String getMunicipalityId() {
+		return municipalityId;
+	}
+
+	public void setMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+	}
+
+	public DelegationTombstoneEntity withMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+		return this;
+	}
+
+	public String getOwner() {
+		return owner;
+	}
+
+	public void setOwner(String owner) {
+		this.owner = owner;
+	}
+
+	public DelegationTombstoneEntity withOwner(String owner) {
+		this.owner = owner;
+		return this;
+	}
+
+	public String getDelegatedTo() {
+		return delegatedTo;
+	}
+
+	public void setDelegatedTo(String delegatedTo) {
+		this.delegatedTo = delegatedTo;
+	}
+
+	public DelegationTombstoneEntity withDelegatedTo(String delegatedTo) {
+		this.delegatedTo = delegatedTo;
+		return this;
+	}
+
+	public OffsetDateTime getDeleted() {
+		return deleted;
+	}
+
+	public void setDeleted(OffsetDateTime deleted) {
+		this.deleted = deleted;
+	}
+
+	public DelegationTombstoneEntity withDeleted(OffsetDateTime deleted) {
+		this.deleted = deleted;
+		return this;
+	}
+
+	public Long getChangeId() {
+		return changeId;
+	}
+
+	public void setChangeId(Long changeId) {
+		this.changeId = changeId;
+	}
+
+	public DelegationTombstoneEntity withChangeId(Long changeId) {
+		this.changeId = changeId;
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof final DelegationTombstoneEntity that)) {
+			return false;
+		}
+		return Objects.equals(delegationId, that.delegationId) && Objects.equals(municipalityId, that.municipalityId) && Objects.equals(owner, that.owner)
+			&& Objects.equals(delegatedTo, that.delegatedTo) && Objects.equals(deleted, that.deleted) && Objects.equals(changeId, that.changeId);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(delegationId, municipalityId, owner, delegatedTo, deleted, changeId);
+	}
+
+	@Override
+	public String toString() {
+		return "DelegationTombstoneEntity{" +
+			"delegationId='" + delegationId + '\'' +
+			", municipalityId='" + municipalityId + '\'' +
+			", owner='" + owner + '\'' +
+			", delegatedTo='" + delegatedTo + '\'' +
+			", deleted=" + deleted +
+			", changeId=" + changeId +
+			'}';
+	}
+}
@@ -1,18 +1,31 @@
 package se.sundsvall.installedbase.integration.db.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.UuidGenerator;
 
+import static org.apache.commons.lang3.StringUtils.defaultString;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+import static org.apache.commons.lang3.StringUtils.strip;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
+import static se.sundsvall.installedbase.integration.db.configuration.DelegationCacheConfiguration.FACILITY_REGION;
+
 @Entity
+@Cacheable
+@Cache(usage = READ_WRITE, region = FACILITY_REGION)
 @Table(name = "facility",
 	indexes = {
 		@Index(name = "idx_facility_id", columnList = "facility_id")
@@ -22,10 +35,17 @@ import org.hibernate.annotations.UuidGenerator;
 			name = "uk_facility_id_business_engagement_org_id",
 			columnNames = {
 				"facility_id", "business_engagement_org_id"
-			})
+			}),
+		@UniqueConstraint(
+			name = "uk_facility_key",
+			columnNames = "facility_key")
 	})
 public class FacilityEntity {
 
+	private static final String FACILITY_KEY_SEPARATOR = "|";
+	// The characters matched by [[:space:]] in the migration creating the facility keys (V1_5), which must be the same
+	private static final String WHITESPACE = " \t\n\u000B\f\r";
+
 	@Id
 	@UuidGenerator
 	@Column(name = "id", length = 36)
@@ -37,6 +57,10 @@ public class FacilityEntity {
 	@Column(name = "business_engagement_org_id", length = 20)
 	private String businessEngagementOrgId;
 
+	// Normalized business engagement org id and facility id, for lookups ignoring case that can use an index
+	@Column(name = "facility_key", length = 280, nullable = false)
+	private String facilityKey;
+
 	@ManyToMany(mappedBy = "facilities")
 	private List<DelegationEntity> delegations = new ArrayList<>();
 
@@ -44,6 +68,42 @@ public class FacilityEntity {
 		return new FacilityEntity();
 	}
 
+	/**
+	 * Creates the normalized key of a facility, i.e. the business engagement org id and facility id stripped of
+	 * surrounding whitespace and lower-cased. The org id comes first, as it (unlike the facility id) never contains the
+	 * separator.
+	 *
+	 * @param  facilityId              the facility id
+	 * @param  businessEngagementOrgId the business engagement org id
+	 * @return                         the facility key
+	 */
+	public static String toFacilityKey(String facilityId, String businessEngagementOrgId) {
+		return normalize(businessEngagementOrgId) + FACILITY_KEY_SEPARATOR + normalize(facilityId);
+	}
+
+	private static String normalize(String value) {
+		return lowerCase(strip(defaultString(value), WHITESPACE), Locale.ROOT);
+	}
+
+	@PrePersist
+	@PreUpdate
+	void onWrite() {
+		facilityKey = toFacilityKey(facilityId, businessEngagementOrgId);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public FacilityEntity withId(String id) {
+		this.id = id;
+		return this;
+	}
+
 	public String getFacilityId() {
 		return facilityId;
 	}
@@ -70,6 +130,19 @@ public class FacilityEntity {
 		return this;
 	}
 
+	public String getFacilityKey() {
+		return facilityKey;
+	}
+
+	public void setFacilityKey(String facilityKey) {
+		this.facilityKey = facilityKey;
+	}
+
+	public FacilityEntity withFacilityKey(String facilityKey) {
+		this.facilityKey = facilityKey;
+		return this;
+	}
+
 	public List<DelegationEntity> getDelegations() {
 		return delegations;
 	}
@@ -84,6 +157,7 @@ public class FacilityEntity {
 			"id='" + id + '\'' +
 			", facilityId='" + facilityId + '\'' +
 			", businessEngagementOrgId='" + businessEngagementOrgId + '\'' +
+			", facilityKey='" + facilityKey + '\'' +
 			", delegations=" + delegations +
 			'}';
 	}
@@ -93,11 +167,11 @@ public class FacilityEntity {
 		if (o == null || getClass() != o.getClass())
 			return false;
 		FacilityEntity that = (FacilityEntity) o;
-		return Objects.equals(id, that.id) && Objects.equals(facilityId, that.facilityId) && Objects.equals(businessEngagementOrgId, that.businessEngagementOrgId) && Objects.equals(delegations, that.delegations);
+		return Objects.equals(facilityId, that.facilityId) && Objects.equals(businessEngagementOrgId, that.businessEngagementOrgId);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(id, facilityId, businessEngagementOrgId, delegations);
+		return Objects.hash(facilityId, businessEngagementOrgId);
 	}
 }
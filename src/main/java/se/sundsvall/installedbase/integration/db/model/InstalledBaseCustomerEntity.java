@@ -0,0 +1,170 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.hibernate.annotations.UuidGenerator;
+
+@Entity
+@Table(name = "installed_base_customer",
+	uniqueConstraints = @UniqueConstraint(
+		name = "uk_municipality_id_customer_number_company",
+		columnNames = {
+			"municipality_id", "customer_number", "company"
+		}))
+public class InstalledBaseCustomerEntity {
+
+	@Id
+	@UuidGenerator
+	@Column(name = "id", length = 36)
+	private String id;
+
+	@Column(name = "municipality_id", length = 4, nullable = false)
+	private String municipalityId;
+
+	@Column(name = "customer_number", length = 64, nullable = false)
+	private String customerNumber;
+
+	@Column(name = "company", nullable = false)
+	private String company; // Empty when the customer has no company, to keep the unique key of the customer effective
+
+	@Column(name = "watermark", nullable = false)
+	private LocalDate watermark; // Items modified at this date or later are fetched at next delta synchronization
+
+	@Column(name = "last_full_sync", nullable = false)
+	private LocalDate lastFullSync;
+
+	@OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true)
+	@OrderBy("facilityId ASC, placementId ASC")
+	private List<InstalledBaseItemEntity> items = new ArrayList<>();
+
+	public static InstalledBaseCustomerEntity create() {
+		return new InstalledBaseCustomerEntity();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public InstalledBaseCustomerEntity withId(String id) {
+		this.id = id;
+		return this;
+	}
+
+	public String getMunicipalityId() {
+		return municipalityId;
+	}
+
+	public void setMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+	}
+
+	public InstalledBaseCustomerEntity withMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+		return this;
+	}
+
+	public String getCustomerNumber() {
+		return customerNumber;
+	}
+
+	public void setCustomerNumber(String customerNumber) {
+		this.customerNumber = customerNumber;
+	}
+
+	public InstalledBaseCustomerEntity withCustomerNumber(String customerNumber) {
+		this.customerNumber = customerNumber;
+		return this;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	public void setCompany(String company) {
+		this.company = company;
+	}
+
+	public InstalledBaseCustomerEntity withCompany(String company) {
+		this.company = company;
+		return this;
+	}
+
+	public LocalDate getWatermark() {
+		return watermark;
+	}
+
+	public void setWatermark(LocalDate watermark) {
+		this.watermark = watermark;
+	}
+
+	public InstalledBaseCustomerEntity withWatermark(LocalDate watermark) {
+		this.watermark = watermark;
+		return this;
+	}
+
+	public LocalDate getLastFullSync() {
+		return lastFullSync;
+	}
+
+	public void setLastFullSync(LocalDate lastFullSync) {
+		this.lastFullSync = lastFullSync;
+	}
+
+	public InstalledBaseCustomerEntity withLastFullSync(LocalDate lastFullSync) {
+		this.lastFullSync = lastFullSync;
+		return this;
+	}
+
+	public List<InstalledBaseItemEntity> getItems() {
+		return items;
+	}
+
+	public void setItems(List<InstalledBaseItemEntity> items) {
+		this.items = items;
+	}
+
+	public InstalledBaseCustomerEntity withItems(List<InstalledBaseItemEntity> items) {
+		this.items = items;
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof final InstalledBaseCustomerEntity that)) {
+			return false;
+		}
+		return Objects.equals(id, that.id) && Objects.equals(municipalityId, that.municipalityId) && Objects.equals(customerNumber, that.customerNumber)
+			&& Objects.equals(company, that.company) && Objects.equals(watermark, that.watermark) && Objects.equals(lastFullSync, that.lastFullSync);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, municipalityId, customerNumber, company, watermark, lastFullSync);
+	}
+
+	@Override
+	public String toString() {
+		return "InstalledBaseCustomerEntity{" +
+			"id='" + id + '\'' +
+			", municipalityId='" + municipalityId + '\'' +
+			", customerNumber='" + customerNumber + '\'' +
+			", company='" + company + '\'' +
+			", watermark=" + watermark +
+			", lastFullSync=" + lastFullSync +
+			'}';
+	}
+}
@@ -0,0 +1,294 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.UuidGenerator;
+
+@Entity
+@Table(name = "installed_base_item")
+public class InstalledBaseItemEntity {
+
+	@Id
+	@UuidGenerator
+	@Column(name = "id", length = 36)
+	private String id;
+
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
+	@JoinColumn(name = "customer_ref_id", nullable = false, foreignKey = @ForeignKey(name = "fk_installed_base_item_customer"))
+	private InstalledBaseCustomerEntity customer;
+
+	@Column(name = "type")
+	private String type;
+
+	@Column(name = "facility_id", length = 256, nullable = false)
+	private String facilityId;
+
+	@Column(name = "placement_id")
+	private Integer placementId;
+
+	@Column(name = "care_of")
+	private String careOf;
+
+	@Column(name = "street")
+	private String street;
+
+	@Column(name = "post_code")
+	private String postCode;
+
+	@Column(name = "city")
+	private String city;
+
+	@Column(name = "property_designation")
+	private String propertyDesignation;
+
+	@Column(name = "date_from")
+	private LocalDate dateFrom;
+
+	@Column(name = "date_to")
+	private LocalDate dateTo;
+
+	@Column(name = "date_last_modified")
+	private LocalDate dateLastModified;
+
+	@ElementCollection
+	@CollectionTable(name = "installed_base_item_meta_data",
+		joinColumns = @JoinColumn(name = "item_ref_id", nullable = false, foreignKey = @ForeignKey(name = "fk_installed_base_item_meta_data_item")))
+	@Fetch(FetchMode.SUBSELECT) // Load meta data for all items of a customer in one query
+	private List<InstalledBaseItemMetaDataEmbeddable> metaData = new ArrayList<>();
+
+	public static InstalledBaseItemEntity create() {
+		return new InstalledBaseItemEntity();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public InstalledBaseItemEntity withId(String id) {
+		this.id = id;
+		return this;
+	}
+
+	public InstalledBaseCustomerEntity getCustomer() {
+		return customer;
+	}
+
+	public void setCustomer(InstalledBaseCustomerEntity customer) {
+		this.customer = customer;
+	}
+
+	public InstalledBaseItemEntity withCustomer(InstalledBaseCustomerEntity customer) {
+		this.customer = customer;
+		return this;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	public InstalledBaseItemEntity withType(String type) {
+		this.type = type;
+		return this;
+	}
+
+	public String getFacilityId() {
+		return facilityId;
+	}
+
+	public void setFacilityId(String facilityId) {
+		this.facilityId = facilityId;
+	}
+
+	public InstalledBaseItemEntity withFacilityId(String facilityId) {
+		this.facilityId = facilityId;
+		return this;
+	}
+
+	public Integer getPlacementId() {
+		return placementId;
+	}
+
+	public void setPlacementId(Integer placementId) {
+		this.placementId = placementId;
+	}
+
+	public InstalledBaseItemEntity withPlacementId(Integer placementId) {
+		this.placementId = placementId;
+		return this;
+	}
+
+	public String getCareOf() {
+		return careOf;
+	}
+
+	public void setCareOf(String careOf) {
+		this.careOf = careOf;
+	}
+
+	public InstalledBaseItemEntity withCareOf(String careOf) {
+		this.careOf = careOf;
+		return this;
+	}
+
+	public String getStreet() {
+		return street;
+	}
+
+	public void setStreet(String street) {
+		this.street = street;
+	}
+
+	public InstalledBaseItemEntity withStreet(String street) {
+		this.street = street;
+		return this;
+	}
+
+	public String getPostCode() {
+		return postCode;
+	}
+
+	public void setPostCode(String postCode) {
+		this.postCode = postCode;
+	}
+
+	public InstalledBaseItemEntity withPostCode(String postCode) {
+		this.postCode = postCode;
+		return this;
+	}
+
+	public String getCity() {
+		return city;
+	}
+
+	public void setCity(String city) {
+		this.city = city;
+	}
+
+	public InstalledBaseItemEntity withCity(String city) {
+		this.city = city;
+		return this;
+	}
+
+	public String getPropertyDesignation() {
+		return propertyDesignation;
+	}
+
+	public void setPropertyDesignation(String propertyDesignation) {
+		this.propertyDesignation = propertyDesignation;
+	}
+
+	public InstalledBaseItemEntity withPropertyDesignation(String propertyDesignation) {
+		this.propertyDesignation = propertyDesignation;
+		return this;
+	}
+
+	public LocalDate getDateFrom() {
+		return dateFrom;
+	}
+
+	public void setDateFrom(LocalDate dateFrom) {
+		this.dateFrom = dateFrom;
+	}
+
+	public InstalledBaseItemEntity withDateFrom(LocalDate dateFrom) {
+		this.dateFrom = dateFrom;
+		return this;
+	}
+
+	public LocalDate getDateTo() {
+		return dateTo;
+	}
+
+	public void setDateTo(LocalDate dateTo) {
+		this.dateTo = dateTo;
+	}
+
+	public InstalledBaseItemEntity withDateTo(LocalDate dateTo) {
+		this.dateTo = dateTo;
+		return this;
+	}
+
+	public LocalDate getDateLastModified() {
+		return dateLastModified;
+	}
+
+	public void setDateLastModified(LocalDate dateLastModified) {
+		this.dateLastModified = dateLastModified;
+	}
+
+	public InstalledBaseItemEntity withDateLastModified(LocalDate dateLastModified) {
+		this.dateLastModified = dateLastModified;
+		return this;
+	}
+
+	public List<InstalledBaseItemMetaDataEmbeddable> getMetaData() {
+		return metaData;
+	}
+
+	public void setMetaData(List<InstalledBaseItemMetaDataEmbeddable> metaData) {
+		this.metaData = metaData;
+	}
+
+	public InstalledBaseItemEntity withMetaData(List<InstalledBaseItemMetaDataEmbeddable> metaData) {
+		this.metaData = metaData;
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof final InstalledBaseItemEntity that)) {
+			return false;
+		}
+		return Objects.equals(id, that.id) && Objects.equals(type, that.type) && Objects.equals(facilityId, that.facilityId)
+			&& Objects.equals(placementId, that.placementId) && Objects.equals(careOf, that.careOf) && Objects.equals(street, that.street)
+			&& Objects.equals(postCode, that.postCode) && Objects.equals(city, that.city) && Objects.equals(propertyDesignation, that.propertyDesignation)
+			&& Objects.equals(dateFrom, that.dateFrom) && Objects.equals(dateTo, that.dateTo) && Objects.equals(dateLastModified, that.dateLastModified)
+			&& Objects.equals(metaData, that.metaData);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, type, facilityId, placementId, careOf, street, postCode, city, propertyDesignation, dateFrom, dateTo, dateLastModified, metaData);
+	}
+
+	@Override
+	public String toString() {
+		return "InstalledBaseItemEntity{" +
+			"id='" + id + '\'' +
+			", type='" + type + '\'' +
+			", facilityId='" + facilityId + '\'' +
+			", placementId=" + placementId +
+			", careOf='" + careOf + '\'' +
+			", street='" + street + '\'' +
+			", postCode='" + postCode + '\'' +
+			", city='" + city + '\'' +
+			", propertyDesignation='" + propertyDesignation + '\'' +
+			", dateFrom=" + dateFrom +
+			", dateTo=" + dateTo +
+			", dateLastModified=" + dateLastModified +
+			", metaData=" + metaData +
+			'}';
+	}
+}
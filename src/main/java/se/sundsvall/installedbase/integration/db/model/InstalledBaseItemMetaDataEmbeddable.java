@@ -0,0 +1,100 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.util.Objects;
+
+@Embeddable
+public class InstalledBaseItemMetaDataEmbeddable {
+
+	@Column(name = "meta_key")
+	private String key;
+
+	@Column(name = "meta_value")
+	private String value;
+
+	@Column(name = "type")
+	private String type;
+
+	@Column(name = "display_name")
+	private String displayName;
+
+	public static InstalledBaseItemMetaDataEmbeddable create() {
+		return new InstalledBaseItemMetaDataEmbeddable();
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
+	}
+
+	public InstalledBaseItemMetaDataEmbeddable withKey(String key) {
+		this.key = key;
+		return this;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public void setValue(String value) {
+		this.value = value;
+	}
+
+	public InstalledBaseItemMetaDataEmbeddable withValue(String value) {
+		this.value = value;
+		return this;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	public InstalledBaseItemMetaDataEmbeddable withType(String type) {
+		this.type = type;
+		return this;
+	}
+
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	public void setDisplayName(String displayName) {
+		this.displayName = displayName;
+	}
+
+	public InstalledBaseItemMetaDataEmbeddable withDisplayName(String displayName) {
+		this.displayName = displayName;
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof final InstalledBaseItemMetaDataEmbeddable that)) {
+			return false;
+		}
+		return Objects.equals(key, that.key) && Objects.equals(value, that.value) && Objects.equals(type, that.type) && Objects.equals(displayName, that.displayName);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(key, value, type, displayName);
+	}
+
+	@Override
+	public String toString() {
+		return "InstalledBaseItemMetaDataEmbeddable{" +
+			"key='" + key + '\'' +
+			", value='" + value + '\'' +
+			", type='" + type + '\'' +
+			", displayName='" + displayName + '\'' +
+			'}';
+	}
+}
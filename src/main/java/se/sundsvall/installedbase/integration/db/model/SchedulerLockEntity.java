@@ -0,0 +1,114 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import org.hibernate.annotations.TimeZoneStorage;
+
+import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
+
+/**
+ * Lock preventing a scheduled job from running on more than one instance at a time. The lock is held until it is
+ * released, or until it expires if the holding instance is stopped without releasing it.
+ */
+@Entity
+@Table(name = "scheduler_lock")
+public class SchedulerLockEntity {
+
+	@Id
+	@Column(name = "name", length = 64)
+	private String name;
+
+	@Column(name = "lock_until", nullable = false)
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime lockUntil; // The lock is free when this has passed
+
+	@Column(name = "locked_at", nullable = false)
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime lockedAt;
+
+	@Column(name = "locked_by", nullable = false)
+	private String lockedBy;
+
+	public static SchedulerLockEntity create() {
+		return new SchedulerLockEntity();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public SchedulerLockEntity withName(String name) {
+		this.name = name;
+		return this;
+	}
+
+	public OffsetDateTime getLockUntil() {
+		return lockUntil;
+	}
+
+	public void setLockUntil(OffsetDateTime lockUntil) {
+		this.lockUntil = lockUntil;
+	}
+
+	public SchedulerLockEntity withLockUntil(OffsetDateTime lockUntil) {
+		this.lockUntil = lockUntil;
+		return this;
+	}
+
+	public OffsetDateTime getLockedAt() {
+		return lockedAt;
+	}
+
+	public void setLockedAt(OffsetDateTime lockedAt) {
+		this.lockedAt = lockedAt;
+	}
+
+	public SchedulerLockEntity withLockedAt(OffsetDateTime lockedAt) {
+		this.lockedAt = lockedAt;
+		return this;
+	}
+
+	public String getLockedBy() {
+		return lockedBy;
+	}
+
+	public void setLockedBy(String lockedBy) {
+		this.lockedBy = lockedBy;
+	}
+
+	public SchedulerLockEntity withLockedBy(String lockedBy) {
+		this.lockedBy = lockedBy;
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof final SchedulerLockEntity that)) {
+			return false;
+		}
+		return Objects.equals(name, that.name) && Objects.equals(lockUntil, that.lockUntil) && Objects.equals(lockedAt, that.lockedAt) && Objects.equals(lockedBy, that.lockedBy);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(name, lockUntil, lockedAt, lockedBy);
+	}
+
+	@Override
+	public String toString() {
+		return "SchedulerLockEntity{" +
+			"name='" + name + '\'' +
+			", lockUntil=" + lockUntil +
+			", lockedAt=" + lockedAt +
+			", lockedBy='" + lockedBy + '\'' +
+			'}';
+	}
+}
@@ -1,19 +1,35 @@
 package se.sundsvall.installedbase.integration.db.specification;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import org.springframework.data.jpa.domain.Specification;
 import se.sundsvall.installedbase.integration.db.model.DelegationEntity;
+import se.sundsvall.installedbase.integration.db.model.FacilityEntity;
 
+import static se.sundsvall.installedbase.integration.db.model.DelegationEntity_.CHANGE_ID;
+import static se.sundsvall.installedbase.integration.db.model.DelegationEntity_.CREATED;
 import static se.sundsvall.installedbase.integration.db.model.DelegationEntity_.DELEGATED_TO;
 import static se.sundsvall.installedbase.integration.db.model.DelegationEntity_.ID;
 import static se.sundsvall.installedbase.integration.db.model.DelegationEntity_.MUNICIPALITY_ID;
 import static se.sundsvall.installedbase.integration.db.model.DelegationEntity_.OWNER;
+import static se.sundsvall.installedbase.integration.db.model.FacilityEntity.toFacilityKey;
+import static se.sundsvall.installedbase.integration.db.model.FacilityEntity_.DELEGATIONS;
+import static se.sundsvall.installedbase.integration.db.model.FacilityEntity_.FACILITY_ID;
+import static se.sundsvall.installedbase.integration.db.model.FacilityEntity_.FACILITY_KEY;
 
 public interface DelegationSpecification {
 
+	// Not a backslash, which would need to be escaped differently in the SQL literals of different databases
+	char LIKE_ESCAPE = '!';
+
 	static Specification<DelegationEntity> withId(final String id) {
 		return buildEqualFilter(ID, id);
 	}
 
+	static Specification<DelegationEntity> withIdIn(final Collection<String> ids) {
+		return (entity, cq, cb) -> entity.get(ID).in(ids);
+	}
+
 	static Specification<DelegationEntity> withMunicipalityId(final String municipalityId) {
 		return buildEqualFilter(MUNICIPALITY_ID, municipalityId);
 	}
@@ -26,6 +42,65 @@ public interface DelegationSpecification {
 		return buildEqualFilter(DELEGATED_TO, delegatedTo);
 	}
 
+	/**
+	 * Matches delegations having the given facility. When a business engagement org id is given, the facility is matched
+	 * on its normalized key, otherwise on facility id only. The facilities are looked up first, through their indexes, and
+	 * the delegations then through the facility side of the join table.
+	 */
+	static Specification<DelegationEntity> withFacility(final String facilityId, final String businessEngagementOrgId) {
+		return (entity, cq, cb) -> {
+			if (facilityId == null) {
+				return cb.and();
+			}
+			final var subquery = cq.subquery(String.class);
+			final var facility = subquery.from(FacilityEntity.class);
+			final var delegation = facility.join(DELEGATIONS);
+			subquery.select(delegation.get(ID))
+				.where(businessEngagementOrgId != null
+					? cb.equal(facility.get(FACILITY_KEY), toFacilityKey(facilityId, businessEngagementOrgId))
+					: cb.equal(facility.get(FACILITY_ID), facilityId));
+
+			return entity.get(ID).in(subquery);
+		};
+	}
+
+	/**
+	 * Matches delegations having the given facility, compared on normalized facility keys as by the access index. Without
+	 * business engagement org id, the facility is matched on the normalized facility id ending its key, which can not be
+	 * looked up through the index of the key, hence only used for access checks while the access index is not ready.
+	 */
+	static Specification<DelegationEntity> withFacilityKey(final String facilityId, final String businessEngagementOrgId) {
+		return (entity, cq, cb) -> {
+			final var subquery = cq.subquery(String.class);
+			final var facility = subquery.from(FacilityEntity.class);
+			final var delegation = facility.join(DELEGATIONS);
+			subquery.select(delegation.get(ID))
+				.where(businessEngagementOrgId != null
+					? cb.equal(facility.get(FACILITY_KEY), toFacilityKey(facilityId, businessEngagementOrgId))
+					: cb.like(facility.<String>get(FACILITY_KEY), "%" + escapeLike(toFacilityKey(facilityId, null)), LIKE_ESCAPE));
+
+			return entity.get(ID).in(subquery);
+		};
+	}
+
+	/**
+	 * Matches delegations following the given position when ordered by created and id, i.e. a keyset filter.
+	 */
+	static Specification<DelegationEntity> withCreatedAndIdAfter(final OffsetDateTime created, final String id) {
+		return (entity, cq, cb) -> cb.or(
+			cb.greaterThan(entity.<OffsetDateTime>get(CREATED), created),
+			cb.and(
+				cb.equal(entity.get(CREATED), created),
+				cb.greaterThan(entity.<String>get(ID), id)));
+	}
+
+	/**
+	 * Matches delegations whose latest change follows the given change id.
+	 */
+	static Specification<DelegationEntity> withChangeIdAfter(final long changeId) {
+		return (entity, cq, cb) -> cb.greaterThan(entity.<Long>get(CHANGE_ID), changeId);
+	}
+
 	private static Specification<DelegationEntity> buildEqualFilter(final String attribute, final String value) {
 		return (entity, cq, cb) -> {
 			if (value != null) {
@@ -34,4 +109,8 @@ public interface DelegationSpecification {
 			return cb.and();
 		};
 	}
+
+	private static String escapeLike(final String value) {
+		return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+	}
 }
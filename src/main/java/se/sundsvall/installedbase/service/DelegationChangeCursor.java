@@ -0,0 +1,36 @@
+package se.sundsvall.installedbase.service;
+
+import java.util.Base64;
+import se.sundsvall.dept44.problem.Problem;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Position in the change feed, i.e. the change id of the latest change read, encoded as an opaque cursor string.
+ */
+record DelegationChangeCursor(long changeId) {
+
+	// Position before all changes
+	static final DelegationChangeCursor FIRST = new DelegationChangeCursor(0);
+
+	static DelegationChangeCursor decode(String cursor) {
+		try {
+			final var changeId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), UTF_8));
+			if (changeId < 0) {
+				throw new IllegalArgumentException("Negative change id");
+			}
+			return new DelegationChangeCursor(changeId);
+		} catch (final RuntimeException e) {
+			throw Problem.builder()
+				.withTitle("Invalid search parameters")
+				.withDetail("The cursor '" + cursor + "' is not valid")
+				.withStatus(BAD_REQUEST)
+				.build();
+		}
+	}
+
+	String encode() {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(changeId).getBytes(UTF_8));
+	}
+}
@@ -0,0 +1,45 @@
+package se.sundsvall.installedbase.service;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.installedbase.integration.db.model.DelegationEntity;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.ZoneOffset.UTC;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Keyset position of a delegation in a (timestamp, id) ordering of delegations, encoded as an opaque cursor string. The
+ * timestamp is the creation time of the delegation.
+ */
+record DelegationCursor(OffsetDateTime timestamp, String id) {
+
+	private static final String SEPARATOR = "|";
+
+	static DelegationCursor of(DelegationEntity entity) {
+		return new DelegationCursor(entity.getCreated(), entity.getId());
+	}
+
+	static DelegationCursor decode(String cursor) {
+		try {
+			final var value = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+			final var separatorIndex = value.indexOf(SEPARATOR);
+			if (separatorIndex < 0 || separatorIndex == value.length() - 1) {
+				throw new IllegalArgumentException("Missing separator or id");
+			}
+			return new DelegationCursor(OffsetDateTime.ofInstant(Instant.parse(value.substring(0, separatorIndex)), UTC), value.substring(separatorIndex + 1));
+		} catch (final RuntimeException e) {
+			throw Problem.builder()
+				.withTitle("Invalid search parameters")
+				.withDetail("The cursor '" + cursor + "' is not valid")
+				.withStatus(BAD_REQUEST)
+				.build();
+		}
+	}
+
+	String encode() {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString((timestamp.toInstant() + SEPARATOR + id).getBytes(UTF_8));
+	}
+}
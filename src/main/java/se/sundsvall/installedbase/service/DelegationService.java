@@ -1,24 +1,54 @@
 package se.sundsvall.installedbase.service;
 
+import generated.se.sundsvall.eventlog.Event;
 import generated.se.sundsvall.eventlog.EventType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.dept44.models.api.paging.PagingAndSortingMetaData;
 import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.problem.ThrowableProblem;
 import se.sundsvall.installedbase.api.model.delegation.CreateDelegation;
 import se.sundsvall.installedbase.api.model.delegation.Delegation;
+import se.sundsvall.installedbase.api.model.delegation.DelegationBatchEntry;
+import se.sundsvall.installedbase.api.model.delegation.DelegationBatchResult;
+import se.sundsvall.installedbase.api.model.delegation.DelegationChange;
+import se.sundsvall.installedbase.api.model.delegation.DelegationChanges;
+import se.sundsvall.installedbase.api.model.delegation.DelegationOperation;
+import se.sundsvall.installedbase.api.model.delegation.DelegationParameters;
+import se.sundsvall.installedbase.api.model.delegation.Delegations;
 import se.sundsvall.installedbase.api.model.delegation.Facility;
 import se.sundsvall.installedbase.api.model.delegation.UpdateDelegation;
+import se.sundsvall.installedbase.integration.db.DelegationChangeSequenceRepository;
 import se.sundsvall.installedbase.integration.db.DelegationRepository;
+import se.sundsvall.installedbase.integration.db.DelegationTombstoneRepository;
 import se.sundsvall.installedbase.integration.db.FacilityRepository;
 import se.sundsvall.installedbase.integration.db.model.DelegationEntity;
+import se.sundsvall.installedbase.integration.db.model.DelegationKey;
+import se.sundsvall.installedbase.integration.db.model.DelegationTombstoneEntity;
 import se.sundsvall.installedbase.integration.db.model.FacilityEntity;
-import se.sundsvall.installedbase.integration.eventlog.EventLogClient;
+import se.sundsvall.installedbase.service.access.DelegationAccessIndex;
+import se.sundsvall.installedbase.service.event.DelegationEventOutbox;
 import se.sundsvall.installedbase.service.mapper.DatabaseMapper;
 
 import static generated.se.sundsvall.eventlog.EventType.CREATE;
@@ -26,16 +56,34 @@ import static generated.se.sundsvall.eventlog.EventType.DELETE;
 import static generated.se.sundsvall.eventlog.EventType.UPDATE;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
+import static java.util.Comparator.comparingLong;
 import static java.util.Optional.ofNullable;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toMap;
+import static org.apache.commons.lang3.StringUtils.containsIgnoreCase;
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.http.HttpStatus.ACCEPTED;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.transaction.annotation.Propagation.SUPPORTS;
 import static se.sundsvall.dept44.util.LogUtils.sanitizeForLogging;
+import static se.sundsvall.installedbase.integration.db.model.DelegationEntity_.CHANGE_ID;
+import static se.sundsvall.installedbase.integration.db.model.DelegationEntity_.CREATED;
+import static se.sundsvall.installedbase.integration.db.model.DelegationEntity_.ID;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withChangeIdAfter;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withCreatedAndIdAfter;
 import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withDelegatedTo;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withFacility;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withFacilityKey;
 import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withId;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withIdIn;
 import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withMunicipalityId;
 import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withOwner;
 import static se.sundsvall.installedbase.service.mapper.DatabaseMapper.toDelegationEntity;
+import static se.sundsvall.installedbase.service.mapper.DatabaseMapper.toDelegationTombstoneEntity;
 import static se.sundsvall.installedbase.service.mapper.DatabaseMapper.toFacilityEntity;
 import static se.sundsvall.installedbase.service.mapper.EventlogMapper.toEvent;
 
@@ -43,21 +91,39 @@ import static se.sundsvall.installedbase.service.mapper.EventlogMapper.toEvent;
 @Transactional
 public class DelegationService {
 
+	/**
+	 * Expected version matched by any version of an existing delegation, as for If-Match: *.
+	 */
+	public static final long ANY_VERSION = -1;
+
 	private static final Logger LOGGER = LoggerFactory.getLogger(DelegationService.class);
 	private static final String FACILITY_INFORMATION = "%s (%s)";
+	private static final int FACILITY_LOOKUP_CHUNK_SIZE = 500;
+	private static final Sort DELEGATION_ORDER = Sort.by(ASC, CREATED, ID);
+	private static final Sort CHANGE_ORDER = Sort.by(ASC, CHANGE_ID);
+	private static final String DELEGATION_UNIQUE_CONSTRAINT = "uk_delegated_to_owner";
 
 	private final DelegationRepository delegationRepository;
 	private final FacilityRepository facilityRepository;
-	private final EventLogClient eventLogClient;
+	private final DelegationEventOutbox delegationEventOutbox;
+	private final DelegationAccessIndex delegationAccessIndex;
+	private final DelegationTombstoneRepository delegationTombstoneRepository;
+	private final DelegationChangeSequenceRepository delegationChangeSequenceRepository;
 
-	public DelegationService(DelegationRepository delegationRepository, FacilityRepository facilityRepository, EventLogClient eventLogClient) {
+	public DelegationService(DelegationRepository delegationRepository, FacilityRepository facilityRepository, DelegationEventOutbox delegationEventOutbox,
+		DelegationAccessIndex delegationAccessIndex, DelegationTombstoneRepository delegationTombstoneRepository, DelegationChangeSequenceRepository delegationChangeSequenceRepository) {
 		this.delegationRepository = delegationRepository;
 		this.facilityRepository = facilityRepository;
-		this.eventLogClient = eventLogClient;
+		this.delegationEventOutbox = delegationEventOutbox;
+		this.delegationAccessIndex = delegationAccessIndex;
+		this.delegationTombstoneRepository = delegationTombstoneRepository;
+		this.delegationChangeSequenceRepository = delegationChangeSequenceRepository;
 	}
 
 	/**
-	 * Create a facility delegation. Throws a Problem with status 409 Conflict if a delegation already exists.
+	 * Create a facility delegation. Throws a Problem with status 409 Conflict if a delegation already exists. Instead of
+	 * looking for an existing delegation first, the delegation is inserted directly and a violation of the unique
+	 * constraint on owner and delegate is translated into the Problem, which also covers concurrent creates.
 	 *
 	 * @param  municipalityId municipalityId
 	 * @param  delegation     CreateDelegation object containing delegation details
@@ -66,67 +132,188 @@ public class DelegationService {
 	public String createDelegation(String municipalityId, CreateDelegation delegation) {
 		LOGGER.info("Create delegation for owner: {}, delegatedTo: {}", sanitizeForLogging(delegation.getOwner()), sanitizeForLogging(delegation.getDelegatedTo()));
 
-		// Check if the owner already has a facility delegated to the same partyId
-		if (delegationRepository.findOne(
-			withMunicipalityId(municipalityId)
-				.and(withOwner(delegation.getOwner()))
-				.and(withDelegatedTo(delegation.getDelegatedTo())))
-			.isPresent()) {
+		final DelegationEntity entity;
+		try {
+			final var changeId = nextChangeIds(municipalityId, 1);
+			entity = delegationRepository.saveAndFlush(toDelegationEntity(municipalityId, delegation).withChangeId(changeId).withFacilities(toFacilities(delegation.getFacilities())));
+		} catch (final DataIntegrityViolationException e) {
+			if (!isConstraintViolation(e, DELEGATION_UNIQUE_CONSTRAINT)) {
+				throw e;
+			}
 			throw Problem.builder()
 				.withTitle("Delegation already exists")
-				.withDetail("Owner with partyId: '" + delegation.getOwner() + "' has already delegated to partyId: '"
-					+ delegation.getDelegatedTo() + "' for municipality: '" + municipalityId + "'. Update existing delegation instead.")
+				.withDetail(toAlreadyExistsDetail(municipalityId, delegation.getOwner(), delegation.getDelegatedTo()))
 				.withStatus(CONFLICT)
 				.build();
 		}
 
-		final var entity = delegationRepository.save(toDelegationEntity(municipalityId, delegation).withFacilities(toFacilities(delegation.getFacilities())));
-
-		final var facilityInfo = ofNullable(entity.getFacilities()).orElse(emptySet()).stream().map(fe -> FACILITY_INFORMATION.formatted(fe.getFacilityId(), fe.getBusinessEngagementOrgId())).toList();
+		final var facilityInfo = toFacilityInfo(entity);
 		sendEvent(municipalityId, entity, facilityInfo, CREATE);
+		delegationAccessIndex.put(entity);
 
 		return entity.getId();
 	}
 
 	/**
-	 * Finds and reuses existing facility entity if found in database, else creates a new entity
+	 * Finds and reuses existing facility entity if found in database, else creates a new entity. Existing entities are
+	 * looked up in bulk (in chunks of facility ids) instead of one query per facility.
 	 *
 	 * @param  facilities List of Facility objects to find or create database entities for
 	 * @return            list of FacilityEntity with existing entities for those existing in db and new entities for those
 	 *                    who doesn't exist
 	 */
 	private Set<FacilityEntity> toFacilities(List<Facility> facilities) {
+		return toFacilities(facilities, findFacilitiesByKey(facilities));
+	}
+
+	/**
+	 * Maps facilities to existing entities in the given map, adding new entities to the map for facilities not found in
+	 * it. Facilities occurring more than once, also in different delegations, thereby share the same (new) entity.
+	 */
+	private static Set<FacilityEntity> toFacilities(List<Facility> facilities, Map<String, FacilityEntity> facilitiesByKey) {
 		return ofNullable(facilities).orElse(emptyList()).stream()
-			.map(facility -> facilityRepository.findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase(facility.getId(), facility.getBusinessEngagementOrgId()).orElse(
-				toFacilityEntity(facility)))
+			.filter(Objects::nonNull)
+			.map(facility -> facilitiesByKey.computeIfAbsent(toFacilityKey(facility), key -> toFacilityEntity(facility)))
 			.filter(Objects::nonNull)
 			.collect(toCollection(HashSet::new));
 	}
 
+	private Map<String, FacilityEntity> findFacilitiesByKey(List<Facility> facilities) {
+		final var facilityKeys = ofNullable(facilities).orElse(emptyList()).stream()
+			.filter(Objects::nonNull)
+			.map(DelegationService::toFacilityKey)
+			.distinct()
+			.toList();
+
+		return findFacilities(facilityKeys).stream()
+			.collect(toMap(FacilityEntity::getFacilityKey, identity(), (first, second) -> first, HashMap::new));
+	}
+
+	private List<FacilityEntity> findFacilities(List<String> facilityKeys) {
+		return chunked(facilityKeys)
+			.flatMap(chunk -> facilityRepository.findAllByFacilityKeyIn(chunk).stream())
+			.toList();
+	}
+
+	private static String toFacilityKey(Facility facility) {
+		return FacilityEntity.toFacilityKey(facility.getId(), facility.getBusinessEngagementOrgId());
+	}
+
+	/**
+	 * Deletes the facilities, among those detached from a delegation by the current operation, that no longer are
+	 * connected to any delegation. Pending changes must be flushed before calling this method.
+	 *
+	 * @param detachedFacilityIds ids of the facility entities that has been detached from a delegation
+	 */
+	private void deleteOrphanFacilities(Collection<String> detachedFacilityIds) {
+		final var facilityIds = detachedFacilityIds.stream().filter(Objects::nonNull).distinct().toList();
+
+		chunked(facilityIds).forEach(facilityRepository::deleteByIdInAndDelegationsIsEmpty);
+	}
+
+	private static Stream<List<String>> chunked(List<String> ids) {
+		return IntStream.iterate(0, from -> from < ids.size(), from -> from + FACILITY_LOOKUP_CHUNK_SIZE)
+			.mapToObj(from -> ids.subList(from, Math.min(from + FACILITY_LOOKUP_CHUNK_SIZE, ids.size())));
+	}
+
+	private static boolean isConstraintViolation(DataIntegrityViolationException e, String constraintName) {
+		return ofNullable(ExceptionUtils.throwableOfType(e, ConstraintViolationException.class))
+			.map(ConstraintViolationException::getConstraintName)
+			.filter(name -> containsIgnoreCase(name, constraintName))
+			.isPresent();
+	}
+
 	/**
-	 * Update an existing delegation. Throws a Problem with status 404 Not Found if the delegation does not exist.
+	 * Changes the facilities of the delegation to the given facilities by removing and adding only the facilities that
+	 * differ. The facility collection is modified rather than replaced, as Hibernate otherwise deletes and reinserts all
+	 * rows of the delegation in the join table, regardless of how many facilities that actually changed.
 	 *
-	 * @param municipalityId
-	 * @param id             id of the delegation to update
-	 * @param delegation     UpdateDelegation object containing updated properties
+	 * @param  entity     the delegation to change facilities for
+	 * @param  facilities the facilities that the delegation should have
+	 * @return            the facilities added to and removed from the delegation
 	 */
-	public void updateDelegation(String municipalityId, String id, UpdateDelegation delegation) {
+	private static FacilityChanges changeFacilities(DelegationEntity entity, Set<FacilityEntity> facilities) {
+		if (entity.getFacilities() == null) {
+			entity.setFacilities(new HashSet<>());
+		}
+		final var facilityIds = toFacilityEntityIds(facilities);
+		final var currentFacilityIds = toFacilityEntityIds(entity.getFacilities());
+
+		// New facility entities have no id yet and are always added
+		final var removed = entity.getFacilities().stream()
+			.filter(facility -> !facilityIds.contains(facility.getId()))
+			.toList();
+		final var added = facilities.stream()
+			.filter(facility -> facility.getId() == null || !currentFacilityIds.contains(facility.getId()))
+			.toList();
+
+		entity.getFacilities().removeIf(facility -> !facilityIds.contains(facility.getId()));
+		entity.getFacilities().addAll(added);
+
+		return new FacilityChanges(added, removed);
+	}
+
+	private static List<String> toFacilityInfo(DelegationEntity entity) {
+		return toFacilityInfo(entity.getFacilities());
+	}
+
+	private static List<String> toFacilityInfo(Collection<FacilityEntity> facilities) {
+		return ofNullable(facilities).orElse(emptySet()).stream()
+			.map(fe -> FACILITY_INFORMATION.formatted(fe.getFacilityId(), fe.getBusinessEngagementOrgId()))
+			.toList();
+	}
+
+	private static Set<String> toFacilityEntityIds(Collection<FacilityEntity> facilities) {
+		return ofNullable(facilities).orElse(emptySet()).stream()
+			.map(FacilityEntity::getId)
+			.filter(Objects::nonNull)
+			.collect(toCollection(HashSet::new));
+	}
+
+	/**
+	 * Update an existing delegation. Throws a Problem with status 404 Not Found if the delegation does not exist, and with
+	 * status 412 Precondition Failed if an expected version is given and the delegation does not exist or has another
+	 * version, either when read or, if changed concurrently, when the update is flushed. The version is checked before the delegation and its
+	 * facilities are read.
+	 *
+	 * @param  municipalityId
+	 * @param  id              id of the delegation to update
+	 * @param  delegation      UpdateDelegation object containing updated properties
+	 * @param  expectedVersion optional version that the delegation must have to be updated, or {@link #ANY_VERSION}
+	 * @return                 the version of the delegation after the update
+	 */
+	public Long updateDelegation(String municipalityId, String id, UpdateDelegation delegation, Long expectedVersion) {
 		LOGGER.info("Update delegation with id: {}", sanitizeForLogging(id));
 
+		verifyVersion(municipalityId, id, expectedVersion);
 		final var entity = delegationRepository.findOne(withMunicipalityId(municipalityId)
 			.and(withId(id)))
 			.orElseThrow(() -> Problem.builder()
-				.withDetail("Delegation with id: '" + id + "' was not found within municipality '" + municipalityId + "'.")
+				.withDetail(toNotFoundDetail(municipalityId, id))
 				.withStatus(NOT_FOUND)
 				.build());
+		// The delegation may have been changed between reading the version and reading the delegation
+		verifyVersion(id, expectedVersion, entity.getVersion());
 
+		entity.setChangeId(nextChangeIds(municipalityId, 1));
 		ofNullable(delegation.getDelegatedTo()).ifPresent(entity::setDelegatedTo);
-		ofNullable(delegation.getFacilities()).ifPresent(facilities -> entity.setFacilities(toFacilities(delegation.getFacilities())));
-		delegationRepository.save(entity);
-		facilityRepository.deleteAllInBatch(facilityRepository.findAllByDelegationsIsEmpty()); // Clean up orphan facilities that has no connection to any delegation
+		final var facilityChanges = ofNullable(delegation.getFacilities())
+			.map(facilities -> changeFacilities(entity, toFacilities(facilities)))
+			.orElse(FacilityChanges.NONE);
+		try {
+			delegationRepository.saveAndFlush(entity);
+		} catch (final ObjectOptimisticLockingFailureException e) {
+			throw toConcurrentModificationProblem(id, expectedVersion);
+		}
 
-		final var facilityInfo = ofNullable(entity.getFacilities()).orElse(emptySet()).stream().map(fe -> FACILITY_INFORMATION.formatted(fe.getFacilityId(), fe.getBusinessEngagementOrgId())).toList();
-		sendEvent(municipalityId, entity, facilityInfo, UPDATE);
+		// Clean up facilities detached by this update that has no connection to any delegation
+		deleteOrphanFacilities(toFacilityEntityIds(facilityChanges.removed()));
+
+		final var facilityInfo = toFacilityInfo(entity);
+		sendEvent(municipalityId, entity, facilityInfo, facilityChanges, UPDATE);
+		delegationAccessIndex.put(entity);
+
+		return entity.getVersion();
 	}
 
 	/**
@@ -136,6 +323,7 @@ public class DelegationService {
 	 * @param  id             id of the delegation
 	 * @return                Delegation object containing delegation details
 	 */
+	@Transactional(readOnly = true)
 	public Delegation getDelegation(String municipalityId, String id) {
 		LOGGER.info("Get delegation with id: {}", sanitizeForLogging(id));
 
@@ -143,53 +331,221 @@ public class DelegationService {
 			.and(withId(id)))
 			.map(DatabaseMapper::toDelegation)
 			.orElseThrow(() -> Problem.builder()
-				.withDetail("Delegation with id: '" + id + "' was not found within municipality '" + municipalityId + "'.")
+				.withDetail(toNotFoundDetail(municipalityId, id))
 				.withStatus(NOT_FOUND)
 				.build());
 	}
 
 	/**
-	 * ' Get delegations by owner and/or delegatedTo.
+	 * Get a page of delegations by owner, delegatedTo and/or facility, ordered by created and id. When a cursor is
+	 * provided, the delegations following the cursor are returned (keyset pagination), otherwise the requested page is
+	 * returned.
 	 *
 	 * @param  municipalityId municipalityId
-	 * @param  owner          owner of the delegation
-	 * @param  delegatedTo    the party to which the facility is delegated
-	 * @return                List of Delegation objects containing delegation details
-	 */
-	public List<Delegation> getDelegations(String municipalityId, String owner, String delegatedTo) {
-		LOGGER.info("Get facility delegations for owner: {} and delegatedTo: {}", sanitizeForLogging(owner), sanitizeForLogging(delegatedTo));
-		return delegationRepository.findAll(
-			withMunicipalityId(municipalityId)
-				.and(withOwner(owner))
-				.and(withDelegatedTo(delegatedTo)))
-			.stream()
-			.map(DatabaseMapper::toDelegation)
+	 * @param  parameters     parameters containing owner, delegatedTo, facility and paging information
+	 * @return                Delegations object containing delegations, paging meta data and cursor for the next page
+	 */
+	@Transactional(readOnly = true)
+	public Delegations getDelegations(String municipalityId, DelegationParameters parameters) {
+		LOGGER.info("Get facility delegations for owner: {}, delegatedTo: {} and facilityId: {}", sanitizeForLogging(parameters.getOwner()), sanitizeForLogging(parameters.getDelegatedTo()),
+			sanitizeForLogging(parameters.getFacilityId()));
+
+		final var specification = withMunicipalityId(municipalityId)
+			.and(withOwner(parameters.getOwner()))
+			.and(withDelegatedTo(parameters.getDelegatedTo()))
+			.and(withFacility(parameters.getFacilityId(), parameters.getBusinessEngagementOrgId()));
+
+		if (parameters.getCursor() != null) {
+			return getDelegationsAfter(specification, DelegationCursor.decode(parameters.getCursor()), parameters.getLimit());
+		}
+
+		final var page = delegationRepository.findAll(specification, PageRequest.of(parameters.getPage() - 1, parameters.getLimit(), DELEGATION_ORDER));
+		final var metaData = toMetaData(page.getNumberOfElements(), page.getSize());
+		metaData.setPage(page.getNumber() + 1);
+		metaData.setTotalRecords(page.getTotalElements());
+		metaData.setTotalPages(page.getTotalPages());
+
+		return toDelegations(page.getContent(), metaData, page.hasNext());
+	}
+
+	private Delegations getDelegationsAfter(Specification<DelegationEntity> specification, DelegationCursor cursor, int limit) {
+		// One extra delegation is fetched to find out if there are more delegations, instead of counting all of them
+		final var entities = delegationRepository.findBy(specification.and(withCreatedAndIdAfter(cursor.timestamp(), cursor.id())),
+			query -> query.sortBy(DELEGATION_ORDER).limit(limit + 1).all());
+		final var hasNext = entities.size() > limit;
+		final var content = hasNext ? entities.subList(0, limit) : entities;
+
+		return toDelegations(content, toMetaData(content.size(), limit), hasNext);
+	}
+
+	/**
+	 * Get the changes of delegations following the cursor, ordered by change id. Created and updated delegations are read
+	 * from the delegations, by the change id of their latest change, and deleted delegations from the tombstones of the
+	 * deletions. A delegation is included with its latest change only. As change ids are taken in the order that the
+	 * changes are committed, a change can not be committed after a change with a higher change id has been read.
+	 * <p>
+	 * The changes are read in a read-write transaction, to read them from the primary database and not from the replica,
+	 * which may lag behind the changes made through the service.
+	 *
+	 * @param  municipalityId municipalityId
+	 * @param  since          optional cursor from a previous response, to get the changes following that response
+	 * @param  limit          maximum number of changes to return
+	 * @return                DelegationChanges object containing the changes and the cursor for the next request
+	 */
+	@Transactional
+	public DelegationChanges getDelegationChanges(String municipalityId, String since, int limit) {
+		LOGGER.info("Get delegation changes since: {}", sanitizeForLogging(since));
+
+		final var cursor = ofNullable(since).map(DelegationChangeCursor::decode).orElse(DelegationChangeCursor.FIRST);
+
+		// One extra change is fetched from each source to find out if there are more changes
+		final var updatedDelegations = delegationRepository.findBy(withMunicipalityId(municipalityId)
+			.and(withChangeIdAfter(cursor.changeId())),
+			query -> query.sortBy(CHANGE_ORDER).limit(limit + 1).all());
+		final var deletedDelegations = delegationTombstoneRepository.findDeletedAfter(municipalityId, cursor.changeId(), Limit.of(limit + 1));
+
+		final var changes = Stream.concat(
+			updatedDelegations.stream().map(entity -> new IdentifiedChange(entity.getChangeId(), DatabaseMapper.toDelegationChange(entity))),
+			deletedDelegations.stream().map(entity -> new IdentifiedChange(entity.getChangeId(), DatabaseMapper.toDelegationChange(entity))))
+			.sorted(comparingLong(IdentifiedChange::changeId))
 			.toList();
+		final var hasMore = changes.size() > limit;
+		final var content = hasMore ? changes.subList(0, limit) : changes;
+
+		return DelegationChanges.create()
+			.withChanges(content.stream().map(IdentifiedChange::change).toList())
+			.withCursor(content.isEmpty() ? since : new DelegationChangeCursor(content.getLast().changeId()).encode())
+			.withHasMore(hasMore);
 	}
 
 	/**
-	 * Deletes a delegation by municipalityId and id.
+	 * Takes the next change ids of the municipality, returning the first of them. The change sequence of the municipality
+	 * stays locked until the transaction is committed, hence changes are given change ids in the order that they are
+	 * committed. The change ids are taken before the delegations are changed, for the change id to be written with the
+	 * change and not by an update of its own.
+	 * <p>
+	 * This is the intended cost of ordering the change feed by commit: changes of the same municipality, including
+	 * batches, are serialized from taking their change ids until they are committed, while changes of different
+	 * municipalities proceed in parallel. Hence the change ids are taken as late as possible, after the lookups and
+	 * checks that may reject the change.
 	 *
-	 * @param municipalityId municipalityId
-	 * @param id             id of the delegation to be deleted
+	 * @param  municipalityId municipalityId
+	 * @param  count          number of change ids to take
+	 * @return                the first of the change ids taken
+	 */
+	private long nextChangeIds(String municipalityId, int count) {
+		delegationChangeSequenceRepository.increment(municipalityId, count);
+		return delegationChangeSequenceRepository.findChangeId(municipalityId) - count + 1;
+	}
+
+	private static Delegations toDelegations(List<DelegationEntity> entities, PagingAndSortingMetaData metaData, boolean hasNext) {
+		return Delegations.create()
+			.withDelegations(entities.stream().map(DatabaseMapper::toDelegation).toList())
+			.withMetaData(metaData)
+			.withNextCursor(hasNext ? DelegationCursor.of(entities.getLast()).encode() : null);
+	}
+
+	private static PagingAndSortingMetaData toMetaData(int count, int limit) {
+		final var metaData = new PagingAndSortingMetaData();
+		metaData.setCount(count);
+		metaData.setLimit(limit);
+		metaData.setSortBy(List.of(CREATED, ID));
+		metaData.setSortDirection(ASC);
+		return metaData;
+	}
+
+	/**
+	 * Checks if the party has access to the facility, i.e. is owner or delegate of a delegation having the facility. The
+	 * check is answered by the access index when the index is ready, otherwise by the database. No transaction is started
+	 * for the check, as it normally never reaches the database.
+	 *
+	 * @param  municipalityId          municipalityId
+	 * @param  partyId                 id of the party
+	 * @param  facilityId              id of the facility
+	 * @param  businessEngagementOrgId optional business engagement org id of the facility
+	 * @return                         true if the party has access to the facility, false otherwise
 	 */
-	public void deleteDelegation(String municipalityId, String id) {
+	@Transactional(propagation = SUPPORTS, readOnly = true)
+	public boolean hasAccess(String municipalityId, String partyId, String facilityId, String businessEngagementOrgId) {
+		if (delegationAccessIndex.isReady()) {
+			return delegationAccessIndex.hasAccess(municipalityId, partyId, facilityId, businessEngagementOrgId);
+		}
+
+		return delegationRepository.exists(withMunicipalityId(municipalityId)
+			.and(withOwner(partyId).or(withDelegatedTo(partyId)))
+			.and(withFacilityKey(facilityId, businessEngagementOrgId)));
+	}
+
+	/**
+	 * Deletes a delegation by municipalityId and id. Throws a Problem with status 412 Precondition Failed if an expected
+	 * version is given and the delegation does not exist or has another version, either when read or, if changed
+	 * concurrently, when the deletion is flushed. The version is checked before the delegation and its facilities are
+	 * read.
+	 *
+	 * @param municipalityId  municipalityId
+	 * @param id              id of the delegation to be deleted
+	 * @param expectedVersion optional version that the delegation must have to be deleted, or {@link #ANY_VERSION}
+	 */
+	public void deleteDelegation(String municipalityId, String id, Long expectedVersion) {
+		verifyVersion(municipalityId, id, expectedVersion);
 		delegationRepository.findOne(withMunicipalityId(municipalityId)
 			.and(withId(id)))
 			.ifPresentOrElse(entity -> {
 				LOGGER.info("Deleting delegation with id: {}", sanitizeForLogging(id));
+				// The delegation may have been changed between reading the version and reading the delegation
+				verifyVersion(id, expectedVersion, entity.getVersion());
+				final var changeId = nextChangeIds(municipalityId, 1);
 
 				// Needs to be fetched before deletion to be visible in the event log
-				final var facilityInfo = ofNullable(entity.getFacilities()).orElse(emptySet()).stream().map(fe -> FACILITY_INFORMATION.formatted(fe.getFacilityId(), fe.getBusinessEngagementOrgId())).toList();
+				final var facilityInfo = toFacilityInfo(entity);
 
-				delegationRepository.delete(entity.withFacilities(null));
-				facilityRepository.deleteAllInBatch(facilityRepository.findAllByDelegationsIsEmpty()); // Clean up orphan facilities that has no connection to any delegation
+				final var detachedFacilityIds = toFacilityEntityIds(entity.getFacilities());
+
+				try {
+					delegationRepository.delete(entity.withFacilities(null));
+					delegationRepository.flush();
+				} catch (final ObjectOptimisticLockingFailureException e) {
+					throw toConcurrentModificationProblem(id, expectedVersion);
+				}
+
+				// Clean up facilities detached by this deletion that has no connection to any delegation
+				deleteOrphanFacilities(detachedFacilityIds);
+				delegationTombstoneRepository.save(toDelegationTombstoneEntity(entity).withChangeId(changeId));
 				sendEvent(municipalityId, entity, facilityInfo, DELETE);
-			}, () -> LOGGER.info("Couldn't delete delegation with id: {} within municipality: {} as it does not exist", sanitizeForLogging(id), sanitizeForLogging(municipalityId)));
+				delegationAccessIndex.remove(id, changeId);
+			}, () -> {
+				// A delegation that does not exist does not have the expected version either
+				verifyVersion(id, expectedVersion, null);
+				LOGGER.info("Couldn't delete delegation with id: {} within municipality: {} as it does not exist", sanitizeForLogging(id), sanitizeForLogging(municipalityId));
+			});
 	}
 
 	/**
-	 * Creates and sends an event for a facility delegation operation.
+	 * Processes a batch of create, update and delete operations in one transaction, in the order of the entries. The
+	 * delegations, existing owner and delegate pairs and facilities needed by the batch are looked up in bulk, and the
+	 * changes are written with JDBC batching when the transaction is flushed. Each entry is answered with the status that a
+	 * separate request for the entry would have been answered with, i.e. an entry that can not be processed does not fail
+	 * the batch.
+	 *
+	 * @param  municipalityId municipalityId
+	 * @param  entries        the operations to process
+	 * @return                list of results, in the same order as the entries
+	 */
+	public List<DelegationBatchResult> processDelegations(String municipalityId, List<DelegationBatchEntry> entries) {
+		LOGGER.info("Process batch of {} delegation operations", entries.size());
+
+		final var batch = new DelegationBatch(municipalityId, entries);
+		final var results = entries.stream()
+			.map(batch::process)
+			.toList();
+		batch.complete();
+
+		return results;
+	}
+
+	/**
+	 * Creates an event for a facility delegation operation and adds it to the event outbox, within the current
+	 * transaction. The event is sent to Eventlog asynchronously once the transaction has been committed.
 	 *
 	 * @param municipalityId municipalityId
 	 * @param entity         DelegationEntity containing delegation details
@@ -197,17 +553,263 @@ public class DelegationService {
 	 * @param eventType      EventType representing the type of event (CREATE, UPDATE, DELETE)
 	 */
 	private void sendEvent(String municipalityId, DelegationEntity entity, List<String> facilityInfo, EventType eventType) {
+		sendEvent(municipalityId, entity, facilityInfo, FacilityChanges.NONE, eventType);
+	}
+
+	private void sendEvent(String municipalityId, DelegationEntity entity, List<String> facilityInfo, FacilityChanges facilityChanges, EventType eventType) {
 		LOGGER.info("Creating event for delegation with id: {}", entity.getId());
-		try {
-			eventLogClient.createEvent(municipalityId, entity.getId(),
-				toEvent(entity.getId(),
-					entity.getOwner(),
-					entity.getDelegatedTo(),
-					ofNullable(facilityInfo).orElse(emptyList()).stream().sorted().toList(),
-					eventType));
-		} catch (final Exception e) {
-			LOGGER.warn("Failed to send event for delegation with id: {}", entity.getId(), e);
-			LOGGER.info("Delegation content: {}", entity);
+		delegationEventOutbox.add(municipalityId, entity.getId(), toDelegationEvent(entity, facilityInfo, facilityChanges, eventType));
+	}
+
+	private static Event toDelegationEvent(DelegationEntity entity, List<String> facilityInfo, FacilityChanges facilityChanges, EventType eventType) {
+		return toEvent(entity.getId(),
+			entity.getOwner(),
+			entity.getDelegatedTo(),
+			ofNullable(facilityInfo).orElse(emptyList()).stream().sorted().toList(),
+			toFacilityInfo(facilityChanges.added()),
+			toFacilityInfo(facilityChanges.removed()),
+			eventType);
+	}
+
+	/**
+	 * Verifies that the delegation has the expected version, if any, reading only the version of the delegation. A
+	 * delegation that does not exist does not have the expected version either.
+	 */
+	private void verifyVersion(String municipalityId, String id, Long expectedVersion) {
+		if (expectedVersion != null) {
+			verifyVersion(id, expectedVersion, delegationRepository.findVersion(municipalityId, id).orElse(null));
+		}
+	}
+
+	/**
+	 * Verifies that the version read of the delegation, or null if it does not exist, is the expected version, if any.
+	 */
+	private static void verifyVersion(String id, Long expectedVersion, Long version) {
+		if (expectedVersion != null && (version == null || (expectedVersion != ANY_VERSION && !expectedVersion.equals(version)))) {
+			throw Problem.builder()
+				.withTitle("Delegation has been modified")
+				.withDetail(toModifiedDetail(id, expectedVersion))
+				.withStatus(PRECONDITION_FAILED)
+				.build();
+		}
+	}
+
+	/**
+	 * The delegation was changed by another request after it was read. When an expected version was given, the change
+	 * made the version unexpected, otherwise the request may be retried.
+	 */
+	private static ThrowableProblem toConcurrentModificationProblem(String id, Long expectedVersion) {
+		return Problem.builder()
+			.withTitle("Delegation has been modified")
+			.withDetail(expectedVersion != null ? toModifiedDetail(id, expectedVersion) : "Delegation with id: '" + id + "' was modified by another request. Try again.")
+			.withStatus(expectedVersion != null ? PRECONDITION_FAILED : CONFLICT)
+			.build();
+	}
+
+	private static String toModifiedDetail(String id, Long expectedVersion) {
+		if (expectedVersion == ANY_VERSION) {
+			return "Delegation with id: '" + id + "' does not exist.";
+		}
+		return "Delegation with id: '" + id + "' does not have the expected version '" + expectedVersion + "'.";
+	}
+
+	private static String toNotFoundDetail(String municipalityId, String id) {
+		return "Delegation with id: '" + id + "' was not found within municipality '" + municipalityId + "'.";
+	}
+
+	private static String toAlreadyExistsDetail(String municipalityId, String owner, String delegatedTo) {
+		return "Owner with partyId: '" + owner + "' has already delegated to partyId: '" + delegatedTo + "' for municipality: '" + municipalityId + "'. Update existing delegation instead.";
+	}
+
+	/**
+	 * State of a batch being processed. Everything the batch needs from the database is read when the batch is created,
+	 * and kept up to date as the entries are processed, so that no entry needs queries of its own.
+	 */
+	private final class DelegationBatch {
+
+		private final String municipalityId;
+		private final Map<String, DelegationEntity> delegationsById;
+		private final Set<DelegationKey> delegationKeys;
+		private final Set<DelegationKey> releasedDelegationKeys = new HashSet<>();
+		private final Map<String, FacilityEntity> facilitiesByKey;
+		private final Set<String> detachedFacilityIds = new HashSet<>();
+		private final List<PendingEvent> pendingEvents = new ArrayList<>();
+		private final Map<String, DelegationEntity> changedDelegations = new HashMap<>();
+		private final List<DelegationTombstoneEntity> tombstones = new ArrayList<>();
+		private long nextChangeId;
+
+		private DelegationBatch(String municipalityId, List<DelegationBatchEntry> entries) {
+			this.municipalityId = municipalityId;
+
+			final var ids = entries.stream()
+				.filter(entry -> entry.getOperation() != DelegationOperation.CREATE)
+				.map(DelegationBatchEntry::getId)
+				.filter(Objects::nonNull)
+				.distinct()
+				.toList();
+			this.delegationsById = chunked(ids)
+				.flatMap(chunk -> delegationRepository.findAll(withMunicipalityId(municipalityId).and(withIdIn(chunk))).stream())
+				.collect(toMap(DelegationEntity::getId, identity(), (first, second) -> first, HashMap::new));
+
+			final var owners = Stream.concat(
+				entries.stream().map(DelegationBatchEntry::getCreateDelegation).filter(Objects::nonNull).map(CreateDelegation::getOwner),
+				delegationsById.values().stream().map(DelegationEntity::getOwner))
+				.filter(Objects::nonNull)
+				.distinct()
+				.toList();
+			this.delegationKeys = chunked(owners)
+				.flatMap(chunk -> delegationRepository.findByMunicipalityIdAndOwnerIn(municipalityId, chunk).stream())
+				.collect(toCollection(HashSet::new));
+
+			this.facilitiesByKey = findFacilitiesByKey(entries.stream()
+				.flatMap(entry -> Stream.concat(
+					ofNullable(entry.getCreateDelegation()).map(CreateDelegation::getFacilities).stream(),
+					ofNullable(entry.getUpdateDelegation()).map(UpdateDelegation::getFacilities).stream()))
+				.flatMap(List::stream)
+				.toList());
+
+			// One change id is taken for each entry, leaving gaps in the change ids for entries not changing anything
+			this.nextChangeId = nextChangeIds(municipalityId, entries.size());
 		}
+
+		private DelegationBatchResult process(DelegationBatchEntry entry) {
+			final var result = DelegationBatchResult.create()
+				.withOperation(entry.getOperation())
+				.withId(entry.getId());
+
+			return switch (entry.getOperation()) {
+				case CREATE -> create(entry.getCreateDelegation(), result);
+				case UPDATE -> update(entry.getId(), entry.getUpdateDelegation(), result);
+				case DELETE -> delete(entry.getId(), result);
+			};
+		}
+
+		private DelegationBatchResult create(CreateDelegation delegation, DelegationBatchResult result) {
+			if (delegation == null) {
+				return result.withStatus(BAD_REQUEST.value()).withDetail("createDelegation must be provided for operation CREATE");
+			}
+			if (!claim(new DelegationKey(delegation.getOwner(), delegation.getDelegatedTo()))) {
+				return result.withStatus(CONFLICT.value()).withDetail(toAlreadyExistsDetail(municipalityId, delegation.getOwner(), delegation.getDelegatedTo()));
+			}
+
+			final var entity = delegationRepository.save(toDelegationEntity(municipalityId, delegation).withChangeId(nextChangeId++)
+				.withFacilities(toFacilities(delegation.getFacilities(), facilitiesByKey)));
+			addEvent(entity, toFacilityInfo(entity), CREATE);
+			changedDelegations.put(entity.getId(), entity);
+
+			return result.withId(entity.getId()).withStatus(HttpStatus.CREATED.value());
+		}
+
+		private DelegationBatchResult update(String id, UpdateDelegation delegation, DelegationBatchResult result) {
+			if (id == null || delegation == null) {
+				return result.withStatus(BAD_REQUEST.value()).withDetail("id and updateDelegation must be provided for operation UPDATE");
+			}
+			final var entity = delegationsById.get(id);
+			if (entity == null) {
+				return result.withStatus(NOT_FOUND.value()).withDetail(toNotFoundDetail(municipalityId, id));
+			}
+
+			if (delegation.getDelegatedTo() != null) {
+				final var currentKey = new DelegationKey(entity.getOwner(), entity.getDelegatedTo());
+				final var updatedKey = new DelegationKey(entity.getOwner(), delegation.getDelegatedTo());
+				if (!updatedKey.equals(currentKey)) {
+					if (!claim(updatedKey)) {
+						return result.withStatus(CONFLICT.value()).withDetail(toAlreadyExistsDetail(municipalityId, entity.getOwner(), delegation.getDelegatedTo()));
+					}
+					release(currentKey);
+				}
+				entity.setDelegatedTo(delegation.getDelegatedTo());
+			}
+			entity.setChangeId(nextChangeId++);
+			final var facilityChanges = ofNullable(delegation.getFacilities())
+				.map(facilities -> changeFacilities(entity, toFacilities(facilities, facilitiesByKey)))
+				.orElse(FacilityChanges.NONE);
+			detachedFacilityIds.addAll(toFacilityEntityIds(facilityChanges.removed()));
+			addEvent(entity, toFacilityInfo(entity), facilityChanges, UPDATE);
+			changedDelegations.put(id, entity);
+
+			return result.withStatus(ACCEPTED.value());
+		}
+
+		private DelegationBatchResult delete(String id, DelegationBatchResult result) {
+			if (id == null) {
+				return result.withStatus(BAD_REQUEST.value()).withDetail("id must be provided for operation DELETE");
+			}
+
+			// As for a separate request, deleting a delegation that does not exist is accepted
+			ofNullable(delegationsById.remove(id)).ifPresent(entity -> {
+				addEvent(entity, toFacilityInfo(entity), DELETE);
+				detachedFacilityIds.addAll(toFacilityEntityIds(entity.getFacilities()));
+				release(new DelegationKey(entity.getOwner(), entity.getDelegatedTo()));
+				changedDelegations.remove(id);
+				tombstones.add(toDelegationTombstoneEntity(entity).withChangeId(nextChangeId++));
+				delegationRepository.delete(entity.withFacilities(null));
+			});
+
+			return result.withStatus(ACCEPTED.value());
+		}
+
+		/**
+		 * Claims an owner and delegate pair for a delegation, returning false if another delegation already has the pair.
+		 */
+		private boolean claim(DelegationKey key) {
+			if (!delegationKeys.add(key)) {
+				return false;
+			}
+			// Hibernate executes inserts and updates before deletes when flushing, hence a pair released earlier in the batch
+			// must be flushed before it is reused, to not violate the unique constraint
+			if (releasedDelegationKeys.remove(key)) {
+				delegationRepository.flush();
+			}
+			return true;
+		}
+
+		private void release(DelegationKey key) {
+			delegationKeys.remove(key);
+			releasedDelegationKeys.add(key);
+		}
+
+		private void addEvent(DelegationEntity entity, List<String> facilityInfo, EventType eventType) {
+			addEvent(entity, facilityInfo, FacilityChanges.NONE, eventType);
+		}
+
+		private void addEvent(DelegationEntity entity, List<String> facilityInfo, FacilityChanges facilityChanges, EventType eventType) {
+			pendingEvents.add(new PendingEvent(entity.getId(), toDelegationEvent(entity, facilityInfo, facilityChanges, eventType)));
+		}
+
+		/**
+		 * Writes the changes of the batch, cleans up detached facilities, adds the events of the batch to the outbox and
+		 * updates the access index.
+		 */
+		private void complete() {
+			delegationRepository.flush();
+
+			// Clean up facilities detached by this batch that has no connection to any delegation
+			deleteOrphanFacilities(detachedFacilityIds);
+			if (!tombstones.isEmpty()) {
+				delegationTombstoneRepository.saveAll(tombstones);
+			}
+
+			pendingEvents.forEach(pendingEvent -> delegationEventOutbox.add(municipalityId, pendingEvent.delegationId(), pendingEvent.event()));
+			changedDelegations.values().forEach(delegationAccessIndex::put);
+			tombstones.forEach(tombstone -> delegationAccessIndex.remove(tombstone.getDelegationId(), tombstone.getChangeId()));
+		}
+	}
+
+	private record PendingEvent(String delegationId, Event event) {
+	}
+
+	/**
+	 * Change of a delegation together with its change id, for ordering changes read from delegations and tombstones.
+	 */
+	private record IdentifiedChange(long changeId, DelegationChange change) {
+	}
+
+	/**
+	 * Facilities added to and removed from a delegation by an update.
+	 */
+	private record FacilityChanges(List<FacilityEntity> added, List<FacilityEntity> removed) {
+
+		private static final FacilityChanges NONE = new FacilityChanges(emptyList(), emptyList());
 	}
 }
@@ -1,15 +1,41 @@
 package se.sundsvall.installedbase.service;
 
+import generated.se.sundsvall.datawarehousereader.CustomerEngagement;
+import generated.se.sundsvall.datawarehousereader.CustomerEngagementResponse;
+import generated.se.sundsvall.datawarehousereader.PagingAndSortingMetaData;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
+import se.sundsvall.dept44.exception.ClientProblem;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+import se.sundsvall.installedbase.api.model.InstalledBaseBatchEntry;
+import se.sundsvall.installedbase.api.model.InstalledBaseBatchResult;
+import se.sundsvall.installedbase.api.model.InstalledBaseCustomer;
 import se.sundsvall.installedbase.api.model.InstalledBaseParameters;
 import se.sundsvall.installedbase.api.model.InstalledBaseResponse;
 import se.sundsvall.installedbase.api.model.InstalledBases;
-import se.sundsvall.installedbase.integration.datawarehousereader.DataWarehouseReaderClient;
+import se.sundsvall.installedbase.integration.datawarehousereader.Cached;
+import se.sundsvall.installedbase.integration.datawarehousereader.DataWarehouseReaderIntegration;
+import se.sundsvall.installedbase.integration.datawarehousereader.configuration.DataWarehouseReaderProperties;
+import se.sundsvall.installedbase.integration.db.model.InstalledBaseCustomerEntity;
+import se.sundsvall.installedbase.service.concurrency.FanOutExecutor;
+import se.sundsvall.installedbase.service.store.InstalledBaseStore;
 
+import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
 import static org.apache.commons.lang3.ObjectUtils.allNotNull;
+import static org.apache.commons.lang3.StringUtils.defaultIfEmpty;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static se.sundsvall.dept44.util.LogUtils.sanitizeForLogging;
 import static se.sundsvall.installedbase.service.mapper.InstalledBaseMapper.toCustomerEngagements;
 import static se.sundsvall.installedbase.service.mapper.InstalledBaseMapper.toInstalledBaseCustomer;
 import static se.sundsvall.installedbase.service.mapper.InstalledBaseMapper.toInstalledBaseResponse;
@@ -18,14 +44,23 @@ import static se.sundsvall.installedbase.service.mapper.InstalledBaseMapper.toIn
 @Service
 public class InstalledBaseService {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(InstalledBaseService.class);
+
 	private static final int DATAWAREHOUSEREADER_PAGE_LIMIT = 100;
 	private static final int DATAWAREHOUSEREADER_PAGE = 1;
+	private static final int DATAWAREHOUSEREADER_PAGE_MAX_ATTEMPTS = 3;
 	private static final String DATAWAREHOUSEREADER_SORTBY_PROPERTY = "facilityId";
 
-	private final DataWarehouseReaderClient dataWarehouseReaderClient;
+	private final DataWarehouseReaderIntegration dataWarehouseReaderIntegration;
+	private final FanOutExecutor fanOutExecutor;
+	private final InstalledBaseStore installedBaseStore;
+	private final int partyIdChunkSize;
 
-	public InstalledBaseService(DataWarehouseReaderClient dataWarehouseReaderClient) {
-		this.dataWarehouseReaderClient = dataWarehouseReaderClient;
+	public InstalledBaseService(DataWarehouseReaderIntegration dataWarehouseReaderIntegration, FanOutExecutor fanOutExecutor, InstalledBaseStore installedBaseStore, DataWarehouseReaderProperties properties) {
+		this.dataWarehouseReaderIntegration = dataWarehouseReaderIntegration;
+		this.fanOutExecutor = fanOutExecutor;
+		this.installedBaseStore = installedBaseStore;
+		this.partyIdChunkSize = properties.partyIdChunkSize();
 	}
 
 	public InstalledBases getInstalledBaseByPartyId(final String municipalityId, final InstalledBaseParameters parameters) {
@@ -33,7 +68,7 @@ public class InstalledBaseService {
 			.map(ids -> String.join(",", ids))
 			.orElse(null);
 
-		return toInstalledBases(dataWarehouseReaderClient.getInstalledBaseByPartyId(municipalityId,
+		return toInstalledBases(dataWarehouseReaderIntegration.getInstalledBaseByPartyId(municipalityId,
 			parameters.getPartyId(),
 			organizationIds,
 			parameters.getDate(),
@@ -43,26 +78,217 @@ public class InstalledBaseService {
 	}
 
 	public InstalledBaseResponse getInstalledBase(String municipalityId, String organizationNumber, List<String> partyIds, LocalDate modifiedFrom) {
-		final var customerEngagements = toCustomerEngagements(dataWarehouseReaderClient.getCustomerEngagement(municipalityId, organizationNumber, partyIds));
+		return fanOutExecutor.withRequestPermits(() -> {
+			final var customerEngagementResponse = getCustomerEngagement(municipalityId, organizationNumber, partyIds);
+
+			final var response = toInstalledBaseResponse(fanOutExecutor.mapOrdered(toCustomerEngagements(customerEngagementResponse.value()),
+				engagement -> getInstalledBaseCustomer(municipalityId, engagement, modifiedFrom)));
+			return response.withStale(response.isStale() || customerEngagementResponse.stale());
+		});
+	}
+
+	/**
+	 * Fetches the installed base for each batch entry, sharing the concurrency limits and cache with all other requests.
+	 * All entries share the permits of the batch request, i.e. a batch makes no more concurrent calls than a single
+	 * request. Each entry is answered with the status (and result or error detail) that a separate request for the entry would
+	 * have been answered with, i.e. a failing entry does not fail the batch.
+	 */
+	public List<InstalledBaseBatchResult> getInstalledBases(String municipalityId, List<InstalledBaseBatchEntry> entries) {
+		return fanOutExecutor.withRequestPermits(() -> fanOutExecutor.mapOrdered(entries, entry -> getInstalledBaseBatchResult(municipalityId, entry)));
+	}
+
+	private InstalledBaseBatchResult getInstalledBaseBatchResult(String municipalityId, InstalledBaseBatchEntry entry) {
+		final var result = InstalledBaseBatchResult.create()
+			.withOrganizationNumber(entry.getOrganizationNumber())
+			.withPartyIds(entry.getPartyIds())
+			.withModifiedFrom(entry.getModifiedFrom());
+
+		try {
+			return result
+				.withStatus(OK.value())
+				.withInstalledBaseCustomers(getInstalledBase(municipalityId, entry.getOrganizationNumber(), entry.getPartyIds(), entry.getModifiedFrom()).getInstalledBaseCustomers());
+		} catch (final ThrowableProblem e) {
+			return result
+				.withStatus(ofNullable(e.getStatus()).map(HttpStatusCode::value).orElse(INTERNAL_SERVER_ERROR.value()))
+				.withDetail(e.getDetail());
+		} catch (final CallNotPermittedException e) {
+			return result
+				.withStatus(SERVICE_UNAVAILABLE.value())
+				.withDetail(SERVICE_UNAVAILABLE.getReasonPhrase());
+		} catch (final RuntimeException e) {
+			LOGGER.warn("Failed to fetch installed base for organization number: {}", sanitizeForLogging(entry.getOrganizationNumber()), e);
+			return result
+				.withStatus(INTERNAL_SERVER_ERROR.value())
+				.withDetail(INTERNAL_SERVER_ERROR.getReasonPhrase());
+		}
+	}
+
+	/**
+	 * Streaming variant of {@link #getInstalledBase(String, String, List, LocalDate)} that passes each installed base
+	 * customer to the consumer as soon as it has been mapped (in the same order as in the non streaming variant), instead
+	 * of collecting all customers in memory before returning them. The customer engagements are resolved before
+	 * returning, so that a failure to resolve them can be answered before the streamed response has been started. As
+	 * the stream has no response of its own, stale customer engagements are marked on each streamed customer instead.
+	 */
+	public InstalledBaseStream streamInstalledBase(String municipalityId, String organizationNumber, List<String> partyIds, LocalDate modifiedFrom) {
+		final var customerEngagementResponse = fanOutExecutor.withRequestPermits(() -> getCustomerEngagement(municipalityId, organizationNumber, partyIds));
+		final var customerEngagements = toCustomerEngagements(customerEngagementResponse.value());
+
+		return consumer -> fanOutExecutor.forEachOrdered(customerEngagements,
+			engagement -> getInstalledBaseCustomer(municipalityId, engagement, modifiedFrom),
+			customer -> consumer.accept(customer.withStale(customer.isStale() || customerEngagementResponse.stale())));
+	}
+
+	/**
+	 * Fetches customer engagements for the parties in chunks of configurable size, as all party ids are sent as query
+	 * parameters to DataWarehouseReader. The chunks are fetched concurrently and the engagements merged in chunk order
+	 * with duplicates removed.
+	 */
+	private Cached<CustomerEngagementResponse> getCustomerEngagement(String municipalityId, String organizationNumber, List<String> partyIds) {
+		final var distinctPartyIds = partyIds.stream().distinct().toList();
+		if (distinctPartyIds.size() <= partyIdChunkSize) {
+			return fanOutExecutor.withMunicipalityPermit(municipalityId, () -> dataWarehouseReaderIntegration.getCustomerEngagement(municipalityId, organizationNumber, partyIds));
+		}
+
+		final var chunks = IntStream.iterate(0, from -> from < distinctPartyIds.size(), from -> from + partyIdChunkSize)
+			.mapToObj(from -> distinctPartyIds.subList(from, Math.min(from + partyIdChunkSize, distinctPartyIds.size())))
+			.toList();
+
+		final var responses = fanOutExecutor.mapOrdered(chunks,
+			chunk -> fanOutExecutor.withMunicipalityPermit(municipalityId, () -> dataWarehouseReaderIntegration.getCustomerEngagement(municipalityId, organizationNumber, chunk)));
+		final var customerEngagements = responses.stream()
+			.flatMap(response -> ofNullable(response.value()).map(CustomerEngagementResponse::getCustomerEngagements).orElse(emptyList()).stream())
+			.distinct()
+			.toList();
+
+		final var customerEngagementResponse = new CustomerEngagementResponse()
+			.customerEngagements(customerEngagements)
+			.meta(new PagingAndSortingMetaData().page(1).totalPages(1).count(customerEngagements.size()).totalRecords((long) customerEngagements.size()));
+		return new Cached<>(customerEngagementResponse, responses.stream().anyMatch(Cached::stale));
+	}
+
+	/**
+	 * Synchronizes all customers in the local installed base store with DataWarehouseReader. Only items modified since the
+	 * watermark of each customer are fetched, except when a full synchronization of the customer is due. A failing
+	 * customer does not prevent the remaining customers from being synchronized.
+	 */
+	public void synchronizeInstalledBaseStore() {
+		installedBaseStore.getCustomers().forEach(customer -> {
+			try {
+				fanOutExecutor.withRequestPermits(() -> {
+					synchronizeInstalledBaseStore(customer);
+					return null;
+				});
+			} catch (final RuntimeException e) {
+				LOGGER.warn("Synchronization of stored installed base failed for customer: {}", sanitizeForLogging(customer.getCustomerNumber()), e);
+			}
+		});
+	}
 
-		return toInstalledBaseResponse(customerEngagements.stream()
-			.map(engagement -> toInstalledBaseCustomer(engagement,
-				getInstalledBase(municipalityId, engagement.getCustomerNumber(), engagement.getOrganizationName(), modifiedFrom, DATAWAREHOUSEREADER_PAGE, DATAWAREHOUSEREADER_PAGE_LIMIT)))
-			.toList());
+	private void synchronizeInstalledBaseStore(InstalledBaseCustomerEntity customer) {
+		final var syncDate = LocalDate.now();
+
+		final var fullSync = installedBaseStore.isFullSyncDue(customer, syncDate);
+		final var company = defaultIfEmpty(customer.getCompany(), null);
+		final var response = getInstalledBase(customer.getMunicipalityId(), customer.getCustomerNumber(), company, fullSync ? null : customer.getWatermark(), DATAWAREHOUSEREADER_PAGE, DATAWAREHOUSEREADER_PAGE_LIMIT);
+		final var items = toItems(response.value());
+
+		if (response.stale()) {
+			// DataWarehouseReader is unavailable, the customer is synchronized on the next run instead
+			LOGGER.info("Synchronization of stored installed base skipped for customer: {}", sanitizeForLogging(customer.getCustomerNumber()));
+		} else if (fullSync && items.isEmpty()) {
+			// The customer no longer has any installed base, and is added to the store again if requested later on
+			LOGGER.info("Removing customer: {} without installed base from store", sanitizeForLogging(customer.getCustomerNumber()));
+			installedBaseStore.removeCustomer(customer.getId());
+		} else if (fullSync) {
+			installedBaseStore.replaceItems(customer.getMunicipalityId(), customer.getCustomerNumber(), company, items, syncDate);
+		} else {
+			installedBaseStore.mergeItems(customer.getId(), items, syncDate);
+		}
 	}
 
-	private generated.se.sundsvall.datawarehousereader.InstalledBaseResponse getInstalledBase(String municipalityId, String customerNumber, String company, LocalDate modifiedFrom, int page, int limit) {
-		final var installedBaseResponse = dataWarehouseReaderClient.getInstalledBase(municipalityId, customerNumber, company, modifiedFrom, page, limit, DATAWAREHOUSEREADER_SORTBY_PROPERTY);
+	private InstalledBaseCustomer getInstalledBaseCustomer(String municipalityId, CustomerEngagement engagement, LocalDate modifiedFrom) {
+		return toInstalledBaseCustomer(engagement, readInstalledBase(municipalityId, engagement.getCustomerNumber(), engagement.getOrganizationName(), modifiedFrom));
+	}
 
-		var currentPage = page;
+	/**
+	 * Reads the installed base from the local store when it is enabled and knows the customer. Otherwise the installed
+	 * base is read from DataWarehouseReader and, if complete (i.e. not filtered on modification date) and not stale, added
+	 * to the store.
+	 */
+	private Cached<generated.se.sundsvall.datawarehousereader.InstalledBaseResponse> readInstalledBase(String municipalityId, String customerNumber, String company, LocalDate modifiedFrom) {
+		if (!installedBaseStore.isEnabled()) {
+			return getInstalledBase(municipalityId, customerNumber, company, modifiedFrom, DATAWAREHOUSEREADER_PAGE, DATAWAREHOUSEREADER_PAGE_LIMIT);
+		}
 
-		if (allNotNull(installedBaseResponse, installedBaseResponse.getMeta(), installedBaseResponse.getMeta().getTotalPages()) && (installedBaseResponse.getMeta().getTotalPages() > currentPage)) {
-			while (installedBaseResponse.getMeta().getTotalPages() > currentPage) {
-				installedBaseResponse.getInstalledBase().addAll(
-					dataWarehouseReaderClient.getInstalledBase(municipalityId, customerNumber, company, modifiedFrom, ++currentPage, limit, DATAWAREHOUSEREADER_SORTBY_PROPERTY).getInstalledBase());
+		final var storedItems = installedBaseStore.findItems(municipalityId, customerNumber, company, modifiedFrom);
+		if (storedItems.isPresent()) {
+			return Cached.of(new generated.se.sundsvall.datawarehousereader.InstalledBaseResponse().installedBase(storedItems.get()));
+		}
+
+		final var syncDate = LocalDate.now();
+		final var response = getInstalledBase(municipalityId, customerNumber, company, modifiedFrom, DATAWAREHOUSEREADER_PAGE, DATAWAREHOUSEREADER_PAGE_LIMIT);
+		if (modifiedFrom == null && response.value() != null && !response.stale()) {
+			try {
+				installedBaseStore.replaceItems(municipalityId, customerNumber, company, toItems(response.value()), syncDate);
+			} catch (final DataIntegrityViolationException e) {
+				// Customer has been added to the store by a concurrent request
+				LOGGER.info("Installed base for customer: {} already present in store", sanitizeForLogging(customerNumber));
 			}
 		}
-		return installedBaseResponse;
+		return response;
+	}
+
+	private static List<generated.se.sundsvall.datawarehousereader.InstalledBaseItem> toItems(generated.se.sundsvall.datawarehousereader.InstalledBaseResponse response) {
+		return ofNullable(response)
+			.map(generated.se.sundsvall.datawarehousereader.InstalledBaseResponse::getInstalledBase)
+			.orElse(emptyList());
 	}
 
+	private Cached<generated.se.sundsvall.datawarehousereader.InstalledBaseResponse> getInstalledBase(String municipalityId, String customerNumber, String company, LocalDate modifiedFrom, int page, int limit) {
+		final var firstPage = getInstalledBasePage(municipalityId, customerNumber, company, modifiedFrom, page, limit);
+		final var installedBaseResponse = firstPage.value();
+
+		if (!allNotNull(installedBaseResponse, installedBaseResponse.getMeta(), installedBaseResponse.getMeta().getTotalPages()) || (installedBaseResponse.getMeta().getTotalPages() <= page)) {
+			return firstPage;
+		}
+
+		// Fetch remaining pages concurrently and merge them in page order to keep the sort order from DataWarehouseReader
+		final var remainingPages = IntStream.rangeClosed(page + 1, installedBaseResponse.getMeta().getTotalPages()).boxed().toList();
+		final var installedBase = new ArrayList<>(ofNullable(installedBaseResponse.getInstalledBase()).orElse(emptyList()));
+
+		final var responses = fanOutExecutor.mapOrdered(remainingPages, currentPage -> getInstalledBasePageWithRetry(municipalityId, customerNumber, company, modifiedFrom, currentPage, limit));
+		responses.forEach(response -> installedBase.addAll(ofNullable(response.value())
+			.map(generated.se.sundsvall.datawarehousereader.InstalledBaseResponse::getInstalledBase)
+			.orElse(emptyList())));
+
+		final var mergedResponse = new generated.se.sundsvall.datawarehousereader.InstalledBaseResponse()
+			.meta(installedBaseResponse.getMeta())
+			.installedBase(installedBase);
+		return new Cached<>(mergedResponse, firstPage.stale() || responses.stream().anyMatch(Cached::stale));
+	}
+
+	/**
+	 * Fetches a page from DataWarehouseReader, retrying the page on its own if the call fails. Client problems (4xx) and
+	 * calls rejected by an open circuit breaker are not retried as a new attempt will not have a different outcome.
+	 */
+	private Cached<generated.se.sundsvall.datawarehousereader.InstalledBaseResponse> getInstalledBasePageWithRetry(String municipalityId, String customerNumber, String company, LocalDate modifiedFrom, int page, int limit) {
+		for (var attempt = 1;; attempt++) {
+			try {
+				return getInstalledBasePage(municipalityId, customerNumber, company, modifiedFrom, page, limit);
+			} catch (final ClientProblem | CallNotPermittedException e) {
+				throw e;
+			} catch (final RuntimeException e) {
+				if (attempt >= DATAWAREHOUSEREADER_PAGE_MAX_ATTEMPTS) {
+					throw e;
+				}
+				LOGGER.warn("Attempt {} of {} failed when fetching page {} of installed base for customer: {}", attempt, DATAWAREHOUSEREADER_PAGE_MAX_ATTEMPTS, page, sanitizeForLogging(customerNumber), e);
+			}
+		}
+	}
+
+	private Cached<generated.se.sundsvall.datawarehousereader.InstalledBaseResponse> getInstalledBasePage(String municipalityId, String customerNumber, String company, LocalDate modifiedFrom, int page, int limit) {
+		return fanOutExecutor.withMunicipalityPermit(municipalityId,
+			() -> dataWarehouseReaderIntegration.getInstalledBase(municipalityId, customerNumber, company, modifiedFrom, page, limit, DATAWAREHOUSEREADER_SORTBY_PROPERTY));
+	}
 }
@@ -0,0 +1,13 @@
+package se.sundsvall.installedbase.service;
+
+import java.util.function.Consumer;
+import se.sundsvall.installedbase.api.model.InstalledBaseCustomer;
+
+/**
+ * Installed base customers that are fetched and passed to a consumer one at a time, in customer engagement order.
+ */
+@FunctionalInterface
+public interface InstalledBaseStream {
+
+	void forEachCustomer(Consumer<InstalledBaseCustomer> consumer);
+}
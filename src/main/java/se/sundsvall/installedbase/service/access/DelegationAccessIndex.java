@@ -0,0 +1,336 @@
+package se.sundsvall.installedbase.service.access;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.installedbase.integration.db.DelegationChangeSequenceRepository;
+import se.sundsvall.installedbase.integration.db.DelegationRepository;
+import se.sundsvall.installedbase.integration.db.DelegationTombstoneRepository;
+import se.sundsvall.installedbase.integration.db.model.DelegatedFacility;
+import se.sundsvall.installedbase.integration.db.model.DelegationChangeSequenceEntity;
+import se.sundsvall.installedbase.integration.db.model.DelegationEntity;
+
+import static java.util.Collections.emptySet;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toMap;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+import static se.sundsvall.installedbase.integration.db.model.FacilityEntity.toFacilityKey;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withChangeIdAfter;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withMunicipalityId;
+
+/**
+ * In-memory index of the facilities that each party has access to, as owner or delegate of a delegation, for answering
+ * access checks without querying the database. The index is built by {@link DelegationAccessIndexRefresher}, at
+ * startup and then periodically, and kept up to date with the changes made by this instance once they are committed.
+ * Changes made by any instance are read from the database by their change ids every changes interval.
+ * <p>
+ * The index is only used while it has been synchronized with the database within the max staleness, hence a change
+ * made by another instance is reflected by the index within the max staleness, or access is checked in the database.
+ */
+@Component
+public class DelegationAccessIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DelegationAccessIndex.class);
+
+	private final DelegationRepository delegationRepository;
+	private final DelegationTombstoneRepository delegationTombstoneRepository;
+	private final DelegationChangeSequenceRepository delegationChangeSequenceRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final DelegationAccessIndexProperties properties;
+
+	// Held while the index is rebuilt or changes are applied, for one of them to run at a time
+	private final Object synchronizationLock = new Object();
+
+	// Null until the index has been built for the first time
+	private volatile Index index;
+
+	// Start of the latest rebuild or reading of changes, i.e. the index holds all changes committed before this time
+	private volatile Instant synchronizedAt;
+
+	// Changes committed while the index is being rebuilt, which the rebuilt index might not have read
+	private List<Consumer<Index>> changesDuringRebuild;
+
+	public DelegationAccessIndex(final DelegationRepository delegationRepository, final DelegationTombstoneRepository delegationTombstoneRepository,
+		final DelegationChangeSequenceRepository delegationChangeSequenceRepository, final PlatformTransactionManager transactionManager, final DelegationAccessIndexProperties properties) {
+		this.delegationRepository = delegationRepository;
+		this.delegationTombstoneRepository = delegationTombstoneRepository;
+		this.delegationChangeSequenceRepository = delegationChangeSequenceRepository;
+		// The database is read in read-write transactions, which are routed to the primary database and not to the replica
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.properties = properties;
+	}
+
+	/**
+	 * @return true if the index is enabled, has been built and has been synchronized with the database within the max
+	 *         staleness, i.e. can answer access checks
+	 */
+	public boolean isReady() {
+		final var synchronizedAt = this.synchronizedAt;
+		return properties.enabled() && index != null && synchronizedAt != null && synchronizedAt.plus(properties.maxStaleness()).isAfter(Instant.now());
+	}
+
+	/**
+	 * Checks if the party is owner or delegate of a delegation having the facility. When no business engagement org id is
+	 * given, the facility is matched on facility id only.
+	 *
+	 * @param  municipalityId          the municipality id
+	 * @param  partyId                 the party id
+	 * @param  facilityId              the facility id
+	 * @param  businessEngagementOrgId optional business engagement org id of the facility
+	 * @return                         true if the party has access to the facility, false otherwise
+	 */
+	public boolean hasAccess(final String municipalityId, final String partyId, final String facilityId, final String businessEngagementOrgId) {
+		final var current = index;
+		if (current == null) {
+			return false;
+		}
+
+		final var facilityKey = toFacilityKey(facilityId, businessEngagementOrgId);
+		return current.delegationIdsByParty.getOrDefault(new PartyKey(municipalityId, partyId), emptySet()).stream()
+			.map(current.delegationsById::get)
+			.filter(Objects::nonNull)
+			.anyMatch(delegation -> delegation.facilityKeys().contains(facilityKey));
+	}
+
+	/**
+	 * Rebuilds the index from the database, replacing the current index when done. Changes committed during the rebuild
+	 * are applied to the rebuilt index as well, before it replaces the current index.
+	 */
+	public void rebuild() {
+		if (!properties.enabled()) {
+			return;
+		}
+
+		synchronized (synchronizationLock) {
+			synchronized (this) {
+				changesDuringRebuild = new ArrayList<>();
+			}
+
+			try {
+				final var startedAt = Instant.now();
+				// The change ids are read in the same transaction as the delegations, for them to match the delegations read
+				final var rebuilt = transactionTemplate.execute(status -> {
+					final var built = new Index(delegationChangeSequenceRepository.findAll().stream()
+						.collect(toMap(DelegationChangeSequenceEntity::getMunicipalityId, DelegationChangeSequenceEntity::getChangeId)));
+					delegationRepository.findAllDelegatedFacilities().stream()
+						.collect(groupingBy(DelegatedFacility::delegationId))
+						.forEach((delegationId, facilities) -> built.put(delegationId, IndexedDelegation.of(facilities)));
+					return built;
+				});
+
+				synchronized (this) {
+					changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+					index = rebuilt;
+				}
+				synchronizedAt = startedAt;
+				LOGGER.info("Built access index for {} delegations", rebuilt.delegationsById.size());
+			} finally {
+				synchronized (this) {
+					changesDuringRebuild = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Applies the changes committed by any instance since the index was last synchronized with the database. The changes
+	 * of each municipality are read by change id, from the delegations changed and the tombstones of the delegations
+	 * deleted after the latest change id applied.
+	 */
+	public void applyChanges() {
+		if (!properties.enabled()) {
+			return;
+		}
+
+		synchronized (synchronizationLock) {
+			final var current = index;
+			if (current == null) {
+				// The changes are read by the rebuild building the index
+				return;
+			}
+
+			final var startedAt = Instant.now();
+			final var changes = transactionTemplate.execute(status -> findChanges(current.changeIds));
+			changes.forEach(this::update);
+			synchronizedAt = startedAt;
+			LOGGER.debug("Applied {} changes to access index", changes.size());
+		}
+	}
+
+	private List<Consumer<Index>> findChanges(final Map<String, Long> appliedChangeIds) {
+		final var changes = new ArrayList<Consumer<Index>>();
+
+		delegationChangeSequenceRepository.findAll().stream()
+			.filter(sequence -> sequence.getChangeId() > appliedChangeIds.getOrDefault(sequence.getMunicipalityId(), 0L))
+			.forEach(sequence -> {
+				final var municipalityId = sequence.getMunicipalityId();
+				final var appliedChangeId = appliedChangeIds.getOrDefault(municipalityId, 0L);
+
+				delegationRepository.findAll(withMunicipalityId(municipalityId).and(withChangeIdAfter(appliedChangeId))).forEach(entity -> {
+					final var delegation = IndexedDelegation.of(entity);
+					changes.add(current -> current.put(entity.getId(), delegation));
+				});
+				delegationTombstoneRepository.findDeletedAfter(municipalityId, appliedChangeId, Limit.unlimited())
+					.forEach(tombstone -> changes.add(current -> current.remove(tombstone.getDelegationId(), tombstone.getChangeId())));
+				changes.add(current -> current.changeIds.put(municipalityId, sequence.getChangeId()));
+			});
+
+		return changes;
+	}
+
+	/**
+	 * Adds or replaces the delegation in the index once the current transaction has been committed.
+	 *
+	 * @param entity the created or updated delegation, with the facilities it has after the change
+	 */
+	public void put(final DelegationEntity entity) {
+		if (!properties.enabled()) {
+			return;
+		}
+
+		// The delegation is read right away, as the entity may change before the transaction is committed
+		final var delegation = IndexedDelegation.of(entity);
+		afterCommit(() -> update(current -> current.put(entity.getId(), delegation)));
+	}
+
+	/**
+	 * Removes the delegation from the index once the current transaction has been committed.
+	 *
+	 * @param delegationId id of the deleted delegation
+	 * @param changeId     change id of the deletion
+	 */
+	public void remove(final String delegationId, final long changeId) {
+		if (!properties.enabled()) {
+			return;
+		}
+
+		afterCommit(() -> update(current -> current.remove(delegationId, changeId)));
+	}
+
+	private synchronized void update(final Consumer<Index> change) {
+		ofNullable(index).ifPresent(change);
+		ofNullable(changesDuringRebuild).ifPresent(changes -> changes.add(change));
+	}
+
+	private static void afterCommit(final Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	/**
+	 * The delegations per id, and the ids of the delegations per party. Changed by one thread at a time, while being
+	 * read concurrently. A change is applied both when committed by this instance and when read from the database, in
+	 * any order, why a change older than the change already applied to a delegation is ignored.
+	 */
+	private static final class Index {
+
+		private final Map<String, IndexedDelegation> delegationsById = new ConcurrentHashMap<>();
+		private final Map<PartyKey, Set<String>> delegationIdsByParty = new ConcurrentHashMap<>();
+		// Latest change id applied per municipality, of the changes read from the database
+		private final Map<String, Long> changeIds;
+		// Change id of the deletion per deleted delegation, for a deleted delegation not to be put back by an older change
+		private final Map<String, Long> deletionChangeIds = new HashMap<>();
+
+		private Index(final Map<String, Long> changeIds) {
+			this.changeIds = new HashMap<>(changeIds);
+		}
+
+		private void put(final String delegationId, final IndexedDelegation delegation) {
+			final var current = delegationsById.get(delegationId);
+			if ((current != null && current.changeId() > delegation.changeId()) || deletionChangeIds.getOrDefault(delegationId, 0L) > delegation.changeId()) {
+				return;
+			}
+
+			unindex(delegationId);
+			delegationsById.put(delegationId, delegation);
+			delegation.parties().forEach(party -> delegationIdsByParty.computeIfAbsent(party, key -> ConcurrentHashMap.newKeySet()).add(delegationId));
+		}
+
+		private void remove(final String delegationId, final long changeId) {
+			deletionChangeIds.merge(delegationId, changeId, Math::max);
+			unindex(delegationId);
+		}
+
+		private void unindex(final String delegationId) {
+			ofNullable(delegationsById.remove(delegationId)).ifPresent(delegation -> delegation.parties()
+				.forEach(party -> delegationIdsByParty.computeIfPresent(party, (key, delegationIds) -> {
+					delegationIds.remove(delegationId);
+					return delegationIds.isEmpty() ? null : delegationIds;
+				})));
+		}
+	}
+
+	/**
+	 * Owner, delegate and facility keys of an indexed delegation. Each facility is indexed both by its key and by its
+	 * facility id alone, for access checks without business engagement org id.
+	 */
+	private record IndexedDelegation(long changeId, PartyKey owner, PartyKey delegatedTo, Set<String> facilityKeys) {
+
+		private static IndexedDelegation of(final DelegationEntity entity) {
+			return new IndexedDelegation(
+				entity.getChangeId(),
+				new PartyKey(entity.getMunicipalityId(), entity.getOwner()),
+				new PartyKey(entity.getMunicipalityId(), entity.getDelegatedTo()),
+				ofNullable(entity.getFacilities()).orElse(emptySet()).stream()
+					.flatMap(facility -> toFacilityKeys(facility.getFacilityId(), facility.getBusinessEngagementOrgId()))
+					.collect(toCollection(HashSet::new)));
+		}
+
+		private static IndexedDelegation of(final List<DelegatedFacility> facilities) {
+			final var first = facilities.getFirst();
+			return new IndexedDelegation(
+				first.changeId(),
+				new PartyKey(first.municipalityId(), first.owner()),
+				new PartyKey(first.municipalityId(), first.delegatedTo()),
+				facilities.stream()
+					.flatMap(facility -> toFacilityKeys(facility.facilityId(), facility.businessEngagementOrgId()))
+					.collect(toCollection(HashSet::new)));
+		}
+
+		private static Stream<String> toFacilityKeys(final String facilityId, final String businessEngagementOrgId) {
+			return Stream.of(toFacilityKey(facilityId, businessEngagementOrgId), toFacilityKey(facilityId, null));
+		}
+
+		private Stream<PartyKey> parties() {
+			return Stream.of(owner, delegatedTo).distinct();
+		}
+	}
+
+	/**
+	 * A party within a municipality. Party ids are compared ignoring case, as the database does.
+	 */
+	private record PartyKey(String municipalityId, String partyId) {
+
+		private PartyKey {
+			partyId = lowerCase(partyId, Locale.ROOT);
+		}
+	}
+}
@@ -0,0 +1,8 @@
+package se.sundsvall.installedbase.service.access;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("delegation.access-index")
+public record DelegationAccessIndexProperties(boolean enabled, Duration refreshInterval, Duration changesInterval, Duration maxStaleness) {
+}
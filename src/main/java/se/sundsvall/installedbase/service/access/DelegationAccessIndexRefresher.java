@@ -0,0 +1,31 @@
+package se.sundsvall.installedbase.service.access;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled rebuild of the delegation access index, and applying of the changes committed since. The index is held in
+ * memory by each instance, why every instance synchronizes its own index (without a lock). Synchronizing only reads
+ * delegations, and repeating it is harmless.
+ */
+@Component
+@ConditionalOnProperty(name = "delegation.access-index.enabled", havingValue = "true")
+public class DelegationAccessIndexRefresher {
+
+	private final DelegationAccessIndex delegationAccessIndex;
+
+	public DelegationAccessIndexRefresher(final DelegationAccessIndex delegationAccessIndex) {
+		this.delegationAccessIndex = delegationAccessIndex;
+	}
+
+	@Scheduled(fixedDelayString = "${delegation.access-index.refreshInterval}")
+	void refresh() {
+		delegationAccessIndex.rebuild();
+	}
+
+	@Scheduled(fixedDelayString = "${delegation.access-index.changesInterval}")
+	void applyChanges() {
+		delegationAccessIndex.applyChanges();
+	}
+}
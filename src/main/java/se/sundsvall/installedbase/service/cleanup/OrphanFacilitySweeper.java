@@ -0,0 +1,59 @@
+package se.sundsvall.installedbase.service.cleanup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.sundsvall.installedbase.integration.db.FacilityRepository;
+import se.sundsvall.installedbase.service.scheduling.SchedulerLock;
+
+/**
+ * Scheduled removal of facilities that are not connected to any delegation. Orphans are normally removed by the
+ * operation detaching them, the sweeper catches any remaining ones. Facilities are deleted in bounded batches, each
+ * batch in a transaction of its own, on one instance at a time.
+ */
+@Component
+@ConditionalOnProperty(name = "delegation.facility-sweeper.enabled", havingValue = "true")
+public class OrphanFacilitySweeper {
+
+	static final String LOCK_NAME = "orphan-facility-sweeper";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OrphanFacilitySweeper.class);
+
+	private final FacilityRepository facilityRepository;
+	private final SchedulerLock schedulerLock;
+	private final OrphanFacilitySweeperProperties properties;
+
+	public OrphanFacilitySweeper(final FacilityRepository facilityRepository, final SchedulerLock schedulerLock, final OrphanFacilitySweeperProperties properties) {
+		this.facilityRepository = facilityRepository;
+		this.schedulerLock = schedulerLock;
+		this.properties = properties;
+	}
+
+	@Scheduled(cron = "${delegation.facility-sweeper.cron}")
+	void sweep() {
+		schedulerLock.runLocked(LOCK_NAME, properties.lockAtMostFor(), this::deleteOrphans);
+	}
+
+	void deleteOrphans() {
+		var deleted = 0;
+		while (true) {
+			final var facilityIds = facilityRepository.findIdsByDelegationsIsEmpty(PageRequest.of(0, properties.batchSize()));
+			if (facilityIds.isEmpty()) {
+				break;
+			}
+
+			final var deletedInBatch = facilityRepository.deleteByIdInAndDelegationsIsEmpty(facilityIds);
+			deleted += deletedInBatch;
+
+			// Stop when there are no more orphans, or when none of them could be deleted (e.g. as they have been reused)
+			if (facilityIds.size() < properties.batchSize() || deletedInBatch == 0) {
+				break;
+			}
+		}
+
+		LOGGER.info("Deleted {} orphan facilities", deleted);
+	}
+}
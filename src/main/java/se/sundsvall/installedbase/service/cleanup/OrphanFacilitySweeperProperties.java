@@ -0,0 +1,8 @@
+package se.sundsvall.installedbase.service.cleanup;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("delegation.facility-sweeper")
+public record OrphanFacilitySweeperProperties(boolean enabled, String cron, int batchSize, Duration lockAtMostFor) {
+}
@@ -0,0 +1,210 @@
+package se.sundsvall.installedbase.service.concurrency;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.requestid.RequestId;
+import se.sundsvall.installedbase.integration.datawarehousereader.configuration.DataWarehouseReaderProperties;
+
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+/**
+ * Executes independent calls towards DataWarehouseReader concurrently on virtual threads. The number of concurrent calls
+ * is bounded per incoming request, by one pool of permits shared by all (also nested) fan-outs of the request, and per
+ * municipality, by a pool shared by all requests in this instance. The pool of a request must be smaller than the pool
+ * of a municipality, so that a single request (e.g. a large batch) never takes all permits of a municipality.
+ */
+@Component
+public class FanOutExecutor {
+
+	private static final String ERROR_MAX_CONCURRENCY = "maxConcurrencyPerRequest (%d) must be at least 1 and less than maxConcurrencyPerMunicipality (%d)";
+	private static final String ERROR_INTERRUPTED = "Interrupted while waiting for concurrent DataWarehouseReader calls to finish";
+
+	private final int maxConcurrencyPerRequest;
+	private final int maxConcurrencyPerMunicipality;
+	private final Map<String, Semaphore> municipalityPermits = new ConcurrentHashMap<>();
+
+	// Permits of the incoming request, bound to the request thread and to the worker threads of its fan-outs
+	private final ThreadLocal<Semaphore> requestPermits = new ThreadLocal<>();
+
+	public FanOutExecutor(final DataWarehouseReaderProperties properties) {
+		if (properties.maxConcurrencyPerRequest() < 1 || properties.maxConcurrencyPerRequest() >= properties.maxConcurrencyPerMunicipality()) {
+			throw new IllegalArgumentException(ERROR_MAX_CONCURRENCY.formatted(properties.maxConcurrencyPerRequest(), properties.maxConcurrencyPerMunicipality()));
+		}
+
+		this.maxConcurrencyPerRequest = properties.maxConcurrencyPerRequest();
+		this.maxConcurrencyPerMunicipality = properties.maxConcurrencyPerMunicipality();
+	}
+
+	/**
+	 * Executes the call with one pool of permits for all DataWarehouseReader calls made by it, including the calls made by
+	 * nested fan-outs. If the calling thread already has a pool, e.g. in a fan-out of the same request, that pool is used.
+	 *
+	 * @param  call the call to execute
+	 * @return      the result of the call
+	 */
+	public <R> R withRequestPermits(final Supplier<R> call) {
+		if (requestPermits.get() != null) {
+			return call.get();
+		}
+
+		requestPermits.set(new Semaphore(maxConcurrencyPerRequest));
+		try {
+			return call.get();
+		} finally {
+			requestPermits.remove();
+		}
+	}
+
+	/**
+	 * Applies the mapper to all items concurrently and returns the results in the same order as the provided items. If
+	 * one or more mappings fail, the exception of the first failing item (in item order) is rethrown and all unfinished
+	 * mappings are cancelled, i.e. the same outcome as when mapping the items sequentially.
+	 *
+	 * @param  items  the items to map
+	 * @param  mapper the function to apply to each item
+	 * @return        list of mapped items, in the same order as the provided items
+	 */
+	public <T, R> List<R> mapOrdered(final List<T> items, final Function<T, R> mapper) {
+		final var result = new ArrayList<R>(items.size());
+		forEachOrdered(items, mapper, result::add);
+		return result;
+	}
+
+	/**
+	 * Applies the mapper to all items concurrently and passes each result to the consumer, in the same order as the
+	 * provided items, as soon as the result and all results before it are available. At most maxConcurrencyPerRequest
+	 * items are mapped or waiting to be consumed at any time, i.e. the next item is mapped when the oldest one has been
+	 * consumed, which bounds the memory held for results finished ahead of a slow item. Failures are handled in the same
+	 * way as in {@link #mapOrdered(List, Function)}, i.e. results preceding the first failing item have already been
+	 * consumed when the exception is rethrown.
+	 *
+	 * @param items    the items to map
+	 * @param mapper   the function to apply to each item
+	 * @param consumer the consumer of the mapped items, always invoked from the calling thread
+	 */
+	public <T, R> void forEachOrdered(final List<T> items, final Function<T, R> mapper, final Consumer<R> consumer) {
+		if (items.size() <= 1) {
+			items.stream().map(mapper).forEach(consumer);
+			return;
+		}
+
+		withRequestPermits(() -> {
+			final var permits = requestPermits.get();
+			final var requestId = RequestId.get();
+
+			try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				final var remainingItems = items.iterator();
+				final var futures = new ArrayDeque<Future<R>>(maxConcurrencyPerRequest);
+
+				while (remainingItems.hasNext() || !futures.isEmpty()) {
+					while (remainingItems.hasNext() && futures.size() < maxConcurrencyPerRequest) {
+						final var item = remainingItems.next();
+						futures.add(executor.submit(toTask(permits, requestId, () -> mapper.apply(item))));
+					}
+					consume(futures.remove(), executor, consumer);
+				}
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Executes the call when a permit of the request (if called within {@link #withRequestPermits(Supplier)}) and a permit
+	 * for the municipality are available, thus limiting the number of concurrent calls towards DataWarehouseReader for
+	 * each request and for each municipality. Permits are only held during the call itself, so that a fan-out waiting
+	 * for nested fan-outs never holds permits needed by them.
+	 *
+	 * @param  municipalityId the municipality that the call is made for
+	 * @param  call           the call to execute
+	 * @return                the result of the call
+	 */
+	public <R> R withMunicipalityPermit(final String municipalityId, final Supplier<R> call) {
+		final var permits = municipalityPermits.computeIfAbsent(municipalityId, id -> new Semaphore(maxConcurrencyPerMunicipality));
+
+		return withPermit(requestPermits.get(), () -> withPermit(permits, call));
+	}
+
+	private static <R> R withPermit(final Semaphore permits, final Supplier<R> call) {
+		if (permits == null) {
+			return call.get();
+		}
+
+		acquire(permits);
+		try {
+			return call.get();
+		} finally {
+			permits.release();
+		}
+	}
+
+	private <R> Callable<R> toTask(final Semaphore permits, final String requestId, final Supplier<R> call) {
+		return () -> {
+			try {
+				// Propagate request id and permits to the worker thread so that the request id is passed on to
+				// DataWarehouseReader and calls made by the worker thread are bounded by the limit of the request
+				RequestId.init(requestId);
+				requestPermits.set(permits);
+				return call.get();
+			} finally {
+				requestPermits.remove();
+				RequestId.reset();
+			}
+		};
+	}
+
+	private static <R> void consume(final Future<R> future, final ExecutorService executor, final Consumer<R> consumer) {
+		try {
+			consumer.accept(await(future, executor));
+		} catch (final RuntimeException | Error e) {
+			// Cancel unfinished mappings when the consumer fails, e.g. when the receiver of a streamed response is gone
+			executor.shutdownNow();
+			throw e;
+		}
+	}
+
+	private static <R> R await(final Future<R> future, final ExecutorService executor) {
+		try {
+			return future.get();
+		} catch (final ExecutionException e) {
+			executor.shutdownNow();
+			throw toRuntimeException(e.getCause());
+		} catch (final InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+			throw Problem.valueOf(INTERNAL_SERVER_ERROR, ERROR_INTERRUPTED);
+		}
+	}
+
+	private static void acquire(final Semaphore permits) {
+		try {
+			permits.acquire();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw Problem.valueOf(INTERNAL_SERVER_ERROR, ERROR_INTERRUPTED);
+		}
+	}
+
+	private static RuntimeException toRuntimeException(final Throwable throwable) {
+		if (throwable instanceof final RuntimeException runtimeException) {
+			return runtimeException;
+		}
+		if (throwable instanceof final Error error) {
+			throw error;
+		}
+		return new IllegalStateException(throwable);
+	}
+}
@@ -0,0 +1,113 @@
+package se.sundsvall.installedbase.service.event;
+
+import generated.se.sundsvall.eventlog.Event;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.sundsvall.installedbase.integration.db.DelegationEventRepository;
+import se.sundsvall.installedbase.integration.db.model.DelegationEventEntity;
+import se.sundsvall.installedbase.integration.eventlog.EventLogClient;
+import se.sundsvall.installedbase.service.scheduling.SchedulerLock;
+import tools.jackson.databind.ObjectMapper;
+
+import static se.sundsvall.installedbase.integration.db.model.DelegationEventStatus.FAILED;
+
+/**
+ * Scheduled delivery of the events in the delegation event outbox to Eventlog, on one instance at a time. Events are
+ * delivered in order per delegation, i.e. an event is not delivered until all earlier events for the same delegation
+ * has been delivered. Failed deliveries are retried with exponential backoff, and kept with status failed when the
+ * maximum number of attempts has been reached. Events are delivered at least once, as an event delivered by an instance
+ * whose lock has expired might be delivered again. To keep the lock from expiring, a run stops dispatching when half of
+ * the lock duration has passed, leaving the remaining events to the next run.
+ */
+@Component
+@ConditionalOnProperty(name = "delegation.event-dispatcher.enabled", havingValue = "true")
+public class DelegationEventDispatcher {
+
+	static final String LOCK_NAME = "delegation-event-dispatcher";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DelegationEventDispatcher.class);
+	private static final int MAX_BACKOFF_EXPONENT = 20;
+
+	private final DelegationEventRepository delegationEventRepository;
+	private final EventLogClient eventLogClient;
+	private final ObjectMapper objectMapper;
+	private final DelegationEventDispatcherProperties properties;
+	private final SchedulerLock schedulerLock;
+
+	public DelegationEventDispatcher(final DelegationEventRepository delegationEventRepository, final EventLogClient eventLogClient, final ObjectMapper objectMapper,
+		final DelegationEventDispatcherProperties properties, final SchedulerLock schedulerLock) {
+
+		this.delegationEventRepository = delegationEventRepository;
+		this.eventLogClient = eventLogClient;
+		this.objectMapper = objectMapper;
+		this.properties = properties;
+		this.schedulerLock = schedulerLock;
+	}
+
+	@Scheduled(fixedDelayString = "${delegation.event-dispatcher.interval}")
+	void dispatch() {
+		schedulerLock.runLocked(LOCK_NAME, properties.lockAtMostFor(), this::dispatchDue);
+	}
+
+	void dispatchDue() {
+		final var deadline = Instant.now().plus(properties.lockAtMostFor().dividedBy(2));
+
+		// Continue as long as events are removed from the outbox, as the next events of their delegations might be due
+		boolean removed;
+		do {
+			removed = dispatchBatch(deadline);
+		} while (removed && Instant.now().isBefore(deadline));
+	}
+
+	/**
+	 * Dispatches a batch of due events, being the earliest pending event of each delegation. Eventlog is called outside
+	 * of any transaction, and the outcome of each delivery is written in a short transaction of its own.
+	 *
+	 * @param  deadline time after which no more events are dispatched
+	 * @return          true if any event was removed from the outbox, false otherwise
+	 */
+	boolean dispatchBatch(final Instant deadline) {
+		var removed = false;
+		for (final var event : delegationEventRepository.findDueForDispatch(OffsetDateTime.now(), Limit.of(properties.batchSize()))) {
+			if (!Instant.now().isBefore(deadline)) {
+				LOGGER.info("Stopped dispatching events as the run has reached its time limit, remaining events are dispatched by the next run");
+				break;
+			}
+			removed |= dispatch(event);
+		}
+		return removed;
+	}
+
+	private boolean dispatch(final DelegationEventEntity entity) {
+		try {
+			eventLogClient.createEvent(entity.getMunicipalityId(), entity.getDelegationId(), objectMapper.readValue(entity.getEvent(), Event.class));
+			delegationEventRepository.delete(entity);
+			return true;
+		} catch (final Exception e) {
+			final var attempts = entity.getAttempts() + 1;
+			entity.setAttempts(attempts);
+			if (attempts >= properties.maxAttempts()) {
+				// Kept for manual handling, while later events of the delegation are delivered
+				LOGGER.error("Failed to send event with id: {} for delegation with id: {} after {} attempts, event marked as failed", entity.getId(), entity.getDelegationId(), attempts, e);
+				delegationEventRepository.save(entity.withStatus(FAILED));
+				return true;
+			}
+
+			LOGGER.warn("Failed to send event for delegation with id: {} (attempt {} of {})", entity.getDelegationId(), attempts, properties.maxAttempts(), e);
+			delegationEventRepository.save(entity.withNextAttempt(OffsetDateTime.now().plus(backoff(attempts))));
+			return false;
+		}
+	}
+
+	private Duration backoff(final int attempts) {
+		final var backoff = properties.retryInterval().multipliedBy(1L << Math.min(attempts - 1, MAX_BACKOFF_EXPONENT));
+		return backoff.compareTo(properties.maxRetryInterval()) > 0 ? properties.maxRetryInterval() : backoff;
+	}
+}
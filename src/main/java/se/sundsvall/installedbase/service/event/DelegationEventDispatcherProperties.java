@@ -0,0 +1,8 @@
+package se.sundsvall.installedbase.service.event;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("delegation.event-dispatcher")
+public record DelegationEventDispatcherProperties(boolean enabled, Duration interval, int batchSize, int maxAttempts, Duration retryInterval, Duration maxRetryInterval, Duration lockAtMostFor) {
+}
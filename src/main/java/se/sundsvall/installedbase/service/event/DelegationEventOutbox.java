@@ -0,0 +1,34 @@
+package se.sundsvall.installedbase.service.event;
+
+import generated.se.sundsvall.eventlog.Event;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.installedbase.integration.db.DelegationEventRepository;
+import se.sundsvall.installedbase.integration.db.model.DelegationEventEntity;
+import tools.jackson.databind.ObjectMapper;
+
+import static org.springframework.transaction.annotation.Propagation.MANDATORY;
+
+/**
+ * Transactional outbox for delegation events. Events are stored in the same transaction as the delegation change they
+ * describe, and are sent to Eventlog by {@link DelegationEventDispatcher} after the transaction has been committed.
+ */
+@Component
+public class DelegationEventOutbox {
+
+	private final DelegationEventRepository delegationEventRepository;
+	private final ObjectMapper objectMapper;
+
+	public DelegationEventOutbox(final DelegationEventRepository delegationEventRepository, final ObjectMapper objectMapper) {
+		this.delegationEventRepository = delegationEventRepository;
+		this.objectMapper = objectMapper;
+	}
+
+	@Transactional(propagation = MANDATORY)
+	public void add(final String municipalityId, final String delegationId, final Event event) {
+		delegationEventRepository.save(DelegationEventEntity.create()
+			.withMunicipalityId(municipalityId)
+			.withDelegationId(delegationId)
+			.withEvent(objectMapper.writeValueAsString(event)));
+	}
+}
@@ -5,12 +5,18 @@ import java.util.Objects;
 import java.util.Set;
 import se.sundsvall.installedbase.api.model.delegation.CreateDelegation;
 import se.sundsvall.installedbase.api.model.delegation.Delegation;
+import se.sundsvall.installedbase.api.model.delegation.DelegationChange;
 import se.sundsvall.installedbase.api.model.delegation.Facility;
 import se.sundsvall.installedbase.integration.db.model.DelegationEntity;
+import se.sundsvall.installedbase.integration.db.model.DelegationTombstoneEntity;
 import se.sundsvall.installedbase.integration.db.model.FacilityEntity;
 
 import static java.util.Collections.emptySet;
 import static java.util.Optional.ofNullable;
+import static se.sundsvall.installedbase.api.model.delegation.DelegationChangeType.CREATED;
+import static se.sundsvall.installedbase.api.model.delegation.DelegationChangeType.DELETED;
+import static se.sundsvall.installedbase.api.model.delegation.DelegationChangeType.UPDATED;
+import static se.sundsvall.installedbase.integration.db.model.FacilityEntity.toFacilityKey;
 
 public final class DatabaseMapper {
 
@@ -40,7 +46,8 @@ public final class DatabaseMapper {
 		return ofNullable(facility)
 			.map(f -> FacilityEntity.create()
 				.withBusinessEngagementOrgId(f.getBusinessEngagementOrgId())
-				.withFacilityId(f.getId()))
+				.withFacilityId(f.getId())
+				.withFacilityKey(toFacilityKey(f.getId(), f.getBusinessEngagementOrgId())))
 			.orElse(null);
 	}
 
@@ -58,7 +65,54 @@ public final class DatabaseMapper {
 			.withMunicipalityId(entity.getMunicipalityId())
 			.withOwner(entity.getOwner())
 			.withCreated(entity.getCreated())
-			.withUpdated(entity.getUpdated());
+			.withUpdated(entity.getUpdated())
+			.withVersion(entity.getVersion());
+	}
+
+	/**
+	 * Converts a DelegationEntity to a DelegationTombstoneEntity, recording the deletion of the delegation.
+	 *
+	 * @param  entity the deleted DelegationEntity
+	 * @return        a DelegationTombstoneEntity for the entity
+	 */
+	public static DelegationTombstoneEntity toDelegationTombstoneEntity(DelegationEntity entity) {
+		return DelegationTombstoneEntity.create()
+			.withDelegationId(entity.getId())
+			.withMunicipalityId(entity.getMunicipalityId())
+			.withOwner(entity.getOwner())
+			.withDelegatedTo(entity.getDelegatedTo());
+	}
+
+	/**
+	 * Converts a DelegationEntity to a DelegationChange. The delegation is created if it has not been updated since it was
+	 * created, otherwise updated.
+	 *
+	 * @param  entity the DelegationEntity to convert
+	 * @return        a DelegationChange representing the latest change of the entity
+	 */
+	public static DelegationChange toDelegationChange(DelegationEntity entity) {
+		return DelegationChange.create()
+			.withId(entity.getId())
+			.withType(entity.getUpdated().isEqual(entity.getCreated()) ? CREATED : UPDATED)
+			.withChanged(entity.getUpdated())
+			.withOwner(entity.getOwner())
+			.withDelegatedTo(entity.getDelegatedTo())
+			.withDelegation(toDelegation(entity));
+	}
+
+	/**
+	 * Converts a DelegationTombstoneEntity to a DelegationChange.
+	 *
+	 * @param  entity the DelegationTombstoneEntity to convert
+	 * @return        a DelegationChange representing the deletion
+	 */
+	public static DelegationChange toDelegationChange(DelegationTombstoneEntity entity) {
+		return DelegationChange.create()
+			.withId(entity.getDelegationId())
+			.withType(DELETED)
+			.withChanged(entity.getDeleted())
+			.withOwner(entity.getOwner())
+			.withDelegatedTo(entity.getDelegatedTo());
 	}
 
 	/**
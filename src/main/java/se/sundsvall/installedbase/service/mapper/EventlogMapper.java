@@ -22,6 +22,8 @@ public final class EventlogMapper {
 	private static final String SOURCE_TYPE = "Delegation";
 	private static final String DELEGATION_ID = "DelegationId";
 	private static final String FACILITIES = "Facilities";
+	private static final String ADDED_FACILITIES = "AddedFacilities";
+	private static final String REMOVED_FACILITIES = "RemovedFacilities";
 	private static final String X_SENT_BY = "X-Sent-By";
 	private static final String OWNER = "DelegationOwner";
 	private static final String DELEGATED_TO = "DelegatedTo";
@@ -41,6 +43,23 @@ public final class EventlogMapper {
 	 * @return              an Event object populated with the provided details
 	 */
 	public static Event toEvent(String delegationId, String owner, String delegatedTo, List<String> facilityIds, EventType eventType) {
+		return toEvent(delegationId, owner, delegatedTo, facilityIds, emptyList(), emptyList(), eventType);
+	}
+
+	/**
+	 * Creates an Event object for facility delegation events, including the facilities added to and removed from the
+	 * delegation. Added and removed facilities are only included as metadata when there are any.
+	 *
+	 * @param  delegationId       the ID of the delegation
+	 * @param  owner              the owner of the facility delegation
+	 * @param  delegatedTo        the delegate
+	 * @param  facilityIds        the facilities of the delegation
+	 * @param  addedFacilityIds   the facilities added to the delegation
+	 * @param  removedFacilityIds the facilities removed from the delegation
+	 * @param  eventType          the type of event (e.g., CREATE, UPDATE, DELETE)
+	 * @return                    an Event object populated with the provided details
+	 */
+	public static Event toEvent(String delegationId, String owner, String delegatedTo, List<String> facilityIds, List<String> addedFacilityIds, List<String> removedFacilityIds, EventType eventType) {
 
 		final var metadata = new HashMap<>(Map.of(
 			DELEGATION_ID, delegationId,
@@ -48,6 +67,9 @@ public final class EventlogMapper {
 			DELEGATED_TO, delegatedTo,
 			FACILITIES, toReadableString(facilityIds)));
 
+		ofNullable(addedFacilityIds).filter(ids -> !ids.isEmpty()).ifPresent(ids -> metadata.put(ADDED_FACILITIES, toReadableString(ids)));
+		ofNullable(removedFacilityIds).filter(ids -> !ids.isEmpty()).ifPresent(ids -> metadata.put(REMOVED_FACILITIES, toReadableString(ids)));
+
 		// As the identifier & request-id might be null, we only conditionally add it to the metadata
 		getIdentifierHeaderValue().ifPresent(header -> metadata.put(X_SENT_BY, header));
 		getRequestId().ifPresent(id -> metadata.put(REQUEST_ID, id));
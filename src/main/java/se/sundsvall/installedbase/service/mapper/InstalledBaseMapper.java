@@ -13,6 +13,7 @@ import se.sundsvall.installedbase.api.model.InstalledBaseItemAddress;
 import se.sundsvall.installedbase.api.model.InstalledBaseItemMetaData;
 import se.sundsvall.installedbase.api.model.InstalledBaseResponse;
 import se.sundsvall.installedbase.api.model.InstalledBases;
+import se.sundsvall.installedbase.integration.datawarehousereader.Cached;
 
 import static java.util.Optional.ofNullable;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
@@ -23,10 +24,11 @@ public class InstalledBaseMapper {
 
 	private InstalledBaseMapper() {}
 
-	public static InstalledBases toInstalledBases(generated.se.sundsvall.datawarehousereader.InstalledBaseResponse response) {
+	public static InstalledBases toInstalledBases(Cached<generated.se.sundsvall.datawarehousereader.InstalledBaseResponse> response) {
 		return new InstalledBases()
-			.withInstalledBaseList(toInstalledBaseList(response))
-			.withMetaData(toMetaData(response.getMeta()));
+			.withInstalledBaseList(toInstalledBaseList(response.value()))
+			.withMetaData(toMetaData(response.value().getMeta()))
+			.withStale(response.stale());
 	}
 
 	private static List<InstalledBase> toInstalledBaseList(generated.se.sundsvall.datawarehousereader.InstalledBaseResponse response) {
@@ -74,14 +76,17 @@ public class InstalledBaseMapper {
 	}
 
 	public static InstalledBaseResponse toInstalledBaseResponse(List<InstalledBaseCustomer> installedBaseCustomers) {
-		return InstalledBaseResponse.create().withInstalledBaseCustomers(installedBaseCustomers);
+		return InstalledBaseResponse.create()
+			.withInstalledBaseCustomers(installedBaseCustomers)
+			.withStale(installedBaseCustomers.stream().anyMatch(InstalledBaseCustomer::isStale));
 	}
 
-	public static InstalledBaseCustomer toInstalledBaseCustomer(CustomerEngagement customerEngagement, generated.se.sundsvall.datawarehousereader.InstalledBaseResponse installedBaseResponse) {
+	public static InstalledBaseCustomer toInstalledBaseCustomer(CustomerEngagement customerEngagement, Cached<generated.se.sundsvall.datawarehousereader.InstalledBaseResponse> installedBaseResponse) {
 		return InstalledBaseCustomer.create()
 			.withCustomerNumber(customerEngagement.getCustomerNumber())
 			.withPartyId(customerEngagement.getPartyId())
-			.withItems(toInstalledBaseItems(installedBaseResponse));
+			.withItems(toInstalledBaseItems(installedBaseResponse.value()))
+			.withStale(installedBaseResponse.stale());
 	}
 
 	private static List<InstalledBaseItem> toInstalledBaseItems(generated.se.sundsvall.datawarehousereader.InstalledBaseResponse response) {
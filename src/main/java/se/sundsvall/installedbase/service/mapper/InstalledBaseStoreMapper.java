@@ -0,0 +1,102 @@
+package se.sundsvall.installedbase.service.mapper;
+
+import generated.se.sundsvall.datawarehousereader.InstalledBaseItem;
+import generated.se.sundsvall.datawarehousereader.InstalledBaseItemMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import se.sundsvall.installedbase.integration.db.model.InstalledBaseCustomerEntity;
+import se.sundsvall.installedbase.integration.db.model.InstalledBaseItemEntity;
+import se.sundsvall.installedbase.integration.db.model.InstalledBaseItemMetaDataEmbeddable;
+
+import static java.util.Optional.ofNullable;
+import static org.apache.commons.lang3.StringUtils.defaultIfEmpty;
+
+public final class InstalledBaseStoreMapper {
+
+	private InstalledBaseStoreMapper() {}
+
+	/**
+	 * Converts installed base items from DataWarehouseReader to entities belonging to the provided customer.
+	 *
+	 * @param  customer the customer entity that the items belong to
+	 * @param  items    the items to convert
+	 * @return          list of InstalledBaseItemEntity
+	 */
+	public static List<InstalledBaseItemEntity> toInstalledBaseItemEntities(InstalledBaseCustomerEntity customer, List<InstalledBaseItem> items) {
+		return ofNullable(items).orElse(Collections.emptyList()).stream()
+			.filter(Objects::nonNull)
+			.map(item -> toInstalledBaseItemEntity(customer, item))
+			.toList();
+	}
+
+	private static InstalledBaseItemEntity toInstalledBaseItemEntity(InstalledBaseCustomerEntity customer, InstalledBaseItem item) {
+		return InstalledBaseItemEntity.create()
+			.withCustomer(customer)
+			.withType(item.getType())
+			.withFacilityId(item.getFacilityId())
+			.withPlacementId(item.getPlacementId())
+			.withCareOf(item.getCareOf())
+			.withStreet(item.getStreet())
+			.withPostCode(item.getPostCode())
+			.withCity(item.getCity())
+			.withPropertyDesignation(item.getPropertyDesignation())
+			.withDateFrom(item.getDateFrom())
+			.withDateTo(item.getDateTo())
+			.withDateLastModified(item.getDateLastModified())
+			.withMetaData(new ArrayList<>(ofNullable(item.getMetaData()).orElse(Collections.emptyList()).stream()
+				.filter(Objects::nonNull)
+				.map(InstalledBaseStoreMapper::toInstalledBaseItemMetaDataEmbeddable)
+				.toList()));
+	}
+
+	private static InstalledBaseItemMetaDataEmbeddable toInstalledBaseItemMetaDataEmbeddable(InstalledBaseItemMetaData metaData) {
+		return InstalledBaseItemMetaDataEmbeddable.create()
+			.withKey(metaData.getKey())
+			.withValue(metaData.getValue())
+			.withType(metaData.getType())
+			.withDisplayName(metaData.getDisplayName());
+	}
+
+	/**
+	 * Converts the stored items of a customer to the same representation as received from DataWarehouseReader.
+	 *
+	 * @param  customer the customer entity holding the items
+	 * @param  items    the item entities to convert
+	 * @return          list of InstalledBaseItem
+	 */
+	public static List<InstalledBaseItem> toInstalledBaseItems(InstalledBaseCustomerEntity customer, List<InstalledBaseItemEntity> items) {
+		return ofNullable(items).orElse(Collections.emptyList()).stream()
+			.map(item -> toInstalledBaseItem(customer, item))
+			.toList();
+	}
+
+	private static InstalledBaseItem toInstalledBaseItem(InstalledBaseCustomerEntity customer, InstalledBaseItemEntity entity) {
+		return new InstalledBaseItem()
+			.company(defaultIfEmpty(customer.getCompany(), null))
+			.customerNumber(customer.getCustomerNumber())
+			.type(entity.getType())
+			.facilityId(entity.getFacilityId())
+			.placementId(entity.getPlacementId())
+			.careOf(entity.getCareOf())
+			.street(entity.getStreet())
+			.postCode(entity.getPostCode())
+			.city(entity.getCity())
+			.propertyDesignation(entity.getPropertyDesignation())
+			.dateFrom(entity.getDateFrom())
+			.dateTo(entity.getDateTo())
+			.dateLastModified(entity.getDateLastModified())
+			.metaData(ofNullable(entity.getMetaData()).orElse(Collections.emptyList()).stream()
+				.map(InstalledBaseStoreMapper::toInstalledBaseItemMetaData)
+				.toList());
+	}
+
+	private static InstalledBaseItemMetaData toInstalledBaseItemMetaData(InstalledBaseItemMetaDataEmbeddable embeddable) {
+		return new InstalledBaseItemMetaData()
+			.key(embeddable.getKey())
+			.value(embeddable.getValue())
+			.type(embeddable.getType())
+			.displayName(embeddable.getDisplayName());
+	}
+}
@@ -0,0 +1,79 @@
+package se.sundsvall.installedbase.service.scheduling;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.installedbase.integration.db.SchedulerLockRepository;
+
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+
+/**
+ * Lock shared by all instances through the database, preventing a scheduled job from running on more than one
+ * instance at a time. The lock is released when the job is done, and expires after the given maximum duration if the
+ * instance running the job is stopped before releasing it.
+ */
+@Component
+public class SchedulerLock {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SchedulerLock.class);
+
+	private final SchedulerLockRepository schedulerLockRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final String lockedBy;
+
+	public SchedulerLock(final SchedulerLockRepository schedulerLockRepository, final PlatformTransactionManager transactionManager) {
+		this.schedulerLockRepository = schedulerLockRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+		this.lockedBy = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+	}
+
+	/**
+	 * Runs the job if the lock can be taken, and skips it if the lock is held by another instance.
+	 *
+	 * @param  name          the name of the lock, unique per job
+	 * @param  lockAtMostFor the duration after which the lock expires if not released, must exceed the duration of the job
+	 * @param  job           the job to run
+	 * @return               true if the job was run, false if it was skipped
+	 */
+	public boolean runLocked(final String name, final Duration lockAtMostFor, final Runnable job) {
+		// Truncated to the precision of the database, for the release to match the stored value
+		final var lockedAt = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+		if (!lock(name, lockedAt, lockedAt.plus(lockAtMostFor))) {
+			LOGGER.debug("Skipping job: {}, as it is locked by another instance", name);
+			return false;
+		}
+
+		try {
+			job.run();
+			return true;
+		} finally {
+			transactionTemplate.executeWithoutResult(status -> schedulerLockRepository.releaseLock(name, lockedAt, lockedBy, OffsetDateTime.now()));
+		}
+	}
+
+	private boolean lock(final String name, final OffsetDateTime lockedAt, final OffsetDateTime lockUntil) {
+		if (isUpdated(transactionTemplate.execute(status -> schedulerLockRepository.updateLock(name, lockUntil, lockedAt, lockedBy)))) {
+			return true;
+		}
+
+		// The lock is either held, or has not been used before
+		try {
+			return isUpdated(transactionTemplate.execute(status -> schedulerLockRepository.insertLock(name, lockUntil, lockedAt, lockedBy)));
+		} catch (final DataIntegrityViolationException e) {
+			return false;
+		}
+	}
+
+	private static boolean isUpdated(final Integer rows) {
+		return rows != null && rows > 0;
+	}
+}
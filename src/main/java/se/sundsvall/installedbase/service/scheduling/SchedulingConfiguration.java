@@ -0,0 +1,13 @@
+package se.sundsvall.installedbase.service.scheduling;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduling for the scheduled jobs of the service, which are activated by properties of their own. Jobs
+ * working on state shared by all instances run within a {@link SchedulerLock}, to run on one instance at a time.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,136 @@
+package se.sundsvall.installedbase.service.store;
+
+import generated.se.sundsvall.datawarehousereader.InstalledBaseItem;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.installedbase.integration.db.InstalledBaseCustomerRepository;
+import se.sundsvall.installedbase.integration.db.model.InstalledBaseCustomerEntity;
+import se.sundsvall.installedbase.integration.db.model.InstalledBaseItemEntity;
+
+import static java.util.stream.Collectors.toSet;
+import static se.sundsvall.installedbase.service.mapper.InstalledBaseStoreMapper.toInstalledBaseItemEntities;
+import static se.sundsvall.installedbase.service.mapper.InstalledBaseStoreMapper.toInstalledBaseItems;
+
+/**
+ * Local store holding the installed base per customer and company, kept up to date by
+ * {@link InstalledBaseStoreSynchronizer} which only fetches items modified since the watermark of each customer.
+ */
+@Component
+@Transactional
+public class InstalledBaseStore {
+
+	// DataWarehouseReader filters on date, not time, and responses may be served from cache. Moving the watermark one day
+	// less than the synchronization date makes sure that no modifications are lost, at the cost of fetching some twice.
+	private static final int WATERMARK_OVERLAP_DAYS = 1;
+
+	private final InstalledBaseCustomerRepository repository;
+	private final InstalledBaseStoreProperties properties;
+
+	public InstalledBaseStore(final InstalledBaseCustomerRepository repository, final InstalledBaseStoreProperties properties) {
+		this.repository = repository;
+		this.properties = properties;
+	}
+
+	public boolean isEnabled() {
+		return properties.enabled();
+	}
+
+	/**
+	 * Returns the stored items for the customer, or an empty optional if the customer is not known by the store.
+	 *
+	 * @param  municipalityId the municipality id
+	 * @param  customerNumber the customer number
+	 * @param  company        the company
+	 * @param  modifiedFrom   optional date for only returning items modified at provided date or later
+	 * @return                the stored items, sorted by facility id, if the customer is known by the store
+	 */
+	@Transactional(readOnly = true)
+	public Optional<List<InstalledBaseItem>> findItems(final String municipalityId, final String customerNumber, final String company, final LocalDate modifiedFrom) {
+		return repository.findByMunicipalityIdAndCustomerNumberAndCompany(municipalityId, customerNumber, toStoredCompany(company))
+			.map(customer -> toInstalledBaseItems(customer, customer.getItems().stream()
+				.filter(item -> isModifiedFrom(item, modifiedFrom))
+				.toList()));
+	}
+
+	@Transactional(readOnly = true)
+	public List<InstalledBaseCustomerEntity> getCustomers() {
+		return repository.findAll();
+	}
+
+	public boolean isFullSyncDue(final InstalledBaseCustomerEntity customer, final LocalDate syncDate) {
+		return !customer.getLastFullSync().plus(properties.fullSyncInterval()).isAfter(syncDate);
+	}
+
+	/**
+	 * Replaces all stored items of the customer, adding the customer to the store if not already present.
+	 *
+	 * @param municipalityId the municipality id
+	 * @param customerNumber the customer number
+	 * @param company        the company
+	 * @param items          the complete installed base of the customer
+	 * @param syncDate       the date when the items were fetched from DataWarehouseReader
+	 */
+	public void replaceItems(final String municipalityId, final String customerNumber, final String company, final List<InstalledBaseItem> items, final LocalDate syncDate) {
+		final var customer = repository.findByMunicipalityIdAndCustomerNumberAndCompany(municipalityId, customerNumber, toStoredCompany(company))
+			.orElseGet(() -> InstalledBaseCustomerEntity.create()
+				.withMunicipalityId(municipalityId)
+				.withCustomerNumber(customerNumber)
+				.withCompany(toStoredCompany(company)));
+
+		customer.getItems().clear();
+		customer.getItems().addAll(toInstalledBaseItemEntities(customer, items));
+		customer.setLastFullSync(syncDate);
+		customer.setWatermark(syncDate.minusDays(WATERMARK_OVERLAP_DAYS));
+
+		repository.save(customer);
+	}
+
+	/**
+	 * Merges modified items into the stored items of the customer, replacing stored items representing the same item.
+	 *
+	 * @param customerId the id of the stored customer
+	 * @param items      the items modified since the watermark of the customer
+	 * @param syncDate   the date when the items were fetched from DataWarehouseReader
+	 */
+	public void mergeItems(final String customerId, final List<InstalledBaseItem> items, final LocalDate syncDate) {
+		repository.findById(customerId).ifPresent(customer -> {
+			final var modifiedItems = toInstalledBaseItemEntities(customer, items);
+			final Set<ItemKey> modifiedKeys = modifiedItems.stream().map(ItemKey::of).collect(toSet());
+
+			customer.getItems().removeIf(item -> modifiedKeys.contains(ItemKey.of(item)));
+			customer.getItems().addAll(modifiedItems);
+			customer.setWatermark(syncDate.minusDays(WATERMARK_OVERLAP_DAYS));
+		});
+	}
+
+	/**
+	 * Removes the customer, and all its items, from the store.
+	 *
+	 * @param customerId the id of the stored customer
+	 */
+	public void removeCustomer(final String customerId) {
+		repository.deleteById(customerId);
+	}
+
+	// Customers without company are stored with an empty company, as the database treats null values as distinct in
+	// the unique key of the customer
+	private static String toStoredCompany(final String company) {
+		return Objects.toString(company, "");
+	}
+
+	private static boolean isModifiedFrom(final InstalledBaseItemEntity item, final LocalDate modifiedFrom) {
+		return modifiedFrom == null || (item.getDateLastModified() != null && !item.getDateLastModified().isBefore(modifiedFrom));
+	}
+
+	private record ItemKey(String facilityId, Integer placementId, LocalDate dateFrom) {
+
+		static ItemKey of(final InstalledBaseItemEntity item) {
+			return new ItemKey(item.getFacilityId(), item.getPlacementId(), item.getDateFrom());
+		}
+	}
+}
@@ -0,0 +1,9 @@
+package se.sundsvall.installedbase.service.store;
+
+import java.time.Duration;
+import java.time.Period;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("installedbase.store")
+public record InstalledBaseStoreProperties(boolean enabled, String syncCron, Duration syncLockAtMostFor, Period fullSyncInterval) {
+}
@@ -0,0 +1,33 @@
+package se.sundsvall.installedbase.service.store;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.sundsvall.installedbase.service.InstalledBaseService;
+import se.sundsvall.installedbase.service.scheduling.SchedulerLock;
+
+/**
+ * Scheduled delta synchronization of the local installed base store. The store is shared by all instances, why the
+ * synchronization runs on one instance at a time.
+ */
+@Component
+@ConditionalOnProperty(name = "installedbase.store.enabled", havingValue = "true")
+public class InstalledBaseStoreSynchronizer {
+
+	static final String LOCK_NAME = "installed-base-store-synchronizer";
+
+	private final InstalledBaseService installedBaseService;
+	private final SchedulerLock schedulerLock;
+	private final InstalledBaseStoreProperties properties;
+
+	public InstalledBaseStoreSynchronizer(final InstalledBaseService installedBaseService, final SchedulerLock schedulerLock, final InstalledBaseStoreProperties properties) {
+		this.installedBaseService = installedBaseService;
+		this.schedulerLock = schedulerLock;
+		this.properties = properties;
+	}
+
+	@Scheduled(cron = "${installedbase.store.syncCron}")
+	void synchronize() {
+		schedulerLock.runLocked(LOCK_NAME, properties.syncLockAtMostFor(), installedBaseService::synchronizeInstalledBaseStore);
+	}
+}
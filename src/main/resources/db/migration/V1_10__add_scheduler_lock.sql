@@ -0,0 +1,7 @@
+CREATE TABLE scheduler_lock (
+    lock_until DATETIME(6) NOT NULL,
+    locked_at DATETIME(6) NOT NULL,
+    name VARCHAR(64) NOT NULL,
+    locked_by VARCHAR(255) NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE=InnoDB;
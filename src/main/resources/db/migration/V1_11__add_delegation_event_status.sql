@@ -0,0 +1,6 @@
+-- Events that could not be delivered are kept as failed instead of being deleted
+ALTER TABLE delegation_event ADD COLUMN status VARCHAR(16) NOT NULL DEFAULT 'PENDING';
+
+-- The earliest pending event of each delegation is read from the index (which includes the id)
+DROP INDEX idx_delegation_event_delegation_id ON delegation_event;
+CREATE INDEX idx_delegation_event_status_delegation_id ON delegation_event (status, delegation_id);
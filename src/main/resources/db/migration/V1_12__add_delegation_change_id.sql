@@ -0,0 +1,34 @@
+CREATE TABLE delegation_change_sequence (
+    municipality_id VARCHAR(4) NOT NULL,
+    change_id BIGINT NOT NULL,
+    PRIMARY KEY (municipality_id)
+) ENGINE=InnoDB;
+
+ALTER TABLE delegation ADD COLUMN change_id BIGINT;
+ALTER TABLE delegation_tombstone ADD COLUMN change_id BIGINT;
+
+-- Existing changes are numbered per municipality in the order of the time of the change
+CREATE TABLE delegation_change_backfill AS
+SELECT id, municipality_id, ROW_NUMBER() OVER (PARTITION BY municipality_id ORDER BY changed, id) AS change_id
+FROM (
+    SELECT id, municipality_id, updated AS changed FROM delegation
+    UNION ALL
+    SELECT delegation_id, municipality_id, deleted FROM delegation_tombstone
+) changes;
+
+UPDATE delegation d JOIN delegation_change_backfill b ON b.id = d.id SET d.change_id = b.change_id;
+UPDATE delegation_tombstone t JOIN delegation_change_backfill b ON b.id = t.delegation_id SET t.change_id = b.change_id;
+
+INSERT INTO delegation_change_sequence (municipality_id, change_id)
+SELECT municipality_id, MAX(change_id) FROM delegation_change_backfill WHERE municipality_id IS NOT NULL GROUP BY municipality_id;
+
+DROP TABLE delegation_change_backfill;
+
+ALTER TABLE delegation MODIFY change_id BIGINT NOT NULL;
+ALTER TABLE delegation_tombstone MODIFY change_id BIGINT NOT NULL;
+
+-- The change feed reads the changes in change id order
+DROP INDEX idx_municipality_id_updated ON delegation;
+CREATE INDEX idx_municipality_id_change_id ON delegation (municipality_id, change_id);
+DROP INDEX idx_delegation_tombstone_municipality_id_deleted ON delegation_tombstone;
+CREATE INDEX idx_delegation_tombstone_municipality_id_change_id ON delegation_tombstone (municipality_id, change_id);
@@ -0,0 +1,43 @@
+CREATE TABLE installed_base_customer (
+    municipality_id VARCHAR(4) NOT NULL,
+    last_full_sync DATE NOT NULL,
+    watermark DATE NOT NULL,
+    id VARCHAR(36) NOT NULL,
+    customer_number VARCHAR(64) NOT NULL,
+    company VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE installed_base_item (
+    placement_id INTEGER,
+    date_from DATE,
+    date_last_modified DATE,
+    date_to DATE,
+    customer_ref_id VARCHAR(36) NOT NULL,
+    id VARCHAR(36) NOT NULL,
+    care_of VARCHAR(255),
+    city VARCHAR(255),
+    post_code VARCHAR(255),
+    property_designation VARCHAR(255),
+    street VARCHAR(255),
+    type VARCHAR(255),
+    facility_id VARCHAR(256) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE installed_base_item_meta_data (
+    item_ref_id VARCHAR(36) NOT NULL,
+    display_name VARCHAR(255),
+    meta_key VARCHAR(255),
+    meta_value VARCHAR(255),
+    type VARCHAR(255)
+) ENGINE=InnoDB;
+
+ALTER TABLE IF EXISTS installed_base_customer
+    ADD CONSTRAINT uk_municipality_id_customer_number_company UNIQUE (municipality_id, customer_number, company);
+
+ALTER TABLE IF EXISTS installed_base_item
+    ADD CONSTRAINT fk_installed_base_item_customer FOREIGN KEY (customer_ref_id) REFERENCES installed_base_customer (id);
+
+ALTER TABLE IF EXISTS installed_base_item_meta_data
+    ADD CONSTRAINT fk_installed_base_item_meta_data_item FOREIGN KEY (item_ref_id) REFERENCES installed_base_item (id);
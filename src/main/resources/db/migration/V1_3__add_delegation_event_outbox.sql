@@ -0,0 +1,12 @@
+CREATE TABLE delegation_event (
+    attempts INTEGER NOT NULL,
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    created DATETIME(6) NOT NULL,
+    next_attempt DATETIME(6) NOT NULL,
+    municipality_id VARCHAR(4) NOT NULL,
+    delegation_id VARCHAR(36) NOT NULL,
+    event LONGTEXT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_delegation_event_delegation_id ON delegation_event (delegation_id);
@@ -0,0 +1,7 @@
+DROP INDEX IF EXISTS idx_municipality_id_delegated_to ON delegation;
+
+DROP INDEX IF EXISTS idx_municipality_id_owner ON delegation;
+
+CREATE INDEX idx_municipality_id_delegated_to_created ON delegation (municipality_id, delegated_to, created, id);
+
+CREATE INDEX idx_municipality_id_owner_created ON delegation (municipality_id, owner, created, id);
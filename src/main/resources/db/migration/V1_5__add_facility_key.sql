@@ -0,0 +1,32 @@
+ALTER TABLE facility ADD COLUMN IF NOT EXISTS facility_key varchar(280);
+
+-- Surrounding whitespace is the characters matched by [[:space:]], as stripped by FacilityEntity.toFacilityKey
+UPDATE facility
+SET facility_key = concat(
+    lower(regexp_replace(coalesce(business_engagement_org_id, ''), '^[[:space:]]+|[[:space:]]+$', '')),
+    '|',
+    lower(regexp_replace(facility_id, '^[[:space:]]+|[[:space:]]+$', '')));
+
+-- Facilities that only differ by case or surrounding whitespace are merged into the facility with the lowest id.
+-- NOTE: The merge can not be reversed, as the duplicates and their delegation connections are deleted. Take a backup
+-- of the facility and delegation_facility tables before migrating if the duplicates might be needed.
+CREATE TEMPORARY TABLE facility_duplicate AS
+SELECT f.id AS id, k.kept_id AS kept_id
+FROM facility f
+JOIN (SELECT facility_key, min(id) AS kept_id FROM facility GROUP BY facility_key HAVING count(*) > 1) k
+    ON f.facility_key = k.facility_key AND f.id <> k.kept_id;
+
+INSERT IGNORE INTO delegation_facility (delegation_ref_id, facility_ref_id)
+SELECT df.delegation_ref_id, d.kept_id
+FROM delegation_facility df
+JOIN facility_duplicate d ON df.facility_ref_id = d.id;
+
+DELETE df FROM delegation_facility df JOIN facility_duplicate d ON df.facility_ref_id = d.id;
+
+DELETE f FROM facility f JOIN facility_duplicate d ON f.id = d.id;
+
+DROP TEMPORARY TABLE facility_duplicate;
+
+ALTER TABLE facility MODIFY facility_key varchar(280) NOT NULL;
+
+ALTER TABLE facility ADD CONSTRAINT uk_facility_key UNIQUE (facility_key);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_facility_ref_id_delegation_ref_id ON delegation_facility (facility_ref_id, delegation_ref_id);
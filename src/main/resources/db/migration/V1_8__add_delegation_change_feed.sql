@@ -0,0 +1,15 @@
+-- Creation is the first change of a delegation
+UPDATE delegation SET updated = created WHERE updated IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_municipality_id_updated ON delegation (municipality_id, updated, id);
+
+CREATE TABLE delegation_tombstone (
+    municipality_id VARCHAR(4) NOT NULL,
+    deleted DATETIME(6) NOT NULL,
+    delegated_to VARCHAR(36) NOT NULL,
+    delegation_id VARCHAR(36) NOT NULL,
+    owner VARCHAR(36) NOT NULL,
+    PRIMARY KEY (delegation_id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_delegation_tombstone_municipality_id_deleted ON delegation_tombstone (municipality_id, deleted, delegation_id);
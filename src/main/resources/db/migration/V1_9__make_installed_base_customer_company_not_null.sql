@@ -0,0 +1,15 @@
+-- Null values are distinct in a unique key, why customers without company could be stored more than once. The store
+-- only holds a copy of the installed base in DataWarehouseReader, so these customers are removed and added again with
+-- an empty company the next time they are requested.
+DELETE m FROM installed_base_item_meta_data m
+    JOIN installed_base_item i ON i.id = m.item_ref_id
+    JOIN installed_base_customer c ON c.id = i.customer_ref_id
+WHERE c.company IS NULL;
+
+DELETE i FROM installed_base_item i
+    JOIN installed_base_customer c ON c.id = i.customer_ref_id
+WHERE c.company IS NULL;
+
+DELETE FROM installed_base_customer WHERE company IS NULL;
+
+ALTER TABLE installed_base_customer MODIFY company VARCHAR(255) NOT NULL DEFAULT '';
@@ -1,6 +1,7 @@
 package se.sundsvall.installedbase;
 
 import java.time.OffsetDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -25,7 +26,8 @@ public final class TestDataFactory {
 			.withFacilities(List.of(
 				Facility.create().withId("facility-1").withBusinessEngagementOrgId("5591628136"),
 				Facility.create().withId("facility-2").withBusinessEngagementOrgId("5591628136")))
-			.withMunicipalityId("2281");
+			.withMunicipalityId("2281")
+			.withVersion(1L);
 	}
 
 	public static CreateDelegation createDelegation() {
@@ -57,11 +59,12 @@ public final class TestDataFactory {
 			.withMunicipalityId("2281")
 			.withOwner(UUID.randomUUID().toString())
 			.withDelegatedTo(UUID.randomUUID().toString())
-			.withFacilities(Set.of(
-				FacilityEntity.create().withFacilityId("facility-7").withBusinessEngagementOrgId("5591628140"),
-				FacilityEntity.create().withFacilityId("facility-8").withBusinessEngagementOrgId("5591628140")))
+			.withFacilities(new HashSet<>(Set.of(
+				FacilityEntity.create().withId("facility-entity-7").withFacilityId("facility-7").withBusinessEngagementOrgId("5591628140").withFacilityKey("5591628140|facility-7"),
+				FacilityEntity.create().withId("facility-entity-8").withFacilityId("facility-8").withBusinessEngagementOrgId("5591628140").withFacilityKey("5591628140|facility-8"))))
 			.withCreated(OffsetDateTime.now().minusMinutes(3))
-			.withUpdated(OffsetDateTime.now().minusMinutes(2));
+			.withUpdated(OffsetDateTime.now().minusMinutes(2))
+			.withVersion(2L);
 	}
 
 	public static FacilityEntity createFacilityEntity(String id) {
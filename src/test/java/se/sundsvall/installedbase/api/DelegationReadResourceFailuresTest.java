@@ -109,9 +109,10 @@ class DelegationReadResourceFailuresTest {
 			.expectBody(ConstraintViolationProblem.class)
 			.consumeWith(response -> {
 				assertThat(response.getResponseBody()).isNotNull();
-				assertThat(response.getResponseBody().getViolations())
-					.extracting(Violation::field, Violation::message)
-					.containsExactly(tuple("getDelegations.owner", "not a valid UUID"));
+				assertThat(response.getResponseBody().getViolations()).singleElement().satisfies(violation -> {
+					assertThat(violation.field()).endsWith("owner");
+					assertThat(violation.message()).isEqualTo("not a valid UUID");
+				});
 			});
 	}
 
@@ -127,9 +128,25 @@ class DelegationReadResourceFailuresTest {
 			.expectBody(ConstraintViolationProblem.class)
 			.consumeWith(response -> {
 				assertThat(response.getResponseBody()).isNotNull();
-				assertThat(response.getResponseBody().getViolations())
-					.extracting(Violation::field, Violation::message)
-					.containsExactly(tuple("getDelegations.delegatedTo", "not a valid UUID"));
+				assertThat(response.getResponseBody().getViolations()).singleElement().satisfies(violation -> {
+					assertThat(violation.field()).endsWith("delegatedTo");
+					assertThat(violation.message()).isEqualTo("not a valid UUID");
+				});
+			});
+	}
+
+	@Test
+	void getDelegationsWithInvalidCursor() {
+		webTestClient.get()
+			.uri("/{municipalityId}/delegations?owner={owner}&cursor={cursor}", MUNICIPALITY_ID, UUID.randomUUID().toString(), "invalid-cursor")
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(Problem.class)
+			.consumeWith(response -> {
+				assertThat(response.getResponseBody()).isNotNull();
+				assertThat(response.getResponseBody().getTitle()).isEqualTo("Invalid search parameters");
+				assertThat(response.getResponseBody().getDetail()).isEqualTo("The cursor 'invalid-cursor' is not valid");
 			});
 	}
 
@@ -145,7 +162,57 @@ class DelegationReadResourceFailuresTest {
 				assertThat(response).isNotNull();
 				assertThat(response.getResponseBody()).isNotNull();
 				assertThat(response.getResponseBody().getTitle()).isEqualTo("Invalid search parameters");
-				assertThat(response.getResponseBody().getDetail()).isEqualTo("Either owner or delegatedTo must be provided");
+				assertThat(response.getResponseBody().getDetail()).isEqualTo("Either owner, delegatedTo or facilityId must be provided");
+			});
+	}
+
+	@Test
+	void checkAccessWithInvalidPartyIdAndBlankFacilityId() {
+		webTestClient.get()
+			.uri("/{municipalityId}/delegations/access?partyId={partyId}&facilityId={facilityId}", MUNICIPALITY_ID, "invalid-party-id", " ")
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.consumeWith(response -> {
+				assertThat(response.getResponseBody()).isNotNull();
+				assertThat(response.getResponseBody().getViolations())
+					.extracting(Violation::field, Violation::message)
+					.containsExactlyInAnyOrder(
+						tuple("checkAccess.partyId", "not a valid UUID"),
+						tuple("checkAccess.facilityId", "must not be blank"));
+			});
+	}
+
+	@Test
+	void getDelegationChangesWithTooLowLimit() {
+		webTestClient.get()
+			.uri("/{municipalityId}/delegations/changes?limit=0", MUNICIPALITY_ID)
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.consumeWith(response -> {
+				assertThat(response.getResponseBody()).isNotNull();
+				assertThat(response.getResponseBody().getViolations())
+					.extracting(Violation::field, Violation::message)
+					.containsExactly(tuple("getDelegationChanges.limit", "must be greater than or equal to 1"));
+			});
+	}
+
+	@Test
+	void getDelegationChangesWithTooHighLimit() {
+		webTestClient.get()
+			.uri("/{municipalityId}/delegations/changes?limit=1001", MUNICIPALITY_ID)
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.consumeWith(response -> {
+				assertThat(response.getResponseBody()).isNotNull();
+				assertThat(response.getResponseBody().getViolations())
+					.extracting(Violation::field, Violation::message)
+					.containsExactly(tuple("getDelegationChanges.limit", "must be less than or equal to 1000"));
 			});
 	}
 }
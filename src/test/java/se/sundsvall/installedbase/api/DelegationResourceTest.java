@@ -13,6 +13,14 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 import se.sundsvall.installedbase.Application;
 import se.sundsvall.installedbase.api.model.delegation.CreateDelegation;
 import se.sundsvall.installedbase.api.model.delegation.Delegation;
+import se.sundsvall.installedbase.api.model.delegation.DelegationBatchEntry;
+import se.sundsvall.installedbase.api.model.delegation.DelegationBatchResult;
+import se.sundsvall.installedbase.api.model.delegation.DelegationChange;
+import se.sundsvall.installedbase.api.model.delegation.DelegationChangeType;
+import se.sundsvall.installedbase.api.model.delegation.DelegationChanges;
+import se.sundsvall.installedbase.api.model.delegation.DelegationOperation;
+import se.sundsvall.installedbase.api.model.delegation.DelegationParameters;
+import se.sundsvall.installedbase.api.model.delegation.Delegations;
 import se.sundsvall.installedbase.service.DelegationService;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -21,14 +29,20 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
 import static org.springframework.http.MediaType.ALL_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON;
 import static se.sundsvall.installedbase.TestDataFactory.createDelegation;
 import static se.sundsvall.installedbase.TestDataFactory.createDelegationResponse;
 import static se.sundsvall.installedbase.TestDataFactory.updateDelegation;
+import static se.sundsvall.installedbase.service.DelegationService.ANY_VERSION;
 
 @ActiveProfiles("junit")
 @AutoConfigureWebTestClient
@@ -71,6 +85,8 @@ class DelegationResourceTest {
 		final var id = UUID.randomUUID().toString();
 		final var delegation = updateDelegation();
 
+		when(mockService.updateDelegation(MUNICIPALITY_ID, id, delegation, null)).thenReturn(1L);
+
 		webTestClient.patch()
 			.uri(BASE_URL + "/{id}", MUNICIPALITY_ID, id)
 			.contentType(APPLICATION_JSON)
@@ -78,9 +94,31 @@ class DelegationResourceTest {
 			.exchange()
 			.expectStatus().isAccepted()
 			.expectHeader().contentType(ALL_VALUE)
+			.expectHeader().valueEquals(ETAG, "\"1\"")
 			.expectBody().isEmpty();
 
-		verify(mockService).updateDelegation(MUNICIPALITY_ID, id, delegation);
+		verify(mockService).updateDelegation(MUNICIPALITY_ID, id, delegation, null);
+		verifyNoMoreInteractions(mockService);
+	}
+
+	@Test
+	void patchDelegationWithIfMatch() {
+		final var id = UUID.randomUUID().toString();
+		final var delegation = updateDelegation();
+
+		when(mockService.updateDelegation(MUNICIPALITY_ID, id, delegation, 3L)).thenReturn(4L);
+
+		webTestClient.patch()
+			.uri(BASE_URL + "/{id}", MUNICIPALITY_ID, id)
+			.contentType(APPLICATION_JSON)
+			.header(IF_MATCH, "\"3\"")
+			.bodyValue(delegation)
+			.exchange()
+			.expectStatus().isAccepted()
+			.expectHeader().valueEquals(ETAG, "\"4\"")
+			.expectBody().isEmpty();
+
+		verify(mockService).updateDelegation(MUNICIPALITY_ID, id, delegation, 3L);
 		verifyNoMoreInteractions(mockService);
 	}
 
@@ -106,6 +144,40 @@ class DelegationResourceTest {
 		verifyNoMoreInteractions(mockService);
 	}
 
+	@Test
+	void getDelegationByIdWithETag() {
+		final var delegation = createDelegationResponse();
+
+		when(mockService.getDelegation(MUNICIPALITY_ID, delegation.getId())).thenReturn(delegation);
+
+		webTestClient.get()
+			.uri(BASE_URL + "/{id}", MUNICIPALITY_ID, delegation.getId())
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().valueEquals(ETAG, "\"1\"");
+
+		verify(mockService).getDelegation(MUNICIPALITY_ID, delegation.getId());
+		verifyNoMoreInteractions(mockService);
+	}
+
+	@Test
+	void getDelegationByIdWhenNotModified() {
+		final var delegation = createDelegationResponse();
+
+		when(mockService.getDelegation(MUNICIPALITY_ID, delegation.getId())).thenReturn(delegation);
+
+		webTestClient.get()
+			.uri(BASE_URL + "/{id}", MUNICIPALITY_ID, delegation.getId())
+			.header(IF_NONE_MATCH, "\"1\"")
+			.exchange()
+			.expectStatus().isNotModified()
+			.expectHeader().valueEquals(ETAG, "\"1\"")
+			.expectBody().isEmpty();
+
+		verify(mockService).getDelegation(MUNICIPALITY_ID, delegation.getId());
+		verifyNoMoreInteractions(mockService);
+	}
+
 	@Test
 	void getDelegationsByOwner() {
 		final var delegation1 = createDelegationResponse();
@@ -113,74 +185,161 @@ class DelegationResourceTest {
 		final var delegation2 = createDelegationResponse();
 		delegation2.setOwner(delegation1.getOwner());
 		delegation2.setDelegatedTo(delegation1.getDelegatedTo());
+		final var parameters = DelegationParameters.create().withOwner(delegation1.getOwner());
 
-		when(mockService.getDelegations(MUNICIPALITY_ID, delegation1.getOwner(), null)).thenReturn(List.of(delegation1, delegation2));
+		when(mockService.getDelegations(MUNICIPALITY_ID, parameters)).thenReturn(Delegations.create().withDelegations(List.of(delegation1, delegation2)));
 
 		final var response = webTestClient.get()
 			.uri(BASE_URL + "?owner={owner}", MUNICIPALITY_ID, delegation1.getOwner())
 			.exchange()
 			.expectStatus().isOk()
 			.expectHeader().contentType(APPLICATION_JSON)
-			.expectBodyList(Delegation.class)
+			.expectBody(Delegations.class)
 			.returnResult()
 			.getResponseBody();
 
-		assertThat(response)
+		assertThat(response).isNotNull();
+		assertThat(response.getDelegations())
 			.hasSize(2)
 			.extracting(Delegation::getOwner, Delegation::getDelegatedTo)
 			.containsExactly(
 				tuple(delegation1.getOwner(), delegation2.getDelegatedTo()),
 				tuple(delegation2.getOwner(), delegation2.getDelegatedTo()));
 
-		verify(mockService).getDelegations(MUNICIPALITY_ID, delegation1.getOwner(), null);
+		verify(mockService).getDelegations(MUNICIPALITY_ID, parameters);
 		verifyNoMoreInteractions(mockService);
 	}
 
 	@Test
 	void getDelegationsByOwnerAndDelegatedTo() {
 		final var delegation = createDelegationResponse();
+		final var parameters = DelegationParameters.create().withOwner(delegation.getOwner()).withDelegatedTo(delegation.getDelegatedTo());
 
-		when(mockService.getDelegations(MUNICIPALITY_ID, delegation.getOwner(), delegation.getDelegatedTo())).thenReturn(List.of(delegation));
+		when(mockService.getDelegations(MUNICIPALITY_ID, parameters)).thenReturn(Delegations.create().withDelegations(List.of(delegation)));
 
 		final var response = webTestClient.get()
 			.uri(BASE_URL + "?owner={owner}&delegatedTo={delegatedTo}", MUNICIPALITY_ID, delegation.getOwner(), delegation.getDelegatedTo())
 			.exchange()
 			.expectStatus().isOk()
 			.expectHeader().contentType(APPLICATION_JSON)
-			.expectBodyList(Delegation.class)
+			.expectBody(Delegations.class)
 			.returnResult()
 			.getResponseBody();
 
-		assertThat(response)
+		assertThat(response).isNotNull();
+		assertThat(response.getDelegations())
 			.hasSize(1)
 			.extracting(Delegation::getOwner, Delegation::getDelegatedTo)
 			.containsExactly(tuple(delegation.getOwner(), delegation.getDelegatedTo()));
 
-		verify(mockService).getDelegations(MUNICIPALITY_ID, delegation.getOwner(), delegation.getDelegatedTo());
+		verify(mockService).getDelegations(MUNICIPALITY_ID, parameters);
+		verifyNoMoreInteractions(mockService);
+	}
+
+	@Test
+	void getDelegationsByFacility() {
+		final var delegation = createDelegationResponse();
+		final var facility = delegation.getFacilities().getFirst();
+		final var parameters = DelegationParameters.create().withFacilityId(facility.getId()).withBusinessEngagementOrgId(facility.getBusinessEngagementOrgId());
+
+		when(mockService.getDelegations(MUNICIPALITY_ID, parameters)).thenReturn(Delegations.create().withDelegations(List.of(delegation)));
+
+		final var response = webTestClient.get()
+			.uri(BASE_URL + "?facilityId={facilityId}&businessEngagementOrgId={businessEngagementOrgId}", MUNICIPALITY_ID, facility.getId(), facility.getBusinessEngagementOrgId())
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectBody(Delegations.class)
+			.returnResult()
+			.getResponseBody();
+
+		assertThat(response).isNotNull();
+		assertThat(response.getDelegations())
+			.extracting(Delegation::getId)
+			.containsExactly(delegation.getId());
+
+		verify(mockService).getDelegations(MUNICIPALITY_ID, parameters);
+		verifyNoMoreInteractions(mockService);
+	}
+
+	@Test
+	void checkAccess() {
+		final var partyId = UUID.randomUUID().toString();
+		when(mockService.hasAccess(MUNICIPALITY_ID, partyId, "facility-1", "5591628136")).thenReturn(true);
+
+		webTestClient.get()
+			.uri(BASE_URL + "/access?partyId={partyId}&facilityId={facilityId}&businessEngagementOrgId={businessEngagementOrgId}", MUNICIPALITY_ID, partyId, "facility-1", "5591628136")
+			.exchange()
+			.expectStatus().isNoContent()
+			.expectBody().isEmpty();
+
+		verify(mockService).hasAccess(MUNICIPALITY_ID, partyId, "facility-1", "5591628136");
+		verifyNoMoreInteractions(mockService);
+	}
+
+	@Test
+	void checkAccessWithHeadWhenPartyHasNoAccess() {
+		final var partyId = UUID.randomUUID().toString();
+
+		webTestClient.head()
+			.uri(BASE_URL + "/access?partyId={partyId}&facilityId={facilityId}", MUNICIPALITY_ID, partyId, "facility-1")
+			.exchange()
+			.expectStatus().isNotFound()
+			.expectBody().isEmpty();
+
+		verify(mockService).hasAccess(MUNICIPALITY_ID, partyId, "facility-1", null);
 		verifyNoMoreInteractions(mockService);
 	}
 
 	@Test
 	void getDelegationsByDelegatedTo() {
 		final var delegation = createDelegationResponse();
+		final var parameters = DelegationParameters.create().withDelegatedTo(delegation.getDelegatedTo());
 
-		when(mockService.getDelegations(MUNICIPALITY_ID, null, delegation.getDelegatedTo())).thenReturn(List.of(delegation));
+		when(mockService.getDelegations(MUNICIPALITY_ID, parameters)).thenReturn(Delegations.create().withDelegations(List.of(delegation)));
 
 		final var response = webTestClient.get()
 			.uri(BASE_URL + "?delegatedTo={delegatedTo}", MUNICIPALITY_ID, delegation.getDelegatedTo())
 			.exchange()
 			.expectStatus().isOk()
 			.expectHeader().contentType(APPLICATION_JSON)
-			.expectBodyList(Delegation.class)
+			.expectBody(Delegations.class)
 			.returnResult()
 			.getResponseBody();
 
-		assertThat(response)
+		assertThat(response).isNotNull();
+		assertThat(response.getDelegations())
 			.hasSize(1)
 			.extracting(Delegation::getOwner, Delegation::getDelegatedTo)
 			.containsExactly(tuple(delegation.getOwner(), delegation.getDelegatedTo()));
 
-		verify(mockService).getDelegations(MUNICIPALITY_ID, null, delegation.getDelegatedTo());
+		verify(mockService).getDelegations(MUNICIPALITY_ID, parameters);
+		verifyNoMoreInteractions(mockService);
+	}
+
+	@Test
+	void getDelegationsWithPagingAndCursor() {
+		final var delegation = createDelegationResponse();
+		final var parameters = DelegationParameters.create().withOwner(delegation.getOwner()).withCursor("cursor");
+		parameters.setPage(2);
+		parameters.setLimit(10);
+
+		when(mockService.getDelegations(MUNICIPALITY_ID, parameters)).thenReturn(Delegations.create().withDelegations(List.of(delegation)).withNextCursor("nextCursor"));
+
+		final var response = webTestClient.get()
+			.uri(BASE_URL + "?owner={owner}&page=2&limit=10&cursor=cursor", MUNICIPALITY_ID, delegation.getOwner())
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectBody(Delegations.class)
+			.returnResult()
+			.getResponseBody();
+
+		assertThat(response).isNotNull();
+		assertThat(response.getDelegations()).hasSize(1);
+		assertThat(response.getNextCursor()).isEqualTo("nextCursor");
+
+		verify(mockService).getDelegations(MUNICIPALITY_ID, parameters);
 		verifyNoMoreInteractions(mockService);
 	}
 
@@ -188,25 +347,137 @@ class DelegationResourceTest {
 	void getDelegationsWithNoResults() {
 		final var owner = UUID.randomUUID().toString();
 		final var delegatedTo = UUID.randomUUID().toString();
+		final var parameters = DelegationParameters.create().withOwner(owner).withDelegatedTo(delegatedTo);
 
-		when(mockService.getDelegations(MUNICIPALITY_ID, owner, delegatedTo)).thenReturn(List.of());
+		when(mockService.getDelegations(MUNICIPALITY_ID, parameters)).thenReturn(Delegations.create().withDelegations(List.of()));
 
-		webTestClient.get()
+		final var response = webTestClient.get()
 			.uri(BASE_URL + "?owner={owner}&delegatedTo={delegatedTo}", MUNICIPALITY_ID, owner, delegatedTo)
 			.exchange()
 			.expectStatus().isOk()
-			.expectBodyList(Delegation.class)
-			.hasSize(0);
+			.expectBody(Delegations.class)
+			.returnResult()
+			.getResponseBody();
+
+		assertThat(response).isNotNull();
+		assertThat(response.getDelegations()).isEmpty();
+
+		verify(mockService).getDelegations(MUNICIPALITY_ID, parameters);
+		verifyNoMoreInteractions(mockService);
+	}
+
+	@Test
+	void getDelegationChanges() {
+		final var delegation = createDelegationResponse();
+		final var changes = DelegationChanges.create()
+			.withChanges(List.of(DelegationChange.create().withId(delegation.getId()).withType(DelegationChangeType.UPDATED).withDelegation(delegation)))
+			.withCursor("cursor")
+			.withHasMore(false);
+
+		when(mockService.getDelegationChanges(MUNICIPALITY_ID, null, 100)).thenReturn(changes);
+
+		final var response = webTestClient.get()
+			.uri(BASE_URL + "/changes", MUNICIPALITY_ID)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectBody(DelegationChanges.class)
+			.returnResult()
+			.getResponseBody();
 
-		verify(mockService).getDelegations(MUNICIPALITY_ID, owner, delegatedTo);
+		assertThat(response).isNotNull();
+		assertThat(response.getChanges()).extracting(DelegationChange::getId, DelegationChange::getType)
+			.containsExactly(tuple(delegation.getId(), DelegationChangeType.UPDATED));
+		assertThat(response.getCursor()).isEqualTo("cursor");
+		assertThat(response.getHasMore()).isFalse();
+
+		verify(mockService).getDelegationChanges(MUNICIPALITY_ID, null, 100);
 		verifyNoMoreInteractions(mockService);
 	}
 
+	@Test
+	void getDelegationChangesSinceCursor() {
+		when(mockService.getDelegationChanges(MUNICIPALITY_ID, "cursor", 10)).thenReturn(DelegationChanges.create().withChanges(List.of()).withCursor("cursor").withHasMore(false));
+
+		final var response = webTestClient.get()
+			.uri(BASE_URL + "/changes?since=cursor&limit=10", MUNICIPALITY_ID)
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody(DelegationChanges.class)
+			.returnResult()
+			.getResponseBody();
+
+		assertThat(response).isNotNull();
+		assertThat(response.getChanges()).isEmpty();
+		assertThat(response.getCursor()).isEqualTo("cursor");
+
+		verify(mockService).getDelegationChanges(MUNICIPALITY_ID, "cursor", 10);
+		verifyNoMoreInteractions(mockService);
+	}
+
+	@Test
+	void processDelegations() {
+		final var id = UUID.randomUUID().toString();
+		final var entries = List.of(
+			DelegationBatchEntry.create().withOperation(DelegationOperation.CREATE).withCreateDelegation(createDelegation()),
+			DelegationBatchEntry.create().withOperation(DelegationOperation.UPDATE).withId(id).withUpdateDelegation(updateDelegation()),
+			DelegationBatchEntry.create().withOperation(DelegationOperation.DELETE).withId(id));
+		final var expectedResponse = List.of(
+			DelegationBatchResult.create().withOperation(DelegationOperation.CREATE).withId(UUID.randomUUID().toString()).withStatus(201),
+			DelegationBatchResult.create().withOperation(DelegationOperation.UPDATE).withId(id).withStatus(404).withDetail("Not found"),
+			DelegationBatchResult.create().withOperation(DelegationOperation.DELETE).withId(id).withStatus(202));
+		when(mockService.processDelegations(any(), any())).thenReturn(expectedResponse);
+
+		final var response = webTestClient.post()
+			.uri(BASE_URL + "/batch", MUNICIPALITY_ID)
+			.contentType(APPLICATION_JSON)
+			.bodyValue(entries)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectBodyList(DelegationBatchResult.class)
+			.returnResult()
+			.getResponseBody();
+
+		assertThat(response).isEqualTo(expectedResponse);
+
+		verify(mockService).processDelegations(MUNICIPALITY_ID, entries);
+		verifyNoMoreInteractions(mockService);
+	}
+
+	@Test
+	void processDelegationsWithInvalidEntry() {
+		final var entries = List.of(DelegationBatchEntry.create().withId("invalid"));
+
+		webTestClient.post()
+			.uri(BASE_URL + "/batch", MUNICIPALITY_ID)
+			.contentType(APPLICATION_JSON)
+			.bodyValue(entries)
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+
+		verifyNoInteractions(mockService);
+	}
+
+	@Test
+	void processDelegationsWithEmptyBatch() {
+		webTestClient.post()
+			.uri(BASE_URL + "/batch", MUNICIPALITY_ID)
+			.contentType(APPLICATION_JSON)
+			.bodyValue(List.of())
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+
+		verifyNoInteractions(mockService);
+	}
+
 	@Test
 	void testDeleteDelegation() {
 		final var id = UUID.randomUUID().toString();
 
-		doNothing().when(mockService).deleteDelegation(MUNICIPALITY_ID, id);
+		doNothing().when(mockService).deleteDelegation(MUNICIPALITY_ID, id, null);
 
 		webTestClient.delete()
 			.uri(BASE_URL + "/{id}", MUNICIPALITY_ID, id)
@@ -215,7 +486,39 @@ class DelegationResourceTest {
 			.expectHeader().contentType(ALL_VALUE)
 			.expectBody(ResponseEntity.class);
 
-		verify(mockService).deleteDelegation(MUNICIPALITY_ID, id);
+		verify(mockService).deleteDelegation(MUNICIPALITY_ID, id, null);
+		verifyNoMoreInteractions(mockService);
+	}
+
+	@Test
+	void testDeleteDelegationWithIfMatch() {
+		final var id = UUID.randomUUID().toString();
+
+		doNothing().when(mockService).deleteDelegation(MUNICIPALITY_ID, id, 3L);
+
+		webTestClient.delete()
+			.uri(BASE_URL + "/{id}", MUNICIPALITY_ID, id)
+			.header(IF_MATCH, "\"3\"")
+			.exchange()
+			.expectStatus().isAccepted();
+
+		verify(mockService).deleteDelegation(MUNICIPALITY_ID, id, 3L);
+		verifyNoMoreInteractions(mockService);
+	}
+
+	@Test
+	void testDeleteDelegationWithWildcardIfMatch() {
+		final var id = UUID.randomUUID().toString();
+
+		doNothing().when(mockService).deleteDelegation(MUNICIPALITY_ID, id, ANY_VERSION);
+
+		webTestClient.delete()
+			.uri(BASE_URL + "/{id}", MUNICIPALITY_ID, id)
+			.header(IF_MATCH, "*")
+			.exchange()
+			.expectStatus().isAccepted();
+
+		verify(mockService).deleteDelegation(MUNICIPALITY_ID, id, ANY_VERSION);
 		verifyNoMoreInteractions(mockService);
 	}
 }
@@ -14,6 +14,7 @@ import org.springframework.boot.webtestclient.autoconfigure.AutoConfigureWebTest
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.dept44.problem.violations.ConstraintViolationProblem;
 import se.sundsvall.dept44.problem.violations.Violation;
 import se.sundsvall.installedbase.Application;
@@ -24,6 +25,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON;
 import static se.sundsvall.installedbase.TestDataFactory.updateDelegation;
@@ -174,4 +177,46 @@ class DelegationUpdateResourceFailureTest {
 					.containsExactly(tuple("facilities[0].businessEngagementOrgId", "must match the regular expression ^([1235789][\\d][2-9]\\d{7})$"));
 			});
 	}
+
+	@Test
+	void updateDelegationWithWeakIfMatch() {
+		final var delegation = updateDelegation();
+
+		final var response = webTestClient.patch()
+			.uri("/{municipalityId}/delegations/{id}", MUNICIPALITY_ID, ID)
+			.contentType(APPLICATION_JSON)
+			.header(IF_MATCH, "W/\"3\"")
+			.bodyValue(delegation)
+			.exchange()
+			.expectStatus().isEqualTo(PRECONDITION_FAILED)
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(Problem.class)
+			.returnResult()
+			.getResponseBody();
+
+		assertThat(response).isNotNull();
+		assertThat(response.getTitle()).isEqualTo("Delegation has been modified");
+		assertThat(response.getDetail()).isEqualTo("If-Match 'W/\"3\"' does not match the version of the delegation");
+	}
+
+	@Test
+	void updateDelegationWithIfMatchTooLargeForVersion() {
+		final var delegation = updateDelegation();
+
+		final var response = webTestClient.patch()
+			.uri("/{municipalityId}/delegations/{id}", MUNICIPALITY_ID, ID)
+			.contentType(APPLICATION_JSON)
+			.header(IF_MATCH, "\"12345678901234567890\"")
+			.bodyValue(delegation)
+			.exchange()
+			.expectStatus().isEqualTo(PRECONDITION_FAILED)
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(Problem.class)
+			.returnResult()
+			.getResponseBody();
+
+		assertThat(response).isNotNull();
+		assertThat(response.getTitle()).isEqualTo("Delegation has been modified");
+		assertThat(response.getDetail()).isEqualTo("If-Match '\"12345678901234567890\"' does not match the version of the delegation");
+	}
 }
@@ -1,6 +1,7 @@
 package se.sundsvall.installedbase.api;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,12 +10,17 @@ import org.springframework.boot.webtestclient.autoconfigure.AutoConfigureWebTest
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.requestid.RequestId;
 import se.sundsvall.installedbase.Application;
 import se.sundsvall.installedbase.api.model.InstalledBase;
+import se.sundsvall.installedbase.api.model.InstalledBaseBatchEntry;
+import se.sundsvall.installedbase.api.model.InstalledBaseBatchResult;
 import se.sundsvall.installedbase.api.model.InstalledBaseCustomer;
 import se.sundsvall.installedbase.api.model.InstalledBaseResponse;
 import se.sundsvall.installedbase.api.model.InstalledBases;
 import se.sundsvall.installedbase.service.InstalledBaseService;
+import tools.jackson.databind.json.JsonMapper;
 
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,7 +30,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON;
 
 @AutoConfigureWebTestClient
@@ -41,6 +49,9 @@ class InstalledBaseResourceTest {
 	@Autowired
 	private WebTestClient webTestClient;
 
+	@Autowired
+	private JsonMapper jsonMapper;
+
 	@Test
 	void getinstalledBaseWithoutModifiedFrom() {
 
@@ -99,6 +110,142 @@ class InstalledBaseResourceTest {
 		verify(serviceMock).getInstalledBase(municipalityId, organizationNumber, partyId, modifiedFrom);
 	}
 
+	@Test
+	void streamInstalledBase() {
+
+		// Arrange
+		final var municipalityId = "2281";
+		final var partyId = List.of(randomUUID().toString(), randomUUID().toString());
+		final var organizationNumber = "5566112233";
+		final var modifiedFrom = LocalDate.now();
+		final var customers = List.of(InstalledBaseCustomer.create().withCustomerNumber("12345"), InstalledBaseCustomer.create().withCustomerNumber("67890"));
+
+		final var requestIds = new ArrayList<String>();
+
+		when(serviceMock.streamInstalledBase(any(), any(), any(), any())).thenReturn(consumer -> {
+			requestIds.add(RequestId.get());
+			customers.forEach(consumer);
+		});
+
+		// Act
+		final var response = webTestClient.get().uri(uriBuilder -> uriBuilder.path(PATH)
+			.queryParam("partyId", partyId)
+			.queryParam("modifiedFrom", modifiedFrom)
+			.build(municipalityId, organizationNumber))
+			.accept(APPLICATION_NDJSON)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentTypeCompatibleWith(APPLICATION_NDJSON)
+			.expectBody(String.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(response.lines().map(line -> jsonMapper.readValue(line, InstalledBaseCustomer.class)).toList()).isEqualTo(customers);
+		// The request id is available also on the thread writing the streamed response
+		assertThat(requestIds).singleElement().isNotNull();
+		verify(serviceMock).streamInstalledBase(municipalityId, organizationNumber, partyId, modifiedFrom);
+	}
+
+	@Test
+	void streamInstalledBaseWhenNoCustomerEngagementsFound() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		when(serviceMock.streamInstalledBase(any(), any(), any(), any())).thenThrow(Problem.valueOf(NOT_FOUND, "No customer engagements found"));
+
+		// Act
+		webTestClient.get().uri(uriBuilder -> uriBuilder.path(PATH)
+			.queryParam("partyId", partyId)
+			.build("2281", "5566112233"))
+			.accept(APPLICATION_NDJSON, APPLICATION_PROBLEM_JSON)
+			.exchange()
+			.expectStatus().isNotFound()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+
+		// Assert
+		verify(serviceMock).streamInstalledBase("2281", "5566112233", List.of(partyId), null);
+	}
+
+	@Test
+	void streamInstalledBaseWithInvalidOrganizationNumber() {
+
+		// Act
+		webTestClient.get().uri(uriBuilder -> uriBuilder.path(PATH)
+			.queryParam("partyId", randomUUID().toString())
+			.build("2281", "invalid"))
+			.accept(APPLICATION_NDJSON, APPLICATION_PROBLEM_JSON)
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+
+		// Assert
+		verifyNoInteractions(serviceMock);
+	}
+
+	@Test
+	void getInstalledBases() {
+
+		// Arrange
+		final var municipalityId = "2281";
+		final var entries = List.of(
+			InstalledBaseBatchEntry.create().withOrganizationNumber("5566112233").withPartyIds(List.of(randomUUID().toString())),
+			InstalledBaseBatchEntry.create().withOrganizationNumber("5566112244").withPartyIds(List.of(randomUUID().toString())).withModifiedFrom(LocalDate.now()));
+		final var expectedResponse = List.of(
+			InstalledBaseBatchResult.create().withOrganizationNumber("5566112233").withStatus(200).withInstalledBaseCustomers(List.of(InstalledBaseCustomer.create().withCustomerNumber("12345"))),
+			InstalledBaseBatchResult.create().withOrganizationNumber("5566112244").withStatus(404).withDetail("Not found"));
+		when(serviceMock.getInstalledBases(any(), any())).thenReturn(expectedResponse);
+
+		// Act
+		final var response = webTestClient.post().uri(PARTY_PATH + "/batch", municipalityId)
+			.contentType(APPLICATION_JSON)
+			.bodyValue(entries)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectBodyList(InstalledBaseBatchResult.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isEqualTo(expectedResponse);
+		verify(serviceMock).getInstalledBases(municipalityId, entries);
+	}
+
+	@Test
+	void getInstalledBasesWithInvalidEntry() {
+
+		// Arrange
+		final var entries = List.of(InstalledBaseBatchEntry.create().withOrganizationNumber("invalid").withPartyIds(List.of("invalid")));
+
+		// Act
+		webTestClient.post().uri(PARTY_PATH + "/batch", "2281")
+			.contentType(APPLICATION_JSON)
+			.bodyValue(entries)
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+
+		// Assert
+		verifyNoInteractions(serviceMock);
+	}
+
+	@Test
+	void getInstalledBasesWithEmptyBatch() {
+
+		// Act
+		webTestClient.post().uri(PARTY_PATH + "/batch", "2281")
+			.contentType(APPLICATION_JSON)
+			.bodyValue(List.of())
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+
+		// Assert
+		verifyNoInteractions(serviceMock);
+	}
+
 	@Test
 	void getInstalledBaseByPartyId_withAllParameters() {
 
@@ -0,0 +1,58 @@
+package se.sundsvall.installedbase.api.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class InstalledBaseBatchEntryTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> LocalDate.now().plusDays(new Random().nextInt(1000)), LocalDate.class);
+	}
+
+	@Test
+	void testBean() {
+		assertThat(InstalledBaseBatchEntry.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testCreatePattern() {
+		final var organizationNumber = "5565112233";
+		final var partyIds = List.of("partyId");
+		final var modifiedFrom = LocalDate.now();
+
+		final var entry = InstalledBaseBatchEntry.create()
+			.withOrganizationNumber(organizationNumber)
+			.withPartyIds(partyIds)
+			.withModifiedFrom(modifiedFrom);
+
+		assertThat(entry).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(entry.getOrganizationNumber()).isEqualTo(organizationNumber);
+		assertThat(entry.getPartyIds()).isEqualTo(partyIds);
+		assertThat(entry.getModifiedFrom()).isEqualTo(modifiedFrom);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(InstalledBaseBatchEntry.create()).hasAllNullFieldsOrProperties();
+		assertThat(new InstalledBaseBatchEntry()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -0,0 +1,67 @@
+package se.sundsvall.installedbase.api.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class InstalledBaseBatchResultTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> LocalDate.now().plusDays(new Random().nextInt(1000)), LocalDate.class);
+	}
+
+	@Test
+	void testBean() {
+		assertThat(InstalledBaseBatchResult.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testCreatePattern() {
+		final var organizationNumber = "5565112233";
+		final var partyIds = List.of("partyId");
+		final var modifiedFrom = LocalDate.now();
+		final var status = 404;
+		final var detail = "detail";
+		final var installedBaseCustomers = List.of(InstalledBaseCustomer.create());
+
+		final var result = InstalledBaseBatchResult.create()
+			.withOrganizationNumber(organizationNumber)
+			.withPartyIds(partyIds)
+			.withModifiedFrom(modifiedFrom)
+			.withStatus(status)
+			.withDetail(detail)
+			.withInstalledBaseCustomers(installedBaseCustomers);
+
+		assertThat(result).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(result.getOrganizationNumber()).isEqualTo(organizationNumber);
+		assertThat(result.getPartyIds()).isEqualTo(partyIds);
+		assertThat(result.getModifiedFrom()).isEqualTo(modifiedFrom);
+		assertThat(result.getStatus()).isEqualTo(status);
+		assertThat(result.getDetail()).isEqualTo(detail);
+		assertThat(result.getInstalledBaseCustomers()).isEqualTo(installedBaseCustomers);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(InstalledBaseBatchResult.create()).hasAllNullFieldsOrProperties();
+		assertThat(new InstalledBaseBatchResult()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -33,17 +33,23 @@ class InstalledBaseCustomerTest {
 		final var installedBaseCustomer = InstalledBaseCustomer.create()
 			.withCustomerNumber(customerNumber)
 			.withItems(items)
-			.withPartyId(partyId);
+			.withPartyId(partyId)
+			.withStale(true);
 
 		assertThat(installedBaseCustomer).isNotNull().hasNoNullFieldsOrProperties();
 		assertThat(installedBaseCustomer.getCustomerNumber()).isEqualTo(customerNumber);
 		assertThat(installedBaseCustomer.getItems()).isEqualTo(items);
 		assertThat(installedBaseCustomer.getPartyId()).isEqualTo(partyId);
+		assertThat(installedBaseCustomer.isStale()).isTrue();
 	}
 
 	@Test
 	void testNoDirtOnCreatedBean() {
-		assertThat(InstalledBaseCustomer.create()).hasAllNullFieldsOrProperties();
-		assertThat(new InstalledBaseCustomer()).hasAllNullFieldsOrProperties();
+		assertThat(InstalledBaseCustomer.create())
+			.hasAllNullFieldsOrPropertiesExcept("stale")
+			.hasFieldOrPropertyWithValue("stale", false);
+		assertThat(new InstalledBaseCustomer())
+			.hasAllNullFieldsOrPropertiesExcept("stale")
+			.hasFieldOrPropertyWithValue("stale", false);
 	}
 }
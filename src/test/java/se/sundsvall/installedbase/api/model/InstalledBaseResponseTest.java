@@ -29,15 +29,21 @@ class InstalledBaseResponseTest {
 		final var installedBaseCustomers = List.of(InstalledBaseCustomer.create());
 
 		final var installedBaseResponse = InstalledBaseResponse.create()
-			.withInstalledBaseCustomers(installedBaseCustomers);
+			.withInstalledBaseCustomers(installedBaseCustomers)
+			.withStale(true);
 
 		assertThat(installedBaseResponse).isNotNull().hasNoNullFieldsOrProperties();
 		assertThat(installedBaseResponse.getInstalledBaseCustomers()).isEqualTo(installedBaseCustomers);
+		assertThat(installedBaseResponse.isStale()).isTrue();
 	}
 
 	@Test
 	void testNoDirtOnCreatedBean() {
-		assertThat(InstalledBaseResponse.create()).hasAllNullFieldsOrProperties();
-		assertThat(new InstalledBaseResponse()).hasAllNullFieldsOrProperties();
+		assertThat(InstalledBaseResponse.create())
+			.hasAllNullFieldsOrPropertiesExcept("stale")
+			.hasFieldOrPropertyWithValue("stale", false);
+		assertThat(new InstalledBaseResponse())
+			.hasAllNullFieldsOrPropertiesExcept("stale")
+			.hasFieldOrPropertyWithValue("stale", false);
 	}
 }
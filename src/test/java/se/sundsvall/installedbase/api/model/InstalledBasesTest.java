@@ -32,15 +32,19 @@ class InstalledBasesTest {
 
 		final var result = new InstalledBases()
 			.withMetaData(metaData)
-			.withInstalledBaseList(installedBases);
+			.withInstalledBaseList(installedBases)
+			.withStale(true);
 
 		assertThat(result).isNotNull().hasNoNullFieldsOrProperties();
 		assertThat(result.getMetaData()).isEqualTo(metaData);
 		assertThat(result.getInstalledBaseList()).isEqualTo(installedBases);
+		assertThat(result.isStale()).isTrue();
 	}
 
 	@Test
 	void testNoDirtOnCreatedBean() {
-		assertThat(new InstalledBases()).hasAllNullFieldsOrProperties();
+		assertThat(new InstalledBases())
+			.hasAllNullFieldsOrPropertiesExcept("stale")
+			.hasFieldOrPropertyWithValue("stale", false);
 	}
 }
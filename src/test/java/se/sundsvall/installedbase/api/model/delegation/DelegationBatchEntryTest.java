@@ -0,0 +1,51 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class DelegationBatchEntryTest {
+
+	@Test
+	void testBean() {
+		assertThat(DelegationBatchEntry.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testCreatePattern() {
+		final var operation = DelegationOperation.UPDATE;
+		final var id = "24504e65-08cf-4bc3-8f4f-a07204748c13";
+		final var createDelegation = CreateDelegation.create();
+		final var updateDelegation = UpdateDelegation.create();
+
+		final var entry = DelegationBatchEntry.create()
+			.withOperation(operation)
+			.withId(id)
+			.withCreateDelegation(createDelegation)
+			.withUpdateDelegation(updateDelegation);
+
+		assertThat(entry).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(entry.getOperation()).isEqualTo(operation);
+		assertThat(entry.getId()).isEqualTo(id);
+		assertThat(entry.getCreateDelegation()).isSameAs(createDelegation);
+		assertThat(entry.getUpdateDelegation()).isSameAs(updateDelegation);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(DelegationBatchEntry.create()).hasAllNullFieldsOrProperties();
+		assertThat(new DelegationBatchEntry()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -0,0 +1,51 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class DelegationBatchResultTest {
+
+	@Test
+	void testBean() {
+		assertThat(DelegationBatchResult.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testCreatePattern() {
+		final var operation = DelegationOperation.CREATE;
+		final var id = "24504e65-08cf-4bc3-8f4f-a07204748c13";
+		final var status = 409;
+		final var detail = "detail";
+
+		final var result = DelegationBatchResult.create()
+			.withOperation(operation)
+			.withId(id)
+			.withStatus(status)
+			.withDetail(detail);
+
+		assertThat(result).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(result.getOperation()).isEqualTo(operation);
+		assertThat(result.getId()).isEqualTo(id);
+		assertThat(result.getStatus()).isEqualTo(status);
+		assertThat(result.getDetail()).isEqualTo(detail);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(DelegationBatchResult.create()).hasAllNullFieldsOrProperties();
+		assertThat(new DelegationBatchResult()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -0,0 +1,68 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import java.time.OffsetDateTime;
+import java.util.Random;
+import java.util.UUID;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static java.time.OffsetDateTime.now;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class DelegationChangeTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+	}
+
+	@Test
+	void testBean() {
+		MatcherAssert.assertThat(DelegationChange.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderPattern() {
+		final var id = UUID.randomUUID().toString();
+		final var type = DelegationChangeType.UPDATED;
+		final var changed = now();
+		final var owner = UUID.randomUUID().toString();
+		final var delegatedTo = UUID.randomUUID().toString();
+		final var delegation = Delegation.create().withId(id);
+
+		final var result = DelegationChange.create()
+			.withId(id)
+			.withType(type)
+			.withChanged(changed)
+			.withOwner(owner)
+			.withDelegatedTo(delegatedTo)
+			.withDelegation(delegation);
+
+		assertThat(result).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(result.getId()).isEqualTo(id);
+		assertThat(result.getType()).isEqualTo(type);
+		assertThat(result.getChanged()).isEqualTo(changed);
+		assertThat(result.getOwner()).isEqualTo(owner);
+		assertThat(result.getDelegatedTo()).isEqualTo(delegatedTo);
+		assertThat(result.getDelegation()).isEqualTo(delegation);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(new DelegationChange()).hasAllNullFieldsOrProperties();
+		assertThat(DelegationChange.create()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -0,0 +1,49 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class DelegationChangesTest {
+
+	@Test
+	void testBean() {
+		assertThat(DelegationChanges.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderPattern() {
+		final var changes = List.of(DelegationChange.create());
+		final var cursor = "cursor";
+		final var hasMore = true;
+
+		final var result = DelegationChanges.create()
+			.withChanges(changes)
+			.withCursor(cursor)
+			.withHasMore(hasMore);
+
+		assertThat(result).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(result.getChanges()).isEqualTo(changes);
+		assertThat(result.getCursor()).isEqualTo(cursor);
+		assertThat(result.getHasMore()).isEqualTo(hasMore);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(new DelegationChanges()).hasAllNullFieldsOrProperties();
+		assertThat(DelegationChanges.create()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -0,0 +1,55 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class DelegationParametersTest {
+
+	@Test
+	void testBean() {
+		assertThat(DelegationParameters.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals()));
+	}
+
+	@Test
+	void testCreatePattern() {
+		final var owner = "81471222-5798-11e9-ae24-57fa13b361e1";
+		final var delegatedTo = "81471222-5798-11e9-ae24-57fa13b361e2";
+		final var facilityId = "facilityId";
+		final var businessEngagementOrgId = "5591628136";
+		final var cursor = "cursor";
+
+		final var parameters = DelegationParameters.create()
+			.withOwner(owner)
+			.withDelegatedTo(delegatedTo)
+			.withFacilityId(facilityId)
+			.withBusinessEngagementOrgId(businessEngagementOrgId)
+			.withCursor(cursor);
+
+		assertThat(parameters.getOwner()).isEqualTo(owner);
+		assertThat(parameters.getDelegatedTo()).isEqualTo(delegatedTo);
+		assertThat(parameters.getFacilityId()).isEqualTo(facilityId);
+		assertThat(parameters.getBusinessEngagementOrgId()).isEqualTo(businessEngagementOrgId);
+		assertThat(parameters.getCursor()).isEqualTo(cursor);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		final var parameters = DelegationParameters.create();
+		assertThat(parameters.getOwner()).isNull();
+		assertThat(parameters.getDelegatedTo()).isNull();
+		assertThat(parameters.getFacilityId()).isNull();
+		assertThat(parameters.getBusinessEngagementOrgId()).isNull();
+		assertThat(parameters.getCursor()).isNull();
+	}
+}
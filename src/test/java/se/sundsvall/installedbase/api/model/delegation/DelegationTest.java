@@ -27,6 +27,7 @@ class DelegationTest {
 	private final String municipalityId = "2281";
 	private final OffsetDateTime created = now().minusMinutes(2);
 	private final OffsetDateTime updated = now().minusMinutes(1);
+	private final Long version = 3L;
 
 	@BeforeAll
 	static void setup() {
@@ -58,7 +59,8 @@ class DelegationTest {
 			.withOwner(owner)
 			.withMunicipalityId(municipalityId)
 			.withCreated(created)
-			.withUpdated(updated);
+			.withUpdated(updated)
+			.withVersion(version);
 
 		assertValues(bean);
 	}
@@ -73,6 +75,7 @@ class DelegationTest {
 		bean.setMunicipalityId(municipalityId);
 		bean.setCreated(created);
 		bean.setUpdated(updated);
+		bean.setVersion(version);
 
 		assertValues(bean);
 	}
@@ -86,5 +89,6 @@ class DelegationTest {
 		assertThat(bean.getMunicipalityId()).isEqualTo(municipalityId);
 		assertThat(bean.getCreated()).isEqualTo(created);
 		assertThat(bean.getUpdated()).isEqualTo(updated);
+		assertThat(bean.getVersion()).isEqualTo(version);
 	}
 }
@@ -0,0 +1,50 @@
+package se.sundsvall.installedbase.api.model.delegation;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.dept44.models.api.paging.PagingAndSortingMetaData;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class DelegationsTest {
+
+	@Test
+	void testBean() {
+		assertThat(Delegations.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderPattern() {
+		final var metaData = new PagingAndSortingMetaData();
+		final var delegations = List.of(Delegation.create());
+		final var nextCursor = "nextCursor";
+
+		final var result = Delegations.create()
+			.withMetaData(metaData)
+			.withDelegations(delegations)
+			.withNextCursor(nextCursor);
+
+		assertThat(result).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(result.getMetaData()).isEqualTo(metaData);
+		assertThat(result.getDelegations()).isEqualTo(delegations);
+		assertThat(result.getNextCursor()).isEqualTo(nextCursor);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(new Delegations()).hasAllNullFieldsOrProperties();
+		assertThat(Delegations.create()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -15,30 +15,31 @@ class ValidatorUtilTest {
 
 	@ParameterizedTest
 	@MethodSource("validDelegationParameters")
-	void testValidDelegationParameters(String owner, String delegatedTo) {
-		assertDoesNotThrow(() -> ValidatorUtil.validateDelegationParameters(owner, delegatedTo));
+	void testValidDelegationParameters(String owner, String delegatedTo, String facilityId) {
+		assertDoesNotThrow(() -> ValidatorUtil.validateDelegationParameters(owner, delegatedTo, facilityId));
 	}
 
 	@ParameterizedTest
 	@MethodSource("invalidDelegationParameters")
-	void testInvalidDelegationParameters(String owner, String delegatedTo) {
+	void testInvalidDelegationParameters(String owner, String delegatedTo, String facilityId) {
 		assertThatExceptionOfType(ThrowableProblem.class)
-			.isThrownBy(() -> ValidatorUtil.validateDelegationParameters(owner, delegatedTo))
-			.withMessage("Invalid search parameters: Either owner or delegatedTo must be provided")
+			.isThrownBy(() -> ValidatorUtil.validateDelegationParameters(owner, delegatedTo, facilityId))
+			.withMessage("Invalid search parameters: Either owner, delegatedTo or facilityId must be provided")
 			.satisfies(problem -> assertThat(problem.getStatus()).isEqualTo(BAD_REQUEST));
 	}
 
 	public static Stream<Arguments> validDelegationParameters() {
 		return Stream.of(
-			Arguments.of("owner", null),
-			Arguments.of(null, "delegatedTo"),
-			Arguments.of("owner", "delegatedTo"));
+			Arguments.of("owner", null, null),
+			Arguments.of(null, "delegatedTo", null),
+			Arguments.of(null, null, "facilityId"),
+			Arguments.of("owner", "delegatedTo", "facilityId"));
 	}
 
 	public static Stream<Arguments> invalidDelegationParameters() {
 		return Stream.of(
-			Arguments.of(null, null),
-			Arguments.of("", ""),
-			Arguments.of(" ", " "));
+			Arguments.of(null, null, null),
+			Arguments.of("", "", ""),
+			Arguments.of(" ", " ", " "));
 	}
 }
@@ -0,0 +1,459 @@
+package se.sundsvall.installedbase.integration.datawarehousereader;
+
+import generated.se.sundsvall.datawarehousereader.CustomerEngagement;
+import generated.se.sundsvall.datawarehousereader.CustomerEngagementResponse;
+import generated.se.sundsvall.datawarehousereader.InstalledBaseItem;
+import generated.se.sundsvall.datawarehousereader.InstalledBaseResponse;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.dept44.requestid.RequestId;
+import se.sundsvall.installedbase.integration.datawarehousereader.configuration.DataWarehouseReaderCacheProperties;
+import se.sundsvall.installedbase.integration.datawarehousereader.configuration.DataWarehouseReaderProperties;
+import se.sundsvall.installedbase.service.concurrency.FanOutExecutor;
+
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.installedbase.integration.datawarehousereader.DataWarehouseReaderIntegration.COALESCED_REQUESTS_METRIC;
+import static se.sundsvall.installedbase.integration.datawarehousereader.DataWarehouseReaderIntegration.CUSTOMER_ENGAGEMENT_CACHE;
+import static se.sundsvall.installedbase.integration.datawarehousereader.DataWarehouseReaderIntegration.INSTALLED_BASE_BY_PARTY_ID_CACHE;
+import static se.sundsvall.installedbase.integration.datawarehousereader.DataWarehouseReaderIntegration.INSTALLED_BASE_CACHE;
+import static se.sundsvall.installedbase.integration.datawarehousereader.DataWarehouseReaderIntegration.STALE_RESPONSES_METRIC;
+import static se.sundsvall.installedbase.integration.datawarehousereader.configuration.DataWarehouseReaderConfiguration.CLIENT_ID;
+
+@ExtendWith(MockitoExtension.class)
+class DataWarehouseReaderIntegrationTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String CUSTOMER_NUMBER = "customerNumber";
+	private static final String COMPANY = "company";
+	private static final String ORGANIZATION_NUMBER = "5512345678";
+	private static final String SORT_BY = "facilityId";
+	private static final LocalDate MODIFIED_FROM = LocalDate.of(2025, 1, 1);
+
+	@Mock
+	private DataWarehouseReaderClient clientMock;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+	@AfterEach
+	void verifyNoMoreMockInteractions() {
+		verifyNoMoreInteractions(clientMock);
+	}
+
+	@Test
+	void getInstalledBaseIsCached() {
+		final var integration = createIntegration(true);
+		final var response = new InstalledBaseResponse().installedBase(List.of(new InstalledBaseItem().facilityId("facility")));
+		when(clientMock.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, MODIFIED_FROM, 1, 100, SORT_BY)).thenReturn(response);
+
+		assertThat(integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, MODIFIED_FROM, 1, 100, SORT_BY).value()).isSameAs(response);
+		assertThat(integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, MODIFIED_FROM, 1, 100, SORT_BY).value()).isSameAs(response);
+
+		verify(clientMock).getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, MODIFIED_FROM, 1, 100, SORT_BY);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", INSTALLED_BASE_CACHE).tag("result", "hit").functionCounter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", INSTALLED_BASE_CACHE).tag("result", "miss").functionCounter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void getInstalledBaseCacheKeyContainsAllParameters() {
+		final var integration = createIntegration(true);
+		when(clientMock.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, MODIFIED_FROM, 1, 100, SORT_BY)).thenReturn(new InstalledBaseResponse());
+		when(clientMock.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, MODIFIED_FROM, 2, 100, SORT_BY)).thenReturn(new InstalledBaseResponse());
+		when(clientMock.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY)).thenReturn(new InstalledBaseResponse());
+
+		integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, MODIFIED_FROM, 1, 100, SORT_BY);
+		integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, MODIFIED_FROM, 2, 100, SORT_BY);
+		integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+
+		verify(clientMock).getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, MODIFIED_FROM, 1, 100, SORT_BY);
+		verify(clientMock).getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, MODIFIED_FROM, 2, 100, SORT_BY);
+		verify(clientMock).getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+	}
+
+	@Test
+	void getInstalledBaseFailureIsNotCached() {
+		final var integration = createIntegration(true);
+		when(clientMock.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY))
+			.thenThrow(new IllegalStateException("failure"))
+			.thenReturn(new InstalledBaseResponse());
+
+		assertThatExceptionOfType(IllegalStateException.class)
+			.isThrownBy(() -> integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY));
+		assertThat(integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY).value()).isNotNull();
+
+		verify(clientMock, times(2)).getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+	}
+
+	@Test
+	void getInstalledBaseByPartyIdIsCached() {
+		final var integration = createIntegration(true);
+		final var partyId = "partyId";
+		final var response = new InstalledBaseResponse();
+		when(clientMock.getInstalledBaseByPartyId(MUNICIPALITY_ID, partyId, "123", MODIFIED_FROM, SORT_BY, 1, 15)).thenReturn(response);
+
+		assertThat(integration.getInstalledBaseByPartyId(MUNICIPALITY_ID, partyId, "123", MODIFIED_FROM, SORT_BY, 1, 15).value()).isSameAs(response);
+		assertThat(integration.getInstalledBaseByPartyId(MUNICIPALITY_ID, partyId, "123", MODIFIED_FROM, SORT_BY, 1, 15).value()).isSameAs(response);
+
+		verify(clientMock).getInstalledBaseByPartyId(MUNICIPALITY_ID, partyId, "123", MODIFIED_FROM, SORT_BY, 1, 15);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", INSTALLED_BASE_BY_PARTY_ID_CACHE).tag("result", "hit").functionCounter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void getCustomerEngagementIsCachedPerParty() {
+		final var integration = createIntegration(true);
+		final var engagement1 = new CustomerEngagement().partyId("partyId1").customerNumber("customer1");
+		final var engagement2 = new CustomerEngagement().partyId("partyId2").customerNumber("customer2");
+		when(clientMock.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId1", "partyId2")))
+			.thenReturn(new CustomerEngagementResponse().customerEngagements(List.of(engagement2, engagement1)));
+
+		final var response = integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId1", "partyId2")).value();
+		final var cachedResponse = integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId2", "partyId1")).value();
+
+		assertThat(response.getCustomerEngagements()).containsExactly(engagement1, engagement2);
+		assertThat(response.getMeta().getCount()).isEqualTo(2);
+		assertThat(cachedResponse.getCustomerEngagements()).containsExactly(engagement2, engagement1);
+		verify(clientMock).getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId1", "partyId2"));
+		assertThat(meterRegistry.get("cache.gets").tag("cache", CUSTOMER_ENGAGEMENT_CACHE).tag("result", "hit").functionCounter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", CUSTOMER_ENGAGEMENT_CACHE).tag("result", "miss").functionCounter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void getCustomerEngagementOnlyRequestsPartiesMissingInCache() {
+		final var integration = createIntegration(true);
+		final var engagement1 = new CustomerEngagement().partyId("partyId1").customerNumber("customer1");
+		final var engagement3 = new CustomerEngagement().partyId("partyId3").customerNumber("customer3");
+		when(clientMock.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId1")))
+			.thenReturn(new CustomerEngagementResponse().customerEngagements(List.of(engagement1)));
+		when(clientMock.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId2", "partyId3")))
+			.thenReturn(new CustomerEngagementResponse().customerEngagements(List.of(engagement3)));
+
+		integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId1"));
+		final var response = integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId1", "partyId2", "partyId3")).value();
+
+		assertThat(response.getCustomerEngagements()).containsExactly(engagement1, engagement3);
+		assertThat(response.getMeta().getCount()).isEqualTo(2);
+		verify(clientMock).getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId1"));
+		verify(clientMock).getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId2", "partyId3"));
+	}
+
+	@Test
+	void getCustomerEngagementCachesPartiesWithoutEngagements() {
+		final var integration = createIntegration(true);
+		when(clientMock.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId")))
+			.thenReturn(new CustomerEngagementResponse().customerEngagements(emptyList()));
+
+		assertThat(integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId")).value().getMeta().getCount()).isZero();
+		assertThat(integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId")).value().getMeta().getCount()).isZero();
+
+		verify(clientMock).getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+	}
+
+	@Test
+	void getCustomerEngagementWithUnattributableEngagementIsNotCached() {
+		final var integration = createIntegration(true);
+		final var engagement = new CustomerEngagement().partyId("partyId").customerNumber("customer1");
+		final var unattributable = new CustomerEngagement().customerNumber("customer2");
+		when(clientMock.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId")))
+			.thenReturn(new CustomerEngagementResponse().customerEngagements(List.of(unattributable, engagement)));
+
+		assertThat(integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId")).value().getCustomerEngagements()).containsExactly(engagement, unattributable);
+		assertThat(integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId")).value().getCustomerEngagements()).containsExactly(engagement, unattributable);
+
+		verify(clientMock, times(2)).getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+	}
+
+	@Test
+	void getCustomerEngagementOrderIsSameWhetherCachedOrNot() {
+		final var integration = createIntegration(true);
+		final var uncachedIntegration = createIntegration(false);
+		final var partyIds = List.of("partyId1", "partyId2");
+		final var engagement1 = new CustomerEngagement().partyId("partyId1").customerNumber("customer1");
+		final var engagement2 = new CustomerEngagement().partyId("partyId2").customerNumber("customer2");
+		when(clientMock.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, partyIds))
+			.thenReturn(new CustomerEngagementResponse().customerEngagements(List.of(engagement2, engagement1)));
+
+		final var miss = integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, partyIds).value();
+		final var hit = integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, partyIds).value();
+		final var uncached = uncachedIntegration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, partyIds).value();
+
+		assertThat(hit.getCustomerEngagements()).containsExactlyElementsOf(miss.getCustomerEngagements()).containsExactly(engagement1, engagement2);
+		assertThat(uncached.getCustomerEngagements()).containsExactlyElementsOf(miss.getCustomerEngagements());
+		assertThat(uncached.getMeta().getCount()).isEqualTo(2);
+		verify(clientMock, times(2)).getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, partyIds);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", CUSTOMER_ENGAGEMENT_CACHE).tag("result", "hit").functionCounter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void cacheDisabled() {
+		final var integration = createIntegration(false);
+		final var response = new InstalledBaseResponse();
+		when(clientMock.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY)).thenReturn(response);
+
+		assertThat(integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY).value()).isSameAs(response);
+		assertThat(integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY).value()).isSameAs(response);
+
+		verify(clientMock, times(2)).getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+		assertThat(meterRegistry.find("cache.gets").meters()).isEmpty();
+	}
+
+	@Test
+	void identicalConcurrentCallsAreCoalesced() throws Exception {
+		final var integration = createIntegration(false);
+		final var response = new InstalledBaseResponse();
+		final var release = new CountDownLatch(1);
+		when(clientMock.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY)).thenAnswer(invocation -> {
+			release.await(5, SECONDS);
+			return response;
+		});
+
+		final var results = callConcurrently(5, () -> integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY), release);
+
+		assertThat(results).hasSize(5).allSatisfy(result -> assertThat(result.get().value()).isSameAs(response));
+		verify(clientMock).getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+		assertThat(coalescedCount(INSTALLED_BASE_CACHE)).isEqualTo(4);
+	}
+
+	@Test
+	void identicalConcurrentCallsShareError() throws Exception {
+		final var integration = createIntegration(false);
+		final var release = new CountDownLatch(1);
+		when(clientMock.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY)).thenAnswer(invocation -> {
+			release.await(5, SECONDS);
+			throw new IllegalStateException("failure");
+		});
+
+		final var results = callConcurrently(3, () -> integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY), release);
+
+		assertThat(results).hasSize(3).allSatisfy(result -> assertThatExceptionOfType(ExecutionException.class)
+			.isThrownBy(result::get)
+			.withCauseInstanceOf(IllegalStateException.class));
+		verify(clientMock).getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+		assertThat(coalescedCount(INSTALLED_BASE_CACHE)).isEqualTo(2);
+	}
+
+	@Test
+	void sequentialCallsAreNotCoalesced() {
+		final var integration = createIntegration(false);
+		when(clientMock.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"))).thenReturn(new CustomerEngagementResponse());
+
+		integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+		integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+
+		verify(clientMock, times(2)).getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+		assertThat(coalescedCount(CUSTOMER_ENGAGEMENT_CACHE)).isZero();
+	}
+
+	@Test
+	void getInstalledBaseServesLastResponseAsStaleWhenCircuitBreakerIsOpen() {
+		final var integration = createIntegration(withoutFreshCaching());
+		final var response = new InstalledBaseResponse().installedBase(List.of(new InstalledBaseItem().facilityId("facility")));
+		when(clientMock.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY))
+			.thenReturn(response)
+			.thenThrow(callNotPermitted());
+
+		final var freshResponse = integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+		final var staleResponse = integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+
+		assertThat(freshResponse.value()).isSameAs(response);
+		assertThat(freshResponse.stale()).isFalse();
+		assertThat(staleResponse.value()).isSameAs(response);
+		assertThat(staleResponse.stale()).isTrue();
+		assertThat(staleCount(INSTALLED_BASE_CACHE)).isEqualTo(1);
+		verify(clientMock, times(2)).getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+	}
+
+	@Test
+	void getInstalledBaseWithoutLastResponseWhenCircuitBreakerIsOpen() {
+		final var integration = createIntegration(true);
+		when(clientMock.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY)).thenThrow(callNotPermitted());
+
+		assertThatExceptionOfType(CallNotPermittedException.class)
+			.isThrownBy(() -> integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY));
+
+		assertThat(staleCount(INSTALLED_BASE_CACHE)).isZero();
+		verify(clientMock).getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+	}
+
+	@Test
+	void staleResponseIsRevalidatedWhenCircuitBreakerHalfOpens() {
+		final var integration = createIntegration(withoutFreshCaching());
+		final var response = new InstalledBaseResponse().installedBase(List.of(new InstalledBaseItem().facilityId("facility")));
+		final var revalidatedResponse = new InstalledBaseResponse().installedBase(List.of(new InstalledBaseItem().facilityId("revalidated")));
+		final var revalidationRequestId = new AtomicReference<String>();
+		when(clientMock.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY))
+			.thenReturn(response)
+			.thenThrow(callNotPermitted())
+			.thenAnswer(invocation -> {
+				revalidationRequestId.set(RequestId.get());
+				return revalidatedResponse;
+			})
+			.thenThrow(callNotPermitted());
+
+		try {
+			RequestId.init("requestId");
+			integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+			integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+		} finally {
+			RequestId.reset();
+		}
+
+		final var circuitBreaker = circuitBreakerRegistry.circuitBreaker(CLIENT_ID);
+		circuitBreaker.transitionToOpenState();
+		circuitBreaker.transitionToHalfOpenState();
+
+		verify(clientMock, timeout(5000).times(3)).getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+
+		// The revalidated response is kept as last response as soon as the revalidation has completed
+		final var deadline = System.nanoTime() + SECONDS.toNanos(5);
+		var staleResponse = integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+		while (staleResponse.value() != revalidatedResponse && System.nanoTime() < deadline) {
+			staleResponse = integration.getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+		}
+
+		assertThat(staleResponse.value()).isSameAs(revalidatedResponse);
+		assertThat(staleResponse.stale()).isTrue();
+		assertThat(revalidationRequestId).hasValue("requestId");
+		verify(clientMock, atLeast(4)).getInstalledBase(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null, 1, 100, SORT_BY);
+	}
+
+	@Test
+	void getCustomerEngagementServesLastResponseAsStaleWhenCircuitBreakerIsOpen() {
+		final var integration = createIntegration(withoutFreshCaching());
+		final var engagement = new CustomerEngagement().partyId("partyId").customerNumber("customer");
+		when(clientMock.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId")))
+			.thenReturn(new CustomerEngagementResponse().customerEngagements(List.of(engagement)))
+			.thenThrow(callNotPermitted());
+
+		final var freshResponse = integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+		final var staleResponse = integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+
+		assertThat(freshResponse.stale()).isFalse();
+		assertThat(staleResponse.value().getCustomerEngagements()).containsExactly(engagement);
+		assertThat(staleResponse.value().getMeta().getCount()).isEqualTo(1);
+		assertThat(staleResponse.stale()).isTrue();
+		assertThat(staleCount(CUSTOMER_ENGAGEMENT_CACHE)).isEqualTo(1);
+		verify(clientMock, times(2)).getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+	}
+
+	@Test
+	void getCustomerEngagementRevalidationIsCachedPerParty() {
+		// Parties without engagements expire immediately, parties with engagements are cached
+		final var integration = createIntegration(new DataWarehouseReaderCacheProperties(true, 1000, Duration.ZERO, Duration.ZERO, Duration.ofMinutes(10), Duration.ZERO, Duration.ofMinutes(10)));
+		final var engagement = new CustomerEngagement().partyId("partyId").customerNumber("customer");
+		when(clientMock.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId")))
+			.thenReturn(new CustomerEngagementResponse().customerEngagements(emptyList()))
+			.thenThrow(callNotPermitted())
+			.thenReturn(new CustomerEngagementResponse().customerEngagements(List.of(engagement)))
+			.thenThrow(callNotPermitted());
+
+		integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+		assertThat(integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId")).stale()).isTrue();
+
+		final var circuitBreaker = circuitBreakerRegistry.circuitBreaker(CLIENT_ID);
+		circuitBreaker.transitionToOpenState();
+		circuitBreaker.transitionToHalfOpenState();
+
+		verify(clientMock, timeout(5000).times(3)).getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+
+		// The revalidated engagements are served from the cache as soon as the revalidation has completed
+		final var deadline = System.nanoTime() + SECONDS.toNanos(5);
+		var response = integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+		while (response.stale() && System.nanoTime() < deadline) {
+			response = integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+		}
+
+		assertThat(response.stale()).isFalse();
+		assertThat(response.value().getCustomerEngagements()).containsExactly(engagement);
+		verify(clientMock, atLeast(3)).getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId"));
+	}
+
+	@Test
+	void getCustomerEngagementWithCachedPartyAndUnattributableEngagementIsFetchedOnce() {
+		final var integration = createIntegration(true);
+		final var engagement1 = new CustomerEngagement().partyId("partyId1").customerNumber("customer1");
+		final var unattributable = new CustomerEngagement().customerNumber("customer2");
+		when(clientMock.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId1")))
+			.thenReturn(new CustomerEngagementResponse().customerEngagements(List.of(engagement1)));
+		when(clientMock.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId2")))
+			.thenReturn(new CustomerEngagementResponse().customerEngagements(List.of(unattributable)));
+
+		integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId1"));
+		final var response = integration.getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId1", "partyId2")).value();
+
+		assertThat(response.getCustomerEngagements()).containsExactly(engagement1, unattributable);
+		assertThat(response.getMeta().getCount()).isEqualTo(2);
+		verify(clientMock).getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId1"));
+		verify(clientMock).getCustomerEngagement(MUNICIPALITY_ID, ORGANIZATION_NUMBER, List.of("partyId2"));
+	}
+
+	private <T> List<Future<T>> callConcurrently(final int numberOfCalls, final Callable<T> call, final CountDownLatch release) throws InterruptedException {
+		try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			final var futures = IntStream.range(0, numberOfCalls)
+				.mapToObj(i -> executor.submit(call))
+				.toList();
+
+			// Release the upstream call when all but the first call have been coalesced
+			final var deadline = System.nanoTime() + SECONDS.toNanos(5);
+			while (coalescedCount(INSTALLED_BASE_CACHE) < numberOfCalls - 1 && System.nanoTime() < deadline) {
+				MILLISECONDS.sleep(5);
+			}
+			release.countDown();
+			return futures; // The executor awaits all calls when closed
+		}
+	}
+
+	private double coalescedCount(final String operation) {
+		return meterRegistry.get(COALESCED_REQUESTS_METRIC).tag("operation", operation).counter().count();
+	}
+
+	private double staleCount(final String operation) {
+		return meterRegistry.get(STALE_RESPONSES_METRIC).tag("operation", operation).counter().count();
+	}
+
+	private static CallNotPermittedException callNotPermitted() {
+		return CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults(CLIENT_ID));
+	}
+
+	/**
+	 * Properties where responses expire immediately from the caches, but are kept as last responses.
+	 */
+	private static DataWarehouseReaderCacheProperties withoutFreshCaching() {
+		return new DataWarehouseReaderCacheProperties(true, 1000, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ofMinutes(10));
+	}
+
+	private DataWarehouseReaderIntegration createIntegration(final boolean cacheEnabled) {
+		return createIntegration(new DataWarehouseReaderCacheProperties(cacheEnabled, 1000, Duration.ofMinutes(10), Duration.ofMinutes(10), Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofMinutes(10)));
+	}
+
+	private DataWarehouseReaderIntegration createIntegration(final DataWarehouseReaderCacheProperties properties) {
+		return new DataWarehouseReaderIntegration(clientMock, new FanOutExecutor(new DataWarehouseReaderProperties(5, 20, 2, 3, 10)), properties, meterRegistry, circuitBreakerRegistry);
+	}
+}
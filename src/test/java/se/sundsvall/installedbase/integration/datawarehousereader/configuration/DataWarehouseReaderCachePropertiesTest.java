@@ -0,0 +1,29 @@
+package se.sundsvall.installedbase.integration.datawarehousereader.configuration;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.installedbase.Application;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("junit")
+class DataWarehouseReaderCachePropertiesTest {
+
+	@Autowired
+	private DataWarehouseReaderCacheProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.enabled()).isTrue();
+		assertThat(properties.maximumWeight()).isEqualTo(1000);
+		assertThat(properties.installedBaseTimeToLive()).isEqualTo(Duration.ofMinutes(10));
+		assertThat(properties.installedBaseByPartyIdTimeToLive()).isEqualTo(Duration.ofMinutes(20));
+		assertThat(properties.customerEngagementTimeToLive()).isEqualTo(Duration.ofMinutes(30));
+		assertThat(properties.customerEngagementNegativeTimeToLive()).isEqualTo(Duration.ofMinutes(5));
+		assertThat(properties.staleTimeToLive()).isEqualTo(Duration.ofHours(1));
+	}
+}
@@ -19,5 +19,8 @@ class DataWarehouseReaderPropertiesTest {
 	void testProperties() {
 		assertThat(properties.connectTimeout()).isEqualTo(5);
 		assertThat(properties.readTimeout()).isEqualTo(20);
+		assertThat(properties.maxConcurrencyPerRequest()).isEqualTo(5);
+		assertThat(properties.maxConcurrencyPerMunicipality()).isEqualTo(25);
+		assertThat(properties.partyIdChunkSize()).isEqualTo(20);
 	}
 }
@@ -0,0 +1,89 @@
+package se.sundsvall.installedbase.integration.db;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+class DelegationChangeSequenceRepositoryTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Autowired
+	private DelegationChangeSequenceRepository delegationChangeSequenceRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void increment() {
+		// The sequence of a municipality is created by the first increment
+		delegationChangeSequenceRepository.increment(MUNICIPALITY_ID, 1);
+		assertThat(delegationChangeSequenceRepository.findChangeId(MUNICIPALITY_ID)).isOne();
+
+		delegationChangeSequenceRepository.increment(MUNICIPALITY_ID, 3);
+		assertThat(delegationChangeSequenceRepository.findChangeId(MUNICIPALITY_ID)).isEqualTo(4);
+
+		// Each municipality has a sequence of its own
+		delegationChangeSequenceRepository.increment("1984", 2);
+		assertThat(delegationChangeSequenceRepository.findChangeId("1984")).isEqualTo(2);
+		assertThat(delegationChangeSequenceRepository.findChangeId(MUNICIPALITY_ID)).isEqualTo(4);
+	}
+
+	// Runs without a test transaction, as the sequence is locked until the transaction incrementing it is committed
+	@Test
+	@Transactional(propagation = NOT_SUPPORTED)
+	void incrementWaitsForCommitOfEarlierIncrement() throws Exception {
+		final var transactionTemplate = new TransactionTemplate(transactionManager);
+		final var incremented = new CountDownLatch(1);
+		final var commit = new CountDownLatch(1);
+
+		try {
+			final var first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+				delegationChangeSequenceRepository.increment(MUNICIPALITY_ID, 1);
+				incremented.countDown();
+				awaitUninterruptibly(commit);
+				return delegationChangeSequenceRepository.findChangeId(MUNICIPALITY_ID);
+			}));
+			assertThat(incremented.await(10, SECONDS)).isTrue();
+
+			final var second = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+				delegationChangeSequenceRepository.increment(MUNICIPALITY_ID, 1);
+				return delegationChangeSequenceRepository.findChangeId(MUNICIPALITY_ID);
+			}));
+
+			// Changes of the same municipality are serialized, the second waiting until the first has been committed
+			Thread.sleep(500);
+			assertThat(second).isNotDone();
+
+			commit.countDown();
+			assertThat(first.get(10, SECONDS)).isOne();
+			assertThat(second.get(10, SECONDS)).isEqualTo(2);
+		} finally {
+			commit.countDown();
+			transactionTemplate.executeWithoutResult(status -> delegationChangeSequenceRepository.deleteAll());
+		}
+	}
+
+	private static void awaitUninterruptibly(final CountDownLatch latch) {
+		try {
+			latch.await(10, SECONDS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
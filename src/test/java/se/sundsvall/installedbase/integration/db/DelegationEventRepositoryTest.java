@@ -0,0 +1,80 @@
+package se.sundsvall.installedbase.integration.db;
+
+import jakarta.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.installedbase.integration.db.model.DelegationEventEntity;
+import se.sundsvall.installedbase.integration.db.model.DelegationEventStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static se.sundsvall.installedbase.integration.db.model.DelegationEventStatus.FAILED;
+import static se.sundsvall.installedbase.integration.db.model.DelegationEventStatus.PENDING;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+class DelegationEventRepositoryTest {
+
+	@Autowired
+	private DelegationEventRepository delegationEventRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private DelegationEventEntity failed;
+	private DelegationEventEntity first;
+	private DelegationEventEntity second;
+	private DelegationEventEntity third;
+	private DelegationEventEntity fourth;
+	private DelegationEventEntity fifth;
+
+	@BeforeEach
+	void setup() {
+		final var now = OffsetDateTime.now();
+
+		failed = createEvent("delegation-1", now.minusMinutes(1), FAILED);
+		first = createEvent("delegation-1", now.plusHours(1), PENDING); // Waiting for retry
+		second = createEvent("delegation-1", now.minusMinutes(1), PENDING);
+		third = createEvent("delegation-2", now.minusMinutes(1), PENDING);
+		fourth = createEvent("delegation-2", now.minusMinutes(1), PENDING);
+		fifth = createEvent("delegation-3", now.minusMinutes(1), PENDING);
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void findDueForDispatchReturnsEarliestPendingEventPerDelegation() {
+		// The earliest pending event of delegation-1 is waiting for retry, which holds back the later events
+		assertThat(delegationEventRepository.findDueForDispatch(OffsetDateTime.now(), Limit.of(10)))
+			.extracting(DelegationEventEntity::getId)
+			.containsExactly(third.getId(), fifth.getId());
+		assertThat(delegationEventRepository.findDueForDispatch(OffsetDateTime.now(), Limit.of(1)))
+			.extracting(DelegationEventEntity::getId)
+			.containsExactly(third.getId());
+	}
+
+	@Test
+	void findDueForDispatchWhenEarliestEventIsDue() {
+		assertThat(delegationEventRepository.findDueForDispatch(OffsetDateTime.now().plusHours(2), Limit.of(10)))
+			.extracting(DelegationEventEntity::getId)
+			.containsExactly(first.getId(), third.getId(), fifth.getId());
+	}
+
+	private DelegationEventEntity createEvent(final String delegationId, final OffsetDateTime nextAttempt, final DelegationEventStatus status) {
+		final var entity = DelegationEventEntity.create()
+			.withMunicipalityId("2281")
+			.withDelegationId(delegationId)
+			.withEvent("{}")
+			.withStatus(status)
+			.withNextAttempt(nextAttempt);
+		entityManager.persist(entity);
+		return entity;
+	}
+}
@@ -0,0 +1,134 @@
+package se.sundsvall.installedbase.integration.db;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.installedbase.api.model.delegation.Facility;
+import se.sundsvall.installedbase.integration.db.configuration.DelegationCacheConfiguration;
+import se.sundsvall.installedbase.integration.db.model.DelegationEntity;
+import se.sundsvall.installedbase.integration.db.model.FacilityEntity;
+import se.sundsvall.installedbase.service.mapper.DatabaseMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withId;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withMunicipalityId;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withOwner;
+
+// Runs without a test transaction, as the second-level cache is only updated when transactions are committed
+@DataJpaTest(properties = "delegation.cache.enabled=true")
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Import(DelegationCacheConfiguration.class)
+@Transactional(propagation = NOT_SUPPORTED)
+class DelegationRepositoryCacheTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Autowired
+	private DelegationRepository delegationRepository;
+
+	@Autowired
+	private FacilityRepository facilityRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transactionTemplate;
+
+	private Statistics statistics;
+
+	private String id;
+
+	@BeforeEach
+	void setup() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		id = transactionTemplate.execute(status -> delegationRepository.save(DelegationEntity.create()
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withOwner("3f0f5a3c-8d4f-4b6e-9f7e-0c1d2e3f4a5b")
+			.withDelegatedTo("8a1b2c3d-4e5f-6a7b-8c9d-0e1f2a3b4c5d")
+			.withChangeId(1L)
+			.withFacilities(new HashSet<>(Set.of(FacilityEntity.create().withFacilityId("facility-1").withBusinessEngagementOrgId("5591962591")))))
+			.getId());
+	}
+
+	@AfterEach
+	void cleanup() {
+		delegationRepository.deleteAll();
+		facilityRepository.deleteAll();
+	}
+
+	@Test
+	void repeatedReadIsServedFromCache() {
+		assertThat(readFacilityIds()).containsExactly("facility-1");
+		statistics.clear();
+
+		assertThat(readFacilityIds()).containsExactly("facility-1");
+		assertThat(statistics.getQueryCacheHitCount()).isOne();
+		assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void repeatedSearchIsServedFromQueryCache() {
+		// A full page, for the total number of delegations to be counted as well
+		final var spec = withMunicipalityId(MUNICIPALITY_ID).and(withOwner("3f0f5a3c-8d4f-4b6e-9f7e-0c1d2e3f4a5b"));
+		transactionTemplate.execute(status -> delegationRepository.findAll(spec, PageRequest.of(0, 1)).getContent());
+		statistics.clear();
+
+		final var page = transactionTemplate.execute(status -> delegationRepository.findAll(spec, PageRequest.of(0, 1)));
+
+		assertThat(page.getContent()).extracting(DelegationEntity::getId).containsExactly(id);
+		assertThat(page.getTotalElements()).isOne();
+		// Both the page and the count are read from the query cache
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void readAfterUpdateReturnsUpdatedDelegation() {
+		assertThat(readFacilityIds()).containsExactly("facility-1");
+
+		transactionTemplate.executeWithoutResult(status -> delegationRepository.findById(id).orElseThrow()
+			.getFacilities().add(FacilityEntity.create().withFacilityId("facility-2").withBusinessEngagementOrgId("5591962591")));
+
+		assertThat(readFacilityIds()).containsExactlyInAnyOrder("facility-1", "facility-2");
+	}
+
+	@Test
+	void readAfterDeleteReturnsNothing() {
+		assertThat(readFacilityIds()).containsExactly("facility-1");
+
+		transactionTemplate.executeWithoutResult(status -> delegationRepository.deleteById(id));
+
+		assertThat(readFacilityIds()).isEmpty();
+	}
+
+	private List<String> readFacilityIds() {
+		return transactionTemplate.execute(status -> delegationRepository.findOne(withMunicipalityId(MUNICIPALITY_ID).and(withId(id)))
+			.map(DatabaseMapper::toDelegation)
+			.map(delegation -> delegation.getFacilities().stream().map(Facility::getId).toList())
+			.orElse(List.of()));
+	}
+}
@@ -0,0 +1,213 @@
+package se.sundsvall.installedbase.integration.db;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.installedbase.api.model.delegation.Delegation;
+import se.sundsvall.installedbase.integration.db.model.DelegationEntity;
+import se.sundsvall.installedbase.integration.db.model.FacilityEntity;
+import se.sundsvall.installedbase.service.mapper.DatabaseMapper;
+
+import static java.util.stream.Collectors.toCollection;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withChangeIdAfter;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withCreatedAndIdAfter;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withFacility;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withFacilityKey;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withId;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withMunicipalityId;
+import static se.sundsvall.installedbase.integration.db.specification.DelegationSpecification.withOwner;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+class DelegationRepositoryTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String OWNER = "3f0f5a3c-8d4f-4b6e-9f7e-0c1d2e3f4a5b";
+	private static final int NUMBER_OF_DELEGATIONS = 25;
+	private static final int NUMBER_OF_FACILITIES = 3;
+	private static final Sort DELEGATION_ORDER = Sort.by(ASC, "created", "id");
+	private static final Sort CHANGE_ORDER = Sort.by(ASC, "changeId");
+
+	@Autowired
+	private DelegationRepository delegationRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setup() {
+		IntStream.range(0, NUMBER_OF_DELEGATIONS).forEach(i -> entityManager.persist(DelegationEntity.create()
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withOwner(OWNER)
+			.withDelegatedTo("delegatedTo-" + i)
+			.withChangeId(i + 1L)
+			.withFacilities(IntStream.range(0, NUMBER_OF_FACILITIES)
+				.mapToObj(j -> FacilityEntity.create().withFacilityId("facility-" + i + "-" + j).withBusinessEngagementOrgId("5591962591"))
+				.collect(toCollection(HashSet::new)))));
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void findAllReadsDelegationsAndFacilitiesInOneStatement() {
+		final var delegations = delegationRepository.findAll(withMunicipalityId(MUNICIPALITY_ID).and(withOwner(OWNER))).stream()
+			.map(DatabaseMapper::toDelegation)
+			.toList();
+
+		assertThat(delegations).hasSize(NUMBER_OF_DELEGATIONS)
+			.extracting(Delegation::getFacilities)
+			.allSatisfy(facilities -> assertThat(facilities).hasSize(NUMBER_OF_FACILITIES));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void findOneReadsDelegationAndFacilitiesInOneStatement() {
+		final var id = delegationRepository.findAll().getFirst().getId();
+		entityManager.clear();
+		statistics.clear();
+
+		final var delegation = delegationRepository.findOne(withMunicipalityId(MUNICIPALITY_ID).and(withId(id)))
+			.map(DatabaseMapper::toDelegation);
+
+		assertThat(delegation).hasValueSatisfying(value -> assertThat(value.getFacilities()).hasSize(NUMBER_OF_FACILITIES));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void findAllWithFacilityReturnsDelegationsCoveringFacility() {
+		assertThat(delegationRepository.findAll(withMunicipalityId(MUNICIPALITY_ID).and(withFacility(" FACILITY-3-1", "5591962591"))))
+			.singleElement()
+			.satisfies(delegation -> {
+				assertThat(delegation.getDelegatedTo()).isEqualTo("delegatedTo-3");
+				assertThat(delegation.getFacilities()).hasSize(NUMBER_OF_FACILITIES);
+			});
+		assertThat(delegationRepository.findAll(withMunicipalityId(MUNICIPALITY_ID).and(withFacility("facility-3-1", null))))
+			.extracting(DelegationEntity::getDelegatedTo)
+			.containsExactly("delegatedTo-3");
+		assertThat(delegationRepository.findAll(withMunicipalityId(MUNICIPALITY_ID).and(withFacility("facility-3-1", "5591962592")))).isEmpty();
+		assertThat(delegationRepository.findAll(withMunicipalityId(MUNICIPALITY_ID).and(withFacility(null, null)))).hasSize(NUMBER_OF_DELEGATIONS);
+	}
+
+	@Test
+	void existsWithFacilityKeyComparesNormalizedFacility() {
+		assertThat(delegationRepository.exists(withMunicipalityId(MUNICIPALITY_ID).and(withFacilityKey(" FACILITY-3-1", "5591962591")))).isTrue();
+		// Without business engagement org id, the facility id is normalized as well
+		assertThat(delegationRepository.exists(withMunicipalityId(MUNICIPALITY_ID).and(withFacilityKey(" FACILITY-3-1\t", null)))).isTrue();
+		assertThat(delegationRepository.exists(withMunicipalityId(MUNICIPALITY_ID).and(withFacilityKey("3-1", null)))).isFalse();
+		// Wildcards in the facility id are compared as is
+		assertThat(delegationRepository.exists(withMunicipalityId(MUNICIPALITY_ID).and(withFacilityKey("facility-3-_", null)))).isFalse();
+		assertThat(delegationRepository.exists(withMunicipalityId(MUNICIPALITY_ID).and(withFacilityKey("%3-1", null)))).isFalse();
+		assertThat(delegationRepository.exists(withMunicipalityId(MUNICIPALITY_ID).and(withFacilityKey("facility-3-1", "5591962592")))).isFalse();
+	}
+
+	@Test
+	void findAllDelegatedFacilitiesReadsAllFacilitiesInOneStatement() {
+		final var delegatedFacilities = delegationRepository.findAllDelegatedFacilities();
+
+		assertThat(delegatedFacilities).hasSize(NUMBER_OF_DELEGATIONS * NUMBER_OF_FACILITIES)
+			.filteredOn(delegatedFacility -> "facility-3-1".equals(delegatedFacility.facilityId()))
+			.singleElement()
+			.satisfies(delegatedFacility -> {
+				assertThat(delegatedFacility.municipalityId()).isEqualTo(MUNICIPALITY_ID);
+				assertThat(delegatedFacility.delegationId()).isNotNull();
+				assertThat(delegatedFacility.changeId()).isPositive();
+				assertThat(delegatedFacility.owner()).isEqualTo(OWNER);
+				assertThat(delegatedFacility.delegatedTo()).isEqualTo("delegatedTo-3");
+				assertThat(delegatedFacility.businessEngagementOrgId()).isEqualTo("5591962591");
+			});
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void findVersionReadsVersionWithoutFacilities() {
+		final var id = delegationRepository.findAll().getFirst().getId();
+		entityManager.clear();
+		statistics.clear();
+
+		assertThat(delegationRepository.findVersion(MUNICIPALITY_ID, id)).hasValue(0L);
+		assertThat(delegationRepository.findVersion("1984", id)).isEmpty();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getCollectionLoadCount()).isZero();
+	}
+
+	@Test
+	void changingFacilitiesIncrementsVersion() {
+		final var entity = delegationRepository.findAll().getFirst();
+		entity.getFacilities().remove(entity.getFacilities().iterator().next());
+		delegationRepository.saveAndFlush(entity);
+		entityManager.clear();
+
+		assertThat(delegationRepository.findById(entity.getId())).hasValueSatisfying(delegation -> assertThat(delegation.getVersion()).isEqualTo(1L));
+	}
+
+	@Test
+	void findAllWithPageableReadsFacilitiesInBatches() {
+		final var page = delegationRepository.findAll(withMunicipalityId(MUNICIPALITY_ID).and(withOwner(OWNER)), PageRequest.of(0, 10, DELEGATION_ORDER));
+		final var delegations = page.stream()
+			.map(DatabaseMapper::toDelegation)
+			.toList();
+
+		assertThat(page.getTotalElements()).isEqualTo(NUMBER_OF_DELEGATIONS);
+		assertThat(delegations).hasSize(10)
+			.extracting(Delegation::getFacilities)
+			.allSatisfy(facilities -> assertThat(facilities).hasSize(NUMBER_OF_FACILITIES));
+		// One statement for the page, one for the count and one for the facilities of the page
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+	}
+
+	@Test
+	void findByCreatedAndIdAfterScrollsThroughAllDelegations() {
+		final var expectedIds = delegationRepository.findAll(withMunicipalityId(MUNICIPALITY_ID), DELEGATION_ORDER).stream()
+			.map(DelegationEntity::getId)
+			.toList();
+		final var ids = new ArrayList<String>();
+
+		var delegations = delegationRepository.findBy(withMunicipalityId(MUNICIPALITY_ID).and(withOwner(OWNER)),
+			query -> query.sortBy(DELEGATION_ORDER).limit(10).all());
+		while (!delegations.isEmpty()) {
+			delegations.forEach(delegation -> ids.add(delegation.getId()));
+			final var last = delegations.getLast();
+			delegations = delegationRepository.findBy(withMunicipalityId(MUNICIPALITY_ID).and(withOwner(OWNER)).and(withCreatedAndIdAfter(last.getCreated(), last.getId())),
+				query -> query.sortBy(DELEGATION_ORDER).limit(10).all());
+		}
+
+		assertThat(ids).hasSize(NUMBER_OF_DELEGATIONS).containsExactlyElementsOf(expectedIds);
+	}
+
+	@Test
+	void findByChangeIdAfterReadsChangedDelegationsLast() {
+		final var changed = delegationRepository.findAll(withMunicipalityId(MUNICIPALITY_ID), DELEGATION_ORDER).getFirst();
+		delegationRepository.saveAndFlush(changed.withDelegatedTo("delegatedTo-changed").withChangeId(NUMBER_OF_DELEGATIONS + 1L));
+		entityManager.clear();
+
+		final var delegations = delegationRepository.findBy(withMunicipalityId(MUNICIPALITY_ID).and(withChangeIdAfter(0)),
+			query -> query.sortBy(CHANGE_ORDER).all());
+
+		assertThat(delegations).hasSize(NUMBER_OF_DELEGATIONS);
+		assertThat(delegations.getLast().getId()).isEqualTo(changed.getId());
+		assertThat(delegations.getLast().getDelegatedTo()).isEqualTo("delegatedTo-changed");
+		assertThat(delegationRepository.findBy(withMunicipalityId(MUNICIPALITY_ID).and(withChangeIdAfter(NUMBER_OF_DELEGATIONS)), query -> query.sortBy(CHANGE_ORDER).all()))
+			.extracting(DelegationEntity::getId)
+			.containsExactly(changed.getId());
+	}
+}
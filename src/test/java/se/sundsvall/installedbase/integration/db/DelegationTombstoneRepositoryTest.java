@@ -0,0 +1,60 @@
+package se.sundsvall.installedbase.integration.db;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.installedbase.integration.db.model.DelegationTombstoneEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+class DelegationTombstoneRepositoryTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Autowired
+	private DelegationTombstoneRepository delegationTombstoneRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@BeforeEach
+	void setup() {
+		createTombstone("delegation-2", MUNICIPALITY_ID, 3L);
+		createTombstone("delegation-1", MUNICIPALITY_ID, 5L);
+		createTombstone("delegation-3", MUNICIPALITY_ID, 4L);
+		createTombstone("delegation-4", "1984", 6L);
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void findDeletedAfter() {
+		assertThat(delegationTombstoneRepository.findDeletedAfter(MUNICIPALITY_ID, 0L, Limit.of(10)))
+			.extracting(DelegationTombstoneEntity::getDelegationId)
+			.containsExactly("delegation-2", "delegation-3", "delegation-1");
+		assertThat(delegationTombstoneRepository.findDeletedAfter(MUNICIPALITY_ID, 3L, Limit.of(10)))
+			.extracting(DelegationTombstoneEntity::getDelegationId)
+			.containsExactly("delegation-3", "delegation-1");
+		assertThat(delegationTombstoneRepository.findDeletedAfter(MUNICIPALITY_ID, 0L, Limit.of(1)))
+			.extracting(DelegationTombstoneEntity::getDelegationId)
+			.containsExactly("delegation-2");
+	}
+
+	private void createTombstone(final String delegationId, final String municipalityId, final long changeId) {
+		entityManager.persist(DelegationTombstoneEntity.create()
+			.withDelegationId(delegationId)
+			.withMunicipalityId(municipalityId)
+			.withOwner("owner")
+			.withDelegatedTo("delegatedTo")
+			.withChangeId(changeId));
+	}
+}
@@ -0,0 +1,78 @@
+package se.sundsvall.installedbase.integration.db;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.installedbase.integration.db.model.DelegationEntity;
+import se.sundsvall.installedbase.integration.db.model.FacilityEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+class FacilityRepositoryTest {
+
+	@Autowired
+	private FacilityRepository facilityRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private FacilityEntity connectedFacility;
+	private FacilityEntity orphanFacility;
+	private FacilityEntity otherOrphanFacility;
+
+	@BeforeEach
+	void setup() {
+		connectedFacility = FacilityEntity.create().withFacilityId("facility-1").withBusinessEngagementOrgId("5591962591");
+		orphanFacility = FacilityEntity.create().withFacilityId("facility-2").withBusinessEngagementOrgId("5591962591");
+		otherOrphanFacility = FacilityEntity.create().withFacilityId("facility-3").withBusinessEngagementOrgId("5591962591");
+
+		entityManager.persist(DelegationEntity.create()
+			.withMunicipalityId("2281")
+			.withOwner("3f0f5a3c-8d4f-4b6e-9f7e-0c1d2e3f4a5b")
+			.withDelegatedTo("8a1b2c3d-4e5f-6a7b-8c9d-0e1f2a3b4c5d")
+			.withChangeId(1L)
+			.withFacilities(Set.of(connectedFacility)));
+		entityManager.persist(orphanFacility);
+		entityManager.persist(otherOrphanFacility);
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void findAllByFacilityKeyIn() {
+		assertThat(facilityRepository.findAllByFacilityKeyIn(List.of(FacilityEntity.toFacilityKey(" FACILITY-2", "5591962591"), "5591962591|facility-3", "5591962591|facility-4")))
+			.extracting(FacilityEntity::getId, FacilityEntity::getFacilityKey)
+			.containsExactlyInAnyOrder(
+				tuple(orphanFacility.getId(), "5591962591|facility-2"),
+				tuple(otherOrphanFacility.getId(), "5591962591|facility-3"));
+	}
+
+	@Test
+	void findIdsByDelegationsIsEmpty() {
+		assertThat(facilityRepository.findIdsByDelegationsIsEmpty(PageRequest.of(0, 10)))
+			.containsExactlyInAnyOrder(orphanFacility.getId(), otherOrphanFacility.getId());
+		assertThat(facilityRepository.findIdsByDelegationsIsEmpty(PageRequest.of(0, 1))).hasSize(1);
+	}
+
+	@Test
+	void deleteByIdInAndDelegationsIsEmptyOnlyDeletesGivenOrphans() {
+		final var deleted = facilityRepository.deleteByIdInAndDelegationsIsEmpty(List.of(connectedFacility.getId(), orphanFacility.getId()));
+
+		assertThat(deleted).isOne();
+		assertThat(facilityRepository.findAll())
+			.extracting(FacilityEntity::getId)
+			.containsExactlyInAnyOrder(connectedFacility.getId(), otherOrphanFacility.getId());
+	}
+}
@@ -0,0 +1,55 @@
+package se.sundsvall.installedbase.integration.db;
+
+import jakarta.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+class SchedulerLockRepositoryTest {
+
+	private static final String NAME = "job";
+
+	@Autowired
+	private SchedulerLockRepository schedulerLockRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void insertLock() {
+		final var lockedAt = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+		assertThat(schedulerLockRepository.insertLock(NAME, lockedAt.plusMinutes(10), lockedAt, "instance-1")).isOne();
+		assertThatThrownBy(() -> {
+			schedulerLockRepository.insertLock(NAME, lockedAt.plusMinutes(10), lockedAt, "instance-2");
+			entityManager.flush();
+		}).isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void updateLock() {
+		final var lockedAt = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+		schedulerLockRepository.insertLock(NAME, lockedAt.plusMinutes(10), lockedAt, "instance-1");
+
+		// The lock is held until it has expired or been released
+		assertThat(schedulerLockRepository.updateLock(NAME, lockedAt.plusMinutes(20), lockedAt.plusMinutes(5), "instance-2")).isZero();
+		assertThat(schedulerLockRepository.updateLock(NAME, lockedAt.plusMinutes(20), lockedAt.plusMinutes(10), "instance-2")).isOne();
+
+		// Only the holder of the lock can release it
+		assertThat(schedulerLockRepository.releaseLock(NAME, lockedAt, "instance-1", lockedAt.plusMinutes(11))).isZero();
+		assertThat(schedulerLockRepository.releaseLock(NAME, lockedAt.plusMinutes(10), "instance-2", lockedAt.plusMinutes(11))).isOne();
+		assertThat(schedulerLockRepository.updateLock(NAME, lockedAt.plusMinutes(30), lockedAt.plusMinutes(12), "instance-1")).isOne();
+	}
+}
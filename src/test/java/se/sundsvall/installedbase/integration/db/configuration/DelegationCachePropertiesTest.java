@@ -0,0 +1,25 @@
+package se.sundsvall.installedbase.integration.db.configuration;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.installedbase.Application;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("junit")
+class DelegationCachePropertiesTest {
+
+	@Autowired
+	private DelegationCacheProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.enabled()).isFalse();
+		assertThat(properties.maximumSize()).isEqualTo(1000);
+		assertThat(properties.timeToLive()).isEqualTo(Duration.ofMinutes(10));
+	}
+}
@@ -0,0 +1,25 @@
+package se.sundsvall.installedbase.integration.db.configuration;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.installedbase.Application;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("junit")
+class ReplicaDataSourcePropertiesTest {
+
+	@Autowired
+	private ReplicaDataSourceProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.enabled()).isFalse();
+		assertThat(properties.url()).isNull();
+		assertThat(properties.connectionTimeout()).isEqualTo(Duration.ofSeconds(1));
+	}
+}
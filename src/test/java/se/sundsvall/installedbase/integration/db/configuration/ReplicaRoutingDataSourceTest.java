@@ -0,0 +1,87 @@
+package se.sundsvall.installedbase.integration.db.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+	@Mock
+	private HikariDataSource primaryMock;
+
+	@Mock
+	private HikariDataSource replicaMock;
+
+	@Mock
+	private Connection primaryConnectionMock;
+
+	@Mock
+	private Connection replicaConnectionMock;
+
+	@BeforeEach
+	void setup() throws SQLException {
+		// The primary may also be used to read the default connection properties
+		lenient().when(primaryMock.getConnection()).thenReturn(primaryConnectionMock);
+	}
+
+	@Test
+	void readOnlyTransactionUsesReplica() throws SQLException {
+		when(replicaMock.getConnection()).thenReturn(replicaConnectionMock);
+		final var dataSource = new ReplicaRoutingDataSource(primaryMock, replicaMock);
+
+		try (var connection = dataSource.getConnection()) {
+			connection.setReadOnly(true);
+			connection.createStatement();
+		}
+
+		verify(replicaConnectionMock).createStatement();
+		verify(primaryConnectionMock, never()).createStatement();
+	}
+
+	@Test
+	void readWriteTransactionUsesPrimary() throws SQLException {
+		final var dataSource = new ReplicaRoutingDataSource(primaryMock, replicaMock);
+
+		try (var connection = dataSource.getConnection()) {
+			connection.createStatement();
+		}
+
+		verify(primaryConnectionMock).createStatement();
+		verify(replicaMock, never()).getConnection();
+	}
+
+	@Test
+	void readOnlyTransactionUsesPrimaryWhenReplicaIsUnavailable() throws SQLException {
+		when(replicaMock.getConnection()).thenThrow(new SQLException("Connection is not available"));
+		final var dataSource = new ReplicaRoutingDataSource(primaryMock, replicaMock);
+
+		try (var connection = dataSource.getConnection()) {
+			connection.setReadOnly(true);
+			connection.createStatement();
+		}
+
+		verify(replicaMock).getConnection();
+		verify(primaryConnectionMock).createStatement();
+	}
+
+	@Test
+	void closeClosesPrimaryAndReplica() throws Exception {
+		final var dataSource = new ReplicaRoutingDataSource(primaryMock, replicaMock);
+
+		dataSource.close();
+
+		verify(primaryMock).close();
+		verify(replicaMock).close();
+	}
+}
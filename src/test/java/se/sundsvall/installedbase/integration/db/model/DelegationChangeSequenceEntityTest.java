@@ -0,0 +1,45 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class DelegationChangeSequenceEntityTest {
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(new DelegationChangeSequenceEntity()).hasAllNullFieldsOrProperties();
+		assertThat(DelegationChangeSequenceEntity.create()).hasAllNullFieldsOrProperties();
+	}
+
+	@Test
+	void testBean() {
+		MatcherAssert.assertThat(DelegationChangeSequenceEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+		final var municipalityId = "2281";
+		final var changeId = 42L;
+
+		final var bean = DelegationChangeSequenceEntity.create()
+			.withMunicipalityId(municipalityId)
+			.withChangeId(changeId);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getMunicipalityId()).isEqualTo(municipalityId);
+		assertThat(bean.getChangeId()).isEqualTo(changeId);
+	}
+}
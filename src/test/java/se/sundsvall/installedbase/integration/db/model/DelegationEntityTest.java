@@ -56,6 +56,8 @@ class DelegationEntityTest {
 		final var owner = "owner123";
 		final var created = OffsetDateTime.now();
 		final var updated = OffsetDateTime.now().plusMinutes(2);
+		final var changeId = 5L;
+		final var version = 3L;
 
 		final var bean = DelegationEntity.create()
 			.withId(id)
@@ -64,7 +66,9 @@ class DelegationEntityTest {
 			.withMunicipalityId(municipalityId)
 			.withOwner(owner)
 			.withCreated(created)
-			.withUpdated(updated);
+			.withUpdated(updated)
+			.withChangeId(changeId)
+			.withVersion(version);
 
 		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
 		assertThat(bean.getId()).isEqualTo(id);
@@ -74,6 +78,8 @@ class DelegationEntityTest {
 		assertThat(bean.getOwner()).isEqualTo(owner);
 		assertThat(bean.getCreated()).isEqualTo(created);
 		assertThat(bean.getUpdated()).isEqualTo(updated);
+		assertThat(bean.getChangeId()).isEqualTo(changeId);
+		assertThat(bean.getVersion()).isEqualTo(version);
 	}
 
 	@Test
@@ -87,6 +93,8 @@ class DelegationEntityTest {
 		final var owner = "owner123";
 		final var created = OffsetDateTime.now();
 		final var updated = OffsetDateTime.now().plusMinutes(2);
+		final var changeId = 5L;
+		final var version = 3L;
 
 		final var bean = new DelegationEntity();
 		bean.setId(id);
@@ -96,6 +104,8 @@ class DelegationEntityTest {
 		bean.setOwner(owner);
 		bean.setCreated(created);
 		bean.setUpdated(updated);
+		bean.setChangeId(changeId);
+		bean.setVersion(version);
 
 		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
 		assertThat(bean.getId()).isEqualTo(id);
@@ -105,6 +115,8 @@ class DelegationEntityTest {
 		assertThat(bean.getOwner()).isEqualTo(owner);
 		assertThat(bean.getCreated()).isEqualTo(created);
 		assertThat(bean.getUpdated()).isEqualTo(updated);
+		assertThat(bean.getChangeId()).isEqualTo(changeId);
+		assertThat(bean.getVersion()).isEqualTo(version);
 	}
 
 	@Test
@@ -113,8 +125,9 @@ class DelegationEntityTest {
 
 		entity.onCreate();
 
-		assertThat(entity).hasAllNullFieldsOrPropertiesExcept("created", "facilities");
+		assertThat(entity).hasAllNullFieldsOrPropertiesExcept("created", "updated", "facilities");
 		assertThat(entity.getCreated()).isCloseTo(OffsetDateTime.now(), within(1, ChronoUnit.SECONDS));
+		assertThat(entity.getUpdated()).isEqualTo(entity.getCreated());
 		assertThat(entity.getFacilities()).isEmpty();
 	}
 
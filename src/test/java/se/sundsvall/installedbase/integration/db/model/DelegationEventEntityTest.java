@@ -0,0 +1,98 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class DelegationEventEntityTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> OffsetDateTime.now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(new DelegationEventEntity()).hasAllNullFieldsOrPropertiesExcept("attempts")
+			.hasFieldOrPropertyWithValue("attempts", 0);
+		assertThat(DelegationEventEntity.create()).hasAllNullFieldsOrPropertiesExcept("attempts")
+			.hasFieldOrPropertyWithValue("attempts", 0);
+	}
+
+	@Test
+	void testBean() {
+		MatcherAssert.assertThat(DelegationEventEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+		final var id = 42L;
+		final var municipalityId = "2281";
+		final var delegationId = "delegationId";
+		final var event = "{\"type\":\"CREATE\"}";
+		final var status = DelegationEventStatus.FAILED;
+		final var attempts = 3;
+		final var nextAttempt = OffsetDateTime.now().plusMinutes(2);
+		final var created = OffsetDateTime.now();
+
+		final var bean = DelegationEventEntity.create()
+			.withId(id)
+			.withMunicipalityId(municipalityId)
+			.withDelegationId(delegationId)
+			.withEvent(event)
+			.withStatus(status)
+			.withAttempts(attempts)
+			.withNextAttempt(nextAttempt)
+			.withCreated(created);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getId()).isEqualTo(id);
+		assertThat(bean.getMunicipalityId()).isEqualTo(municipalityId);
+		assertThat(bean.getDelegationId()).isEqualTo(delegationId);
+		assertThat(bean.getEvent()).isEqualTo(event);
+		assertThat(bean.getStatus()).isEqualTo(status);
+		assertThat(bean.getAttempts()).isEqualTo(attempts);
+		assertThat(bean.getNextAttempt()).isEqualTo(nextAttempt);
+		assertThat(bean.getCreated()).isEqualTo(created);
+	}
+
+	@Test
+	void testPrePersist() {
+		final var entity = DelegationEventEntity.create();
+
+		entity.onCreate();
+
+		assertThat(entity).hasAllNullFieldsOrPropertiesExcept("attempts", "created", "nextAttempt", "status");
+		assertThat(entity.getCreated()).isCloseTo(OffsetDateTime.now(), within(1, ChronoUnit.SECONDS));
+		assertThat(entity.getNextAttempt()).isEqualTo(entity.getCreated());
+		assertThat(entity.getStatus()).isEqualTo(DelegationEventStatus.PENDING);
+	}
+
+	@Test
+	void testPrePersistKeepsNextAttempt() {
+		final var nextAttempt = OffsetDateTime.now().plusMinutes(5);
+		final var entity = DelegationEventEntity.create().withNextAttempt(nextAttempt);
+
+		entity.onCreate();
+
+		assertThat(entity.getNextAttempt()).isEqualTo(nextAttempt);
+	}
+}
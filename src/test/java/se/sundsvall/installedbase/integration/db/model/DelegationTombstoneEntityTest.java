@@ -0,0 +1,88 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class DelegationTombstoneEntityTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> OffsetDateTime.now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(new DelegationTombstoneEntity()).hasAllNullFieldsOrProperties();
+		assertThat(DelegationTombstoneEntity.create()).hasAllNullFieldsOrProperties();
+	}
+
+	@Test
+	void testBean() {
+		MatcherAssert.assertThat(DelegationTombstoneEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+		final var delegationId = "delegationId";
+		final var municipalityId = "2281";
+		final var owner = "owner";
+		final var delegatedTo = "delegatedTo";
+		final var deleted = OffsetDateTime.now();
+		final var changeId = 5L;
+
+		final var bean = DelegationTombstoneEntity.create()
+			.withDelegationId(delegationId)
+			.withMunicipalityId(municipalityId)
+			.withOwner(owner)
+			.withDelegatedTo(delegatedTo)
+			.withDeleted(deleted)
+			.withChangeId(changeId);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getDelegationId()).isEqualTo(delegationId);
+		assertThat(bean.getMunicipalityId()).isEqualTo(municipalityId);
+		assertThat(bean.getOwner()).isEqualTo(owner);
+		assertThat(bean.getDelegatedTo()).isEqualTo(delegatedTo);
+		assertThat(bean.getDeleted()).isEqualTo(deleted);
+		assertThat(bean.getChangeId()).isEqualTo(changeId);
+	}
+
+	@Test
+	void testPrePersist() {
+		final var entity = DelegationTombstoneEntity.create();
+
+		entity.onCreate();
+
+		assertThat(entity).hasAllNullFieldsOrPropertiesExcept("deleted");
+		assertThat(entity.getDeleted()).isCloseTo(OffsetDateTime.now(), within(1, ChronoUnit.SECONDS));
+	}
+
+	@Test
+	void testPrePersistKeepsDeleted() {
+		final var deleted = OffsetDateTime.now().minusMinutes(5);
+		final var entity = DelegationTombstoneEntity.create().withDeleted(deleted);
+
+		entity.onCreate();
+
+		assertThat(entity.getDeleted()).isEqualTo(deleted);
+	}
+}
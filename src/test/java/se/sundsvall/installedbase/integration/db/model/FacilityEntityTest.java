@@ -28,8 +28,8 @@ class FacilityEntityTest {
 		MatcherAssert.assertThat(FacilityEntity.class, allOf(
 			hasValidBeanConstructor(),
 			hasValidGettersAndSetters(),
-			hasValidBeanHashCodeExcluding("delegations"),
-			hasValidBeanEqualsExcluding("delegations"),
+			hasValidBeanHashCodeExcluding("id", "facilityKey", "delegations"),
+			hasValidBeanEqualsExcluding("id", "facilityKey", "delegations"),
 			hasValidBeanToStringExcluding("delegations")));
 	}
 
@@ -38,29 +38,72 @@ class FacilityEntityTest {
 		final var businessEngagementOrgId = "businessEngagementOrgId";
 		final var delegations = List.of(DelegationEntity.create());
 		final var facilityId = "facilityId";
+		final var facilityKey = "facilityKey";
+		final var id = "id";
 
 		final var bean = new FacilityEntity();
 		bean.setBusinessEngagementOrgId(businessEngagementOrgId);
 		bean.setDelegations(delegations);
 		bean.setFacilityId(facilityId);
+		bean.setFacilityKey(facilityKey);
+		bean.setId(id);
 
-		assertThat(bean).isNotNull().hasNoNullFieldsOrPropertiesExcept("id");
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
 		assertThat(bean.getBusinessEngagementOrgId()).isEqualTo(businessEngagementOrgId);
 		assertThat(bean.getDelegations()).isEqualTo(delegations);
 		assertThat(bean.getFacilityId()).isEqualTo(facilityId);
+		assertThat(bean.getFacilityKey()).isEqualTo(facilityKey);
+		assertThat(bean.getId()).isEqualTo(id);
 	}
 
 	@Test
 	void testBuilderMethods() {
 		final var businessEngagementOrgId = "businessEngagementOrgId";
 		final var facilityId = "facilityId";
+		final var facilityKey = "facilityKey";
+		final var id = "id";
 
 		final var bean = FacilityEntity.create()
 			.withBusinessEngagementOrgId(businessEngagementOrgId)
-			.withFacilityId(facilityId);
+			.withFacilityId(facilityId)
+			.withFacilityKey(facilityKey)
+			.withId(id);
 
-		assertThat(bean).isNotNull().hasNoNullFieldsOrPropertiesExcept("id", "delegations");
+		assertThat(bean).isNotNull().hasNoNullFieldsOrPropertiesExcept("delegations");
 		assertThat(bean.getBusinessEngagementOrgId()).isEqualTo(businessEngagementOrgId);
 		assertThat(bean.getFacilityId()).isEqualTo(facilityId);
+		assertThat(bean.getFacilityKey()).isEqualTo(facilityKey);
+		assertThat(bean.getId()).isEqualTo(id);
+	}
+
+	@Test
+	void testToFacilityKey() {
+		assertThat(FacilityEntity.toFacilityKey(" Facility-1 ", "5591628136 ")).isEqualTo("5591628136|facility-1");
+		assertThat(FacilityEntity.toFacilityKey("Facility|1", null)).isEqualTo("|facility|1");
+	}
+
+	@Test
+	void testToFacilityKeyStripsSameWhitespaceAsMigration() {
+		// Tab, line feed, vertical tab, form feed and carriage return are stripped as well, other control characters and
+		// non-ASCII whitespace are not
+		assertThat(FacilityEntity.toFacilityKey("\t\n\u000B\f\rFacility-1\r\n", "\t5591628136")).isEqualTo("5591628136|facility-1");
+		assertThat(FacilityEntity.toFacilityKey("\u0000Facility-1\u00A0", null)).isEqualTo("|\u0000facility-1\u00A0");
+	}
+
+	@Test
+	void testEqualsIgnoresIdAndFacilityKey() {
+		final var facility = FacilityEntity.create().withId("id-1").withFacilityId("facility-1").withBusinessEngagementOrgId("5591628136").withFacilityKey("key-1");
+		final var sameFacility = FacilityEntity.create().withId("id-2").withFacilityId("facility-1").withBusinessEngagementOrgId("5591628136");
+
+		assertThat(facility).isEqualTo(sameFacility).hasSameHashCodeAs(sameFacility);
+	}
+
+	@Test
+	void testOnWrite() {
+		final var bean = FacilityEntity.create().withFacilityId("Facility-1").withBusinessEngagementOrgId("ABC");
+
+		bean.onWrite();
+
+		assertThat(bean.getFacilityKey()).isEqualTo("abc|facility-1");
 	}
 }
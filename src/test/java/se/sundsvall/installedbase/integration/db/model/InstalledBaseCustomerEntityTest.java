@@ -0,0 +1,73 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEqualsExcluding;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCodeExcluding;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToStringExcluding;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class InstalledBaseCustomerEntityTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> LocalDate.now().plusDays(new Random().nextInt(1000)), LocalDate.class);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(new InstalledBaseCustomerEntity()).hasAllNullFieldsOrPropertiesExcept("items")
+			.hasFieldOrPropertyWithValue("items", emptyList());
+		assertThat(InstalledBaseCustomerEntity.create()).hasAllNullFieldsOrPropertiesExcept("items")
+			.hasFieldOrPropertyWithValue("items", emptyList());
+	}
+
+	@Test
+	void testBean() {
+		MatcherAssert.assertThat(InstalledBaseCustomerEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCodeExcluding("items"),
+			hasValidBeanEqualsExcluding("items"),
+			hasValidBeanToStringExcluding("items")));
+	}
+
+	@Test
+	void testBuilderMethods() {
+		final var id = "id";
+		final var municipalityId = "municipalityId";
+		final var customerNumber = "customerNumber";
+		final var company = "company";
+		final var watermark = LocalDate.now().minusDays(1);
+		final var lastFullSync = LocalDate.now();
+		final var items = List.of(InstalledBaseItemEntity.create());
+
+		final var bean = InstalledBaseCustomerEntity.create()
+			.withId(id)
+			.withMunicipalityId(municipalityId)
+			.withCustomerNumber(customerNumber)
+			.withCompany(company)
+			.withWatermark(watermark)
+			.withLastFullSync(lastFullSync)
+			.withItems(items);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getId()).isEqualTo(id);
+		assertThat(bean.getMunicipalityId()).isEqualTo(municipalityId);
+		assertThat(bean.getCustomerNumber()).isEqualTo(customerNumber);
+		assertThat(bean.getCompany()).isEqualTo(company);
+		assertThat(bean.getWatermark()).isEqualTo(watermark);
+		assertThat(bean.getLastFullSync()).isEqualTo(lastFullSync);
+		assertThat(bean.getItems()).isEqualTo(items);
+	}
+}
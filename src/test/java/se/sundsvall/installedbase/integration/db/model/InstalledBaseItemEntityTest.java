@@ -0,0 +1,94 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEqualsExcluding;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCodeExcluding;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToStringExcluding;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class InstalledBaseItemEntityTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> LocalDate.now().plusDays(new Random().nextInt(1000)), LocalDate.class);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(new InstalledBaseItemEntity()).hasAllNullFieldsOrPropertiesExcept("metaData")
+			.hasFieldOrPropertyWithValue("metaData", emptyList());
+		assertThat(InstalledBaseItemEntity.create()).hasAllNullFieldsOrPropertiesExcept("metaData")
+			.hasFieldOrPropertyWithValue("metaData", emptyList());
+	}
+
+	@Test
+	void testBean() {
+		MatcherAssert.assertThat(InstalledBaseItemEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCodeExcluding("customer"),
+			hasValidBeanEqualsExcluding("customer"),
+			hasValidBeanToStringExcluding("customer")));
+	}
+
+	@Test
+	void testBuilderMethods() {
+		final var id = "id";
+		final var customer = InstalledBaseCustomerEntity.create();
+		final var type = "type";
+		final var facilityId = "facilityId";
+		final var placementId = 123;
+		final var careOf = "careOf";
+		final var street = "street";
+		final var postCode = "postCode";
+		final var city = "city";
+		final var propertyDesignation = "propertyDesignation";
+		final var dateFrom = LocalDate.now().minusYears(1);
+		final var dateTo = LocalDate.now().plusYears(1);
+		final var dateLastModified = LocalDate.now();
+		final var metaData = List.of(InstalledBaseItemMetaDataEmbeddable.create().withKey("key").withValue("value").withType("type").withDisplayName("displayName"));
+
+		final var bean = InstalledBaseItemEntity.create()
+			.withId(id)
+			.withCustomer(customer)
+			.withType(type)
+			.withFacilityId(facilityId)
+			.withPlacementId(placementId)
+			.withCareOf(careOf)
+			.withStreet(street)
+			.withPostCode(postCode)
+			.withCity(city)
+			.withPropertyDesignation(propertyDesignation)
+			.withDateFrom(dateFrom)
+			.withDateTo(dateTo)
+			.withDateLastModified(dateLastModified)
+			.withMetaData(metaData);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getId()).isEqualTo(id);
+		assertThat(bean.getCustomer()).isSameAs(customer);
+		assertThat(bean.getType()).isEqualTo(type);
+		assertThat(bean.getFacilityId()).isEqualTo(facilityId);
+		assertThat(bean.getPlacementId()).isEqualTo(placementId);
+		assertThat(bean.getCareOf()).isEqualTo(careOf);
+		assertThat(bean.getStreet()).isEqualTo(street);
+		assertThat(bean.getPostCode()).isEqualTo(postCode);
+		assertThat(bean.getCity()).isEqualTo(city);
+		assertThat(bean.getPropertyDesignation()).isEqualTo(propertyDesignation);
+		assertThat(bean.getDateFrom()).isEqualTo(dateFrom);
+		assertThat(bean.getDateTo()).isEqualTo(dateTo);
+		assertThat(bean.getDateLastModified()).isEqualTo(dateLastModified);
+		assertThat(bean.getMetaData()).isEqualTo(metaData);
+	}
+}
@@ -0,0 +1,60 @@
+package se.sundsvall.installedbase.integration.db.model;
+
+import java.time.OffsetDateTime;
+import java.util.Random;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class SchedulerLockEntityTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> OffsetDateTime.now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(new SchedulerLockEntity()).hasAllNullFieldsOrProperties();
+		assertThat(SchedulerLockEntity.create()).hasAllNullFieldsOrProperties();
+	}
+
+	@Test
+	void testBean() {
+		MatcherAssert.assertThat(SchedulerLockEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+		final var name = "name";
+		final var lockUntil = OffsetDateTime.now().plusMinutes(10);
+		final var lockedAt = OffsetDateTime.now();
+		final var lockedBy = "lockedBy";
+
+		final var bean = SchedulerLockEntity.create()
+			.withName(name)
+			.withLockUntil(lockUntil)
+			.withLockedAt(lockedAt)
+			.withLockedBy(lockedBy);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getName()).isEqualTo(name);
+		assertThat(bean.getLockUntil()).isEqualTo(lockUntil);
+		assertThat(bean.getLockedAt()).isEqualTo(lockedAt);
+		assertThat(bean.getLockedBy()).isEqualTo(lockedBy);
+	}
+}
@@ -0,0 +1,34 @@
+package se.sundsvall.installedbase.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+class DelegationChangeCursorTest {
+
+	@Test
+	void encodeAndDecode() {
+		final var cursor = DelegationChangeCursor.decode(new DelegationChangeCursor(42L).encode());
+
+		assertThat(cursor.changeId()).isEqualTo(42L);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"not a cursor", "bm90LWEtY3Vyc29y", "LTE", ""
+	})
+	void decodeInvalidCursor(final String cursor) {
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> DelegationChangeCursor.decode(cursor))
+			.satisfies(problem -> {
+				assertThat(problem.getStatus()).isEqualTo(BAD_REQUEST);
+				assertThat(problem.getTitle()).isEqualTo("Invalid search parameters");
+				assertThat(problem.getDetail()).isEqualTo("The cursor '" + cursor + "' is not valid");
+			});
+	}
+}
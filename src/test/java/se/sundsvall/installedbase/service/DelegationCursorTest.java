@@ -0,0 +1,41 @@
+package se.sundsvall.installedbase.service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+import se.sundsvall.installedbase.integration.db.model.DelegationEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+class DelegationCursorTest {
+
+	@Test
+	void encodeAndDecode() {
+		final var created = OffsetDateTime.of(2025, 7, 11, 10, 3, 26, 342668000, ZoneOffset.ofHours(2));
+		final var entity = new DelegationEntity().withId("24504e65-08cf-4bc3-8f4f-a07204748c13").withCreated(created);
+
+		final var cursor = DelegationCursor.decode(DelegationCursor.of(entity).encode());
+
+		assertThat(cursor.timestamp()).isEqual(created);
+		assertThat(cursor.id()).isEqualTo(entity.getId());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"not a cursor", "bm90LWEtY3Vyc29y", "MjAyNS0wNy0xMXwyNDUwNGU2NQ", "MjAyNS0wNy0xMVQwODowMzoyNi4zNDI2NjhafA"
+	})
+	void decodeInvalidCursor(final String cursor) {
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> DelegationCursor.decode(cursor))
+			.satisfies(problem -> {
+				assertThat(problem.getStatus()).isEqualTo(BAD_REQUEST);
+				assertThat(problem.getTitle()).isEqualTo("Invalid search parameters");
+				assertThat(problem.getDetail()).isEqualTo("The cursor '" + cursor + "' is not valid");
+			});
+	}
+}
@@ -1,9 +1,16 @@
 package se.sundsvall.installedbase.service;
 
 import generated.se.sundsvall.eventlog.Event;
+import generated.se.sundsvall.eventlog.Metadata;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,33 +20,69 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import se.sundsvall.dept44.problem.ThrowableProblem;
+import se.sundsvall.installedbase.api.model.delegation.Delegation;
+import se.sundsvall.installedbase.api.model.delegation.DelegationBatchEntry;
+import se.sundsvall.installedbase.api.model.delegation.DelegationBatchResult;
+import se.sundsvall.installedbase.api.model.delegation.DelegationChange;
+import se.sundsvall.installedbase.api.model.delegation.DelegationOperation;
+import se.sundsvall.installedbase.api.model.delegation.DelegationParameters;
+import se.sundsvall.installedbase.api.model.delegation.Facility;
+import se.sundsvall.installedbase.api.model.delegation.UpdateDelegation;
+import se.sundsvall.installedbase.integration.db.DelegationChangeSequenceRepository;
 import se.sundsvall.installedbase.integration.db.DelegationRepository;
+import se.sundsvall.installedbase.integration.db.DelegationTombstoneRepository;
 import se.sundsvall.installedbase.integration.db.FacilityRepository;
 import se.sundsvall.installedbase.integration.db.model.DelegationEntity;
+import se.sundsvall.installedbase.integration.db.model.DelegationKey;
+import se.sundsvall.installedbase.integration.db.model.DelegationTombstoneEntity;
 import se.sundsvall.installedbase.integration.db.model.FacilityEntity;
-import se.sundsvall.installedbase.integration.eventlog.EventLogClient;
+import se.sundsvall.installedbase.service.access.DelegationAccessIndex;
+import se.sundsvall.installedbase.service.event.DelegationEventOutbox;
 
 import static generated.se.sundsvall.eventlog.EventType.CREATE;
 import static generated.se.sundsvall.eventlog.EventType.DELETE;
 import static generated.se.sundsvall.eventlog.EventType.UPDATE;
 import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toCollection;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
-import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static se.sundsvall.installedbase.api.model.delegation.DelegationChangeType.CREATED;
+import static se.sundsvall.installedbase.api.model.delegation.DelegationChangeType.DELETED;
+import static se.sundsvall.installedbase.api.model.delegation.DelegationChangeType.UPDATED;
 import static se.sundsvall.installedbase.TestDataFactory.createDelegation;
 import static se.sundsvall.installedbase.TestDataFactory.createDelegationEntity;
 import static se.sundsvall.installedbase.TestDataFactory.createFacilityEntity;
 import static se.sundsvall.installedbase.TestDataFactory.updateDelegation;
+import static se.sundsvall.installedbase.service.DelegationService.ANY_VERSION;
+import static se.sundsvall.installedbase.service.mapper.DatabaseMapper.toDelegationTombstoneEntity;
 
 @ExtendWith(MockitoExtension.class)
 class DelegationServiceTest {
@@ -53,7 +96,16 @@ class DelegationServiceTest {
 	private FacilityRepository mockFacilityRepository;
 
 	@Mock
-	private EventLogClient mockEventLogClient;
+	private DelegationEventOutbox mockDelegationEventOutbox;
+
+	@Mock
+	private DelegationAccessIndex mockDelegationAccessIndex;
+
+	@Mock
+	private DelegationTombstoneRepository mockDelegationTombstoneRepository;
+
+	@Mock
+	private DelegationChangeSequenceRepository mockDelegationChangeSequenceRepository;
 
 	@InjectMocks
 	private DelegationService delegationService;
@@ -64,9 +116,19 @@ class DelegationServiceTest {
 	@Captor
 	private ArgumentCaptor<Event> eventCaptor;
 
+	@Captor
+	private ArgumentCaptor<Collection<String>> facilityEntityIdsCaptor;
+
+	@Captor
+	private ArgumentCaptor<Pageable> pageableCaptor;
+
+	@Captor
+	private ArgumentCaptor<DelegationTombstoneEntity> tombstoneCaptor;
+
 	@AfterEach
 	void verifyNoMoreMockInteractions() {
-		verifyNoMoreInteractions(mockDelegationRepository, mockFacilityRepository, mockEventLogClient);
+		verifyNoMoreInteractions(mockDelegationRepository, mockFacilityRepository, mockDelegationEventOutbox, mockDelegationAccessIndex, mockDelegationTombstoneRepository,
+			mockDelegationChangeSequenceRepository);
 	}
 
 	@Test
@@ -74,16 +136,15 @@ class DelegationServiceTest {
 		final var delegation = createDelegation();
 		final var id = UUID.randomUUID().toString();
 		final var delegationEntity = createDelegationEntity(id);
-		when(mockDelegationRepository.save(any(DelegationEntity.class))).thenReturn(delegationEntity);
-		when(mockEventLogClient.createEvent(eq(MUNICIPALITY_ID), eq(id), any())).thenReturn(ResponseEntity.ok().build());
+		when(mockDelegationRepository.saveAndFlush(any(DelegationEntity.class))).thenReturn(delegationEntity);
 
 		final var response = delegationService.createDelegation(MUNICIPALITY_ID, delegation);
 
-		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
-		verify(mockFacilityRepository).findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase("facility-3", "5591628137");
-		verify(mockFacilityRepository).findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase("facility-4", "5591628137");
-		verify(mockDelegationRepository).save(any(DelegationEntity.class));
-		verify(mockEventLogClient).createEvent(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
+		verify(mockFacilityRepository).findAllByFacilityKeyIn(List.of("5591628137|facility-3", "5591628137|facility-4"));
+		verify(mockDelegationRepository).saveAndFlush(any(DelegationEntity.class));
+		verifyChangeIdsTaken(1);
+		verify(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
+		verify(mockDelegationAccessIndex).put(delegationEntity);
 
 		assertThat(response).isNotNull().isEqualTo(id);
 		assertThat(eventCaptor.getValue().getType()).isEqualTo(CREATE);
@@ -93,28 +154,74 @@ class DelegationServiceTest {
 	void testCreateDelegationWhenFacilityExist() {
 		final var delegation = createDelegation();
 		final var id = UUID.randomUUID().toString();
-		final var facilityEntity = createFacilityEntity("facility-4");
+		final var facilityEntity = createFacilityEntity("facility-4").withBusinessEngagementOrgId("5591628137").withFacilityKey("5591628137|facility-4");
+		final var otherFacilityEntity = createFacilityEntity("facility-3").withBusinessEngagementOrgId("5591628138").withFacilityKey("5591628138|facility-3");
 		final var delegationEntity = createDelegationEntity(id);
 
-		when(mockFacilityRepository.findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase("facility-3", "5591628137")).thenReturn(Optional.empty());
-		when(mockFacilityRepository.findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase("facility-4", "5591628137")).thenReturn(Optional.of(facilityEntity));
-		when(mockDelegationRepository.save(any(DelegationEntity.class))).thenReturn(delegationEntity);
-		when(mockEventLogClient.createEvent(eq(MUNICIPALITY_ID), eq(id), any())).thenReturn(ResponseEntity.ok().build());
+		when(mockDelegationChangeSequenceRepository.findChangeId(MUNICIPALITY_ID)).thenReturn(7L);
+		when(mockFacilityRepository.findAllByFacilityKeyIn(List.of("5591628137|facility-3", "5591628137|facility-4"))).thenReturn(List.of(facilityEntity, otherFacilityEntity));
+		when(mockDelegationRepository.saveAndFlush(any(DelegationEntity.class))).thenReturn(delegationEntity);
 
 		final var response = delegationService.createDelegation(MUNICIPALITY_ID, delegation);
 
 		assertThat(response).isNotNull().isEqualTo(id);
 
-		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
-		verify(mockDelegationRepository).save(delegationEntityCaptor.capture());
-		verify(mockFacilityRepository).findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase("facility-3", "5591628137");
-		verify(mockFacilityRepository).findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase("facility-4", "5591628137");
-		verify(mockEventLogClient).createEvent(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
+		verify(mockDelegationRepository).saveAndFlush(delegationEntityCaptor.capture());
+		verifyChangeIdsTaken(1);
+		verify(mockFacilityRepository).findAllByFacilityKeyIn(List.of("5591628137|facility-3", "5591628137|facility-4"));
+		verify(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
+		verify(mockDelegationAccessIndex).put(delegationEntity);
 
-		assertThat(delegationEntityCaptor.getValue().getFacilities()).contains(facilityEntity);
+		assertThat(delegationEntityCaptor.getValue().getFacilities()).hasSize(2).contains(facilityEntity).doesNotContain(otherFacilityEntity);
+		assertThat(delegationEntityCaptor.getValue().getChangeId()).isEqualTo(7L);
 		assertThat(eventCaptor.getValue().getType()).isEqualTo(CREATE);
 	}
 
+	@Test
+	void testCreateDelegationWithManyFacilities() {
+		final var id = UUID.randomUUID().toString();
+		final var facilities = IntStream.range(0, 1200)
+			.mapToObj(i -> Facility.create().withId("facility-" + i).withBusinessEngagementOrgId("5591628137"))
+			.collect(toCollection(ArrayList::new));
+		facilities.add(Facility.create().withId("facility-0").withBusinessEngagementOrgId("5591628137")); // Duplicate
+		final var delegation = createDelegation().withFacilities(facilities);
+		final var facilityEntity = createFacilityEntity("facility-600").withBusinessEngagementOrgId("5591628137").withFacilityKey("5591628137|facility-600");
+
+		when(mockFacilityRepository.findAllByFacilityKeyIn(any())).thenReturn(emptyList());
+		when(mockFacilityRepository.findAllByFacilityKeyIn(argThat(keys -> keys.contains("5591628137|facility-600")))).thenReturn(List.of(facilityEntity));
+		when(mockDelegationRepository.saveAndFlush(any(DelegationEntity.class))).thenReturn(createDelegationEntity(id));
+
+		delegationService.createDelegation(MUNICIPALITY_ID, delegation);
+
+		verify(mockFacilityRepository, times(3)).findAllByFacilityKeyIn(any());
+		verify(mockDelegationRepository).saveAndFlush(delegationEntityCaptor.capture());
+		verifyChangeIdsTaken(1);
+		verify(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), any());
+		verify(mockDelegationAccessIndex).put(any(DelegationEntity.class));
+
+		assertThat(delegationEntityCaptor.getValue().getFacilities()).hasSize(1200).contains(facilityEntity);
+	}
+
+	@Test
+	void testCreateDelegationMatchesBusinessEngagementOrgIdIgnoringCase() {
+		final var id = UUID.randomUUID().toString();
+		final var delegation = createDelegation().withFacilities(List.of(Facility.create().withId("facility-1").withBusinessEngagementOrgId("abc")));
+		final var facilityEntity = createFacilityEntity("facility-1").withBusinessEngagementOrgId("ABC").withFacilityKey("abc|facility-1");
+
+		when(mockFacilityRepository.findAllByFacilityKeyIn(List.of("abc|facility-1"))).thenReturn(List.of(facilityEntity));
+		when(mockDelegationRepository.saveAndFlush(any(DelegationEntity.class))).thenReturn(createDelegationEntity(id));
+
+		delegationService.createDelegation(MUNICIPALITY_ID, delegation);
+
+		verify(mockFacilityRepository).findAllByFacilityKeyIn(List.of("abc|facility-1"));
+		verify(mockDelegationRepository).saveAndFlush(delegationEntityCaptor.capture());
+		verifyChangeIdsTaken(1);
+		verify(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), any());
+		verify(mockDelegationAccessIndex).put(any(DelegationEntity.class));
+
+		assertThat(delegationEntityCaptor.getValue().getFacilities()).containsExactly(facilityEntity);
+	}
+
 	@Test
 	void testCreateDelegation_shouldThrowProblem() {
 		final var delegation = createDelegation();
@@ -122,15 +229,36 @@ class DelegationServiceTest {
 		final var delegatedToUuid = UUID.randomUUID().toString();
 		delegation.setOwner(ownerUuid);
 		delegation.setDelegatedTo(delegatedToUuid);
-		when(mockDelegationRepository.findOne(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(Optional.of(DelegationEntity.create()));
+		when(mockDelegationRepository.saveAndFlush(any(DelegationEntity.class))).thenThrow(new DataIntegrityViolationException("Duplicate",
+			new ConstraintViolationException("Duplicate entry", new SQLIntegrityConstraintViolationException(), "uk_delegated_to_owner")));
 
 		assertThatExceptionOfType(ThrowableProblem.class)
 			.isThrownBy(() -> delegationService.createDelegation(MUNICIPALITY_ID, delegation))
 			.withMessage("Delegation already exists: Owner with partyId: '" + ownerUuid + "' has already delegated to partyId: '"
-				+ delegatedToUuid + "' for municipality: '" + MUNICIPALITY_ID + "'. Update existing delegation instead.");
+				+ delegatedToUuid + "' for municipality: '" + MUNICIPALITY_ID + "'. Update existing delegation instead.")
+			.satisfies(problem -> assertThat(problem.getStatus()).isEqualTo(CONFLICT));
 
-		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
-		verifyNoInteractions(mockEventLogClient);
+		verify(mockFacilityRepository).findAllByFacilityKeyIn(List.of("5591628137|facility-3", "5591628137|facility-4"));
+		verify(mockDelegationRepository).saveAndFlush(any(DelegationEntity.class));
+		verifyChangeIdsTaken(1);
+		verifyNoInteractions(mockDelegationEventOutbox);
+	}
+
+	@Test
+	void testCreateDelegationViolatingOtherConstraint_shouldRethrowException() {
+		final var delegation = createDelegation();
+		final var exception = new DataIntegrityViolationException("Duplicate",
+			new ConstraintViolationException("Duplicate entry", new SQLIntegrityConstraintViolationException(), "uk_delegation_facility"));
+		when(mockDelegationRepository.saveAndFlush(any(DelegationEntity.class))).thenThrow(exception);
+
+		assertThatExceptionOfType(DataIntegrityViolationException.class)
+			.isThrownBy(() -> delegationService.createDelegation(MUNICIPALITY_ID, delegation))
+			.isSameAs(exception);
+
+		verify(mockFacilityRepository).findAllByFacilityKeyIn(List.of("5591628137|facility-3", "5591628137|facility-4"));
+		verify(mockDelegationRepository).saveAndFlush(any(DelegationEntity.class));
+		verifyChangeIdsTaken(1);
+		verifyNoInteractions(mockDelegationEventOutbox);
 	}
 
 	@Test
@@ -140,21 +268,24 @@ class DelegationServiceTest {
 		final var delegationEntity = createDelegationEntity(id);
 
 		when(mockDelegationRepository.findOne(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(Optional.of(delegationEntity));
+		when(mockDelegationChangeSequenceRepository.findChangeId(MUNICIPALITY_ID)).thenReturn(8L);
 
-		delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation);
+		delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation, null);
 
 		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
-		verify(mockFacilityRepository).deleteAllInBatch(anyIterable());
-		verify(mockFacilityRepository).findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase("facility-9", "5591628141");
-		verify(mockFacilityRepository).findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase("facility-10", "5591628142");
-		verify(mockFacilityRepository).findAllByDelegationsIsEmpty();
-		verify(mockDelegationRepository).save(delegationEntityCaptor.capture());
-		verify(mockEventLogClient).createEvent(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
+		verify(mockFacilityRepository).findAllByFacilityKeyIn(List.of("5591628141|facility-9", "5591628142|facility-10"));
+		verify(mockDelegationRepository).saveAndFlush(delegationEntityCaptor.capture());
+		verifyChangeIdsTaken(1);
+		verify(mockFacilityRepository).deleteByIdInAndDelegationsIsEmpty(facilityEntityIdsCaptor.capture());
+		verify(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
+		verify(mockDelegationAccessIndex).put(delegationEntity);
 
 		assertThat(eventCaptor.getValue().getType()).isEqualTo(UPDATE);
+		assertThat(delegationEntityCaptor.getValue().getChangeId()).isEqualTo(8L);
 		assertThat(delegationEntityCaptor.getValue().getFacilities())
 			.extracting(FacilityEntity::getFacilityId)
 			.containsExactlyInAnyOrder("facility-9", "facility-10");
+		assertThat(facilityEntityIdsCaptor.getValue()).containsExactlyInAnyOrder("facility-entity-7", "facility-entity-8");
 	}
 
 	@Test
@@ -162,24 +293,189 @@ class DelegationServiceTest {
 		final var id = UUID.randomUUID().toString();
 		final var delegation = updateDelegation();
 		final var delegationEntity = createDelegationEntity(id);
-		final var facilityEntity = createFacilityEntity("facility-9");
+		final var facilityEntity = createFacilityEntity("facility-9").withBusinessEngagementOrgId("5591628141").withFacilityKey("5591628141|facility-9");
 
 		when(mockDelegationRepository.findOne(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(Optional.of(delegationEntity));
-		when(mockFacilityRepository.findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase("facility-9", "5591628141")).thenReturn(Optional.of(facilityEntity));
-		when(mockFacilityRepository.findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase("facility-10", "5591628142")).thenReturn(Optional.empty());
+		when(mockFacilityRepository.findAllByFacilityKeyIn(List.of("5591628141|facility-9", "5591628142|facility-10"))).thenReturn(List.of(facilityEntity));
 
-		delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation);
+		delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation, null);
 
 		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
-		verify(mockFacilityRepository).findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase("facility-9", "5591628141");
-		verify(mockFacilityRepository).findByFacilityIdAndBusinessEngagementOrgIdIgnoreCase("facility-10", "5591628142");
-		verify(mockDelegationRepository).save(delegationEntityCaptor.capture());
-		verify(mockFacilityRepository).findAllByDelegationsIsEmpty();
-		verify(mockFacilityRepository).deleteAllInBatch(emptyList());
-		verify(mockEventLogClient).createEvent(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
+		verify(mockFacilityRepository).findAllByFacilityKeyIn(List.of("5591628141|facility-9", "5591628142|facility-10"));
+		verify(mockDelegationRepository).saveAndFlush(delegationEntityCaptor.capture());
+		verifyChangeIdsTaken(1);
+		verify(mockFacilityRepository).deleteByIdInAndDelegationsIsEmpty(facilityEntityIdsCaptor.capture());
+		verify(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
+		verify(mockDelegationAccessIndex).put(delegationEntity);
 
 		assertThat(eventCaptor.getValue().getType()).isEqualTo(UPDATE);
 		assertThat(delegationEntityCaptor.getValue().getFacilities()).contains(facilityEntity);
+		assertThat(facilityEntityIdsCaptor.getValue()).containsExactlyInAnyOrder("facility-entity-7", "facility-entity-8");
+	}
+
+	@Test
+	void testUpdateDelegationKeepingFacilities_shouldNotDeleteFacilities() {
+		final var id = UUID.randomUUID().toString();
+		final var delegation = UpdateDelegation.create().withDelegatedTo(UUID.randomUUID().toString());
+		final var delegationEntity = createDelegationEntity(id);
+
+		when(mockDelegationRepository.findOne(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(Optional.of(delegationEntity));
+
+		delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation, null);
+
+		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
+		verify(mockDelegationRepository).saveAndFlush(delegationEntity);
+		verifyChangeIdsTaken(1);
+		verify(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
+		verify(mockDelegationAccessIndex).put(delegationEntity);
+
+		assertThat(eventCaptor.getValue().getType()).isEqualTo(UPDATE);
+	}
+
+	@Test
+	void testUpdateDelegationChangingOneFacility_shouldOnlyAddAndRemoveChangedFacilities() {
+		final var id = UUID.randomUUID().toString();
+		final var delegationEntity = createDelegationEntity(id);
+		final var facilities = delegationEntity.getFacilities();
+		final var keptFacilityEntity = facilities.stream().filter(facility -> "facility-7".equals(facility.getFacilityId())).findAny().orElseThrow();
+		final var delegation = UpdateDelegation.create().withFacilities(List.of(
+			Facility.create().withId("facility-7").withBusinessEngagementOrgId("5591628140"),
+			Facility.create().withId("facility-9").withBusinessEngagementOrgId("5591628141")));
+
+		when(mockDelegationRepository.findOne(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(Optional.of(delegationEntity));
+		when(mockFacilityRepository.findAllByFacilityKeyIn(List.of("5591628140|facility-7", "5591628141|facility-9"))).thenReturn(List.of(keptFacilityEntity));
+
+		delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation, null);
+
+		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
+		verify(mockFacilityRepository).findAllByFacilityKeyIn(List.of("5591628140|facility-7", "5591628141|facility-9"));
+		verify(mockDelegationRepository).saveAndFlush(delegationEntity);
+		verifyChangeIdsTaken(1);
+		verify(mockFacilityRepository).deleteByIdInAndDelegationsIsEmpty(facilityEntityIdsCaptor.capture());
+		verify(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
+		verify(mockDelegationAccessIndex).put(delegationEntity);
+
+		// The facility collection is changed in place, for Hibernate to write only the changed rows
+		assertThat(delegationEntity.getFacilities()).isSameAs(facilities)
+			.extracting(FacilityEntity::getFacilityId)
+			.containsExactlyInAnyOrder("facility-7", "facility-9");
+		assertThat(delegationEntity.getFacilities()).contains(keptFacilityEntity);
+		assertThat(facilityEntityIdsCaptor.getValue()).containsExactly("facility-entity-8");
+		assertThat(eventCaptor.getValue().getMetadata())
+			.extracting(Metadata::getKey, Metadata::getValue)
+			.contains(
+				tuple("AddedFacilities", "facility-9 (5591628141)"),
+				tuple("RemovedFacilities", "facility-8 (5591628140)"));
+	}
+
+	@Test
+	void testUpdateDelegationWithExpectedVersion_shouldReturnVersion() {
+		final var id = UUID.randomUUID().toString();
+		final var delegation = UpdateDelegation.create().withDelegatedTo(UUID.randomUUID().toString());
+		final var delegationEntity = createDelegationEntity(id);
+
+		when(mockDelegationRepository.findVersion(MUNICIPALITY_ID, id)).thenReturn(Optional.of(2L));
+		when(mockDelegationRepository.findOne(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(Optional.of(delegationEntity));
+
+		final var version = delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation, 2L);
+
+		assertThat(version).isEqualTo(2L);
+		verify(mockDelegationRepository).findVersion(MUNICIPALITY_ID, id);
+		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
+		verify(mockDelegationRepository).saveAndFlush(delegationEntity);
+		verifyChangeIdsTaken(1);
+		verify(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), any());
+		verify(mockDelegationAccessIndex).put(delegationEntity);
+	}
+
+	@Test
+	void testUpdateDelegationWithOtherVersion_shouldThrowProblemWithoutReadingDelegation() {
+		final var id = UUID.randomUUID().toString();
+		final var delegation = updateDelegation();
+
+		when(mockDelegationRepository.findVersion(MUNICIPALITY_ID, id)).thenReturn(Optional.of(3L));
+
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation, 2L))
+			.withMessage("Delegation has been modified: Delegation with id: '" + id + "' does not have the expected version '2'.")
+			.satisfies(problem -> assertThat(problem.getStatus()).isEqualTo(PRECONDITION_FAILED));
+
+		verify(mockDelegationRepository).findVersion(MUNICIPALITY_ID, id);
+		verifyNoInteractions(mockFacilityRepository, mockDelegationEventOutbox, mockDelegationAccessIndex);
+	}
+
+	@Test
+	void testUpdateDelegationWithAnyVersion_shouldReturnVersion() {
+		final var id = UUID.randomUUID().toString();
+		final var delegation = UpdateDelegation.create().withDelegatedTo(UUID.randomUUID().toString());
+		final var delegationEntity = createDelegationEntity(id);
+
+		when(mockDelegationRepository.findVersion(MUNICIPALITY_ID, id)).thenReturn(Optional.of(2L));
+		when(mockDelegationRepository.findOne(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(Optional.of(delegationEntity));
+
+		final var version = delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation, ANY_VERSION);
+
+		assertThat(version).isEqualTo(2L);
+		verify(mockDelegationRepository).findVersion(MUNICIPALITY_ID, id);
+		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
+		verify(mockDelegationRepository).saveAndFlush(delegationEntity);
+		verifyChangeIdsTaken(1);
+		verify(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), any());
+		verify(mockDelegationAccessIndex).put(delegationEntity);
+	}
+
+	@Test
+	void testUpdateDelegationWithAnyVersionWhenNotFound_shouldThrowProblem() {
+		final var id = UUID.randomUUID().toString();
+		final var delegation = updateDelegation();
+
+		when(mockDelegationRepository.findVersion(MUNICIPALITY_ID, id)).thenReturn(Optional.empty());
+
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation, ANY_VERSION))
+			.withMessage("Delegation has been modified: Delegation with id: '" + id + "' does not exist.")
+			.satisfies(problem -> assertThat(problem.getStatus()).isEqualTo(PRECONDITION_FAILED));
+
+		verify(mockDelegationRepository).findVersion(MUNICIPALITY_ID, id);
+		verifyNoInteractions(mockFacilityRepository, mockDelegationEventOutbox, mockDelegationAccessIndex);
+	}
+
+	@Test
+	void testUpdateDelegationChangedAfterVersionWasRead_shouldThrowProblem() {
+		final var id = UUID.randomUUID().toString();
+		final var delegation = updateDelegation();
+		final var delegationEntity = createDelegationEntity(id).withVersion(3L);
+
+		when(mockDelegationRepository.findVersion(MUNICIPALITY_ID, id)).thenReturn(Optional.of(2L));
+		when(mockDelegationRepository.findOne(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(Optional.of(delegationEntity));
+
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation, 2L))
+			.satisfies(problem -> assertThat(problem.getStatus()).isEqualTo(PRECONDITION_FAILED));
+
+		verify(mockDelegationRepository).findVersion(MUNICIPALITY_ID, id);
+		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
+		verifyNoInteractions(mockFacilityRepository, mockDelegationEventOutbox, mockDelegationAccessIndex);
+	}
+
+	@Test
+	void testUpdateDelegationModifiedConcurrently_shouldThrowProblem() {
+		final var id = UUID.randomUUID().toString();
+		final var delegation = UpdateDelegation.create().withDelegatedTo(UUID.randomUUID().toString());
+		final var delegationEntity = createDelegationEntity(id);
+
+		when(mockDelegationRepository.findOne(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(Optional.of(delegationEntity));
+		when(mockDelegationRepository.saveAndFlush(delegationEntity)).thenThrow(new ObjectOptimisticLockingFailureException(DelegationEntity.class, id));
+
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation, null))
+			.withMessage("Delegation has been modified: Delegation with id: '" + id + "' was modified by another request. Try again.")
+			.satisfies(problem -> assertThat(problem.getStatus()).isEqualTo(CONFLICT));
+
+		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
+		verify(mockDelegationRepository).saveAndFlush(delegationEntity);
+		verifyChangeIdsTaken(1);
+		verifyNoInteractions(mockDelegationEventOutbox, mockDelegationAccessIndex);
 	}
 
 	@Test
@@ -188,11 +484,11 @@ class DelegationServiceTest {
 		final var delegation = updateDelegation();
 
 		assertThatExceptionOfType(ThrowableProblem.class)
-			.isThrownBy(() -> delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation))
+			.isThrownBy(() -> delegationService.updateDelegation(MUNICIPALITY_ID, id, delegation, null))
 			.withMessage("Delegation with id: '" + id + "' was not found within municipality '" + MUNICIPALITY_ID + "'.");
 
 		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
-		verifyNoInteractions(mockEventLogClient);
+		verifyNoInteractions(mockDelegationEventOutbox);
 	}
 
 	@Test
@@ -207,7 +503,7 @@ class DelegationServiceTest {
 		assertThat(response.getId()).isEqualTo(id);
 
 		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
-		verifyNoInteractions(mockEventLogClient);
+		verifyNoInteractions(mockDelegationEventOutbox);
 	}
 
 	@Test
@@ -220,77 +516,405 @@ class DelegationServiceTest {
 			.withMessage("Delegation with id: '" + id + "' was not found within municipality '2281'.");
 
 		verify(mockDelegationRepository).findOne(ArgumentMatchers.<Specification<DelegationEntity>>any());
-		verifyNoInteractions(mockEventLogClient);
+		verifyNoInteractions(mockDelegationEventOutbox);
 	}
 
 	// Tests for getDelegations
 
 	@Test
 	void testGetDelegations() {
-		final var owner = UUID.randomUUID().toString();
-		final var delegatedTo = UUID.randomUUID().toString();
+		final var parameters = DelegationParameters.create()
+			.withOwner(UUID.randomUUID().toString())
+			.withDelegatedTo(UUID.randomUUID().toString());
+		parameters.setPage(1);
+		parameters.setLimit(2);
+		final var delegationEntity1 = createDelegationEntity(UUID.randomUUID().toString());
+		final var delegationEntity2 = createDelegationEntity(UUID.randomUUID().toString());
+		when(mockDelegationRepository.findAll(ArgumentMatchers.<Specification<DelegationEntity>>any(), any(Pageable.class)))
+			.thenReturn(new PageImpl<>(List.of(delegationEntity1, delegationEntity2), PageRequest.of(0, 2), 3));
+
+		final var response = delegationService.getDelegations(MUNICIPALITY_ID, parameters);
+
+		assertThat(response).isNotNull();
+		assertThat(response.getDelegations())
+			.extracting(Delegation::getId)
+			.containsExactly(delegationEntity1.getId(), delegationEntity2.getId());
+		assertThat(response.getMetaData().getPage()).isEqualTo(1);
+		assertThat(response.getMetaData().getLimit()).isEqualTo(2);
+		assertThat(response.getMetaData().getCount()).isEqualTo(2);
+		assertThat(response.getMetaData().getTotalRecords()).isEqualTo(3);
+		assertThat(response.getMetaData().getTotalPages()).isEqualTo(2);
+		assertThat(response.getMetaData().getSortBy()).containsExactly("created", "id");
+		assertThat(response.getMetaData().getSortDirection()).isEqualTo(ASC);
+		assertThat(response.getNextCursor()).isEqualTo(DelegationCursor.of(delegationEntity2).encode());
+
+		verify(mockDelegationRepository).findAll(ArgumentMatchers.<Specification<DelegationEntity>>any(), pageableCaptor.capture());
+		assertThat(pageableCaptor.getValue().getPageNumber()).isZero();
+		assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(2);
+		assertThat(pageableCaptor.getValue().getSort()).isEqualTo(Sort.by(ASC, "created", "id"));
+		verifyNoInteractions(mockDelegationEventOutbox);
+	}
+
+	@Test
+	void testGetDelegations_shouldReturnEmptyList_whenNoDelegationsFound() {
+		final var parameters = DelegationParameters.create()
+			.withOwner(UUID.randomUUID().toString())
+			.withDelegatedTo(UUID.randomUUID().toString());
+		when(mockDelegationRepository.findAll(ArgumentMatchers.<Specification<DelegationEntity>>any(), any(Pageable.class)))
+			.thenReturn(Page.empty());
+
+		final var response = delegationService.getDelegations(MUNICIPALITY_ID, parameters);
+
+		assertThat(response).isNotNull();
+		assertThat(response.getDelegations()).isEmpty();
+		assertThat(response.getMetaData().getTotalRecords()).isZero();
+		assertThat(response.getNextCursor()).isNull();
+
+		verify(mockDelegationRepository).findAll(ArgumentMatchers.<Specification<DelegationEntity>>any(), any(Pageable.class));
+		verifyNoInteractions(mockDelegationEventOutbox);
+	}
+
+	@Test
+	void testGetDelegationsWithCursor() {
+		final var delegationEntity1 = createDelegationEntity(UUID.randomUUID().toString());
+		final var delegationEntity2 = createDelegationEntity(UUID.randomUUID().toString());
+		final var delegationEntity3 = createDelegationEntity(UUID.randomUUID().toString());
+		final var parameters = DelegationParameters.create()
+			.withOwner(UUID.randomUUID().toString())
+			.withCursor(DelegationCursor.of(createDelegationEntity(UUID.randomUUID().toString())).encode());
+		parameters.setLimit(2);
+		when(mockDelegationRepository.findBy(ArgumentMatchers.<Specification<DelegationEntity>>any(), any()))
+			.thenReturn(List.of(delegationEntity1, delegationEntity2, delegationEntity3));
+
+		final var response = delegationService.getDelegations(MUNICIPALITY_ID, parameters);
+
+		assertThat(response).isNotNull();
+		assertThat(response.getDelegations())
+			.extracting(Delegation::getId)
+			.containsExactly(delegationEntity1.getId(), delegationEntity2.getId());
+		assertThat(response.getMetaData().getCount()).isEqualTo(2);
+		assertThat(response.getMetaData().getLimit()).isEqualTo(2);
+		assertThat(response.getNextCursor()).isEqualTo(DelegationCursor.of(delegationEntity2).encode());
+
+		verify(mockDelegationRepository).findBy(ArgumentMatchers.<Specification<DelegationEntity>>any(), any());
+		verifyNoInteractions(mockDelegationEventOutbox);
+	}
+
+	@Test
+	void testGetDelegationsWithCursor_shouldNotReturnNextCursor_whenLastDelegationsFound() {
 		final var delegationEntity = createDelegationEntity(UUID.randomUUID().toString());
-		when(mockDelegationRepository.findAll(ArgumentMatchers.<Specification<DelegationEntity>>any()))
+		final var parameters = DelegationParameters.create()
+			.withDelegatedTo(UUID.randomUUID().toString())
+			.withCursor(DelegationCursor.of(createDelegationEntity(UUID.randomUUID().toString())).encode());
+		parameters.setLimit(2);
+		when(mockDelegationRepository.findBy(ArgumentMatchers.<Specification<DelegationEntity>>any(), any()))
 			.thenReturn(List.of(delegationEntity));
 
-		final var response = delegationService.getDelegations(MUNICIPALITY_ID, owner, delegatedTo);
+		final var response = delegationService.getDelegations(MUNICIPALITY_ID, parameters);
 
-		assertThat(response).isNotNull().hasSize(1);
-		assertThat(response.getFirst().getId()).isEqualTo(delegationEntity.getId());
+		assertThat(response).isNotNull();
+		assertThat(response.getDelegations()).extracting(Delegation::getId).containsExactly(delegationEntity.getId());
+		assertThat(response.getNextCursor()).isNull();
 
-		verify(mockDelegationRepository).findAll(ArgumentMatchers.<Specification<DelegationEntity>>any());
-		verifyNoInteractions(mockEventLogClient);
+		verify(mockDelegationRepository).findBy(ArgumentMatchers.<Specification<DelegationEntity>>any(), any());
+		verifyNoInteractions(mockDelegationEventOutbox);
 	}
 
 	@Test
-	void testGetDelegations_shouldReturnEmptyList_whenNoDelegationsFound() {
-		final var owner = UUID.randomUUID().toString();
-		final var delegatedTo = UUID.randomUUID().toString();
-		when(mockDelegationRepository.findAll(ArgumentMatchers.<Specification<DelegationEntity>>any()))
-			.thenReturn(List.of());
+	void testGetDelegationsWithInvalidCursor_shouldThrowException() {
+		final var parameters = DelegationParameters.create()
+			.withOwner(UUID.randomUUID().toString())
+			.withCursor("invalid-cursor");
+
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> delegationService.getDelegations(MUNICIPALITY_ID, parameters))
+			.satisfies(problem -> {
+				assertThat(problem.getStatus()).isEqualTo(BAD_REQUEST);
+				assertThat(problem.getDetail()).isEqualTo("The cursor 'invalid-cursor' is not valid");
+			});
 
-		final var response = delegationService.getDelegations(MUNICIPALITY_ID, owner, delegatedTo);
+		verifyNoInteractions(mockDelegationRepository, mockDelegationEventOutbox);
+	}
 
-		assertThat(response).isNotNull().isEmpty();
+	@Test
+	void testHasAccess() {
+		final var partyId = UUID.randomUUID().toString();
+		when(mockDelegationAccessIndex.isReady()).thenReturn(true);
+		when(mockDelegationAccessIndex.hasAccess(MUNICIPALITY_ID, partyId, "facility-1", "5591628136")).thenReturn(true);
 
-		verify(mockDelegationRepository).findAll(ArgumentMatchers.<Specification<DelegationEntity>>any());
-		verifyNoInteractions(mockEventLogClient);
+		assertThat(delegationService.hasAccess(MUNICIPALITY_ID, partyId, "facility-1", "5591628136")).isTrue();
+
+		verify(mockDelegationAccessIndex).isReady();
+		verify(mockDelegationAccessIndex).hasAccess(MUNICIPALITY_ID, partyId, "facility-1", "5591628136");
+		verifyNoInteractions(mockDelegationRepository);
+	}
+
+	@Test
+	void testHasAccessWhenIndexNotReady_shouldCheckDatabase() {
+		final var partyId = UUID.randomUUID().toString();
+		when(mockDelegationRepository.exists(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(true);
+
+		assertThat(delegationService.hasAccess(MUNICIPALITY_ID, partyId, "facility-1", null)).isTrue();
+
+		verify(mockDelegationAccessIndex).isReady();
+		verify(mockDelegationRepository).exists(ArgumentMatchers.<Specification<DelegationEntity>>any());
 	}
 
 	@Test
 	void testDeleteDelegation() {
 		final var id = UUID.randomUUID().toString();
 		final var delegationEntity = createDelegationEntity(id);
-		final var orphanFacilities = List.of(FacilityEntity.create(), FacilityEntity.create());
 		when(mockDelegationRepository.findOne(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(Optional.of(delegationEntity));
-		when(mockEventLogClient.createEvent(eq(MUNICIPALITY_ID), eq(id), any())).thenReturn(ResponseEntity.ok().build());
-		when(mockFacilityRepository.findAllByDelegationsIsEmpty()).thenReturn(orphanFacilities);
+		when(mockDelegationChangeSequenceRepository.findChangeId(MUNICIPALITY_ID)).thenReturn(9L);
 
-		delegationService.deleteDelegation(MUNICIPALITY_ID, id);
+		delegationService.deleteDelegation(MUNICIPALITY_ID, id, null);
 
 		verify(mockDelegationRepository).delete(delegationEntity);
-		verify(mockEventLogClient).createEvent(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
-		verify(mockFacilityRepository).findAllByDelegationsIsEmpty();
-		verify(mockFacilityRepository).deleteAllInBatch(orphanFacilities);
+		verifyChangeIdsTaken(1);
+		verify(mockDelegationRepository).flush();
+		verify(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
+		verify(mockFacilityRepository).deleteByIdInAndDelegationsIsEmpty(facilityEntityIdsCaptor.capture());
+		verify(mockDelegationTombstoneRepository).save(tombstoneCaptor.capture());
+		verify(mockDelegationAccessIndex).remove(id, 9L);
 		assertThat(eventCaptor.getValue().getType()).isEqualTo(DELETE);
+		assertThat(facilityEntityIdsCaptor.getValue()).containsExactlyInAnyOrder("facility-entity-7", "facility-entity-8");
+		assertThat(tombstoneCaptor.getValue()).satisfies(tombstone -> {
+			assertThat(tombstone.getDelegationId()).isEqualTo(id);
+			assertThat(tombstone.getMunicipalityId()).isEqualTo(MUNICIPALITY_ID);
+			assertThat(tombstone.getOwner()).isEqualTo(delegationEntity.getOwner());
+			assertThat(tombstone.getDelegatedTo()).isEqualTo(delegationEntity.getDelegatedTo());
+			assertThat(tombstone.getChangeId()).isEqualTo(9L);
+		});
+	}
+
+	@Test
+	void testGetDelegationChanges() {
+		final var created = OffsetDateTime.now().minusMinutes(5);
+		final var createdEntity = createDelegationEntity("b-created").withCreated(created).withUpdated(created).withChangeId(2L);
+		final var updatedEntity = createDelegationEntity("a-updated").withCreated(created.minusDays(1)).withUpdated(created.plusMinutes(1)).withChangeId(4L);
+		final var tombstone = DelegationTombstoneEntity.create().withDelegationId("c-deleted").withMunicipalityId(MUNICIPALITY_ID)
+			.withOwner("owner").withDelegatedTo("delegatedTo").withDeleted(created.plusMinutes(1)).withChangeId(3L);
+		final var laterTombstone = DelegationTombstoneEntity.create().withDelegationId("d-deleted").withMunicipalityId(MUNICIPALITY_ID)
+			.withOwner("owner").withDelegatedTo("delegatedTo").withDeleted(created.plusMinutes(2)).withChangeId(5L);
+
+		when(mockDelegationRepository.findBy(ArgumentMatchers.<Specification<DelegationEntity>>any(), any())).thenReturn(List.of(createdEntity, updatedEntity));
+		when(mockDelegationTombstoneRepository.findDeletedAfter(MUNICIPALITY_ID, 0L, Limit.of(4))).thenReturn(List.of(tombstone, laterTombstone));
+
+		final var response = delegationService.getDelegationChanges(MUNICIPALITY_ID, null, 3);
+
+		// Changes are ordered by change id, regardless of the time of the change and the id of the delegation
+		assertThat(response.getChanges())
+			.extracting(DelegationChange::getId, DelegationChange::getType, DelegationChange::getChanged)
+			.containsExactly(
+				tuple("b-created", CREATED, created),
+				tuple("c-deleted", DELETED, created.plusMinutes(1)),
+				tuple("a-updated", UPDATED, created.plusMinutes(1)));
+		assertThat(response.getChanges().get(1).getDelegation()).isNull();
+		assertThat(response.getChanges().get(2).getDelegation().getId()).isEqualTo("a-updated");
+		assertThat(response.getHasMore()).isTrue();
+		assertThat(DelegationChangeCursor.decode(response.getCursor()).changeId()).isEqualTo(4L);
+
+		verify(mockDelegationRepository).findBy(ArgumentMatchers.<Specification<DelegationEntity>>any(), any());
+		verify(mockDelegationTombstoneRepository).findDeletedAfter(MUNICIPALITY_ID, 0L, Limit.of(4));
+	}
+
+	@Test
+	void testGetDelegationChangesWithoutNewChanges_shouldReturnSameCursor() {
+		final var since = new DelegationChangeCursor(42L).encode();
+
+		when(mockDelegationRepository.findBy(ArgumentMatchers.<Specification<DelegationEntity>>any(), any())).thenReturn(emptyList());
+		when(mockDelegationTombstoneRepository.findDeletedAfter(MUNICIPALITY_ID, 42L, Limit.of(101))).thenReturn(emptyList());
+
+		final var response = delegationService.getDelegationChanges(MUNICIPALITY_ID, since, 100);
+
+		assertThat(response.getChanges()).isEmpty();
+		assertThat(response.getCursor()).isEqualTo(since);
+		assertThat(response.getHasMore()).isFalse();
+
+		verify(mockDelegationRepository).findBy(ArgumentMatchers.<Specification<DelegationEntity>>any(), any());
+		verify(mockDelegationTombstoneRepository).findDeletedAfter(MUNICIPALITY_ID, 42L, Limit.of(101));
+	}
+
+	@Test
+	void testGetDelegationChangesWithInvalidCursor_shouldThrowException() {
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> delegationService.getDelegationChanges(MUNICIPALITY_ID, "not a cursor", 100))
+			.satisfies(problem -> assertThat(problem.getStatus()).isEqualTo(BAD_REQUEST));
+
+		verifyNoInteractions(mockDelegationRepository, mockDelegationTombstoneRepository);
+	}
+
+	// Tests for processDelegations
+
+	@Test
+	void testProcessDelegations() {
+		final var createdId = UUID.randomUUID().toString();
+		final var updatedEntity = createDelegationEntity(UUID.randomUUID().toString());
+		final var deletedEntity = createDelegationEntity(UUID.randomUUID().toString());
+		final var unknownId = UUID.randomUUID().toString();
+		final var create = createDelegation();
+		final var duplicate = createDelegation();
+		final var update = updateDelegation();
+		final var entries = List.of(
+			DelegationBatchEntry.create().withOperation(DelegationOperation.CREATE).withCreateDelegation(create),
+			DelegationBatchEntry.create().withOperation(DelegationOperation.UPDATE).withId(updatedEntity.getId()).withUpdateDelegation(update),
+			DelegationBatchEntry.create().withOperation(DelegationOperation.DELETE).withId(deletedEntity.getId()),
+			DelegationBatchEntry.create().withOperation(DelegationOperation.UPDATE).withId(unknownId).withUpdateDelegation(update),
+			DelegationBatchEntry.create().withOperation(DelegationOperation.CREATE).withCreateDelegation(duplicate),
+			DelegationBatchEntry.create().withOperation(DelegationOperation.DELETE));
+
+		when(mockDelegationRepository.findAll(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(List.of(updatedEntity, deletedEntity));
+		when(mockDelegationRepository.findByMunicipalityIdAndOwnerIn(eq(MUNICIPALITY_ID), anyCollection()))
+			.thenReturn(List.of(new DelegationKey(duplicate.getOwner().toUpperCase(), duplicate.getDelegatedTo())));
+		when(mockFacilityRepository.findAllByFacilityKeyIn(anyCollection())).thenReturn(emptyList());
+		when(mockDelegationRepository.save(any(DelegationEntity.class))).thenAnswer(invocation -> invocation.<DelegationEntity>getArgument(0).withId(createdId));
+		when(mockDelegationChangeSequenceRepository.findChangeId(MUNICIPALITY_ID)).thenReturn(16L);
+
+		final var results = delegationService.processDelegations(MUNICIPALITY_ID, entries);
+
+		assertThat(results)
+			.extracting(DelegationBatchResult::getOperation, DelegationBatchResult::getId, DelegationBatchResult::getStatus)
+			.containsExactly(
+				tuple(DelegationOperation.CREATE, createdId, 201),
+				tuple(DelegationOperation.UPDATE, updatedEntity.getId(), 202),
+				tuple(DelegationOperation.DELETE, deletedEntity.getId(), 202),
+				tuple(DelegationOperation.UPDATE, unknownId, 404),
+				tuple(DelegationOperation.CREATE, null, 409),
+				tuple(DelegationOperation.DELETE, null, 400));
+		assertThat(results.get(3).getDetail()).isEqualTo("Delegation with id: '" + unknownId + "' was not found within municipality '2281'.");
+		assertThat(results.get(4).getDetail()).startsWith("Owner with partyId: '" + duplicate.getOwner() + "' has already delegated");
+		assertThat(updatedEntity.getDelegatedTo()).isEqualTo(update.getDelegatedTo());
+		assertThat(updatedEntity.getFacilities()).extracting(FacilityEntity::getFacilityId).containsExactlyInAnyOrder("facility-9", "facility-10");
+
+		verify(mockDelegationRepository).findAll(ArgumentMatchers.<Specification<DelegationEntity>>any());
+		verify(mockDelegationRepository).findByMunicipalityIdAndOwnerIn(eq(MUNICIPALITY_ID), anyCollection());
+		verify(mockFacilityRepository).findAllByFacilityKeyIn(anyCollection());
+		verifyChangeIdsTaken(entries.size());
+		verify(mockDelegationRepository).save(delegationEntityCaptor.capture());
+		verify(mockDelegationRepository).delete(deletedEntity);
+		verify(mockDelegationRepository).flush();
+		verify(mockFacilityRepository).deleteByIdInAndDelegationsIsEmpty(facilityEntityIdsCaptor.capture());
+		verify(mockDelegationTombstoneRepository).saveAll(List.of(toDelegationTombstoneEntity(deletedEntity).withChangeId(13L)));
+		verify(mockDelegationEventOutbox, times(3)).add(eq(MUNICIPALITY_ID), any(), eventCaptor.capture());
+		verify(mockDelegationAccessIndex).put(argThat(entity -> createdId.equals(entity.getId())));
+		verify(mockDelegationAccessIndex).put(updatedEntity);
+		verify(mockDelegationAccessIndex).remove(deletedEntity.getId(), 13L);
+
+		assertThat(delegationEntityCaptor.getValue().getOwner()).isEqualTo(create.getOwner());
+		// One change id is taken for each of the six entries, and given to the entries changing delegations in order
+		assertThat(delegationEntityCaptor.getValue().getChangeId()).isEqualTo(11L);
+		assertThat(updatedEntity.getChangeId()).isEqualTo(12L);
+		assertThat(facilityEntityIdsCaptor.getValue()).containsExactlyInAnyOrder("facility-entity-7", "facility-entity-8");
+		assertThat(eventCaptor.getAllValues()).extracting(Event::getType).containsExactly(CREATE, UPDATE, DELETE);
 	}
 
 	@Test
-	void testSendEventThrowsException_shouldNotThrowProblem() {
+	void testProcessDelegationsReusingDeletedOwnerAndDelegatedTo_shouldFlushDeleteFirst() {
+		final var deletedEntity = createDelegationEntity(UUID.randomUUID().toString());
+		final var create = createDelegation().withOwner(deletedEntity.getOwner()).withDelegatedTo(deletedEntity.getDelegatedTo());
+		final var entries = List.of(
+			DelegationBatchEntry.create().withOperation(DelegationOperation.DELETE).withId(deletedEntity.getId()),
+			DelegationBatchEntry.create().withOperation(DelegationOperation.CREATE).withCreateDelegation(create));
+
+		when(mockDelegationRepository.findAll(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(List.of(deletedEntity));
+		when(mockDelegationRepository.findByMunicipalityIdAndOwnerIn(eq(MUNICIPALITY_ID), anyCollection()))
+			.thenReturn(List.of(new DelegationKey(deletedEntity.getOwner(), deletedEntity.getDelegatedTo())));
+		when(mockFacilityRepository.findAllByFacilityKeyIn(anyCollection())).thenReturn(emptyList());
+		when(mockDelegationRepository.save(any(DelegationEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		final var results = delegationService.processDelegations(MUNICIPALITY_ID, entries);
+
+		assertThat(results).extracting(DelegationBatchResult::getStatus).containsExactly(202, 201);
+
+		final var inOrder = inOrder(mockDelegationRepository);
+		inOrder.verify(mockDelegationRepository).delete(deletedEntity);
+		inOrder.verify(mockDelegationRepository).flush();
+		inOrder.verify(mockDelegationRepository).save(any(DelegationEntity.class));
+		inOrder.verify(mockDelegationRepository).flush();
+		verify(mockDelegationRepository).findAll(ArgumentMatchers.<Specification<DelegationEntity>>any());
+		verify(mockDelegationRepository).findByMunicipalityIdAndOwnerIn(eq(MUNICIPALITY_ID), anyCollection());
+		verify(mockFacilityRepository).findAllByFacilityKeyIn(anyCollection());
+		verifyChangeIdsTaken(entries.size());
+		verify(mockFacilityRepository).deleteByIdInAndDelegationsIsEmpty(anyCollection());
+		verify(mockDelegationTombstoneRepository).saveAll(anyList());
+		verify(mockDelegationEventOutbox, times(2)).add(eq(MUNICIPALITY_ID), any(), any());
+		verify(mockDelegationAccessIndex).put(any(DelegationEntity.class));
+		verify(mockDelegationAccessIndex).remove(eq(deletedEntity.getId()), anyLong());
+	}
+
+	@Test
+	void testProcessDelegationsWithNothingToLookUp() {
+		final var entries = List.of(
+			DelegationBatchEntry.create().withOperation(DelegationOperation.CREATE),
+			DelegationBatchEntry.create().withOperation(DelegationOperation.UPDATE).withUpdateDelegation(updateDelegation()));
+
+		final var results = delegationService.processDelegations(MUNICIPALITY_ID, entries);
+
+		assertThat(results)
+			.extracting(DelegationBatchResult::getStatus, DelegationBatchResult::getDetail)
+			.containsExactly(
+				tuple(400, "createDelegation must be provided for operation CREATE"),
+				tuple(400, "id and updateDelegation must be provided for operation UPDATE"));
+
+		verify(mockFacilityRepository).findAllByFacilityKeyIn(anyCollection());
+		verifyChangeIdsTaken(entries.size());
+		verify(mockDelegationRepository).flush();
+		verifyNoInteractions(mockDelegationEventOutbox);
+	}
+
+	@Test
+	void testDeleteDelegationWithExpectedVersionWhenNotFound_shouldThrowProblem() {
+		final var id = UUID.randomUUID().toString();
+
+		when(mockDelegationRepository.findVersion(MUNICIPALITY_ID, id)).thenReturn(Optional.empty());
+
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> delegationService.deleteDelegation(MUNICIPALITY_ID, id, 2L))
+			.withMessage("Delegation has been modified: Delegation with id: '" + id + "' does not have the expected version '2'.")
+			.satisfies(problem -> assertThat(problem.getStatus()).isEqualTo(PRECONDITION_FAILED));
+
+		verify(mockDelegationRepository).findVersion(MUNICIPALITY_ID, id);
+		verifyNoInteractions(mockFacilityRepository, mockDelegationEventOutbox, mockDelegationAccessIndex);
+	}
+
+	@Test
+	void testDeleteDelegationWithAnyVersionWhenNotFound_shouldThrowProblem() {
+		final var id = UUID.randomUUID().toString();
+
+		when(mockDelegationRepository.findVersion(MUNICIPALITY_ID, id)).thenReturn(Optional.empty());
+
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> delegationService.deleteDelegation(MUNICIPALITY_ID, id, ANY_VERSION))
+			.withMessage("Delegation has been modified: Delegation with id: '" + id + "' does not exist.")
+			.satisfies(problem -> assertThat(problem.getStatus()).isEqualTo(PRECONDITION_FAILED));
+
+		verify(mockDelegationRepository).findVersion(MUNICIPALITY_ID, id);
+		verifyNoInteractions(mockFacilityRepository, mockDelegationEventOutbox, mockDelegationAccessIndex);
+	}
+
+	@Test
+	void testAddEventThrowsException_shouldThrowException() {
 		final var id = UUID.randomUUID().toString();
 		final var delegationEntity = createDelegationEntity(id);
 		when(mockDelegationRepository.findOne(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(Optional.of(delegationEntity));
-		when(mockEventLogClient.createEvent(eq(MUNICIPALITY_ID), eq(id), any())).thenThrow(new RuntimeException("Exception"));
+		doThrow(new IllegalStateException("Exception")).when(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), any());
 
-		// Just testing the delete method as they all call the same client method
-		assertThatNoException()
-			.isThrownBy(() -> delegationService.deleteDelegation(MUNICIPALITY_ID, id));
+		// Just testing the delete method as they all add the event in the same way. The exception rolls back the transaction.
+		assertThatExceptionOfType(IllegalStateException.class)
+			.isThrownBy(() -> delegationService.deleteDelegation(MUNICIPALITY_ID, id, null));
 
 		verify(mockDelegationRepository).delete(delegationEntity);
-		verify(mockFacilityRepository).findAllByDelegationsIsEmpty();
-		verify(mockFacilityRepository).deleteAllInBatch(anyIterable());
-		verify(mockEventLogClient).createEvent(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
+		verifyChangeIdsTaken(1);
+		verify(mockDelegationRepository).flush();
+		verify(mockFacilityRepository).deleteByIdInAndDelegationsIsEmpty(anyCollection());
+		verify(mockDelegationTombstoneRepository).save(any(DelegationTombstoneEntity.class));
+		verify(mockDelegationEventOutbox).add(eq(MUNICIPALITY_ID), eq(id), eventCaptor.capture());
 
 		assertThat(eventCaptor.getValue().getType()).isEqualTo(DELETE);
 	}
+
+	private void verifyChangeIdsTaken(final int count) {
+		verify(mockDelegationChangeSequenceRepository).increment(MUNICIPALITY_ID, count);
+		verify(mockDelegationChangeSequenceRepository).findChangeId(MUNICIPALITY_ID);
+	}
 }
@@ -6,7 +6,9 @@ import generated.se.sundsvall.datawarehousereader.InstalledBaseItem;
 import generated.se.sundsvall.datawarehousereader.InstalledBaseResponse;
 import generated.se.sundsvall.datawarehousereader.PagingAndSortingMetaData;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -14,23 +16,39 @@ import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.dept44.exception.ClientProblem;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+import se.sundsvall.installedbase.api.model.InstalledBaseBatchEntry;
+import se.sundsvall.installedbase.api.model.InstalledBaseCustomer;
 import se.sundsvall.installedbase.api.model.InstalledBaseParameters;
-import se.sundsvall.installedbase.integration.datawarehousereader.DataWarehouseReaderClient;
+import se.sundsvall.installedbase.integration.datawarehousereader.Cached;
+import se.sundsvall.installedbase.integration.datawarehousereader.DataWarehouseReaderIntegration;
+import se.sundsvall.installedbase.integration.datawarehousereader.configuration.DataWarehouseReaderProperties;
+import se.sundsvall.installedbase.integration.db.model.InstalledBaseCustomerEntity;
+import se.sundsvall.installedbase.service.concurrency.FanOutExecutor;
+import se.sundsvall.installedbase.service.store.InstalledBaseStore;
 
 import static java.util.Optional.ofNullable;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.assertj.core.api.InstanceOfAssertFactories.LIST;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
 
 @ExtendWith(MockitoExtension.class)
 class InstalledBaseServiceTest {
 
 	@Mock
-	private DataWarehouseReaderClient clientMock;
+	private DataWarehouseReaderIntegration integrationMock;
 
 	@Mock
 	private CustomerEngagementResponse customerEngagementResponseMock;
@@ -50,6 +68,15 @@ class InstalledBaseServiceTest {
 	@Mock
 	private PagingAndSortingMetaData installedBaseMetaDataMock;
 
+	@Mock
+	private InstalledBaseStore installedBaseStoreMock;
+
+	@Spy
+	private DataWarehouseReaderProperties properties = new DataWarehouseReaderProperties(5, 20, 2, 3, 2);
+
+	@Spy
+	private FanOutExecutor fanOutExecutor = new FanOutExecutor(properties);
+
 	@InjectMocks
 	private InstalledBaseService service;
 
@@ -76,13 +103,13 @@ class InstalledBaseServiceTest {
 			.meta(new PagingAndSortingMetaData().page(1).limit(15).count(1).totalRecords(1L).totalPages(1))
 			.installedBase(List.of(new InstalledBaseItem().company("TestCompany").customerNumber("123").facilityId("fac1")));
 
-		when(clientMock.getInstalledBaseByPartyId(any(), any(), any(), any(), any(), any(), any())).thenReturn(clientResponse);
+		when(integrationMock.getInstalledBaseByPartyId(any(), any(), any(), any(), any(), any(), any())).thenReturn(Cached.of(clientResponse));
 
 		// when
 		final var result = service.getInstalledBaseByPartyId(municipalityId, parameters);
 
 		// then
-		verify(clientMock).getInstalledBaseByPartyId(municipalityId, partyId, "123456789,987654321", date, sortBy, page, limit);
+		verify(integrationMock).getInstalledBaseByPartyId(municipalityId, partyId, "123456789,987654321", date, sortBy, page, limit);
 		assertThat(result).isNotNull();
 		assertThat(result.getInstalledBaseList()).hasSize(1);
 		assertThat(result.getInstalledBaseList().getFirst().getCompany()).isEqualTo("TestCompany");
@@ -109,13 +136,13 @@ class InstalledBaseServiceTest {
 		// Mock
 		when(customerEngagementMetaDataMock.getCount()).thenReturn(1);
 
-		when(clientMock.getCustomerEngagement(any(), any(), any())).thenReturn(customerEngagementResponseMock);
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.of(customerEngagementResponseMock));
 		when(customerEngagementResponseMock.getMeta()).thenReturn(customerEngagementMetaDataMock);
 		when(customerEngagementResponseMock.getCustomerEngagements()).thenReturn(List.of(customerEngagementMock));
 		when(customerEngagementMock.getCustomerNumber()).thenReturn(customerNumber);
 		when(customerEngagementMock.getOrganizationName()).thenReturn(organizationName);
 
-		when(clientMock.getInstalledBase(any(), any(), any(), any(), anyInt(), anyInt(), any())).thenReturn(installedBaseResponseMock);
+		when(integrationMock.getInstalledBase(any(), any(), any(), any(), anyInt(), anyInt(), any())).thenReturn(Cached.of(installedBaseResponseMock));
 		when(installedBaseResponseMock.getInstalledBase()).thenReturn(List.of(installedBaseItemMock));
 		when(installedBaseResponseMock.getMeta()).thenReturn(installedBaseMetaDataMock);
 		when(installedBaseMetaDataMock.getTotalPages()).thenReturn(1);
@@ -124,11 +151,520 @@ class InstalledBaseServiceTest {
 		final var response = service.getInstalledBase(municipalityId, organizationNumber, partyId, modifiedFrom);
 
 		// Verifications and assertions
-		verify(clientMock).getCustomerEngagement(municipalityId, "5512345678", partyId);
-		verify(clientMock).getInstalledBase(municipalityId, customerNumber, organizationName, modifiedFrom, page, limit, sortBy);
+		verify(integrationMock).getCustomerEngagement(municipalityId, "5512345678", partyId);
+		verify(integrationMock).getInstalledBase(municipalityId, customerNumber, organizationName, modifiedFrom, page, limit, sortBy);
 
 		assertThat(response)
 			.hasFieldOrProperty("installedBaseCustomers")
 			.extracting(se.sundsvall.installedbase.api.model.InstalledBaseResponse::getInstalledBaseCustomers).asInstanceOf(LIST).hasSize(1);
 	}
+
+	@Test
+	void getInstalledBaseForMultipleEngagementsPreservesOrder() {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var partyIds = List.of("partyId1", "partyId2", "partyId3");
+		final var organizationNumber = "5512345678";
+		final var engagements = partyIds.stream()
+			.map(partyId -> new CustomerEngagement().partyId(partyId).customerNumber("customer-" + partyId).organizationName("organizationName"))
+			.toList();
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.of(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(engagements.size()))
+			.customerEngagements(engagements)));
+		partyIds.forEach(partyId -> when(integrationMock.getInstalledBase(eq(municipalityId), eq("customer-" + partyId), any(), any(), anyInt(), anyInt(), any()))
+			.thenReturn(Cached.of(new InstalledBaseResponse()
+				.meta(new PagingAndSortingMetaData().totalPages(1))
+				.installedBase(List.of(new InstalledBaseItem().facilityId("facility-" + partyId))))));
+
+		// Call
+		final var response = service.getInstalledBase(municipalityId, organizationNumber, partyIds, null);
+
+		// Verifications and assertions
+		verify(integrationMock).getCustomerEngagement(municipalityId, organizationNumber, partyIds);
+		partyIds.forEach(partyId -> verify(integrationMock).getInstalledBase(municipalityId, "customer-" + partyId, "organizationName", null, 1, 100, "facilityId"));
+		verify(fanOutExecutor).mapOrdered(eq(engagements), any());
+
+		assertThat(response.getInstalledBaseCustomers())
+			.extracting(InstalledBaseCustomer::getPartyId)
+			.containsExactlyElementsOf(partyIds);
+	}
+
+	@Test
+	void streamInstalledBasePassesCustomersToConsumerInOrder() {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var partyIds = List.of("partyId1", "partyId2", "partyId3");
+		final var organizationNumber = "5512345678";
+		final var engagements = partyIds.stream()
+			.map(partyId -> new CustomerEngagement().partyId(partyId).customerNumber("customer-" + partyId).organizationName("organizationName"))
+			.toList();
+		final var consumed = new ArrayList<InstalledBaseCustomer>();
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.of(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(engagements.size()))
+			.customerEngagements(engagements)));
+		partyIds.forEach(partyId -> when(integrationMock.getInstalledBase(eq(municipalityId), eq("customer-" + partyId), any(), any(), anyInt(), anyInt(), any()))
+			.thenReturn(Cached.of(new InstalledBaseResponse()
+				.meta(new PagingAndSortingMetaData().totalPages(1))
+				.installedBase(List.of(new InstalledBaseItem().facilityId("facility-" + partyId))))));
+
+		// Call
+		service.streamInstalledBase(municipalityId, organizationNumber, partyIds, null).forEachCustomer(consumed::add);
+
+		// Verifications and assertions
+		verify(integrationMock).getCustomerEngagement(municipalityId, organizationNumber, partyIds);
+		partyIds.forEach(partyId -> verify(integrationMock).getInstalledBase(municipalityId, "customer-" + partyId, "organizationName", null, 1, 100, "facilityId"));
+		verify(fanOutExecutor).forEachOrdered(eq(engagements), any(), any());
+
+		assertThat(consumed)
+			.extracting(InstalledBaseCustomer::getPartyId)
+			.containsExactlyElementsOf(partyIds);
+	}
+
+	@Test
+	void streamInstalledBaseWhenNoCustomerEngagementsFound() {
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.of(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(0))));
+
+		// Call
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> service.streamInstalledBase("municipalityId", "5512345678", List.of("partyId"), null))
+			.satisfies(problem -> assertThat(problem.getStatus()).isEqualTo(NOT_FOUND));
+
+		// Verifications and assertions
+		verify(fanOutExecutor, never()).forEachOrdered(any(), any(), any());
+	}
+
+	@Test
+	void streamInstalledBaseWithStaleCustomerEngagements() {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var organizationNumber = "5512345678";
+		final var consumed = new ArrayList<InstalledBaseCustomer>();
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.ofStale(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(1))
+			.customerEngagements(List.of(new CustomerEngagement().partyId("partyId").customerNumber("customerNumber").organizationName("organizationName")))));
+		when(integrationMock.getInstalledBase(municipalityId, "customerNumber", "organizationName", null, 1, 100, "facilityId")).thenReturn(Cached.of(new InstalledBaseResponse()
+			.meta(new PagingAndSortingMetaData().totalPages(1))
+			.installedBase(List.of(new InstalledBaseItem().facilityId("facilityId")))));
+
+		// Call
+		service.streamInstalledBase(municipalityId, organizationNumber, List.of("partyId"), null).forEachCustomer(consumed::add);
+
+		// Verifications and assertions
+		verify(integrationMock).getCustomerEngagement(municipalityId, organizationNumber, List.of("partyId"));
+		verify(integrationMock).getInstalledBase(municipalityId, "customerNumber", "organizationName", null, 1, 100, "facilityId");
+		assertThat(consumed).extracting(InstalledBaseCustomer::getCustomerNumber, InstalledBaseCustomer::isStale)
+			.containsExactly(tuple("customerNumber", true));
+	}
+
+	@Test
+	void getInstalledBaseFromStore() {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var organizationNumber = "5512345678";
+		final var modifiedFrom = LocalDate.now();
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.of(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(1))
+			.customerEngagements(List.of(new CustomerEngagement().partyId("partyId").customerNumber("customerNumber").organizationName("organizationName")))));
+		when(installedBaseStoreMock.isEnabled()).thenReturn(true);
+		when(installedBaseStoreMock.findItems(any(), any(), any(), any())).thenReturn(Optional.of(List.of(new InstalledBaseItem().facilityId("facilityId"))));
+
+		// Call
+		final var response = service.getInstalledBase(municipalityId, organizationNumber, List.of("partyId"), modifiedFrom);
+
+		// Verifications and assertions
+		verify(installedBaseStoreMock).findItems(municipalityId, "customerNumber", "organizationName", modifiedFrom);
+		verify(integrationMock, never()).getInstalledBase(any(), any(), any(), any(), anyInt(), anyInt(), any());
+		verify(installedBaseStoreMock, never()).replaceItems(any(), any(), any(), any(), any());
+
+		assertThat(response.getInstalledBaseCustomers()).hasSize(1);
+		assertThat(response.getInstalledBaseCustomers().getFirst().getItems())
+			.extracting(se.sundsvall.installedbase.api.model.InstalledBaseItem::getFacilityId)
+			.containsExactly("facilityId");
+	}
+
+	@ParameterizedTest
+	@NullSource
+	@ValueSource(strings = "2024-01-01")
+	void getInstalledBaseForCustomerUnknownByStore(LocalDate modifiedFrom) {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var organizationNumber = "5512345678";
+		final var items = List.of(new InstalledBaseItem().facilityId("facilityId"));
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.of(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(1))
+			.customerEngagements(List.of(new CustomerEngagement().partyId("partyId").customerNumber("customerNumber").organizationName("organizationName")))));
+		when(installedBaseStoreMock.isEnabled()).thenReturn(true);
+		when(installedBaseStoreMock.findItems(any(), any(), any(), any())).thenReturn(Optional.empty());
+		when(integrationMock.getInstalledBase(any(), any(), any(), any(), anyInt(), anyInt(), any())).thenReturn(Cached.of(new InstalledBaseResponse()
+			.meta(new PagingAndSortingMetaData().totalPages(1))
+			.installedBase(items)));
+
+		// Call
+		final var response = service.getInstalledBase(municipalityId, organizationNumber, List.of("partyId"), modifiedFrom);
+
+		// Verifications and assertions
+		verify(integrationMock).getInstalledBase(municipalityId, "customerNumber", "organizationName", modifiedFrom, 1, 100, "facilityId");
+		if (modifiedFrom == null) {
+			// Only a complete installed base is added to the store
+			verify(installedBaseStoreMock).replaceItems(eq(municipalityId), eq("customerNumber"), eq("organizationName"), eq(items), any());
+		} else {
+			verify(installedBaseStoreMock, never()).replaceItems(any(), any(), any(), any(), any());
+		}
+
+		assertThat(response.getInstalledBaseCustomers().getFirst().getItems())
+			.extracting(se.sundsvall.installedbase.api.model.InstalledBaseItem::getFacilityId)
+			.containsExactly("facilityId");
+	}
+
+	@Test
+	void synchronizeInstalledBaseStore() {
+
+		// Arrange
+		final var deltaCustomer = InstalledBaseCustomerEntity.create().withId("id-1").withMunicipalityId("2281").withCustomerNumber("customer-1").withCompany("company")
+			.withWatermark(LocalDate.of(2025, 6, 1));
+		final var fullCustomer = InstalledBaseCustomerEntity.create().withId("id-2").withMunicipalityId("2281").withCustomerNumber("customer-2").withCompany("company");
+		final var failingCustomer = InstalledBaseCustomerEntity.create().withId("id-3").withMunicipalityId("2281").withCustomerNumber("customer-3").withCompany("company");
+		final var deltaItems = List.of(new InstalledBaseItem().facilityId("facility-1"));
+		final var fullItems = List.of(new InstalledBaseItem().facilityId("facility-2"));
+
+		// Mock
+		when(installedBaseStoreMock.getCustomers()).thenReturn(List.of(failingCustomer, deltaCustomer, fullCustomer));
+		when(installedBaseStoreMock.isFullSyncDue(eq(deltaCustomer), any())).thenReturn(false);
+		when(installedBaseStoreMock.isFullSyncDue(eq(fullCustomer), any())).thenReturn(true);
+		when(installedBaseStoreMock.isFullSyncDue(eq(failingCustomer), any())).thenReturn(true);
+		when(integrationMock.getInstalledBase("2281", "customer-1", "company", LocalDate.of(2025, 6, 1), 1, 100, "facilityId"))
+			.thenReturn(Cached.of(new InstalledBaseResponse().meta(new PagingAndSortingMetaData().totalPages(1)).installedBase(deltaItems)));
+		when(integrationMock.getInstalledBase("2281", "customer-2", "company", null, 1, 100, "facilityId"))
+			.thenReturn(Cached.of(new InstalledBaseResponse().meta(new PagingAndSortingMetaData().totalPages(1)).installedBase(fullItems)));
+		when(integrationMock.getInstalledBase("2281", "customer-3", "company", null, 1, 100, "facilityId"))
+			.thenThrow(new ClientProblem(NOT_FOUND, "not found"));
+
+		// Call
+		service.synchronizeInstalledBaseStore();
+
+		// Verifications and assertions
+		verify(installedBaseStoreMock).mergeItems(eq("id-1"), eq(deltaItems), any());
+		verify(installedBaseStoreMock).replaceItems(eq("2281"), eq("customer-2"), eq("company"), eq(fullItems), any());
+		verify(installedBaseStoreMock, never()).replaceItems(any(), eq("customer-3"), any(), any(), any());
+	}
+
+	@Test
+	void synchronizeInstalledBaseStoreRemovesCustomerWithoutInstalledBase() {
+
+		// Arrange
+		final var customer = InstalledBaseCustomerEntity.create().withId("id-1").withMunicipalityId("2281").withCustomerNumber("customer-1").withCompany("");
+
+		// Mock
+		when(installedBaseStoreMock.getCustomers()).thenReturn(List.of(customer));
+		when(installedBaseStoreMock.isFullSyncDue(eq(customer), any())).thenReturn(true);
+		when(integrationMock.getInstalledBase("2281", "customer-1", null, null, 1, 100, "facilityId"))
+			.thenReturn(Cached.of(new InstalledBaseResponse().meta(new PagingAndSortingMetaData().totalPages(1)).installedBase(List.of())));
+
+		// Call
+		service.synchronizeInstalledBaseStore();
+
+		// Verifications and assertions
+		verify(installedBaseStoreMock).removeCustomer("id-1");
+		verify(installedBaseStoreMock, never()).replaceItems(any(), any(), any(), any(), any());
+	}
+
+	@Test
+	void synchronizeInstalledBaseStoreSkipsStaleInstalledBase() {
+
+		// Arrange
+		final var customer = InstalledBaseCustomerEntity.create().withId("id-1").withMunicipalityId("2281").withCustomerNumber("customer-1").withCompany("company")
+			.withWatermark(LocalDate.of(2025, 6, 1));
+
+		// Mock
+		when(installedBaseStoreMock.getCustomers()).thenReturn(List.of(customer));
+		when(installedBaseStoreMock.isFullSyncDue(eq(customer), any())).thenReturn(false);
+		when(integrationMock.getInstalledBase("2281", "customer-1", "company", LocalDate.of(2025, 6, 1), 1, 100, "facilityId"))
+			.thenReturn(Cached.ofStale(new InstalledBaseResponse().meta(new PagingAndSortingMetaData().totalPages(1)).installedBase(List.of(new InstalledBaseItem().facilityId("facility-1")))));
+
+		// Call
+		service.synchronizeInstalledBaseStore();
+
+		// Verifications and assertions
+		verify(installedBaseStoreMock, never()).mergeItems(any(), any(), any());
+		verify(installedBaseStoreMock, never()).replaceItems(any(), any(), any(), any(), any());
+	}
+
+	@Test
+	void getInstalledBaseFetchesCustomerEngagementsInChunks() {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var organizationNumber = "5512345678";
+		final var partyIds = List.of("partyId1", "partyId2", "partyId3", "partyId2", "partyId4", "partyId5");
+		final var engagement1 = new CustomerEngagement().partyId("partyId1").customerNumber("customer1").organizationName("organizationName");
+		final var engagement3 = new CustomerEngagement().partyId("partyId3").customerNumber("customer3").organizationName("organizationName");
+		final var engagement5 = new CustomerEngagement().partyId("partyId5").customerNumber("customer5").organizationName("organizationName");
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(municipalityId, organizationNumber, List.of("partyId1", "partyId2")))
+			.thenReturn(Cached.of(new CustomerEngagementResponse().meta(new PagingAndSortingMetaData().count(2)).customerEngagements(List.of(engagement1, engagement1))));
+		when(integrationMock.getCustomerEngagement(municipalityId, organizationNumber, List.of("partyId3", "partyId4")))
+			.thenReturn(Cached.of(new CustomerEngagementResponse().meta(new PagingAndSortingMetaData().count(1)).customerEngagements(List.of(engagement3))));
+		when(integrationMock.getCustomerEngagement(municipalityId, organizationNumber, List.of("partyId5")))
+			.thenReturn(Cached.of(new CustomerEngagementResponse().meta(new PagingAndSortingMetaData().count(1)).customerEngagements(List.of(engagement5))));
+		when(integrationMock.getInstalledBase(eq(municipalityId), any(), any(), any(), anyInt(), anyInt(), any()))
+			.thenReturn(Cached.of(new InstalledBaseResponse().meta(new PagingAndSortingMetaData().totalPages(1))));
+
+		// Call
+		final var response = service.getInstalledBase(municipalityId, organizationNumber, partyIds, null);
+
+		// Verifications and assertions
+		verify(integrationMock).getCustomerEngagement(municipalityId, organizationNumber, List.of("partyId1", "partyId2"));
+		verify(integrationMock).getCustomerEngagement(municipalityId, organizationNumber, List.of("partyId3", "partyId4"));
+		verify(integrationMock).getCustomerEngagement(municipalityId, organizationNumber, List.of("partyId5"));
+
+		assertThat(response.getInstalledBaseCustomers())
+			.extracting(InstalledBaseCustomer::getCustomerNumber)
+			.containsExactly("customer1", "customer3", "customer5");
+	}
+
+	@Test
+	void getInstalledBasesAnswersEachEntry() {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var entries = List.of(
+			InstalledBaseBatchEntry.create().withOrganizationNumber("5512345678").withPartyIds(List.of("partyId1")),
+			InstalledBaseBatchEntry.create().withOrganizationNumber("5512345679").withPartyIds(List.of("partyId2")).withModifiedFrom(LocalDate.of(2025, 1, 1)),
+			InstalledBaseBatchEntry.create().withOrganizationNumber("5512345670").withPartyIds(List.of("partyId3")));
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(municipalityId, "5512345678", List.of("partyId1"))).thenReturn(Cached.of(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(1))
+			.customerEngagements(List.of(new CustomerEngagement().partyId("partyId1").customerNumber("customerNumber").organizationName("organizationName")))));
+		when(integrationMock.getCustomerEngagement(municipalityId, "5512345679", List.of("partyId2"))).thenReturn(Cached.of(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(0))));
+		when(integrationMock.getCustomerEngagement(municipalityId, "5512345670", List.of("partyId3"))).thenThrow(new IllegalStateException("failure"));
+		when(integrationMock.getInstalledBase(municipalityId, "customerNumber", "organizationName", null, 1, 100, "facilityId")).thenReturn(Cached.of(new InstalledBaseResponse()
+			.meta(new PagingAndSortingMetaData().totalPages(1))
+			.installedBase(List.of(new InstalledBaseItem().facilityId("facilityId")))));
+
+		// Call
+		final var results = service.getInstalledBases(municipalityId, entries);
+
+		// Verifications and assertions
+		assertThat(results).hasSize(3);
+		assertThat(results.get(0).getOrganizationNumber()).isEqualTo("5512345678");
+		assertThat(results.get(0).getStatus()).isEqualTo(200);
+		assertThat(results.get(0).getInstalledBaseCustomers()).extracting(InstalledBaseCustomer::getCustomerNumber).containsExactly("customerNumber");
+		assertThat(results.get(1).getOrganizationNumber()).isEqualTo("5512345679");
+		assertThat(results.get(1).getModifiedFrom()).isEqualTo(LocalDate.of(2025, 1, 1));
+		assertThat(results.get(1).getStatus()).isEqualTo(404);
+		assertThat(results.get(1).getDetail()).isEqualTo("No customer engagements matched the search criteria!");
+		assertThat(results.get(1).getInstalledBaseCustomers()).isNull();
+		assertThat(results.get(2).getPartyIds()).containsExactly("partyId3");
+		assertThat(results.get(2).getStatus()).isEqualTo(500);
+		assertThat(results.get(2).getDetail()).isEqualTo("Internal Server Error");
+	}
+
+	@Test
+	void getInstalledBaseWithMultiplePagesMergesPagesInOrder() {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var partyIds = List.of("partyId");
+		final var organizationNumber = "5512345678";
+		final var customerNumber = "customerNumber";
+		final var organizationName = "organizationName";
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.of(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(1))
+			.customerEngagements(List.of(new CustomerEngagement().partyId("partyId").customerNumber(customerNumber).organizationName(organizationName)))));
+		List.of(1, 2, 3, 4).forEach(page -> when(integrationMock.getInstalledBase(municipalityId, customerNumber, organizationName, null, page, 100, "facilityId"))
+			.thenReturn(Cached.of(new InstalledBaseResponse()
+				.meta(new PagingAndSortingMetaData().page(page).totalPages(4))
+				.installedBase(List.of(new InstalledBaseItem().facilityId("facility-" + page))))));
+
+		// Call
+		final var response = service.getInstalledBase(municipalityId, organizationNumber, partyIds, null);
+
+		// Verifications and assertions
+		List.of(1, 2, 3, 4).forEach(page -> verify(integrationMock).getInstalledBase(municipalityId, customerNumber, organizationName, null, page, 100, "facilityId"));
+
+		assertThat(response.getInstalledBaseCustomers()).hasSize(1);
+		assertThat(response.getInstalledBaseCustomers().getFirst().getItems())
+			.extracting(se.sundsvall.installedbase.api.model.InstalledBaseItem::getFacilityId)
+			.containsExactly("facility-1", "facility-2", "facility-3", "facility-4");
+	}
+
+	@Test
+	void getInstalledBaseWithMultiplePagesSkipsEmptyPage() {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var customerNumber = "customerNumber";
+		final var organizationName = "organizationName";
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.of(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(1))
+			.customerEngagements(List.of(new CustomerEngagement().partyId("partyId").customerNumber(customerNumber).organizationName(organizationName)))));
+		when(integrationMock.getInstalledBase(municipalityId, customerNumber, organizationName, null, 1, 100, "facilityId"))
+			.thenReturn(Cached.of(new InstalledBaseResponse()
+				.meta(new PagingAndSortingMetaData().page(1).totalPages(3))
+				.installedBase(List.of(new InstalledBaseItem().facilityId("facility-1")))));
+		when(integrationMock.getInstalledBase(municipalityId, customerNumber, organizationName, null, 2, 100, "facilityId"))
+			.thenReturn(Cached.of(null));
+		when(integrationMock.getInstalledBase(municipalityId, customerNumber, organizationName, null, 3, 100, "facilityId"))
+			.thenReturn(Cached.of(new InstalledBaseResponse()
+				.meta(new PagingAndSortingMetaData().page(3).totalPages(3))
+				.installedBase(List.of(new InstalledBaseItem().facilityId("facility-3")))));
+
+		// Call
+		final var response = service.getInstalledBase(municipalityId, "5512345678", List.of("partyId"), null);
+
+		// Verifications and assertions
+		List.of(1, 2, 3).forEach(page -> verify(integrationMock).getInstalledBase(municipalityId, customerNumber, organizationName, null, page, 100, "facilityId"));
+
+		assertThat(response.getInstalledBaseCustomers().getFirst().getItems())
+			.extracting(se.sundsvall.installedbase.api.model.InstalledBaseItem::getFacilityId)
+			.containsExactly("facility-1", "facility-3");
+	}
+
+	@Test
+	void getInstalledBaseWithStaleInstalledBase() {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var organizationNumber = "5512345678";
+		final var items = List.of(new InstalledBaseItem().facilityId("facility-2"));
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.of(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(2))
+			.customerEngagements(List.of(
+				new CustomerEngagement().partyId("partyId").customerNumber("customer-1").organizationName("organizationName"),
+				new CustomerEngagement().partyId("partyId").customerNumber("customer-2").organizationName("organizationName")))));
+		when(installedBaseStoreMock.isEnabled()).thenReturn(true);
+		when(installedBaseStoreMock.findItems(any(), any(), any(), any())).thenReturn(Optional.empty());
+		when(integrationMock.getInstalledBase(municipalityId, "customer-1", "organizationName", null, 1, 100, "facilityId")).thenReturn(Cached.of(new InstalledBaseResponse()
+			.meta(new PagingAndSortingMetaData().totalPages(2))
+			.installedBase(List.of(new InstalledBaseItem().facilityId("facility-1")))));
+		when(integrationMock.getInstalledBase(municipalityId, "customer-1", "organizationName", null, 2, 100, "facilityId")).thenReturn(Cached.ofStale(new InstalledBaseResponse()
+			.meta(new PagingAndSortingMetaData().totalPages(2))
+			.installedBase(List.of(new InstalledBaseItem().facilityId("facility-3")))));
+		when(integrationMock.getInstalledBase(municipalityId, "customer-2", "organizationName", null, 1, 100, "facilityId")).thenReturn(Cached.of(new InstalledBaseResponse()
+			.meta(new PagingAndSortingMetaData().totalPages(1))
+			.installedBase(items)));
+
+		// Call
+		final var response = service.getInstalledBase(municipalityId, organizationNumber, List.of("partyId"), null);
+
+		// Verifications and assertions
+		assertThat(response.isStale()).isTrue();
+		assertThat(response.getInstalledBaseCustomers()).extracting(InstalledBaseCustomer::getCustomerNumber, InstalledBaseCustomer::isStale)
+			.containsExactly(tuple("customer-1", true), tuple("customer-2", false));
+
+		// A stale installed base is not added to the store
+		verify(installedBaseStoreMock, never()).replaceItems(any(), eq("customer-1"), any(), any(), any());
+		verify(installedBaseStoreMock).replaceItems(eq(municipalityId), eq("customer-2"), eq("organizationName"), eq(items), any());
+	}
+
+	@Test
+	void getInstalledBaseWithStaleCustomerEngagements() {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var organizationNumber = "5512345678";
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.ofStale(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(1))
+			.customerEngagements(List.of(new CustomerEngagement().partyId("partyId").customerNumber("customerNumber").organizationName("organizationName")))));
+		when(integrationMock.getInstalledBase(municipalityId, "customerNumber", "organizationName", null, 1, 100, "facilityId")).thenReturn(Cached.of(new InstalledBaseResponse()
+			.meta(new PagingAndSortingMetaData().totalPages(1))
+			.installedBase(List.of(new InstalledBaseItem().facilityId("facilityId")))));
+
+		// Call
+		final var response = service.getInstalledBase(municipalityId, organizationNumber, List.of("partyId"), null);
+
+		// Verifications and assertions
+		assertThat(response.isStale()).isTrue();
+		assertThat(response.getInstalledBaseCustomers()).extracting(InstalledBaseCustomer::isStale).containsExactly(false);
+	}
+
+	@Test
+	void getInstalledBaseRetriesFailedPage() {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var customerNumber = "customerNumber";
+		final var organizationName = "organizationName";
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.of(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(1))
+			.customerEngagements(List.of(new CustomerEngagement().partyId("partyId").customerNumber(customerNumber).organizationName(organizationName)))));
+		when(integrationMock.getInstalledBase(municipalityId, customerNumber, organizationName, null, 1, 100, "facilityId"))
+			.thenReturn(Cached.of(new InstalledBaseResponse()
+				.meta(new PagingAndSortingMetaData().page(1).totalPages(2))
+				.installedBase(List.of(new InstalledBaseItem().facilityId("facility-1")))));
+		when(integrationMock.getInstalledBase(municipalityId, customerNumber, organizationName, null, 2, 100, "facilityId"))
+			.thenThrow(new IllegalStateException("temporary failure"))
+			.thenReturn(Cached.of(new InstalledBaseResponse()
+				.meta(new PagingAndSortingMetaData().page(2).totalPages(2))
+				.installedBase(List.of(new InstalledBaseItem().facilityId("facility-2")))));
+
+		// Call
+		final var response = service.getInstalledBase(municipalityId, "5512345678", List.of("partyId"), null);
+
+		// Verifications and assertions
+		verify(integrationMock).getInstalledBase(municipalityId, customerNumber, organizationName, null, 1, 100, "facilityId");
+		verify(integrationMock, times(2)).getInstalledBase(municipalityId, customerNumber, organizationName, null, 2, 100, "facilityId");
+
+		assertThat(response.getInstalledBaseCustomers().getFirst().getItems())
+			.extracting(se.sundsvall.installedbase.api.model.InstalledBaseItem::getFacilityId)
+			.containsExactly("facility-1", "facility-2");
+	}
+
+	@Test
+	void getInstalledBaseDoesNotRetryClientProblem() {
+
+		// Arrange
+		final var municipalityId = "municipalityId";
+		final var customerNumber = "customerNumber";
+		final var organizationName = "organizationName";
+
+		// Mock
+		when(integrationMock.getCustomerEngagement(any(), any(), any())).thenReturn(Cached.of(new CustomerEngagementResponse()
+			.meta(new PagingAndSortingMetaData().count(1))
+			.customerEngagements(List.of(new CustomerEngagement().partyId("partyId").customerNumber(customerNumber).organizationName(organizationName)))));
+		when(integrationMock.getInstalledBase(municipalityId, customerNumber, organizationName, null, 1, 100, "facilityId"))
+			.thenReturn(Cached.of(new InstalledBaseResponse()
+				.meta(new PagingAndSortingMetaData().page(1).totalPages(2))
+				.installedBase(List.of(new InstalledBaseItem().facilityId("facility-1")))));
+		when(integrationMock.getInstalledBase(municipalityId, customerNumber, organizationName, null, 2, 100, "facilityId"))
+			.thenThrow(new ClientProblem(NOT_FOUND, "not found"));
+
+		// Call
+		assertThatExceptionOfType(ClientProblem.class)
+			.isThrownBy(() -> service.getInstalledBase(municipalityId, "5512345678", List.of("partyId"), null));
+
+		// Verifications
+		verify(integrationMock).getInstalledBase(municipalityId, customerNumber, organizationName, null, 2, 100, "facilityId");
+	}
 }
@@ -0,0 +1,26 @@
+package se.sundsvall.installedbase.service.access;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.installedbase.Application;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("junit")
+class DelegationAccessIndexPropertiesTest {
+
+	@Autowired
+	private DelegationAccessIndexProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.enabled()).isFalse();
+		assertThat(properties.refreshInterval()).isEqualTo(Duration.ofMinutes(1));
+		assertThat(properties.changesInterval()).isEqualTo(Duration.ofSeconds(5));
+		assertThat(properties.maxStaleness()).isEqualTo(Duration.ofSeconds(30));
+	}
+}
@@ -0,0 +1,36 @@
+package se.sundsvall.installedbase.service.access;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DelegationAccessIndexRefresherTest {
+
+	@Mock
+	private DelegationAccessIndex delegationAccessIndexMock;
+
+	@InjectMocks
+	private DelegationAccessIndexRefresher refresher;
+
+	@Test
+	void refresh() {
+		refresher.refresh();
+
+		verify(delegationAccessIndexMock).rebuild();
+		verifyNoMoreInteractions(delegationAccessIndexMock);
+	}
+
+	@Test
+	void applyChanges() {
+		refresher.applyChanges();
+
+		verify(delegationAccessIndexMock).applyChanges();
+		verifyNoMoreInteractions(delegationAccessIndexMock);
+	}
+}
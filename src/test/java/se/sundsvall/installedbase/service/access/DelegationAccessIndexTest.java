@@ -0,0 +1,240 @@
+package se.sundsvall.installedbase.service.access;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.sundsvall.installedbase.integration.db.DelegationChangeSequenceRepository;
+import se.sundsvall.installedbase.integration.db.DelegationRepository;
+import se.sundsvall.installedbase.integration.db.DelegationTombstoneRepository;
+import se.sundsvall.installedbase.integration.db.model.DelegatedFacility;
+import se.sundsvall.installedbase.integration.db.model.DelegationChangeSequenceEntity;
+import se.sundsvall.installedbase.integration.db.model.DelegationEntity;
+import se.sundsvall.installedbase.integration.db.model.DelegationTombstoneEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.installedbase.TestDataFactory.createDelegationEntity;
+
+@ExtendWith(MockitoExtension.class)
+class DelegationAccessIndexTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String DELEGATION_ID = "24504e65-08cf-4bc3-8f4f-a07204748c13";
+	private static final String OWNER = "81471222-5798-11e9-ae24-57fa13b361e1";
+	private static final String DELEGATED_TO = "f2949c12-bb83-406a-be96-bb8628f14612";
+
+	@Mock
+	private DelegationRepository delegationRepositoryMock;
+
+	@Mock
+	private DelegationTombstoneRepository delegationTombstoneRepositoryMock;
+
+	@Mock
+	private DelegationChangeSequenceRepository delegationChangeSequenceRepositoryMock;
+
+	@Mock
+	private PlatformTransactionManager transactionManagerMock;
+
+	private DelegationAccessIndex createIndex(final boolean enabled) {
+		return createIndex(enabled, Duration.ofSeconds(30));
+	}
+
+	private DelegationAccessIndex createIndex(final boolean enabled, final Duration maxStaleness) {
+		return new DelegationAccessIndex(delegationRepositoryMock, delegationTombstoneRepositoryMock, delegationChangeSequenceRepositoryMock, transactionManagerMock,
+			new DelegationAccessIndexProperties(enabled, Duration.ofMinutes(1), Duration.ofSeconds(5), maxStaleness));
+	}
+
+	private DelegationAccessIndex createBuiltIndex() {
+		when(delegationChangeSequenceRepositoryMock.findAll()).thenReturn(List.of(createSequence(2L)));
+		when(delegationRepositoryMock.findAllDelegatedFacilities()).thenReturn(List.of(
+			new DelegatedFacility(MUNICIPALITY_ID, DELEGATION_ID, 2L, OWNER, DELEGATED_TO, "Facility-1", "5591628136"),
+			new DelegatedFacility(MUNICIPALITY_ID, DELEGATION_ID, 2L, OWNER, DELEGATED_TO, "Facility-2", "5591628136")));
+
+		final var index = createIndex(true);
+		index.rebuild();
+		return index;
+	}
+
+	private static DelegationChangeSequenceEntity createSequence(final long changeId) {
+		return DelegationChangeSequenceEntity.create().withMunicipalityId(MUNICIPALITY_ID).withChangeId(changeId);
+	}
+
+	private static DelegationEntity createChangedEntity(final long changeId, final String delegatedTo) {
+		return createDelegationEntity(DELEGATION_ID, OWNER, delegatedTo).withChangeId(changeId);
+	}
+
+	@Test
+	void notReadyUntilBuilt() {
+		final var index = createIndex(true);
+
+		assertThat(index.isReady()).isFalse();
+		assertThat(index.hasAccess(MUNICIPALITY_ID, OWNER, "Facility-1", "5591628136")).isFalse();
+		verifyNoInteractions(delegationRepositoryMock);
+	}
+
+	@Test
+	void disabledIndexIsNeverBuilt() {
+		final var index = createIndex(false);
+
+		index.rebuild();
+		index.applyChanges();
+		index.put(createDelegationEntity(DELEGATION_ID));
+		index.remove(DELEGATION_ID, 2L);
+
+		assertThat(index.isReady()).isFalse();
+		verifyNoInteractions(delegationRepositoryMock, delegationTombstoneRepositoryMock, delegationChangeSequenceRepositoryMock, transactionManagerMock);
+	}
+
+	@Test
+	void hasAccess() {
+		final var index = createBuiltIndex();
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.hasAccess(MUNICIPALITY_ID, OWNER, "Facility-1", "5591628136")).isTrue();
+		assertThat(index.hasAccess(MUNICIPALITY_ID, DELEGATED_TO, "Facility-2", "5591628136")).isTrue();
+		// Party and facility are compared ignoring case, and the facility without business engagement org id on facility id only
+		assertThat(index.hasAccess(MUNICIPALITY_ID, DELEGATED_TO.toUpperCase(), " facility-1", null)).isTrue();
+		assertThat(index.hasAccess(MUNICIPALITY_ID, DELEGATED_TO, "Facility-1", "5591628137")).isFalse();
+		assertThat(index.hasAccess(MUNICIPALITY_ID, DELEGATED_TO, "Facility-3", "5591628136")).isFalse();
+		assertThat(index.hasAccess(MUNICIPALITY_ID, "adb574c3-16a7-430e-a0de-823592e0db92", "Facility-1", "5591628136")).isFalse();
+		assertThat(index.hasAccess("1984", OWNER, "Facility-1", "5591628136")).isFalse();
+
+		verify(delegationChangeSequenceRepositoryMock).findAll();
+		verify(delegationRepositoryMock).findAllDelegatedFacilities();
+		verifyNoMoreInteractions(delegationRepositoryMock, delegationChangeSequenceRepositoryMock);
+		verifyNoInteractions(delegationTombstoneRepositoryMock);
+	}
+
+	@Test
+	void notReadyWhenNotSynchronizedWithinMaxStaleness() {
+		when(delegationChangeSequenceRepositoryMock.findAll()).thenReturn(List.of(createSequence(2L)));
+		final var index = createIndex(true, Duration.ZERO);
+
+		index.rebuild();
+
+		assertThat(index.isReady()).isFalse();
+	}
+
+	@Test
+	void putAndRemove() {
+		final var index = createBuiltIndex();
+		final var entity = createChangedEntity(3L, "adb574c3-16a7-430e-a0de-823592e0db92");
+
+		index.put(entity);
+
+		assertThat(index.hasAccess(MUNICIPALITY_ID, OWNER, "facility-7", "5591628140")).isTrue();
+		assertThat(index.hasAccess(MUNICIPALITY_ID, "adb574c3-16a7-430e-a0de-823592e0db92", "facility-8", "5591628140")).isTrue();
+		// The facilities and delegate of the replaced delegation no longer give access
+		assertThat(index.hasAccess(MUNICIPALITY_ID, OWNER, "Facility-1", "5591628136")).isFalse();
+		assertThat(index.hasAccess(MUNICIPALITY_ID, DELEGATED_TO, "facility-7", "5591628140")).isFalse();
+
+		index.remove(DELEGATION_ID, 4L);
+
+		assertThat(index.hasAccess(MUNICIPALITY_ID, OWNER, "facility-7", "5591628140")).isFalse();
+		assertThat(index.hasAccess(MUNICIPALITY_ID, "adb574c3-16a7-430e-a0de-823592e0db92", "facility-8", "5591628140")).isFalse();
+	}
+
+	@Test
+	void putWithinTransactionIsAppliedAfterCommit() {
+		final var index = createBuiltIndex();
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			index.put(createChangedEntity(3L, DELEGATED_TO));
+
+			assertThat(index.hasAccess(MUNICIPALITY_ID, OWNER, "facility-7", "5591628140")).isFalse();
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+			assertThat(index.hasAccess(MUNICIPALITY_ID, OWNER, "facility-7", "5591628140")).isTrue();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void changeCommittedDuringRebuildIsKept() {
+		final var index = createBuiltIndex();
+
+		// The delegation is removed after the rebuild has read it from the database
+		when(delegationRepositoryMock.findAllDelegatedFacilities()).thenAnswer(invocation -> {
+			index.remove(DELEGATION_ID, 3L);
+			return List.of(new DelegatedFacility(MUNICIPALITY_ID, DELEGATION_ID, 2L, OWNER, DELEGATED_TO, "Facility-1", "5591628136"));
+		});
+
+		index.rebuild();
+
+		assertThat(index.hasAccess(MUNICIPALITY_ID, OWNER, "Facility-1", "5591628136")).isFalse();
+	}
+
+	@Test
+	void applyChangesReadsChangesAfterLatestChangeIdApplied() {
+		final var index = createBuiltIndex();
+		final var deletedId = "5ba9a4b1-0f2e-4b2e-9a59-3cf2b4ac3cf4";
+		index.put(createDelegationEntity(deletedId, OWNER, "adb574c3-16a7-430e-a0de-823592e0db92").withChangeId(2L));
+		when(delegationChangeSequenceRepositoryMock.findAll()).thenReturn(List.of(createSequence(4L)));
+		when(delegationRepositoryMock.findAll(ArgumentMatchers.<Specification<DelegationEntity>>any())).thenReturn(List.of(createChangedEntity(3L, DELEGATED_TO)));
+		when(delegationTombstoneRepositoryMock.findDeletedAfter(MUNICIPALITY_ID, 2L, Limit.unlimited()))
+			.thenReturn(List.of(DelegationTombstoneEntity.create().withDelegationId(deletedId).withMunicipalityId(MUNICIPALITY_ID).withChangeId(4L)));
+
+		index.applyChanges();
+
+		// The delegation changed by another instance now has the facilities of the change, and the deleted delegation is gone
+		assertThat(index.hasAccess(MUNICIPALITY_ID, DELEGATED_TO, "facility-7", "5591628140")).isTrue();
+		assertThat(index.hasAccess(MUNICIPALITY_ID, DELEGATED_TO, "Facility-1", "5591628136")).isFalse();
+		assertThat(index.hasAccess(MUNICIPALITY_ID, "adb574c3-16a7-430e-a0de-823592e0db92", "facility-7", "5591628140")).isFalse();
+		assertThat(index.isReady()).isTrue();
+
+		// The next changes are read after the latest change id applied, and not at all when there are none
+		index.applyChanges();
+
+		verify(delegationChangeSequenceRepositoryMock, times(3)).findAll();
+		verify(delegationRepositoryMock).findAllDelegatedFacilities();
+		verify(delegationRepositoryMock).findAll(ArgumentMatchers.<Specification<DelegationEntity>>any());
+		verify(delegationTombstoneRepositoryMock).findDeletedAfter(eq(MUNICIPALITY_ID), eq(2L), any(Limit.class));
+		verifyNoMoreInteractions(delegationRepositoryMock, delegationTombstoneRepositoryMock, delegationChangeSequenceRepositoryMock);
+	}
+
+	@Test
+	void applyChangesBeforeBuiltReadsNothing() {
+		final var index = createIndex(true);
+
+		index.applyChanges();
+
+		assertThat(index.isReady()).isFalse();
+		verifyNoInteractions(delegationRepositoryMock, delegationTombstoneRepositoryMock, delegationChangeSequenceRepositoryMock);
+	}
+
+	@Test
+	void olderChangeIsIgnored() {
+		final var index = createBuiltIndex();
+
+		// The change read from the database after this instance applied a later change of the delegation
+		index.put(createChangedEntity(4L, "adb574c3-16a7-430e-a0de-823592e0db92"));
+		index.put(createChangedEntity(3L, DELEGATED_TO));
+
+		assertThat(index.hasAccess(MUNICIPALITY_ID, "adb574c3-16a7-430e-a0de-823592e0db92", "facility-7", "5591628140")).isTrue();
+		assertThat(index.hasAccess(MUNICIPALITY_ID, DELEGATED_TO, "facility-7", "5591628140")).isFalse();
+
+		// A deleted delegation is not put back by a change made before the deletion
+		index.remove(DELEGATION_ID, 5L);
+		index.put(createChangedEntity(4L, DELEGATED_TO));
+
+		assertThat(index.hasAccess(MUNICIPALITY_ID, DELEGATED_TO, "facility-7", "5591628140")).isFalse();
+	}
+}
@@ -0,0 +1,26 @@
+package se.sundsvall.installedbase.service.cleanup;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.installedbase.Application;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("junit")
+class OrphanFacilitySweeperPropertiesTest {
+
+	@Autowired
+	private OrphanFacilitySweeperProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.enabled()).isFalse();
+		assertThat(properties.cron()).isEqualTo("-");
+		assertThat(properties.batchSize()).isEqualTo(100);
+		assertThat(properties.lockAtMostFor()).isEqualTo(Duration.ofMinutes(10));
+	}
+}
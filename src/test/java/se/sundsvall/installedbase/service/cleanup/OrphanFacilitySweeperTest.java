@@ -0,0 +1,98 @@
+package se.sundsvall.installedbase.service.cleanup;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import se.sundsvall.installedbase.integration.db.FacilityRepository;
+import se.sundsvall.installedbase.service.scheduling.SchedulerLock;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.installedbase.service.cleanup.OrphanFacilitySweeper.LOCK_NAME;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanFacilitySweeperTest {
+
+	private static final int BATCH_SIZE = 2;
+	private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(10);
+
+	@Mock
+	private FacilityRepository facilityRepositoryMock;
+
+	@Mock
+	private SchedulerLock schedulerLockMock;
+
+	@Captor
+	private ArgumentCaptor<Runnable> jobCaptor;
+
+	private OrphanFacilitySweeper createSweeper() {
+		return new OrphanFacilitySweeper(facilityRepositoryMock, schedulerLockMock, new OrphanFacilitySweeperProperties(true, "-", BATCH_SIZE, LOCK_AT_MOST_FOR));
+	}
+
+	@AfterEach
+	void verifyNoMoreMockInteractions() {
+		verifyNoMoreInteractions(facilityRepositoryMock, schedulerLockMock);
+	}
+
+	@Test
+	void sweepRunsLocked() {
+		when(facilityRepositoryMock.findIdsByDelegationsIsEmpty(PageRequest.of(0, BATCH_SIZE))).thenReturn(List.of());
+
+		createSweeper().sweep();
+
+		verify(schedulerLockMock).runLocked(eq(LOCK_NAME), eq(LOCK_AT_MOST_FOR), jobCaptor.capture());
+		verifyNoInteractions(facilityRepositoryMock);
+
+		jobCaptor.getValue().run();
+
+		verify(facilityRepositoryMock).findIdsByDelegationsIsEmpty(PageRequest.of(0, BATCH_SIZE));
+	}
+
+	@Test
+	void sweepDeletesInBatches() {
+		when(facilityRepositoryMock.findIdsByDelegationsIsEmpty(PageRequest.of(0, BATCH_SIZE)))
+			.thenReturn(List.of("id-1", "id-2"), List.of("id-3", "id-4"), List.of("id-5"));
+		when(facilityRepositoryMock.deleteByIdInAndDelegationsIsEmpty(any())).thenReturn(2, 2, 1);
+
+		createSweeper().deleteOrphans();
+
+		verify(facilityRepositoryMock, times(3)).findIdsByDelegationsIsEmpty(PageRequest.of(0, BATCH_SIZE));
+		verify(facilityRepositoryMock).deleteByIdInAndDelegationsIsEmpty(List.of("id-1", "id-2"));
+		verify(facilityRepositoryMock).deleteByIdInAndDelegationsIsEmpty(List.of("id-3", "id-4"));
+		verify(facilityRepositoryMock).deleteByIdInAndDelegationsIsEmpty(List.of("id-5"));
+	}
+
+	@Test
+	void sweepWhenNoOrphans() {
+		when(facilityRepositoryMock.findIdsByDelegationsIsEmpty(PageRequest.of(0, BATCH_SIZE))).thenReturn(List.of());
+
+		createSweeper().deleteOrphans();
+
+		verify(facilityRepositoryMock).findIdsByDelegationsIsEmpty(PageRequest.of(0, BATCH_SIZE));
+		verify(facilityRepositoryMock, never()).deleteByIdInAndDelegationsIsEmpty(any());
+	}
+
+	@Test
+	void sweepStopsWhenNothingCouldBeDeleted() {
+		when(facilityRepositoryMock.findIdsByDelegationsIsEmpty(PageRequest.of(0, BATCH_SIZE))).thenReturn(List.of("id-1", "id-2"));
+		when(facilityRepositoryMock.deleteByIdInAndDelegationsIsEmpty(List.of("id-1", "id-2"))).thenReturn(0);
+
+		createSweeper().deleteOrphans();
+
+		verify(facilityRepositoryMock).findIdsByDelegationsIsEmpty(PageRequest.of(0, BATCH_SIZE));
+		verify(facilityRepositoryMock).deleteByIdInAndDelegationsIsEmpty(List.of("id-1", "id-2"));
+	}
+}
@@ -0,0 +1,244 @@
+package se.sundsvall.installedbase.service.concurrency;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+import se.sundsvall.installedbase.integration.datawarehousereader.configuration.DataWarehouseReaderProperties;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+class FanOutExecutorTest {
+
+	private static final int MAX_CONCURRENCY_PER_REQUEST = 2;
+	private static final int MAX_CONCURRENCY_PER_MUNICIPALITY = 3;
+
+	private final FanOutExecutor executor = new FanOutExecutor(new DataWarehouseReaderProperties(5, 20, MAX_CONCURRENCY_PER_REQUEST, MAX_CONCURRENCY_PER_MUNICIPALITY, 10));
+
+	@Test
+	void mapOrderedPreservesOrder() {
+		final var items = IntStream.rangeClosed(1, 20).boxed().toList();
+
+		final var result = executor.mapOrdered(items, item -> {
+			sleep(20 - item); // Make later items finish before earlier ones
+			return "item-" + item;
+		});
+
+		assertThat(result).containsExactlyElementsOf(items.stream().map(item -> "item-" + item).toList());
+	}
+
+	@Test
+	void mapOrderedWithEmptyList() {
+		assertThat(executor.mapOrdered(List.<String>of(), String::length)).isEmpty();
+	}
+
+	@Test
+	void mapOrderedWithSingleItemRunsInCallingThread() {
+		final var callingThread = Thread.currentThread();
+
+		final var result = executor.mapOrdered(List.of("item"), item -> Thread.currentThread() == callingThread);
+
+		assertThat(result).containsExactly(true);
+	}
+
+	@Test
+	void mapOrderedIsBoundedByMaxConcurrencyPerRequest() {
+		final var ongoing = new AtomicInteger();
+		final var maxOngoing = new AtomicInteger();
+
+		// Each call is made for its own municipality, to only be bounded by the limit of the request
+		executor.mapOrdered(IntStream.range(0, 15).boxed().toList(), item -> executor.withMunicipalityPermit("municipality-" + item, () -> {
+			maxOngoing.accumulateAndGet(ongoing.incrementAndGet(), Math::max);
+			sleep(10);
+			return ongoing.decrementAndGet();
+		}));
+
+		assertThat(maxOngoing.get()).isPositive().isLessThanOrEqualTo(MAX_CONCURRENCY_PER_REQUEST);
+	}
+
+	@Test
+	void nestedFanOutsShareMaxConcurrencyPerRequest() {
+		final var ongoing = new AtomicInteger();
+		final var maxOngoing = new AtomicInteger();
+
+		executor.withRequestPermits(() -> executor.mapOrdered(IntStream.range(0, 5).boxed().toList(),
+			outer -> executor.mapOrdered(IntStream.range(0, 5).boxed().toList(),
+				inner -> executor.withMunicipalityPermit("municipality-" + outer + "-" + inner, () -> {
+					maxOngoing.accumulateAndGet(ongoing.incrementAndGet(), Math::max);
+					sleep(10);
+					return ongoing.decrementAndGet();
+				}))));
+
+		assertThat(maxOngoing.get()).isPositive().isLessThanOrEqualTo(MAX_CONCURRENCY_PER_REQUEST);
+	}
+
+	@Test
+	void forEachOrderedBoundsItemsInFlight() {
+		final var started = new AtomicInteger();
+		final var maxAhead = new AtomicInteger();
+		final var consumed = new AtomicInteger();
+
+		executor.forEachOrdered(IntStream.range(0, 20).boxed().toList(), item -> {
+			started.incrementAndGet();
+			sleep(item == 0 ? 50 : 0); // The first item is slow, later items finish ahead of it
+			return item;
+		}, item -> {
+			maxAhead.accumulateAndGet(started.get() - consumed.get(), Math::max);
+			consumed.incrementAndGet();
+		});
+
+		assertThat(consumed.get()).isEqualTo(20);
+		assertThat(maxAhead.get()).isPositive().isLessThanOrEqualTo(MAX_CONCURRENCY_PER_REQUEST);
+	}
+
+	@Test
+	void mapOrderedRethrowsFirstFailureInItemOrder() {
+		final var items = List.of(1, 2, 3, 4);
+
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> executor.mapOrdered(items, item -> {
+				if (item == 2) {
+					sleep(50);
+					throw Problem.valueOf(NOT_FOUND, "item 2 failed");
+				}
+				if (item == 4) {
+					throw Problem.valueOf(BAD_GATEWAY, "item 4 failed");
+				}
+				return item;
+			}))
+			.satisfies(problem -> assertThat(problem.getStatus()).isEqualTo(NOT_FOUND));
+	}
+
+	@Test
+	void forEachOrderedConsumesInOrderInCallingThread() {
+		final var callingThread = Thread.currentThread();
+		final var items = IntStream.rangeClosed(1, 10).boxed().toList();
+		final var consumed = new ArrayList<Integer>();
+
+		executor.forEachOrdered(items, item -> {
+			sleep(10 - item); // Make later items finish before earlier ones
+			return item;
+		}, item -> {
+			assertThat(Thread.currentThread()).isSameAs(callingThread);
+			consumed.add(item);
+		});
+
+		assertThat(consumed).containsExactlyElementsOf(items);
+	}
+
+	@Test
+	void forEachOrderedConsumesItemsPrecedingFailure() {
+		final var consumed = new ArrayList<Integer>();
+
+		assertThatExceptionOfType(ThrowableProblem.class)
+			.isThrownBy(() -> executor.forEachOrdered(List.of(1, 2, 3, 4), item -> {
+				if (item == 3) {
+					throw Problem.valueOf(NOT_FOUND, "item 3 failed");
+				}
+				return item;
+			}, consumed::add));
+
+		assertThat(consumed).containsExactly(1, 2);
+	}
+
+	@Test
+	void forEachOrderedStopsWhenConsumerFails() {
+		final var mapped = new AtomicInteger();
+
+		assertThatExceptionOfType(IllegalStateException.class)
+			.isThrownBy(() -> executor.forEachOrdered(IntStream.range(0, 50).boxed().toList(), item -> {
+				sleep(item == 0 ? 0 : 50);
+				return mapped.incrementAndGet();
+			}, item -> {
+				throw new IllegalStateException("consumer failed");
+			}));
+
+		assertThat(mapped.get()).isLessThan(50);
+	}
+
+	@Test
+	void withMunicipalityPermitIsBoundedPerMunicipality() throws InterruptedException {
+		final var ongoing = new AtomicInteger();
+		final var maxOngoing = new AtomicInteger();
+		final var finished = new CountDownLatch(10);
+
+		IntStream.range(0, 10).forEach(i -> Thread.ofVirtual().start(() -> {
+			executor.withMunicipalityPermit("2281", () -> {
+				maxOngoing.accumulateAndGet(ongoing.incrementAndGet(), Math::max);
+				sleep(10);
+				return ongoing.decrementAndGet();
+			});
+			finished.countDown();
+		}));
+
+		assertThat(finished.await(5, SECONDS)).isTrue();
+		assertThat(maxOngoing.get()).isPositive().isLessThanOrEqualTo(MAX_CONCURRENCY_PER_MUNICIPALITY);
+	}
+
+	@Test
+	void requestLeavesMunicipalityPermitsForOtherRequests() throws InterruptedException {
+		final var requestSaturated = new CountDownLatch(MAX_CONCURRENCY_PER_REQUEST);
+		final var release = new CountDownLatch(1);
+
+		// A batch request with more items than it has permits, holding all its permits for the municipality
+		final var batch = Thread.ofVirtual().start(() -> executor.mapOrdered(IntStream.range(0, 10).boxed().toList(), item -> executor.withMunicipalityPermit("2281", () -> {
+			requestSaturated.countDown();
+			await(release);
+			return item;
+		})));
+
+		assertThat(requestSaturated.await(5, SECONDS)).isTrue();
+		assertThat(assertTimeoutPreemptively(Duration.ofSeconds(5), () -> executor.withRequestPermits(() -> executor.withMunicipalityPermit("2281", () -> "result"))))
+			.isEqualTo("result");
+
+		release.countDown();
+		assertThat(batch.join(Duration.ofSeconds(5))).isTrue();
+	}
+
+	@Test
+	void constructorRejectsRequestLimitNotBelowMunicipalityLimit() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> new FanOutExecutor(new DataWarehouseReaderProperties(5, 20, 3, 3, 10)))
+			.withMessage("maxConcurrencyPerRequest (3) must be at least 1 and less than maxConcurrencyPerMunicipality (3)");
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> new FanOutExecutor(new DataWarehouseReaderProperties(5, 20, 0, 3, 10)));
+	}
+
+	@Test
+	void withMunicipalityPermitReleasesPermitOnFailure() {
+		IntStream.range(0, MAX_CONCURRENCY_PER_MUNICIPALITY + 1).forEach(i -> assertThatExceptionOfType(IllegalStateException.class)
+			.isThrownBy(() -> executor.withMunicipalityPermit("2281", () -> {
+				throw new IllegalStateException("failure");
+			})));
+
+		assertThat(executor.withMunicipalityPermit("2281", () -> "result")).isEqualTo("result");
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await(5, SECONDS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(final long millis) {
+		try {
+			MILLISECONDS.sleep(millis);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package se.sundsvall.installedbase.service.event;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.installedbase.Application;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("junit")
+class DelegationEventDispatcherPropertiesTest {
+
+	@Autowired
+	private DelegationEventDispatcherProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.enabled()).isFalse();
+		assertThat(properties.interval()).isEqualTo(Duration.ofSeconds(1));
+		assertThat(properties.batchSize()).isEqualTo(10);
+		assertThat(properties.maxAttempts()).isEqualTo(3);
+		assertThat(properties.retryInterval()).isEqualTo(Duration.ofSeconds(1));
+		assertThat(properties.maxRetryInterval()).isEqualTo(Duration.ofMinutes(1));
+		assertThat(properties.lockAtMostFor()).isEqualTo(Duration.ofMinutes(5));
+	}
+}
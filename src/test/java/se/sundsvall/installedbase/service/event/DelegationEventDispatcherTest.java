@@ -0,0 +1,217 @@
+package se.sundsvall.installedbase.service.event;
+
+import generated.se.sundsvall.eventlog.Event;
+import generated.se.sundsvall.eventlog.EventType;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import se.sundsvall.installedbase.integration.db.DelegationEventRepository;
+import se.sundsvall.installedbase.integration.db.model.DelegationEventEntity;
+import se.sundsvall.installedbase.integration.eventlog.EventLogClient;
+import se.sundsvall.installedbase.service.scheduling.SchedulerLock;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.installedbase.integration.db.model.DelegationEventStatus.FAILED;
+import static se.sundsvall.installedbase.integration.db.model.DelegationEventStatus.PENDING;
+import static se.sundsvall.installedbase.service.event.DelegationEventDispatcher.LOCK_NAME;
+
+@ExtendWith(MockitoExtension.class)
+class DelegationEventDispatcherTest {
+
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+	private static final int BATCH_SIZE = 10;
+	private static final int MAX_ATTEMPTS = 5;
+	private static final Duration RETRY_INTERVAL = Duration.ofSeconds(10);
+	private static final Duration MAX_RETRY_INTERVAL = Duration.ofSeconds(30);
+	private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(5);
+
+	@Mock
+	private DelegationEventRepository delegationEventRepositoryMock;
+
+	@Mock
+	private EventLogClient eventLogClientMock;
+
+	@Mock
+	private SchedulerLock schedulerLockMock;
+
+	@Captor
+	private ArgumentCaptor<Runnable> jobCaptor;
+
+	private DelegationEventDispatcher dispatcher;
+
+	@BeforeEach
+	void setup() {
+		dispatcher = new DelegationEventDispatcher(delegationEventRepositoryMock, eventLogClientMock, JSON_MAPPER,
+			new DelegationEventDispatcherProperties(true, Duration.ofSeconds(1), BATCH_SIZE, MAX_ATTEMPTS, RETRY_INTERVAL, MAX_RETRY_INTERVAL, LOCK_AT_MOST_FOR), schedulerLockMock);
+	}
+
+	@AfterEach
+	void verifyNoMoreMockInteractions() {
+		verifyNoMoreInteractions(delegationEventRepositoryMock, eventLogClientMock, schedulerLockMock);
+	}
+
+	@Test
+	void dispatchRunsLocked() {
+		when(delegationEventRepositoryMock.findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of());
+
+		dispatcher.dispatch();
+
+		verify(schedulerLockMock).runLocked(eq(LOCK_NAME), eq(LOCK_AT_MOST_FOR), jobCaptor.capture());
+		verifyNoInteractions(delegationEventRepositoryMock);
+
+		jobCaptor.getValue().run();
+
+		verify(delegationEventRepositoryMock).findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)));
+	}
+
+	@Test
+	void dispatchDeliversEarliestEventPerDelegation() {
+		final var first = createEventEntity(1L, "delegation-1", EventType.CREATE);
+		final var second = createEventEntity(2L, "delegation-2", EventType.CREATE);
+		final var third = createEventEntity(3L, "delegation-1", EventType.UPDATE);
+
+		// The next event of a delegation is due when the earlier event has been delivered
+		when(delegationEventRepositoryMock.findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE))))
+			.thenReturn(List.of(first, second), List.of(third), List.of());
+
+		dispatcher.dispatchDue();
+
+		verify(delegationEventRepositoryMock, times(3)).findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)));
+		verify(eventLogClientMock).createEvent("2281", "delegation-1", toEvent(EventType.CREATE));
+		verify(eventLogClientMock).createEvent("2281", "delegation-2", toEvent(EventType.CREATE));
+		verify(eventLogClientMock).createEvent("2281", "delegation-1", toEvent(EventType.UPDATE));
+		verify(delegationEventRepositoryMock).delete(first);
+		verify(delegationEventRepositoryMock).delete(second);
+		verify(delegationEventRepositoryMock).delete(third);
+	}
+
+	@Test
+	void dispatchWhenNoEventsAreDue() {
+		when(delegationEventRepositoryMock.findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of());
+
+		dispatcher.dispatchDue();
+
+		verify(delegationEventRepositoryMock).findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)));
+		verify(eventLogClientMock, never()).createEvent(any(), any(), any());
+	}
+
+	@Test
+	void dispatchFailureIsRetriedWithBackoff() {
+		final var event = createEventEntity(1L, "delegation-1", EventType.CREATE).withAttempts(1);
+
+		when(delegationEventRepositoryMock.findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of(event));
+		when(eventLogClientMock.createEvent(any(), any(), any())).thenThrow(new IllegalStateException("Eventlog unavailable"));
+
+		dispatcher.dispatchDue();
+
+		verify(delegationEventRepositoryMock).findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)));
+		verify(eventLogClientMock).createEvent("2281", "delegation-1", toEvent(EventType.CREATE));
+		verify(delegationEventRepositoryMock).save(event);
+		assertThat(event.getAttempts()).isEqualTo(2);
+		assertThat(event.getStatus()).isEqualTo(PENDING);
+		assertThat(event.getNextAttempt()).isCloseTo(OffsetDateTime.now().plus(RETRY_INTERVAL.multipliedBy(2)), within(1, ChronoUnit.SECONDS));
+	}
+
+	@Test
+	void dispatchFailureBackoffIsCapped() {
+		final var event = createEventEntity(1L, "delegation-1", EventType.CREATE).withAttempts(2);
+
+		when(delegationEventRepositoryMock.findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of(event));
+		when(eventLogClientMock.createEvent(any(), any(), any())).thenThrow(new IllegalStateException("Eventlog unavailable"));
+
+		dispatcher.dispatchDue();
+
+		verify(delegationEventRepositoryMock).findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)));
+		verify(eventLogClientMock).createEvent("2281", "delegation-1", toEvent(EventType.CREATE));
+		verify(delegationEventRepositoryMock).save(event);
+		assertThat(event.getAttempts()).isEqualTo(3);
+		assertThat(event.getNextAttempt()).isCloseTo(OffsetDateTime.now().plus(MAX_RETRY_INTERVAL), within(1, ChronoUnit.SECONDS));
+	}
+
+	@Test
+	void dispatchFailureIsMarkedFailedAfterMaxAttempts() {
+		final var event = createEventEntity(1L, "delegation-1", EventType.CREATE).withAttempts(MAX_ATTEMPTS - 1);
+
+		when(delegationEventRepositoryMock.findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of(event), List.of());
+		when(eventLogClientMock.createEvent(any(), any(), any())).thenThrow(new IllegalStateException("Eventlog unavailable"));
+
+		dispatcher.dispatchDue();
+
+		verify(delegationEventRepositoryMock, times(2)).findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)));
+		verify(eventLogClientMock).createEvent("2281", "delegation-1", toEvent(EventType.CREATE));
+		verify(delegationEventRepositoryMock).save(event);
+		verify(delegationEventRepositoryMock, never()).delete(any());
+		assertThat(event.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+		assertThat(event.getStatus()).isEqualTo(FAILED);
+	}
+
+	@Test
+	void dispatchStopsWhenRunReachesTimeLimit() {
+		// Without time for dispatching, due events are left for the next run although events keep being due
+		dispatcher = new DelegationEventDispatcher(delegationEventRepositoryMock, eventLogClientMock, JSON_MAPPER,
+			new DelegationEventDispatcherProperties(true, Duration.ofSeconds(1), BATCH_SIZE, MAX_ATTEMPTS, RETRY_INTERVAL, MAX_RETRY_INTERVAL, Duration.ZERO), schedulerLockMock);
+		final var event = createEventEntity(1L, "delegation-1", EventType.CREATE);
+
+		when(delegationEventRepositoryMock.findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of(event));
+
+		dispatcher.dispatchDue();
+
+		verify(delegationEventRepositoryMock).findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)));
+		verifyNoInteractions(eventLogClientMock);
+		assertThat(event.getStatus()).isEqualTo(PENDING);
+	}
+
+	@Test
+	void dispatchStopsBetweenBatchesWhenRunReachesTimeLimit() {
+		dispatcher = new DelegationEventDispatcher(delegationEventRepositoryMock, eventLogClientMock, JSON_MAPPER,
+			new DelegationEventDispatcherProperties(true, Duration.ofSeconds(1), BATCH_SIZE, MAX_ATTEMPTS, RETRY_INTERVAL, MAX_RETRY_INTERVAL, Duration.ofMillis(200)), schedulerLockMock);
+		final var event = createEventEntity(1L, "delegation-1", EventType.CREATE);
+
+		// The run reaches its time limit while delivering the first batch, and the next batch is left for the next run
+		when(delegationEventRepositoryMock.findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of(event));
+		when(eventLogClientMock.createEvent(any(), any(), any())).thenAnswer(invocation -> {
+			Thread.sleep(150);
+			return null;
+		});
+
+		dispatcher.dispatchDue();
+
+		verify(delegationEventRepositoryMock).findDueForDispatch(any(), eq(Limit.of(BATCH_SIZE)));
+		verify(eventLogClientMock).createEvent("2281", "delegation-1", toEvent(EventType.CREATE));
+		verify(delegationEventRepositoryMock).delete(event);
+	}
+
+	private static DelegationEventEntity createEventEntity(final Long id, final String delegationId, final EventType eventType) {
+		return DelegationEventEntity.create()
+			.withId(id)
+			.withMunicipalityId("2281")
+			.withDelegationId(delegationId)
+			.withEvent(JSON_MAPPER.writeValueAsString(toEvent(eventType)))
+			.withStatus(PENDING)
+			.withNextAttempt(OffsetDateTime.now());
+	}
+
+	private static Event toEvent(final EventType eventType) {
+		return new Event().type(eventType).message("Facility delegation").owner("InstalledBase").sourceType("Delegation");
+	}
+}
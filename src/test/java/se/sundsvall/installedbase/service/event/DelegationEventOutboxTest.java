@@ -0,0 +1,50 @@
+package se.sundsvall.installedbase.service.event;
+
+import generated.se.sundsvall.eventlog.Event;
+import generated.se.sundsvall.eventlog.EventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.installedbase.integration.db.DelegationEventRepository;
+import se.sundsvall.installedbase.integration.db.model.DelegationEventEntity;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DelegationEventOutboxTest {
+
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
+	@Mock
+	private DelegationEventRepository delegationEventRepositoryMock;
+
+	@Captor
+	private ArgumentCaptor<DelegationEventEntity> entityCaptor;
+
+	@AfterEach
+	void verifyNoMoreMockInteractions() {
+		verifyNoMoreInteractions(delegationEventRepositoryMock);
+	}
+
+	@Test
+	void add() {
+		final var event = new Event().type(EventType.UPDATE).message("Update facility delegation").owner("InstalledBase");
+
+		new DelegationEventOutbox(delegationEventRepositoryMock, JSON_MAPPER).add("2281", "delegationId", event);
+
+		verify(delegationEventRepositoryMock).save(entityCaptor.capture());
+		assertThat(entityCaptor.getValue()).satisfies(entity -> {
+			assertThat(entity.getMunicipalityId()).isEqualTo("2281");
+			assertThat(entity.getDelegationId()).isEqualTo("delegationId");
+			assertThat(entity.getAttempts()).isZero();
+			assertThat(JSON_MAPPER.readValue(entity.getEvent(), Event.class)).isEqualTo(event);
+		});
+	}
+}
@@ -1,11 +1,17 @@
 package se.sundsvall.installedbase.service.mapper;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.installedbase.api.model.delegation.Facility;
+import se.sundsvall.installedbase.integration.db.model.DelegationTombstoneEntity;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.installedbase.api.model.delegation.DelegationChangeType.CREATED;
+import static se.sundsvall.installedbase.api.model.delegation.DelegationChangeType.DELETED;
+import static se.sundsvall.installedbase.api.model.delegation.DelegationChangeType.UPDATED;
 import static se.sundsvall.installedbase.TestDataFactory.createDelegation;
 import static se.sundsvall.installedbase.TestDataFactory.createDelegationEntity;
 
@@ -19,11 +25,23 @@ class DatabaseMapperTest {
 
 		final var bean = DatabaseMapper.toDelegationEntity(municipalityId, delegation);
 
-		assertThat(bean).hasNoNullFieldsOrPropertiesExcept("id", "facilities", "created", "updated");
+		assertThat(bean).hasNoNullFieldsOrPropertiesExcept("id", "facilities", "created", "updated", "changeId", "version");
 		assertThat(bean.getOwner()).isEqualTo(delegation.getOwner());
 		assertThat(bean.getDelegatedTo()).isEqualTo(delegation.getDelegatedTo());
 	}
 
+	@Test
+	void toFacilityEntity() {
+		final var facility = Facility.create().withId(" Facility-1").withBusinessEngagementOrgId("5591628136");
+
+		final var bean = DatabaseMapper.toFacilityEntity(facility);
+
+		assertThat(bean).hasNoNullFieldsOrPropertiesExcept("id");
+		assertThat(bean.getFacilityId()).isEqualTo(" Facility-1");
+		assertThat(bean.getBusinessEngagementOrgId()).isEqualTo("5591628136");
+		assertThat(bean.getFacilityKey()).isEqualTo("5591628136|facility-1");
+	}
+
 	@Test
 	void toDelegation() {
 		final var id = UUID.randomUUID().toString();
@@ -38,6 +56,7 @@ class DatabaseMapperTest {
 		assertThat(bean.getMunicipalityId()).isEqualTo(entity.getMunicipalityId());
 		assertThat(bean.getCreated()).isEqualTo(entity.getCreated());
 		assertThat(bean.getUpdated()).isEqualTo(entity.getUpdated());
+		assertThat(bean.getVersion()).isEqualTo(entity.getVersion());
 		assertThat(bean.getFacilities()).hasSize(2)
 			.allSatisfy(facility -> assertThat(facility).hasNoNullFieldsOrPropertiesExcept("id"))
 			.satisfiesExactlyInAnyOrder(facility -> {
@@ -48,4 +67,65 @@ class DatabaseMapperTest {
 				assertThat(facility.getId()).isEqualTo("facility-8");
 			});
 	}
+
+	@Test
+	void toDelegationTombstoneEntity() {
+		final var id = UUID.randomUUID().toString();
+		final var entity = createDelegationEntity(id);
+
+		final var bean = DatabaseMapper.toDelegationTombstoneEntity(entity);
+
+		// Deleted is set when the tombstone is persisted, and the change id when the delegation is deleted
+		assertThat(bean).hasNoNullFieldsOrPropertiesExcept("deleted", "changeId");
+		assertThat(bean.getDelegationId()).isEqualTo(id);
+		assertThat(bean.getMunicipalityId()).isEqualTo(entity.getMunicipalityId());
+		assertThat(bean.getOwner()).isEqualTo(entity.getOwner());
+		assertThat(bean.getDelegatedTo()).isEqualTo(entity.getDelegatedTo());
+	}
+
+	@Test
+	void toDelegationChangeFromUpdatedEntity() {
+		final var id = UUID.randomUUID().toString();
+		final var entity = createDelegationEntity(id);
+
+		final var bean = DatabaseMapper.toDelegationChange(entity);
+
+		assertThat(bean).hasNoNullFieldsOrProperties();
+		assertThat(bean.getId()).isEqualTo(id);
+		assertThat(bean.getType()).isEqualTo(UPDATED);
+		assertThat(bean.getChanged()).isEqualTo(entity.getUpdated());
+		assertThat(bean.getOwner()).isEqualTo(entity.getOwner());
+		assertThat(bean.getDelegatedTo()).isEqualTo(entity.getDelegatedTo());
+		assertThat(bean.getDelegation()).isEqualTo(DatabaseMapper.toDelegation(entity));
+	}
+
+	@Test
+	void toDelegationChangeFromCreatedEntity() {
+		final var entity = createDelegationEntity(UUID.randomUUID().toString());
+		entity.setUpdated(entity.getCreated());
+
+		final var bean = DatabaseMapper.toDelegationChange(entity);
+
+		assertThat(bean.getType()).isEqualTo(CREATED);
+		assertThat(bean.getChanged()).isEqualTo(entity.getCreated());
+	}
+
+	@Test
+	void toDelegationChangeFromTombstoneEntity() {
+		final var entity = DelegationTombstoneEntity.create()
+			.withDelegationId(UUID.randomUUID().toString())
+			.withMunicipalityId("2281")
+			.withOwner(UUID.randomUUID().toString())
+			.withDelegatedTo(UUID.randomUUID().toString())
+			.withDeleted(OffsetDateTime.now());
+
+		final var bean = DatabaseMapper.toDelegationChange(entity);
+
+		assertThat(bean).hasNoNullFieldsOrPropertiesExcept("delegation");
+		assertThat(bean.getId()).isEqualTo(entity.getDelegationId());
+		assertThat(bean.getType()).isEqualTo(DELETED);
+		assertThat(bean.getChanged()).isEqualTo(entity.getDeleted());
+		assertThat(bean.getOwner()).isEqualTo(entity.getOwner());
+		assertThat(bean.getDelegatedTo()).isEqualTo(entity.getDelegatedTo());
+	}
 }
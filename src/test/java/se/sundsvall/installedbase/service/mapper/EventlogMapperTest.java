@@ -68,6 +68,31 @@ class EventlogMapperTest {
 		verifyNoMoreInteractions(mockIdentifier);
 	}
 
+	@Test
+	void testToEventWithAddedAndRemovedFacilities() {
+		final var delegationId = UUID.randomUUID().toString();
+		final var owner = UUID.randomUUID().toString();
+		final var delegatedTo = UUID.randomUUID().toString();
+
+		try (var mockedRequestId = mockStatic(RequestId.class);
+			var mockedIdentifier = mockStatic(Identifier.class)) {
+			mockedRequestId.when(RequestId::get).thenReturn(null);
+			mockedIdentifier.when(Identifier::get).thenReturn(null);
+
+			final var event = EventlogMapper.toEvent(delegationId, owner, delegatedTo, List.of("facility-1", "facility-3"), List.of("facility-3"), List.of("facility-2"), EventType.UPDATE);
+
+			assertThat(event.getType()).isEqualTo(EventType.UPDATE);
+			assertThat(event.getMetadata()).extracting(Metadata::getKey, Metadata::getValue)
+				.containsExactlyInAnyOrder(
+					tuple("DelegationId", delegationId),
+					tuple("DelegationOwner", owner),
+					tuple("DelegatedTo", delegatedTo),
+					tuple("Facilities", "facility-1, facility-3"),
+					tuple("AddedFacilities", "facility-3"),
+					tuple("RemovedFacilities", "facility-2"));
+		}
+	}
+
 	@Test
 	void testToEventWithoutIdentifier() {
 		final var delegationId = UUID.randomUUID().toString();
@@ -17,6 +17,7 @@ import se.sundsvall.dept44.problem.ThrowableProblem;
 import se.sundsvall.installedbase.api.model.InstalledBase;
 import se.sundsvall.installedbase.api.model.InstalledBaseCustomer;
 import se.sundsvall.installedbase.api.model.InstalledBaseItemAddress;
+import se.sundsvall.installedbase.integration.datawarehousereader.Cached;
 
 import static java.time.LocalDate.now;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -51,6 +52,24 @@ class InstalledBaseMapperTest {
 		assertThat(installedBaseResponse.getInstalledBaseCustomers())
 			.hasSize(2)
 			.isEqualTo(installedBaseCustomers);
+		assertThat(installedBaseResponse.isStale()).isFalse();
+	}
+
+	@Test
+	void toInstalledBaseResponseWithStaleCustomer() {
+		final var installedBaseCustomers = List.of(InstalledBaseCustomer.create(), InstalledBaseCustomer.create().withStale(true));
+
+		final var installedBaseResponse = InstalledBaseMapper.toInstalledBaseResponse(installedBaseCustomers);
+
+		assertThat(installedBaseResponse.isStale()).isTrue();
+	}
+
+	@Test
+	void toInstalledBaseCustomerFromStaleResponse() {
+		final var customerEngagement = new CustomerEngagement().customerNumber("customerNumber");
+
+		assertThat(InstalledBaseMapper.toInstalledBaseCustomer(customerEngagement, Cached.of(createDataWarehouseReaderInstalledBaseResponse(1))).isStale()).isFalse();
+		assertThat(InstalledBaseMapper.toInstalledBaseCustomer(customerEngagement, Cached.ofStale(createDataWarehouseReaderInstalledBaseResponse(1))).isStale()).isTrue();
 	}
 
 	@Test
@@ -61,7 +80,7 @@ class InstalledBaseMapperTest {
 			.organizationName("organizationName")
 			.partyId("partyId");
 
-		final var installedBaseCustomer = InstalledBaseMapper.toInstalledBaseCustomer(customerEngagement, dataWarehouseReaderResponse);
+		final var installedBaseCustomer = InstalledBaseMapper.toInstalledBaseCustomer(customerEngagement, Cached.of(dataWarehouseReaderResponse));
 
 		assertThat(installedBaseCustomer.getCustomerNumber()).isEqualTo("customerNumber");
 		assertThat(installedBaseCustomer.getItems())
@@ -132,7 +151,7 @@ class InstalledBaseMapperTest {
 				.totalPages(1);
 
 			// when
-			final var result = InstalledBaseMapper.toInstalledBases(response);
+			final var result = InstalledBaseMapper.toInstalledBases(Cached.of(response));
 
 			// then
 			assertThat(result).isNotNull();
@@ -171,7 +190,7 @@ class InstalledBaseMapperTest {
 				.installedBase(null);
 
 			// when
-			final var result = InstalledBaseMapper.toInstalledBases(response);
+			final var result = InstalledBaseMapper.toInstalledBases(Cached.of(response));
 
 			// then
 			assertThat(result).isNotNull();
@@ -186,7 +205,7 @@ class InstalledBaseMapperTest {
 				.installedBase(List.of());
 
 			// when
-			final var result = InstalledBaseMapper.toInstalledBases(response);
+			final var result = InstalledBaseMapper.toInstalledBases(Cached.of(response));
 
 			// then
 			assertThat(result).isNotNull();
@@ -194,6 +213,18 @@ class InstalledBaseMapperTest {
 			assertThat(result.getInstalledBaseList()).isEmpty();
 		}
 
+		@Test
+		void toInstalledBases_withStaleResponse_isMarkedStale() {
+			// given
+			final var response = Cached.ofStale(new InstalledBaseResponse().installedBase(List.of()));
+
+			// when
+			final var result = InstalledBaseMapper.toInstalledBases(response);
+
+			// then
+			assertThat(result.isStale()).isTrue();
+		}
+
 		@Test
 		void toInstalledBases_withNullPlacementId_mapsPlacementIdToNull() {
 			// given
@@ -206,7 +237,7 @@ class InstalledBaseMapperTest {
 				.installedBase(List.of(item));
 
 			// when
-			final var result = InstalledBaseMapper.toInstalledBases(response);
+			final var result = InstalledBaseMapper.toInstalledBases(Cached.of(response));
 
 			// then
 			assertThat(result.getInstalledBaseList()).hasSize(1);
@@ -0,0 +1,45 @@
+package se.sundsvall.installedbase.service.mapper;
+
+import generated.se.sundsvall.datawarehousereader.InstalledBaseItem;
+import generated.se.sundsvall.datawarehousereader.InstalledBaseItemMetaData;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.installedbase.integration.db.model.InstalledBaseCustomerEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstalledBaseStoreMapperTest {
+
+	@Test
+	void toInstalledBaseItemEntitiesAndBack() {
+		final var customer = InstalledBaseCustomerEntity.create().withCustomerNumber("customerNumber").withCompany("company");
+		final var item = new InstalledBaseItem()
+			.company("company")
+			.customerNumber("customerNumber")
+			.type("type")
+			.facilityId("facilityId")
+			.placementId(123)
+			.careOf("careOf")
+			.street("street")
+			.postCode("postCode")
+			.city("city")
+			.propertyDesignation("propertyDesignation")
+			.dateFrom(LocalDate.of(2020, 1, 1))
+			.dateTo(LocalDate.of(2030, 1, 1))
+			.dateLastModified(LocalDate.of(2025, 1, 1))
+			.metaData(List.of(new InstalledBaseItemMetaData().key("key").value("value").type("type").displayName("displayName")));
+
+		final var entities = InstalledBaseStoreMapper.toInstalledBaseItemEntities(customer, List.of(item));
+
+		assertThat(entities).hasSize(1);
+		assertThat(entities.getFirst()).hasNoNullFieldsOrPropertiesExcept("id");
+		assertThat(entities.getFirst().getCustomer()).isSameAs(customer);
+		assertThat(InstalledBaseStoreMapper.toInstalledBaseItems(customer, entities)).containsExactly(item);
+	}
+
+	@Test
+	void toInstalledBaseItemEntitiesFromNull() {
+		assertThat(InstalledBaseStoreMapper.toInstalledBaseItemEntities(InstalledBaseCustomerEntity.create(), null)).isEmpty();
+	}
+}
@@ -0,0 +1,110 @@
+package se.sundsvall.installedbase.service.scheduling;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import se.sundsvall.installedbase.integration.db.SchedulerLockRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerLockTest {
+
+	private static final String NAME = "job";
+	private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(10);
+
+	@Mock
+	private SchedulerLockRepository schedulerLockRepositoryMock;
+
+	@Mock
+	private PlatformTransactionManager transactionManagerMock;
+
+	@Mock
+	private Runnable jobMock;
+
+	@Captor
+	private ArgumentCaptor<OffsetDateTime> lockUntilCaptor;
+
+	@Captor
+	private ArgumentCaptor<OffsetDateTime> lockedAtCaptor;
+
+	@Captor
+	private ArgumentCaptor<String> lockedByCaptor;
+
+	private SchedulerLock schedulerLock;
+
+	@BeforeEach
+	void setup() {
+		schedulerLock = new SchedulerLock(schedulerLockRepositoryMock, transactionManagerMock);
+	}
+
+	@AfterEach
+	void verifyNoMoreMockInteractions() {
+		verifyNoMoreInteractions(schedulerLockRepositoryMock, jobMock);
+	}
+
+	@Test
+	void runLockedWhenLockIsFree() {
+		when(schedulerLockRepositoryMock.updateLock(eq(NAME), any(), any(), anyString())).thenReturn(1);
+
+		assertThat(schedulerLock.runLocked(NAME, LOCK_AT_MOST_FOR, jobMock)).isTrue();
+
+		verify(schedulerLockRepositoryMock).updateLock(eq(NAME), lockUntilCaptor.capture(), lockedAtCaptor.capture(), lockedByCaptor.capture());
+		verify(jobMock).run();
+		verify(schedulerLockRepositoryMock).releaseLock(eq(NAME), eq(lockedAtCaptor.getValue()), eq(lockedByCaptor.getValue()), any());
+		assertThat(lockUntilCaptor.getValue()).isEqualTo(lockedAtCaptor.getValue().plus(LOCK_AT_MOST_FOR));
+	}
+
+	@Test
+	void runLockedWhenLockIsNew() {
+		when(schedulerLockRepositoryMock.insertLock(eq(NAME), any(), any(), anyString())).thenReturn(1);
+
+		assertThat(schedulerLock.runLocked(NAME, LOCK_AT_MOST_FOR, jobMock)).isTrue();
+
+		verify(schedulerLockRepositoryMock).updateLock(eq(NAME), any(), any(), anyString());
+		verify(schedulerLockRepositoryMock).insertLock(eq(NAME), any(), lockedAtCaptor.capture(), lockedByCaptor.capture());
+		verify(jobMock).run();
+		verify(schedulerLockRepositoryMock).releaseLock(eq(NAME), eq(lockedAtCaptor.getValue()), eq(lockedByCaptor.getValue()), any());
+	}
+
+	@Test
+	void runLockedWhenLockIsHeld() {
+		when(schedulerLockRepositoryMock.insertLock(eq(NAME), any(), any(), anyString())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+		assertThat(schedulerLock.runLocked(NAME, LOCK_AT_MOST_FOR, jobMock)).isFalse();
+
+		verify(schedulerLockRepositoryMock).updateLock(eq(NAME), any(), any(), anyString());
+		verify(schedulerLockRepositoryMock).insertLock(eq(NAME), any(), any(), anyString());
+		verify(jobMock, never()).run();
+	}
+
+	@Test
+	void runLockedReleasesLockWhenJobFails() {
+		when(schedulerLockRepositoryMock.updateLock(eq(NAME), any(), any(), anyString())).thenReturn(1);
+		doThrow(new IllegalStateException("failure")).when(jobMock).run();
+
+		assertThatThrownBy(() -> schedulerLock.runLocked(NAME, LOCK_AT_MOST_FOR, jobMock)).isInstanceOf(IllegalStateException.class);
+
+		verify(schedulerLockRepositoryMock).updateLock(eq(NAME), any(), any(), anyString());
+		verify(jobMock).run();
+		verify(schedulerLockRepositoryMock).releaseLock(eq(NAME), any(), anyString(), any());
+	}
+}
@@ -0,0 +1,27 @@
+package se.sundsvall.installedbase.service.store;
+
+import java.time.Duration;
+import java.time.Period;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.installedbase.Application;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("junit")
+class InstalledBaseStorePropertiesTest {
+
+	@Autowired
+	private InstalledBaseStoreProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.enabled()).isFalse();
+		assertThat(properties.syncCron()).isEqualTo("-");
+		assertThat(properties.syncLockAtMostFor()).isEqualTo(Duration.ofMinutes(10));
+		assertThat(properties.fullSyncInterval()).isEqualTo(Period.ofDays(1));
+	}
+}
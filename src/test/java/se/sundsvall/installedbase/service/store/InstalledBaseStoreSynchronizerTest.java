@@ -0,0 +1,54 @@
+package se.sundsvall.installedbase.service.store;
+
+import java.time.Duration;
+import java.time.Period;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.installedbase.service.InstalledBaseService;
+import se.sundsvall.installedbase.service.scheduling.SchedulerLock;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static se.sundsvall.installedbase.service.store.InstalledBaseStoreSynchronizer.LOCK_NAME;
+
+@ExtendWith(MockitoExtension.class)
+class InstalledBaseStoreSynchronizerTest {
+
+	private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(10);
+
+	@Mock
+	private InstalledBaseService installedBaseServiceMock;
+
+	@Mock
+	private SchedulerLock schedulerLockMock;
+
+	@Captor
+	private ArgumentCaptor<Runnable> jobCaptor;
+
+	private InstalledBaseStoreSynchronizer synchronizer;
+
+	@BeforeEach
+	void setup() {
+		synchronizer = new InstalledBaseStoreSynchronizer(installedBaseServiceMock, schedulerLockMock, new InstalledBaseStoreProperties(true, "-", LOCK_AT_MOST_FOR, Period.ofDays(7)));
+	}
+
+	@Test
+	void synchronize() {
+		synchronizer.synchronize();
+
+		verify(schedulerLockMock).runLocked(eq(LOCK_NAME), eq(LOCK_AT_MOST_FOR), jobCaptor.capture());
+		verifyNoInteractions(installedBaseServiceMock);
+
+		jobCaptor.getValue().run();
+
+		verify(installedBaseServiceMock).synchronizeInstalledBaseStore();
+		verifyNoMoreInteractions(installedBaseServiceMock, schedulerLockMock);
+	}
+}
@@ -0,0 +1,159 @@
+package se.sundsvall.installedbase.service.store;
+
+import generated.se.sundsvall.datawarehousereader.InstalledBaseItem;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.installedbase.integration.db.InstalledBaseCustomerRepository;
+import se.sundsvall.installedbase.integration.db.model.InstalledBaseCustomerEntity;
+import se.sundsvall.installedbase.integration.db.model.InstalledBaseItemEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InstalledBaseStoreTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String CUSTOMER_NUMBER = "customerNumber";
+	private static final String COMPANY = "company";
+
+	@Mock
+	private InstalledBaseCustomerRepository repositoryMock;
+
+	@Captor
+	private ArgumentCaptor<InstalledBaseCustomerEntity> customerCaptor;
+
+	private InstalledBaseStore createStore() {
+		return new InstalledBaseStore(repositoryMock, new InstalledBaseStoreProperties(true, "-", Duration.ofHours(1), Period.ofDays(7)));
+	}
+
+	@Test
+	void findItemsForUnknownCustomer() {
+		when(repositoryMock.findByMunicipalityIdAndCustomerNumberAndCompany(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY)).thenReturn(Optional.empty());
+
+		assertThat(createStore().findItems(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null)).isEmpty();
+	}
+
+	@Test
+	void findItems() {
+		final var customer = InstalledBaseCustomerEntity.create().withCustomerNumber(CUSTOMER_NUMBER).withCompany(COMPANY);
+		customer.getItems().addAll(List.of(
+			InstalledBaseItemEntity.create().withFacilityId("facility-1"),
+			InstalledBaseItemEntity.create().withFacilityId("facility-2").withDateLastModified(LocalDate.of(2024, 1, 1)),
+			InstalledBaseItemEntity.create().withFacilityId("facility-3").withDateLastModified(LocalDate.of(2025, 1, 1))));
+		when(repositoryMock.findByMunicipalityIdAndCustomerNumberAndCompany(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY)).thenReturn(Optional.of(customer));
+
+		assertThat(createStore().findItems(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, null)).hasValueSatisfying(items -> assertThat(items)
+			.extracting(InstalledBaseItem::getFacilityId, InstalledBaseItem::getCustomerNumber, InstalledBaseItem::getCompany)
+			.containsExactly(
+				tuple("facility-1", CUSTOMER_NUMBER, COMPANY),
+				tuple("facility-2", CUSTOMER_NUMBER, COMPANY),
+				tuple("facility-3", CUSTOMER_NUMBER, COMPANY)));
+		assertThat(createStore().findItems(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, LocalDate.of(2024, 6, 1))).hasValueSatisfying(items -> assertThat(items)
+			.extracting(InstalledBaseItem::getFacilityId)
+			.containsExactly("facility-3"));
+	}
+
+	@Test
+	void replaceItemsForNewCustomer() {
+		final var syncDate = LocalDate.of(2025, 6, 10);
+		when(repositoryMock.findByMunicipalityIdAndCustomerNumberAndCompany(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY)).thenReturn(Optional.empty());
+
+		createStore().replaceItems(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, List.of(new InstalledBaseItem().facilityId("facility-1")), syncDate);
+
+		verify(repositoryMock).save(customerCaptor.capture());
+		assertThat(customerCaptor.getValue().getMunicipalityId()).isEqualTo(MUNICIPALITY_ID);
+		assertThat(customerCaptor.getValue().getCustomerNumber()).isEqualTo(CUSTOMER_NUMBER);
+		assertThat(customerCaptor.getValue().getCompany()).isEqualTo(COMPANY);
+		assertThat(customerCaptor.getValue().getLastFullSync()).isEqualTo(syncDate);
+		assertThat(customerCaptor.getValue().getWatermark()).isEqualTo(syncDate.minusDays(1));
+		assertThat(customerCaptor.getValue().getItems()).extracting(InstalledBaseItemEntity::getFacilityId).containsExactly("facility-1");
+		assertThat(customerCaptor.getValue().getItems()).extracting(InstalledBaseItemEntity::getCustomer).containsOnly(customerCaptor.getValue());
+	}
+
+	@Test
+	void replaceItemsForExistingCustomer() {
+		final var syncDate = LocalDate.of(2025, 6, 10);
+		final var customer = InstalledBaseCustomerEntity.create().withId("id").withLastFullSync(LocalDate.of(2025, 1, 1));
+		customer.getItems().add(InstalledBaseItemEntity.create().withFacilityId("facility-1"));
+		when(repositoryMock.findByMunicipalityIdAndCustomerNumberAndCompany(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY)).thenReturn(Optional.of(customer));
+
+		createStore().replaceItems(MUNICIPALITY_ID, CUSTOMER_NUMBER, COMPANY, List.of(new InstalledBaseItem().facilityId("facility-2")), syncDate);
+
+		verify(repositoryMock).save(customer);
+		assertThat(customer.getLastFullSync()).isEqualTo(syncDate);
+		assertThat(customer.getItems()).extracting(InstalledBaseItemEntity::getFacilityId).containsExactly("facility-2");
+	}
+
+	@Test
+	void replaceItemsForCustomerWithoutCompany() {
+		final var syncDate = LocalDate.of(2025, 6, 10);
+		when(repositoryMock.findByMunicipalityIdAndCustomerNumberAndCompany(MUNICIPALITY_ID, CUSTOMER_NUMBER, "")).thenReturn(Optional.empty());
+
+		createStore().replaceItems(MUNICIPALITY_ID, CUSTOMER_NUMBER, null, List.of(new InstalledBaseItem().facilityId("facility-1")), syncDate);
+
+		verify(repositoryMock).save(customerCaptor.capture());
+		assertThat(customerCaptor.getValue().getCompany()).isEmpty();
+	}
+
+	@Test
+	void findItemsForCustomerWithoutCompany() {
+		final var customer = InstalledBaseCustomerEntity.create().withCustomerNumber(CUSTOMER_NUMBER).withCompany("");
+		customer.getItems().add(InstalledBaseItemEntity.create().withFacilityId("facility-1"));
+		when(repositoryMock.findByMunicipalityIdAndCustomerNumberAndCompany(MUNICIPALITY_ID, CUSTOMER_NUMBER, "")).thenReturn(Optional.of(customer));
+
+		assertThat(createStore().findItems(MUNICIPALITY_ID, CUSTOMER_NUMBER, null, null)).hasValueSatisfying(items -> assertThat(items)
+			.extracting(InstalledBaseItem::getFacilityId, InstalledBaseItem::getCompany)
+			.containsExactly(tuple("facility-1", null)));
+	}
+
+	@Test
+	void removeCustomer() {
+		createStore().removeCustomer("id");
+
+		verify(repositoryMock).deleteById("id");
+	}
+
+	@Test
+	void mergeItems() {
+		final var syncDate = LocalDate.of(2025, 6, 10);
+		final var customer = InstalledBaseCustomerEntity.create().withId("id").withWatermark(LocalDate.of(2025, 6, 1));
+		customer.setItems(new ArrayList<>(List.of(
+			InstalledBaseItemEntity.create().withFacilityId("facility-1").withPlacementId(1).withType("old"),
+			InstalledBaseItemEntity.create().withFacilityId("facility-2").withPlacementId(2).withType("old"))));
+		when(repositoryMock.findById("id")).thenReturn(Optional.of(customer));
+
+		createStore().mergeItems("id", List.of(
+			new InstalledBaseItem().facilityId("facility-2").placementId(2).type("new"),
+			new InstalledBaseItem().facilityId("facility-3").placementId(3).type("new")), syncDate);
+
+		assertThat(customer.getWatermark()).isEqualTo(syncDate.minusDays(1));
+		assertThat(customer.getItems())
+			.extracting(InstalledBaseItemEntity::getFacilityId, InstalledBaseItemEntity::getType)
+			.containsExactlyInAnyOrder(
+				tuple("facility-1", "old"),
+				tuple("facility-2", "new"),
+				tuple("facility-3", "new"));
+	}
+
+	@Test
+	void isFullSyncDue() {
+		final var store = createStore();
+		final var customer = InstalledBaseCustomerEntity.create().withLastFullSync(LocalDate.of(2025, 6, 1));
+
+		assertThat(store.isFullSyncDue(customer, LocalDate.of(2025, 6, 7))).isFalse();
+		assertThat(store.isFullSyncDue(customer, LocalDate.of(2025, 6, 8))).isTrue();
+	}
+}